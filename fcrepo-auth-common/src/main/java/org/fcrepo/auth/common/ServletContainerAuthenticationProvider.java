@@ -24,6 +24,7 @@ import java.util.Set;
 import javax.jcr.Credentials;
 import javax.servlet.http.HttpServletRequest;
 
+import org.fcrepo.http.commons.session.SessionPoolingPolicy;
 import org.modeshape.jcr.ExecutionContext;
 import org.modeshape.jcr.api.ServletCredentials;
 import org.modeshape.jcr.security.AuthenticationProvider;
@@ -35,11 +36,13 @@ import org.slf4j.LoggerFactory;
  * of authenticating whether or not container has performed user authentication.
  * This is a singleton with an injected policy enforcement point. The singleton
  * pattern allows ModeShape to obtain this instance via classname configuration.
+ * Sessions may only be pooled while neither principal providers nor an
+ * authorization delegate are configured.
  *
  * @author Gregory Jansen
  */
 public final class ServletContainerAuthenticationProvider implements
-        AuthenticationProvider {
+        AuthenticationProvider, SessionPoolingPolicy {
 
     private static ServletContainerAuthenticationProvider _instance = null;
 
@@ -204,6 +207,21 @@ public final class ServletContainerAuthenticationProvider implements
         this.fad = fad;
     }
 
+    /**
+     * Principals and authorization decisions may depend on any part of the
+     * request, which sessions for non-admin users also hold as an attribute.
+     */
+    @Override
+    public String getPoolingVeto() {
+        if (principalProviders != null && !principalProviders.isEmpty()) {
+            return "principal providers are configured";
+        }
+        if (fad != null) {
+            return "an authorization delegate is configured";
+        }
+        return null;
+    }
+
     private Set<Principal> collectPrincipals(final Credentials credentials) {
         final Set<Principal> principals = new HashSet<>();
 
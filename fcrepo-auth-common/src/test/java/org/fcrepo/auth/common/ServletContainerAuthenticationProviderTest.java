@@ -15,6 +15,7 @@
  */
 package org.fcrepo.auth.common;
 
+import static java.util.Collections.singleton;
 import static org.fcrepo.auth.common.FedoraAuthorizationDelegate.FEDORA_ALL_PRINCIPALS;
 import static org.fcrepo.auth.common.ServletContainerAuthenticationProvider.EVERYONE;
 import static org.fcrepo.auth.common.ServletContainerAuthenticationProvider.FEDORA_ADMIN_ROLE;
@@ -277,4 +278,20 @@ public class ServletContainerAuthenticationProviderTest {
 
         assertTrue("Expected to find: " + EVERYONE.getName(), succeeds);
     }
+
+    @Test
+    public void testPoolingVeto() {
+        final ServletContainerAuthenticationProvider provider =
+                (ServletContainerAuthenticationProvider) ServletContainerAuthenticationProvider.getInstance();
+        provider.setFad(null);
+        provider.setPrincipalProviders(new HashSet<PrincipalProvider>());
+        assertNull(provider.getPoolingVeto());
+
+        provider.setPrincipalProviders(singleton(mock(PrincipalProvider.class)));
+        assertNotNull(provider.getPoolingVeto());
+
+        provider.setPrincipalProviders(new HashSet<PrincipalProvider>());
+        provider.setFad(fad);
+        assertNotNull(provider.getPoolingVeto());
+    }
 }
@@ -22,7 +22,10 @@ import static com.google.common.base.Predicates.not;
 import static com.google.common.collect.Iterators.concat;
 import static com.google.common.collect.Iterators.filter;
 import static com.google.common.collect.Iterators.transform;
+import static com.google.common.io.Files.asByteSource;
 import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
+import static java.lang.Integer.getInteger;
 import static javax.ws.rs.core.HttpHeaders.CACHE_CONTROL;
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM_TYPE;
 import static javax.ws.rs.core.Response.ok;
@@ -35,22 +38,29 @@ import static org.apache.jena.riot.RDFLanguages.contentTypeToLang;
 import static org.fcrepo.kernel.FedoraJcrTypes.LDP_BASIC_CONTAINER;
 import static org.fcrepo.kernel.FedoraJcrTypes.LDP_DIRECT_CONTAINER;
 import static org.fcrepo.kernel.FedoraJcrTypes.LDP_INDIRECT_CONTAINER;
+import static org.fcrepo.kernel.FedoraJcrTypes.LDP_MEMBER_RESOURCE;
 import static org.fcrepo.kernel.RdfLexicon.BASIC_CONTAINER;
 import static org.fcrepo.kernel.RdfLexicon.CONTAINER;
 import static org.fcrepo.kernel.RdfLexicon.DIRECT_CONTAINER;
 import static org.fcrepo.kernel.RdfLexicon.INDIRECT_CONTAINER;
 import static org.fcrepo.kernel.RdfLexicon.LDP_NAMESPACE;
 import static org.fcrepo.kernel.RdfLexicon.isManagedNamespace;
+import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.security.Principal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import javax.inject.Inject;
-import javax.jcr.Binary;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.servlet.http.HttpServletResponse;
@@ -69,7 +79,11 @@ import org.fcrepo.http.commons.domain.MultiPrefer;
 import org.fcrepo.http.commons.domain.PreferTag;
 import org.fcrepo.http.commons.domain.Range;
 import org.fcrepo.http.commons.domain.ldp.LdpPreferTag;
+import org.fcrepo.http.commons.responses.CachingRdfStream;
+import org.fcrepo.http.commons.responses.FileRangeStreamingOutput;
+import org.fcrepo.http.commons.responses.MultipartByteRangesStreamingOutput;
 import org.fcrepo.http.commons.responses.RangeRequestInputStream;
+import org.fcrepo.http.commons.responses.RepresentationCache;
 import org.fcrepo.kernel.exception.InvalidChecksumException;
 import org.fcrepo.kernel.exception.MalformedRdfException;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
@@ -84,6 +98,7 @@ import org.fcrepo.kernel.impl.rdf.impl.LdpIsMemberOfRdfContext;
 import org.fcrepo.kernel.impl.rdf.impl.LdpRdfContext;
 import org.fcrepo.kernel.impl.rdf.impl.ParentRdfContext;
 import org.fcrepo.kernel.impl.rdf.impl.PropertiesRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.ReferenceCountRdfContext;
 import org.fcrepo.kernel.impl.rdf.impl.ReferencesRdfContext;
 import org.fcrepo.kernel.impl.rdf.impl.RootRdfContext;
 import org.fcrepo.kernel.impl.rdf.impl.TypeRdfContext;
@@ -94,18 +109,24 @@ import org.fcrepo.kernel.models.FedoraResource;
 import org.fcrepo.kernel.models.NonRdfSource;
 import org.fcrepo.kernel.models.NonRdfSourceDescription;
 import org.fcrepo.kernel.services.policy.StoragePolicyDecisionPoint;
+import org.fcrepo.kernel.utils.ContainmentPage;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 
 import org.apache.jena.riot.Lang;
 import org.glassfish.jersey.media.multipart.ContentDisposition;
 import org.jvnet.hk2.annotations.Optional;
+import org.slf4j.Logger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
+import com.google.common.io.ByteSource;
+import com.hp.hpl.jena.graph.Node;
 import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Resource;
 import com.hp.hpl.jena.rdf.model.Statement;
 import com.hp.hpl.jena.vocabulary.RDF;
 
@@ -118,6 +139,8 @@ import com.hp.hpl.jena.vocabulary.RDF;
  */
 public abstract class ContentExposingResource extends FedoraBaseResource {
 
+    private static final Logger LOGGER = getLogger(ContentExposingResource.class);
+
     public static final MediaType MESSAGE_EXTERNAL_BODY = MediaType.valueOf("message/external-body");
 
     @Context protected Request request;
@@ -127,6 +150,10 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
     @Optional
     private HttpTripleUtil httpTripleUtil;
 
+    @Inject
+    @Optional
+    RepresentationCache representationCache;
+
     @BeanParam
     protected MultiPrefer prefer;
 
@@ -136,7 +163,21 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
 
     protected FedoraResource resource;
 
-    private static long MAX_BUFFER_SIZE = 10240000;
+    /**
+     * When set, containment (and embedded children) triples are limited to this page of children
+     */
+    protected ContainmentPage containmentPage;
+
+    /**
+     * The most disjoint ranges answered with a multipart/byteranges response; requests for more
+     * are answered with the whole content
+     */
+    private static final int MAX_RANGES = getInteger("fcrepo.http.ranges.max", 16);
+
+    /**
+     * When set, inbound reference triples are limited to this page of references
+     */
+    protected ReferencesRdfContext referencesPage;
 
     protected abstract String externalPath();
 
@@ -182,29 +223,109 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
             }
 
         } else {
-            rdfStream.concat(getResourceTriples());
-
             if (prefer != null) {
                 prefer.getReturn().addResponseHeaders(servletResponse);
             }
 
+            servletResponse.addHeader("Vary", "Accept, Range, Accept-Encoding, Accept-Language");
+
+            if (isRepresentationCacheable()) {
+                return Response.ok(new CachingRdfStream(representationCache, resource().getPath(),
+                        representationVariant(), new Supplier<RdfStream>() {
+
+                            @Override
+                            public RdfStream get() {
+                                return rdfStream.concat(getResourceTriples());
+                            }
+                        }, new Function<Node, String>() {
+
+                            @Override
+                            public String apply(final Node subject) {
+                                if (!subject.isURI()) {
+                                    return null;
+                                }
+                                final Resource r = createResource(subject.getURI());
+                                return translator().inDomain(r) ? translator().asString(r) : null;
+                            }
+                        }).session(rdfStream.session()).topic(rdfStream.topic())).build();
+            }
+
+            rdfStream.concat(getResourceTriples());
+            return Response.ok(rdfStream).build();
         }
         servletResponse.addHeader("Vary", "Accept, Range, Accept-Encoding, Accept-Language");
 
         return Response.ok(rdfStream).build();
     }
 
-    protected RdfStream getResourceTriples() {
+    /**
+     * Serialized representations may be cached unless they are read within a
+     * transaction, or include inbound references or their count, or membership
+     * triples that containers elsewhere contribute (none of which change the
+     * ETag or raise an event for this resource).
+     */
+    private boolean isRepresentationCacheable() {
+        if (representationCache == null || !representationCache.isEnabled()
+                || TransactionServiceImpl.getCurrentTransactionId(session()) != null) {
+            return false;
+        }
+        final LdpPreferTag ldpPreferences = new LdpPreferTag(returnPreference());
+        if (prefersAnyReferences(ldpPreferences)) {
+            return false;
+        }
+        try {
+            return !ldpPreferences.prefersMembership()
+                    || !resource().getNode().getReferences(LDP_MEMBER_RESOURCE).hasNext();
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    private static boolean prefersAnyReferences(final LdpPreferTag ldpPreferences) {
+        return ldpPreferences.prefersReferences() || ldpPreferences.prefersReferenceCount();
+    }
+
+    /**
+     * @return everything besides the media type that the RDF representation depends on
+     */
+    private String representationVariant() {
+        final PreferTag returnPreference = returnPreference();
+        return uriInfo.getRequestUri() + "\n" + resource().getEtagValue() + "\n" + returnPreference.getValue()
+                + "\n" + returnPreference.getParams() + "\n" + session().getUserID() + "\n" + principals();
+    }
 
-        final PreferTag returnPreference;
+    /**
+     * @return the names of the principals in the session's attributes
+     */
+    private String principals() {
+        final Set<String> names = new TreeSet<>();
+        for (final String attribute : session().getAttributeNames()) {
+            final Object value = session().getAttribute(attribute);
+            if (value instanceof Principal) {
+                names.add(((Principal) value).getName());
+            } else if (value instanceof Collection) {
+                for (final Object v : (Collection<?>) value) {
+                    if (v instanceof Principal) {
+                        names.add(((Principal) v).getName());
+                    }
+                }
+            }
+        }
+        return names.toString();
+    }
 
+    protected PreferTag returnPreference() {
         if (prefer != null && prefer.hasReturn()) {
-            returnPreference = prefer.getReturn();
+            return prefer.getReturn();
         } else if (prefer != null && prefer.hasHandling()) {
-            returnPreference = prefer.getHandling();
-        } else {
-            returnPreference = PreferTag.emptyTag();
+            return prefer.getHandling();
         }
+        return PreferTag.emptyTag();
+    }
+
+    protected RdfStream getResourceTriples() {
+
+        final PreferTag returnPreference = returnPreference();
 
         final LdpPreferTag ldpPreferences = new LdpPreferTag(returnPreference);
 
@@ -243,7 +364,11 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
 
             // containment triples about this resource
             if (ldpPreferences.prefersContainment()) {
-                rdfStream.concat(getTriples(ChildrenRdfContext.class));
+                if (containmentPage == null) {
+                    rdfStream.concat(getTriples(ChildrenRdfContext.class));
+                } else {
+                    rdfStream.concat(new ChildrenRdfContext(resource(), translator(), containmentPage));
+                }
             }
 
             // LDP container membership triples for this resource
@@ -266,13 +391,20 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
 
             // Include inbound references to this object
             if (ldpPreferences.prefersReferences()) {
-                rdfStream.concat(getTriples(ReferencesRdfContext.class));
+                rdfStream.concat(referencesPage == null ? getTriples(ReferencesRdfContext.class) : referencesPage);
+            } else if (ldpPreferences.prefersReferenceCount()) {
+                try {
+                    rdfStream.concat(getTriples(ReferenceCountRdfContext.class));
+                } catch (final RepositoryException e) {
+                    throw new RepositoryRuntimeException(e);
+                }
             }
 
             // Embed the children of this object
             if (ldpPreferences.prefersEmbed()) {
 
-                final Iterator<FedoraResource> children = resource().getChildren();
+                final Iterator<FedoraResource> children = containmentPage == null ? resource().getChildren()
+                        : containmentPage.getChildren().iterator();
 
                 rdfStream.concat(filter(concat(transform(children,
                         new Function<FedoraResource, RdfStream>() {
@@ -316,76 +448,130 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
             final CacheControl cc = new CacheControl();
             cc.setMaxAge(0);
             cc.setMustRevalidate(true);
-            Response.ResponseBuilder builder;
-
-            if (rangeValue != null && rangeValue.startsWith("bytes")) {
 
-                final Range range = Range.convert(rangeValue);
+            final File contentFile = localContentFile(binary);
 
-                final long contentSize = binary.getContentSize();
+            if (rangeValue != null && rangeValue.startsWith("bytes")) {
 
-                final String endAsString;
+                // every range, single or not, is bounded by the content and coalesced as RFC 7233 describes
+                final List<Range> satisfiable =
+                        Range.coalesce(Range.convertAll(rangeValue), binary.getContentSize());
 
-                if (range.end() == -1) {
-                    endAsString = Long.toString(contentSize - 1);
-                } else {
-                    endAsString = Long.toString(range.end());
+                if (satisfiable.size() <= MAX_RANGES) {
+                    return getBinaryContentRanges(binary, contentFile, satisfiable, cc);
                 }
 
-                final String contentRangeValue =
-                        String.format("bytes %s-%s/%s", range.start(),
-                                endAsString, contentSize);
+                // answering would cost far more than the whole content; RFC 7233 lets us ignore the header
+                LOGGER.debug("Ignoring Range header with {} disjoint ranges", satisfiable.size());
+            }
 
-                if (range.end() > contentSize ||
-                        (range.end() == -1 && range.start() > contentSize)) {
+            // we set the content-type explicitly to avoid content-negotiation from getting in the way
+            return getFullContent(binary, contentFile).type(binary.getMimeType())
+                    .cacheControl(cc)
+                    .build();
 
-                    builder = status(REQUESTED_RANGE_NOT_SATISFIABLE)
-                            .header("Content-Range", contentRangeValue);
-                } else {
-                    final long maxBufferSize = MAX_BUFFER_SIZE; // 10MB max buffer size?
-                    final long rangeStart = range.start();
-                    final long rangeSize = range.size() == -1 ? contentSize - rangeStart : range.size();
-                    final long remainingBytes = contentSize - rangeStart;
-                    final long bufSize = rangeSize < remainingBytes ? rangeSize : remainingBytes;
-
-                    if (bufSize < maxBufferSize) {
-                        // Small size range content retrieval use javax.jcr.Binary to improve performance
-                        final byte[] buf = new byte[(int) bufSize];
-
-                        final Binary binaryContent = binary.getBinaryContent();
-                        try {
-                            binaryContent.read(buf, rangeStart);
-                        } catch (final RepositoryException e1) {
-                            throw new RepositoryRuntimeException(e1);
-                        }
-                        binaryContent.dispose();
-
-                        builder = status(PARTIAL_CONTENT).entity(buf)
-                                .header("Content-Range", contentRangeValue);
-                    } else {
-                        // For large range content retrieval, go with the InputStream class to balance
-                        // the memory usage, though this is a rare case in range content retrieval.
-                        final InputStream content = binary.getContent();
-                        final RangeRequestInputStream rangeInputStream =
-                                new RangeRequestInputStream(content, range.start(), range.size());
-
-                        builder = status(PARTIAL_CONTENT).entity(rangeInputStream)
-                                .header("Content-Range", contentRangeValue);
-                    }
-                }
+        }
 
-            } else {
-                final InputStream content = binary.getContent();
-                builder = ok(content);
-            }
+    /**
+     * Serve several ranges of a binary. No ranges are answered with a 416, a single range with a plain
+     * 206 response, and more with a multipart/byteranges response whose parts are streamed one after
+     * the other.
+     * @param binary
+     * @param contentFile the local file holding the content (optional)
+     * @param ranges the bounded, disjoint ranges to serve
+     * @param cc
+     * @return the response
+     */
+    private static Response getBinaryContentRanges(final FedoraBinary binary,
+                                                   final File contentFile,
+                                                   final List<Range> ranges,
+                                                   final CacheControl cc) {
+        final long contentSize = binary.getContentSize();
+
+        if (ranges.isEmpty()) {
+            return status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + contentSize)
+                    .cacheControl(cc)
+                    .build();
+        }
 
+        if (ranges.size() == 1) {
+            final Range range = ranges.get(0);
 
-            // we set the content-type explicitly to avoid content-negotiation from getting in the way
-            return builder.type(binary.getMimeType())
+            return getPartialContent(binary, contentFile, range.start(), range.size())
+                    .header("Content-Range", String.format("bytes %s-%s/%s", range.start(), range.end(), contentSize))
+                    .type(binary.getMimeType())
                     .cacheControl(cc)
                     .build();
+        }
+
+        final ByteSource content;
+
+        if (contentFile != null) {
+            content = asByteSource(contentFile);
+        } else {
+            content = new ByteSource() {
+                @Override
+                public InputStream openStream() {
+                    return binary.getContent();
+                }
+            };
+        }
+
+        final MultipartByteRangesStreamingOutput output =
+                new MultipartByteRangesStreamingOutput(content, ranges, contentSize, binary.getMimeType());
+
+        return status(PARTIAL_CONTENT).entity(output)
+                .type(output.getMediaType())
+                .cacheControl(cc)
+                .build();
+    }
+
+    /**
+     * Stream a single range of a binary as a 206 response
+     * @param binary
+     * @param contentFile the local file holding the content (optional)
+     * @param start
+     * @param length
+     * @return the response builder
+     */
+    private static Response.ResponseBuilder getPartialContent(final FedoraBinary binary,
+                                                              final File contentFile,
+                                                              final long start,
+                                                              final long length) {
+        final Response.ResponseBuilder builder;
+
+        if (contentFile != null) {
+            // Binaries kept as plain files are sent straight from the file
+            builder = status(PARTIAL_CONTENT).entity(new FileRangeStreamingOutput(contentFile, start, length));
+        } else {
+            // Stream the range; the content before it is skipped by the binary's own stream,
+            // which seeks rather than reads where it can (e.g. by jumping over whole chunks)
+            builder = status(PARTIAL_CONTENT).entity(new RangeRequestInputStream(binary.getContent(), start, length));
+        }
+        return builder.header("Content-Length", length);
+    }
+
+    private static Response.ResponseBuilder getFullContent(final FedoraBinary binary, final File contentFile) {
+        if (contentFile != null) {
+            return ok(new FileRangeStreamingOutput(contentFile));
+        }
+        return ok(binary.getContent());
+    }
+
+    /**
+     * Find the local file holding the content of a binary, provided that it may be sent to the client as it is
+     * @param binary
+     * @return the file, or null if the content has to be read through the repository
+     */
+    private static File localContentFile(final FedoraBinary binary) {
+        final File file = binary.getContentFile();
 
+        if (file != null && file.length() == binary.getContentSize()) {
+            return file;
         }
+        return null;
+    }
 
     protected RdfStream getTriples(final Class<? extends RdfStream> x) {
         return getTriples(resource(), x);
@@ -0,0 +1,360 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.MULTIPART_FORM_DATA;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static javax.ws.rs.core.Response.Status.CREATED;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.status;
+import static org.apache.commons.lang.StringUtils.isBlank;
+import static org.apache.jena.riot.WebContent.contentTypeSPARQLUpdate;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.jena.riot.RiotException;
+import org.fcrepo.kernel.exception.InvalidChecksumException;
+import org.fcrepo.kernel.exception.MalformedRdfException;
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.models.Container;
+import org.fcrepo.kernel.models.FedoraBinary;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.glassfish.jersey.media.multipart.BodyPart;
+import org.glassfish.jersey.media.multipart.BodyPartEntity;
+import org.glassfish.jersey.media.multipart.ContentDisposition;
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
+import org.glassfish.jersey.media.multipart.MultiPart;
+import org.slf4j.Logger;
+import org.springframework.context.annotation.Scope;
+
+import com.codahale.metrics.annotation.Timed;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Create many resources below a container in a single request, saving the
+ * session once, or after every so many resources.
+ *
+ * Each part of the multipart request body is one new resource, named by the
+ * "name" parameter of its Content-Disposition, relative to the container.
+ * Parts with an RDF or SPARQL Update content type become containers, and
+ * anything else becomes a binary.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+@Scope("request")
+@Path("/{path: .*}/fcr:batch")
+public class FedoraBatch extends ContentExposingResource {
+
+    private static final Logger LOGGER = getLogger(FedoraBatch.class);
+
+    /**
+     * WebDAV's "Failed Dependency", for items discarded because another item failed
+     */
+    static final int FAILED_DEPENDENCY = 424;
+
+    @Inject
+    protected Session session;
+
+    @Inject
+    private FedoraHttpConfiguration httpConfiguration;
+
+    @PathParam("path") protected String externalPath;
+
+    /**
+     * Default JAX-RS entry point
+     */
+    public FedoraBatch() {
+        super();
+    }
+
+    /**
+     * Create a new FedoraBatch instance for a given path
+     * @param externalPath
+     */
+    @VisibleForTesting
+    public FedoraBatch(final String externalPath) {
+        this.externalPath = externalPath;
+    }
+
+    /**
+     * Create the resources described by each part of a multipart request body.
+     *
+     * If an item fails, or saving fails, the items not yet saved are discarded
+     * and the rest of the batch is not processed; the response takes the failed
+     * item's status, and lists a status for every item. Items saved before the
+     * failure, after every saveEvery items, stay saved and are listed as created;
+     * a batch that must be all or nothing should not set saveEvery.
+     *
+     * POST /path/to/container/fcr:batch?saveEvery=1000
+     *
+     * @param saveEvery save the session after this many items; zero or less saves once, at the end
+     * @param multipart the resources to create
+     * @return the status of each item
+     */
+    @POST
+    @Consumes({MULTIPART_FORM_DATA, "multipart/mixed"})
+    @Produces({APPLICATION_JSON})
+    @Timed
+    public Response batchCreate(@QueryParam("saveEvery") final Integer saveEvery,
+                                final MultiPart multipart) {
+
+        if (!(resource() instanceof Container)) {
+            throw new ClientErrorException("Object cannot have child nodes", CONFLICT);
+        }
+
+        final int effectiveSaveEvery = saveEvery != null ? saveEvery : httpConfiguration.batchSaveEvery();
+
+        final List<BodyPart> parts = multipart.getBodyParts();
+        final List<BatchItemStatus> results = new ArrayList<>(parts.size());
+
+        LOGGER.info("Batch of {} items for '{}'", parts.size(), externalPath);
+
+        int firstUnsaved = 0;
+        BatchItemStatus failure = null;
+
+        for (final BodyPart part : parts) {
+            final String name = partName(part);
+
+            if (failure != null) {
+                results.add(new BatchItemStatus(name, FAILED_DEPENDENCY, null, "Not processed"));
+                continue;
+            }
+
+            try {
+                final FedoraResource item = createItem(name, part);
+                results.add(new BatchItemStatus(name, CREATED.getStatusCode(), getUri(item).toString(), null));
+            } catch (final ClientErrorException e) {
+                failure = new BatchItemStatus(name, e.getResponse().getStatus(), null, e.getMessage());
+            } catch (final InvalidChecksumException | MalformedRdfException e) {
+                failure = new BatchItemStatus(name, CONFLICT.getStatusCode(), null, e.getMessage());
+            } catch (final RiotException e) {
+                failure = new BatchItemStatus(name, BAD_REQUEST.getStatusCode(), null, e.getMessage());
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Batch item {} failed", name, e);
+                failure = new BatchItemStatus(name, INTERNAL_SERVER_ERROR.getStatusCode(), null, e.getMessage());
+            }
+
+            if (failure == null && effectiveSaveEvery > 0 && results.size() - firstUnsaved >= effectiveSaveEvery) {
+                try {
+                    save();
+                    firstUnsaved = results.size();
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Unable to save batch items up to {}", name, e);
+                    results.remove(results.size() - 1);
+                    failure = new BatchItemStatus(name, INTERNAL_SERVER_ERROR.getStatusCode(), null,
+                            "Unable to save: " + e.getMessage());
+                }
+            }
+
+            if (failure != null) {
+                LOGGER.debug("Batch item {} failed; discarding {} unsaved items", name, results.size() - firstUnsaved);
+                discardUnsaved(results, firstUnsaved);
+                results.add(failure);
+            }
+        }
+
+        if (failure == null && firstUnsaved < results.size()) {
+            try {
+                save();
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Unable to save batch items for '{}'", externalPath, e);
+                final String name = results.remove(results.size() - 1).getName();
+                failure = new BatchItemStatus(name, INTERNAL_SERVER_ERROR.getStatusCode(), null,
+                        "Unable to save: " + e.getMessage());
+                discardUnsaved(results, firstUnsaved);
+                results.add(failure);
+            }
+        }
+
+        if (failure == null) {
+            return status(OK).entity(results).build();
+        }
+        return status(failure.getStatus()).entity(results).build();
+    }
+
+    private FedoraResource createItem(final String name, final BodyPart part)
+            throws InvalidChecksumException, MalformedRdfException {
+        if (isBlank(name)) {
+            throw new BadRequestException("Each part must have a Content-Disposition with a name");
+        }
+
+        final String path = toPath(translator(), externalPath + "/" + name);
+
+        if (nodeService.exists(session, path)) {
+            throw new ClientErrorException("Resource already exists: " + name, CONFLICT);
+        }
+
+        final MediaType contentType = getSimpleContentType(part.getMediaType());
+        final String contentTypeString = contentType.toString();
+        final InputStream content = partContent(part);
+
+        LOGGER.trace("Creating batch item {} at {} from {}", name, path, contentTypeString);
+
+        try {
+            if (contentTypeString.equals(contentTypeSPARQLUpdate)) {
+                final Container container = containerService.findOrCreate(session, path);
+                patchResourcewithSparql(container, IOUtils.toString(content), new RdfStream());
+                return container;
+            } else if (isRdfContentType(contentTypeString) && !contentTypeString.equals(TEXT_PLAIN)) {
+                final Container container = containerService.findOrCreate(session, path);
+                replaceResourceWithStream(container, content, contentType, new RdfStream());
+                return container;
+            }
+
+            final ContentDisposition contentDisposition = part.getContentDisposition();
+            final FedoraBinary binary = binaryService.findOrCreate(session, path);
+            replaceResourceBinaryWithStream(binary, content, contentDisposition, part.getMediaType(), null);
+            return binary;
+        } catch (final IOException e) {
+            throw new BadRequestException("Unable to read batch item " + name, e);
+        } finally {
+            IOUtils.closeQuietly(content);
+        }
+    }
+
+    private static String partName(final BodyPart part) {
+        final ContentDisposition contentDisposition = part.getContentDisposition();
+        if (contentDisposition instanceof FormDataContentDisposition) {
+            return ((FormDataContentDisposition) contentDisposition).getName();
+        }
+        if (contentDisposition == null || contentDisposition.getParameters() == null) {
+            return null;
+        }
+        return contentDisposition.getParameters().get("name");
+    }
+
+    private static InputStream partContent(final BodyPart part) {
+        final Object entity = part.getEntity();
+        if (entity instanceof BodyPartEntity) {
+            return ((BodyPartEntity) entity).getInputStream();
+        } else if (entity instanceof InputStream) {
+            return (InputStream) entity;
+        }
+        return part.getEntityAs(InputStream.class);
+    }
+
+    private void save() {
+        try {
+            session.save();
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    /**
+     * Discard the changes made since the last save, and mark the items they belong to
+     */
+    private void discardUnsaved(final List<BatchItemStatus> results, final int firstUnsaved) {
+        try {
+            session.refresh(false);
+        } catch (final RepositoryException | RuntimeException e) {
+            LOGGER.warn("Unable to discard unsaved batch items for '{}'", externalPath, e);
+        }
+        for (int i = firstUnsaved; i < results.size(); i++) {
+            results.set(i, new BatchItemStatus(results.get(i).getName(), FAILED_DEPENDENCY, null, "Rolled back"));
+        }
+    }
+
+    @Override
+    protected Session session() {
+        return session;
+    }
+
+    @Override
+    protected String externalPath() {
+        return externalPath;
+    }
+
+    /**
+     * The outcome of one item of a batch
+     */
+    public static class BatchItemStatus {
+
+        private final String name;
+
+        private final int status;
+
+        private final String location;
+
+        private final String message;
+
+        /**
+         * @param name the name of the item, relative to the container
+         * @param status the HTTP status of the item
+         * @param location the URI of the created resource, if any
+         * @param message why the item failed, if it did
+         */
+        public BatchItemStatus(final String name, final int status, final String location, final String message) {
+            this.name = name;
+            this.status = status;
+            this.location = location;
+            this.message = message;
+        }
+
+        /**
+         * @return the name of the item, relative to the container
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the HTTP status of the item
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the URI of the created resource, if any
+         */
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * @return why the item failed, if it did
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
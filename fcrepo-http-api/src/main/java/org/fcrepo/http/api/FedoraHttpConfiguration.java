@@ -28,6 +28,18 @@ public class FedoraHttpConfiguration {
     @Value("${fcrepo.http.ldp.putRequiresIfMatch:false}")
     private boolean putRequiresIfMatch;
 
+    @Value("${fcrepo.http.ldp.containment.pageSize:0}")
+    private int containmentPageSize;
+
+    @Value("${fcrepo.http.ldp.containment.maxPageSize:1000}")
+    private int containmentMaxPageSize;
+
+    @Value("${fcrepo.http.ldp.references.pageSize:0}")
+    private int referencesPageSize;
+
+    @Value("${fcrepo.http.batch.saveEvery:0}")
+    private int batchSaveEvery;
+
     /**
      * Should PUT requests require an If-Match header?
      * @return
@@ -35,4 +47,40 @@ public class FedoraHttpConfiguration {
     public boolean putRequiresIfMatch() {
         return putRequiresIfMatch;
     }
+
+    /**
+     * How many ldp:contains triples should be returned per page, when the client does not ask
+     * for a particular page size? Zero or less disables server-initiated paging.
+     * @return
+     */
+    public int containmentPageSize() {
+        return containmentPageSize;
+    }
+
+    /**
+     * How many ldp:contains triples may be returned per page at most? Larger page sizes asked for by
+     * clients are reduced to this.
+     * @return
+     */
+    public int containmentMaxPageSize() {
+        return containmentMaxPageSize;
+    }
+
+    /**
+     * How many inbound references should be returned per page, when the client asks for them
+     * but not for a particular page size? Zero or less disables server-initiated paging.
+     * @return
+     */
+    public int referencesPageSize() {
+        return referencesPageSize;
+    }
+
+    /**
+     * After how many items should a batch request save its session, when the client does not
+     * ask? Zero or less saves once, at the end of the batch.
+     * @return
+     */
+    public int batchSaveEvery() {
+        return batchSaveEvery;
+    }
 }
@@ -68,15 +68,18 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Link;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.jena.riot.RiotException;
 import org.fcrepo.http.commons.domain.ContentLocation;
 import org.fcrepo.http.commons.domain.PATCH;
+import org.fcrepo.http.commons.domain.ldp.LdpPreferTag;
 import org.fcrepo.kernel.exception.InvalidChecksumException;
 import org.fcrepo.kernel.exception.MalformedRdfException;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.impl.rdf.impl.ReferencesRdfContext;
 import org.fcrepo.kernel.models.Container;
 import org.fcrepo.kernel.models.FedoraBinary;
 import org.fcrepo.kernel.models.FedoraResource;
@@ -107,6 +110,14 @@ public class FedoraLdp extends ContentExposingResource {
 
     @PathParam("path") protected String externalPath;
 
+    @QueryParam("pageSize") protected Integer pageSize;
+
+    @QueryParam("pageToken") protected String pageToken;
+
+    @QueryParam("referencesPageSize") protected Integer referencesPageSize;
+
+    @QueryParam("referencesPageToken") protected String referencesPageToken;
+
     @Inject private FedoraHttpConfiguration httpConfiguration;
 
     /**
@@ -187,6 +198,14 @@ public class FedoraLdp extends ContentExposingResource {
         final RdfStream rdfStream = new RdfStream().session(session)
                     .topic(translator().reverse().convert(resource()).asNode());
 
+        if (resource() instanceof Container) {
+            pageContainment();
+        }
+
+        if (!(resource() instanceof FedoraBinary)) {
+            pageReferences();
+        }
+
         return getContent(rangeValue, rdfStream);
 
     }
@@ -471,6 +490,80 @@ public class FedoraLdp extends ContentExposingResource {
         addOptionsHttpHeaders();
     }
 
+    /**
+     * Restrict the containment triples to a single page of children, if requested by
+     * the client or configured for the server, and link to the following page.
+     */
+    private void pageContainment() {
+        if (pageSize != null && pageSize <= 0) {
+            throw new BadRequestException("pageSize must be positive, but was " + pageSize);
+        }
+
+        final int requestedPageSize = pageSize != null ? pageSize : httpConfiguration.containmentPageSize();
+
+        if (requestedPageSize <= 0) {
+            if (pageToken != null) {
+                throw new BadRequestException("A positive pageSize is required to page through children");
+            }
+            return;
+        }
+
+        final int maxPageSize = httpConfiguration.containmentMaxPageSize();
+        final int effectivePageSize = maxPageSize > 0 ? Math.min(requestedPageSize, maxPageSize) : requestedPageSize;
+
+        try {
+            containmentPage = resource().getChildren(pageToken, effectivePageSize);
+        } catch (final IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        if (containmentPage.hasNext()) {
+            final URI next = UriBuilder.fromUri(uriInfo.getRequestUri())
+                    .replaceQueryParam("pageSize", effectivePageSize)
+                    .replaceQueryParam("pageToken", containmentPage.getNextToken())
+                    .build();
+            servletResponse.addHeader("Link", Link.fromUri(next).rel("next").build().toString());
+        }
+    }
+
+    /**
+     * Restrict the inbound reference triples to a single page, if the client prefers them and
+     * a page was requested by the client or configured for the server, and link to the following page.
+     */
+    private void pageReferences() {
+        if (!new LdpPreferTag(returnPreference()).prefersReferences()) {
+            return;
+        }
+
+        final int effectivePageSize = referencesPageSize != null ? referencesPageSize
+                : httpConfiguration.referencesPageSize();
+
+        if (effectivePageSize <= 0) {
+            if (referencesPageSize != null || referencesPageToken != null) {
+                throw new BadRequestException(
+                        "A positive referencesPageSize is required to page through inbound references");
+            }
+            return;
+        }
+
+        try {
+            referencesPage = new ReferencesRdfContext(resource(), translator(), referencesPageToken,
+                    effectivePageSize);
+        } catch (final IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+
+        if (referencesPage.getNextToken() != null) {
+            final URI next = UriBuilder.fromUri(uriInfo.getRequestUri())
+                    .replaceQueryParam("referencesPageSize", effectivePageSize)
+                    .replaceQueryParam("referencesPageToken", referencesPage.getNextToken())
+                    .build();
+            servletResponse.addHeader("Link", Link.fromUri(next).rel("next").build().toString());
+        }
+    }
+
     @Override
     protected String externalPath() {
         return externalPath;
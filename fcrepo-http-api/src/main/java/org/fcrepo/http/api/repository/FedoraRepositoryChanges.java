@@ -0,0 +1,201 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api.repository;
+
+import static java.util.Collections.singleton;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.ok;
+import static javax.ws.rs.core.Response.status;
+import static javax.ws.rs.core.Response.Status.GONE;
+import static javax.xml.bind.DatatypeConverter.printDateTime;
+import static org.fcrepo.http.api.repository.FedoraRepositoryEventJournal.parseTimestamp;
+import static org.fcrepo.kernel.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TimeZone;
+
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriBuilder;
+
+import org.fcrepo.http.commons.AbstractResource;
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.services.ModificationIndexService;
+import org.fcrepo.kernel.utils.EventType;
+import org.fcrepo.kernel.utils.Modification;
+import org.jvnet.hk2.annotations.Optional;
+import org.slf4j.Logger;
+import org.springframework.context.annotation.Scope;
+
+import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Feed of the resources modified since a point in time, read from the
+ * repository-wide index of modifications, so that downstream systems can
+ * synchronize incrementally instead of crawling the repository.
+ *
+ * The index is built from every change in the repository, so a change is
+ * listed in full only if the requesting session can read the changed resource
+ * now. A removal is always listed, with only its path and the removal event
+ * type, because the resource is gone and can no longer be checked; once a
+ * resource is gone, its earlier changes are left out for such sessions, but
+ * the removal tells a client to drop it. Sessions without attributes, such as
+ * those of administrators, see every change in full. Modifications pruned from the
+ * index are gone; asking for changes after one of them is answered with
+ * 410 Gone, and the client must crawl the repository again.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+@Scope("prototype")
+@Path("/fcr:changes")
+public class FedoraRepositoryChanges extends AbstractResource {
+
+    private static final Logger LOGGER = getLogger(FedoraRepositoryChanges.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    static final int MAX_LIMIT = 10000;
+
+    private static final Set<Integer> REMOVAL = singleton(NODE_REMOVED);
+
+    /**
+     * The index of modifications, if one is configured
+     */
+    @Inject
+    @Optional
+    protected ModificationIndexService modificationIndexService;
+
+    @Inject
+    protected Session session;
+
+    /**
+     * Stream a page of the modifications made since a point in time, or after a given position in
+     * the index. Each page ends with a link to the next, which may be polled for further changes.
+     *
+     * GET /fcr:changes?since=2015-01-01T00:00:00Z
+     * GET /fcr:changes?after=1234&amp;limit=100
+     *
+     * @param since an ISO 8601 date-time or milliseconds since the epoch
+     * @param after the sequence number of the last modification already seen
+     * @param limit the most modifications to return
+     * @return the modifications
+     */
+    @GET
+    @Timed
+    @Produces({APPLICATION_JSON})
+    public Response getChanges(@QueryParam("since") final String since, @QueryParam("after") final Long after,
+            @QueryParam("limit") @DefaultValue("1000") final int limit) {
+        if (modificationIndexService == null) {
+            throw new NotFoundException("No modification index is configured");
+        }
+        if (since != null && after != null) {
+            throw new BadRequestException("Only one of the 'since' and 'after' parameters may be given");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("The 'limit' parameter must be between 1 and " + MAX_LIMIT);
+        }
+        final long first = modificationIndexService.getFirstSequence();
+        final long from;
+        if (since != null) {
+            from = modificationIndexService.findSequence(parseTimestamp(since));
+        } else if (after != null) {
+            from = after + 1;
+            if (from < first) {
+                throw new WebApplicationException(status(GONE).entity(
+                        "Changes before sequence " + first + " are no longer available").build());
+            }
+        } else {
+            from = first;
+        }
+        LOGGER.debug("Reading up to {} modifications from sequence {}", limit, from);
+        final Iterator<Modification> modifications = modificationIndexService.getModifications(from, limit);
+        final UriBuilder changes = uriInfo.getBaseUriBuilder().path(FedoraRepositoryChanges.class)
+                .queryParam("limit", limit);
+
+        final boolean unrestricted = session.getAttributeNames().length == 0;
+
+        return ok(new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                long last = from - 1;
+                try (final JsonGenerator json = JSON.createGenerator(output, JsonEncoding.UTF8)) {
+                    json.writeStartObject();
+                    json.writeArrayFieldStart("changes");
+                    while (modifications.hasNext()) {
+                        final Modification modification = modifications.next();
+                        // the next page starts after this change, whether or not it may be shown
+                        last = modification.getSequence();
+                        if (unrestricted || isReadable(modification.getPath())) {
+                            writeModification(json, modification, modification.getTypes());
+                        } else if (modification.getTypes().contains(NODE_REMOVED)) {
+                            writeModification(json, modification, REMOVAL);
+                        }
+                    }
+                    json.writeEndArray();
+                    json.writeStringField("next", changes.clone().queryParam("after", last).build().toString());
+                    json.writeEndObject();
+                }
+            }
+        }).build();
+    }
+
+    private boolean isReadable(final String path) {
+        try {
+            return session.itemExists(path);
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    private void writeModification(final JsonGenerator json, final Modification modification,
+            final Set<Integer> types) throws IOException {
+        final Calendar timestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        timestamp.setTimeInMillis(modification.getTimestamp());
+        json.writeStartObject();
+        json.writeNumberField("sequence", modification.getSequence());
+        json.writeStringField("timestamp", printDateTime(timestamp));
+        json.writeStringField("path", modification.getPath());
+        json.writeStringField("resource", uriInfo.getBaseUriBuilder().path(modification.getPath()).build().toString());
+        json.writeArrayFieldStart("eventTypes");
+        for (final Integer type : types) {
+            json.writeString(REPOSITORY_NAMESPACE + EventType.valueOf(type));
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api.repository;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
+import static javax.ws.rs.core.Response.status;
+import static javax.xml.bind.DatatypeConverter.parseDateTime;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+
+import org.fcrepo.http.commons.AbstractResource;
+import org.fcrepo.kernel.services.EventJournalService;
+import org.jvnet.hk2.annotations.Optional;
+import org.slf4j.Logger;
+import org.springframework.context.annotation.Scope;
+
+import com.codahale.metrics.annotation.Timed;
+
+/**
+ * Endpoint for the journal of events published to the message broker, from
+ * which downstream consumers may have events delivered again
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+@Scope("prototype")
+@Path("/fcr:eventJournal")
+public class FedoraRepositoryEventJournal extends AbstractResource {
+
+    private static final Logger LOGGER = getLogger(FedoraRepositoryEventJournal.class);
+
+    /**
+     * The event journal, if one is configured
+     */
+    @Inject
+    @Optional
+    protected EventJournalService eventJournalService;
+
+    /**
+     * Get the range of events held in the journal and how far they have been delivered.
+     *
+     * GET /fcr:eventJournal
+     *
+     * @return the first, last and last delivered sequence numbers
+     */
+    @GET
+    @Timed
+    @Produces({APPLICATION_JSON})
+    public Map<String, Long> getStatus() {
+        return describe(journal());
+    }
+
+    /**
+     * Deliver journaled events again, from a sequence number or from a point in time.
+     *
+     * POST /fcr:eventJournal?from=1234
+     * POST /fcr:eventJournal?since=2015-01-01T00:00:00Z
+     *
+     * @param from the first sequence number to deliver again
+     * @param since an ISO 8601 date-time or milliseconds since the epoch
+     * @return 202 Accepted, with the number of events to be delivered
+     */
+    @POST
+    @Timed
+    @Produces({APPLICATION_JSON})
+    public Response replay(@QueryParam("from") final Long from, @QueryParam("since") final String since) {
+        final EventJournalService journal = journal();
+        if ((from == null) == (since == null)) {
+            throw new BadRequestException("Exactly one of the 'from' and 'since' parameters is required");
+        }
+        final long replaying;
+        if (from != null) {
+            LOGGER.info("Replaying journaled events from sequence {}", from);
+            replaying = journal.replayFrom(from);
+        } else {
+            LOGGER.info("Replaying journaled events since {}", since);
+            replaying = journal.replaySince(parseTimestamp(since));
+        }
+        final Map<String, Long> result = describe(journal);
+        result.put("replaying", replaying);
+        return status(ACCEPTED).entity(result).build();
+    }
+
+    /**
+     * Parse a point in time given as an ISO 8601 date-time or as milliseconds since the epoch.
+     *
+     * @param since the point in time
+     * @return milliseconds since the epoch
+     */
+    static long parseTimestamp(final String since) {
+        try {
+            if (since.matches("-?\\d+")) {
+                return Long.parseLong(since);
+            }
+            return parseDateTime(since).getTimeInMillis();
+        } catch (final IllegalArgumentException e) {
+            throw new BadRequestException("Unable to parse date-time: " + since, e);
+        }
+    }
+
+    private EventJournalService journal() {
+        if (eventJournalService == null) {
+            throw new NotFoundException("No event journal is configured");
+        }
+        return eventJournalService;
+    }
+
+    private static Map<String, Long> describe(final EventJournalService journal) {
+        final Map<String, Long> status = new LinkedHashMap<>();
+        status.put("firstSequence", journal.getFirstSequence());
+        status.put("lastSequence", journal.getLastSequence());
+        status.put("forwardedSequence", journal.getForwardedSequence());
+        return status;
+    }
+}
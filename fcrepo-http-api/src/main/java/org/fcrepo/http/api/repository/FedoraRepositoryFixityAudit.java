@@ -0,0 +1,103 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api.repository;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
+import static javax.ws.rs.core.Response.status;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+
+import org.fcrepo.http.commons.AbstractResource;
+import org.fcrepo.kernel.services.FixityAuditService;
+import org.fcrepo.kernel.utils.FixityAuditStatus;
+import org.slf4j.Logger;
+import org.springframework.context.annotation.Scope;
+
+import com.codahale.metrics.annotation.Timed;
+
+/**
+ * Repository-wide fixity audit endpoint
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+@Scope("prototype")
+@Path("/fcr:fixityAudit")
+public class FedoraRepositoryFixityAudit extends AbstractResource {
+
+    private static final Logger LOGGER = getLogger(FedoraRepositoryFixityAudit.class);
+
+    /**
+     * The fcrepo fixity audit service
+     */
+    @Inject
+    protected FixityAuditService fixityAuditService;
+
+    /**
+     * Get the progress of the current or most recent audit.
+     *
+     * GET /fcr:fixityAudit
+     *
+     * @return the status of the audit
+     */
+    @GET
+    @Timed
+    @Produces({APPLICATION_JSON})
+    public FixityAuditStatus getStatus() {
+        return fixityAuditService.getStatus();
+    }
+
+    /**
+     * Start an audit, or resume a paused one.
+     *
+     * POST /fcr:fixityAudit?restart=true
+     *
+     * @param restart start again from the beginning, rather than resuming
+     * @return 202 Accepted, with the status of the audit
+     */
+    @POST
+    @Timed
+    @Produces({APPLICATION_JSON})
+    public Response startAudit(@QueryParam("restart") @DefaultValue("false") final boolean restart) {
+        LOGGER.info("Starting fixity audit (restart: {})", restart);
+        return status(ACCEPTED).entity(fixityAuditService.start(restart)).build();
+    }
+
+    /**
+     * Pause a running audit.
+     *
+     * DELETE /fcr:fixityAudit
+     *
+     * @return the status of the audit
+     */
+    @DELETE
+    @Timed
+    @Produces({APPLICATION_JSON})
+    public FixityAuditStatus stopAudit() {
+        LOGGER.info("Pausing fixity audit");
+        return fixityAuditService.stop();
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM_TYPE;
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static javax.ws.rs.core.Response.Status.CREATED;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.OK;
+import static org.apache.commons.io.IOUtils.toInputStream;
+import static org.fcrepo.http.api.FedoraBatch.FAILED_DEPENDENCY;
+import static org.fcrepo.http.commons.domain.RDFMediaType.NTRIPLES_TYPE;
+import static org.fcrepo.http.commons.test.util.TestHelpers.getUriInfoImpl;
+import static org.fcrepo.http.commons.test.util.TestHelpers.mockSession;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+
+import org.fcrepo.http.api.FedoraBatch.BatchItemStatus;
+import org.fcrepo.http.commons.api.rdf.HttpResourceConverter;
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.models.Container;
+import org.fcrepo.kernel.models.FedoraBinary;
+import org.fcrepo.kernel.models.NonRdfSourceDescription;
+import org.fcrepo.kernel.services.BinaryService;
+import org.fcrepo.kernel.services.ContainerService;
+import org.fcrepo.kernel.services.NodeService;
+import org.fcrepo.kernel.services.policy.StoragePolicyDecisionPoint;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.glassfish.jersey.media.multipart.BodyPart;
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
+import org.glassfish.jersey.media.multipart.MultiPart;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * <p>FedoraBatchTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FedoraBatchTest {
+
+    private final String path = "/some/path";
+
+    private FedoraBatch testObj;
+
+    private Session mockSession;
+
+    @Mock
+    private Container mockBase;
+
+    @Mock
+    private Container mockContainer;
+
+    @Mock
+    private FedoraBinary mockBinary;
+
+    @Mock
+    private NonRdfSourceDescription mockNonRdfSourceDescription;
+
+    @Mock
+    private NodeService mockNodeService;
+
+    @Mock
+    private ContainerService mockContainerService;
+
+    @Mock
+    private BinaryService mockBinaryService;
+
+    @Mock
+    private FedoraHttpConfiguration mockHttpConfiguration;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        testObj = spy(new FedoraBatch(path));
+
+        mockSession = mockSession(testObj);
+        setField(testObj, "session", mockSession);
+        setField(testObj, "uriInfo", getUriInfoImpl());
+        setField(testObj, "idTranslator", new HttpResourceConverter(mockSession,
+                UriBuilder.fromUri("http://localhost/fcrepo/{path: .*}")));
+        setField(testObj, "nodeService", mockNodeService);
+        setField(testObj, "containerService", mockContainerService);
+        setField(testObj, "binaryService", mockBinaryService);
+        setField(testObj, "httpConfiguration", mockHttpConfiguration);
+
+        doReturn(mockBase).when(testObj).resource();
+        when(mockBase.getPath()).thenReturn(path);
+        when(mockContainer.getPath()).thenReturn(path + "/a");
+        when(mockBinary.getPath()).thenReturn(path + "/b");
+        when(mockBinary.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockNonRdfSourceDescription.getDescribedResource()).thenReturn(mockBinary);
+        when(mockContainerService.findOrCreate(mockSession, path + "/a")).thenReturn(mockContainer);
+        when(mockBinaryService.findOrCreate(mockSession, path + "/b")).thenReturn(mockBinary);
+    }
+
+    private static BodyPart part(final String name, final MediaType type, final InputStream content) {
+        return new BodyPart(content, type).contentDisposition(FormDataContentDisposition.name(name).build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<BatchItemStatus> items(final Response response) {
+        return (List<BatchItemStatus>) response.getEntity();
+    }
+
+    @Test
+    public void testBatchCreate() throws Exception {
+        final InputStream binaryContent = toInputStream("x");
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("_:a <info:b> _:c .")))
+                .bodyPart(part("b", APPLICATION_OCTET_STREAM_TYPE, binaryContent));
+
+        final Response actual = testObj.batchCreate(null, multipart);
+
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        final List<BatchItemStatus> items = items(actual);
+        assertEquals(2, items.size());
+        assertEquals("a", items.get(0).getName());
+        assertEquals(CREATED.getStatusCode(), items.get(0).getStatus());
+        assertEquals(CREATED.getStatusCode(), items.get(1).getStatus());
+        verify(mockContainer).replaceProperties(any(HttpResourceConverter.class), any(Model.class),
+                any(RdfStream.class));
+        verify(mockBinary).setContent(eq(binaryContent), eq(APPLICATION_OCTET_STREAM), eq((URI) null),
+                eq((String) null), any(StoragePolicyDecisionPoint.class));
+        verify(mockSession).save();
+    }
+
+    @Test
+    public void testBatchCreateSavingEveryItem() throws Exception {
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("")))
+                .bodyPart(part("b", APPLICATION_OCTET_STREAM_TYPE, toInputStream("x")));
+
+        final Response actual = testObj.batchCreate(1, multipart);
+
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        verify(mockSession, times(2)).save();
+    }
+
+    @Test
+    public void testBatchCreateWithConfiguredSaveEvery() throws Exception {
+        when(mockHttpConfiguration.batchSaveEvery()).thenReturn(1);
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("")))
+                .bodyPart(part("b", APPLICATION_OCTET_STREAM_TYPE, toInputStream("x")));
+
+        testObj.batchCreate(null, multipart);
+
+        verify(mockSession, times(2)).save();
+    }
+
+    @Test
+    public void testBatchCreateWithExistingItem() throws Exception {
+        when(mockNodeService.exists(mockSession, path + "/b")).thenReturn(true);
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("")))
+                .bodyPart(part("b", APPLICATION_OCTET_STREAM_TYPE, toInputStream("x")))
+                .bodyPart(part("c", APPLICATION_OCTET_STREAM_TYPE, toInputStream("y")));
+
+        final Response actual = testObj.batchCreate(null, multipart);
+
+        assertEquals(CONFLICT.getStatusCode(), actual.getStatus());
+        final List<BatchItemStatus> items = items(actual);
+        assertEquals(3, items.size());
+        assertEquals(FAILED_DEPENDENCY, items.get(0).getStatus());
+        assertEquals(CONFLICT.getStatusCode(), items.get(1).getStatus());
+        assertEquals(FAILED_DEPENDENCY, items.get(2).getStatus());
+        verify(mockSession).refresh(false);
+        verify(mockSession, never()).save();
+        verify(mockBinaryService, never()).findOrCreate(mockSession, path + "/c");
+    }
+
+    @Test
+    public void testBatchCreateFailureAfterSave() throws Exception {
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("")))
+                .bodyPart(part("b", NTRIPLES_TYPE, toInputStream("this is not n-triples")));
+        when(mockContainerService.findOrCreate(mockSession, path + "/b")).thenReturn(mockContainer);
+
+        final Response actual = testObj.batchCreate(1, multipart);
+
+        final List<BatchItemStatus> items = items(actual);
+        assertEquals(CREATED.getStatusCode(), items.get(0).getStatus());
+        assertEquals(items.get(1).getStatus(), actual.getStatus());
+        verify(mockSession).save();
+    }
+
+    @Test
+    public void testBatchCreateWithRepositoryFailure() throws Exception {
+        when(mockBinaryService.findOrCreate(mockSession, path + "/b"))
+                .thenThrow(new RepositoryRuntimeException(new RepositoryException("expected")));
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("")))
+                .bodyPart(part("b", APPLICATION_OCTET_STREAM_TYPE, toInputStream("x")))
+                .bodyPart(part("c", NTRIPLES_TYPE, toInputStream("")));
+
+        final Response actual = testObj.batchCreate(1, multipart);
+
+        assertEquals(INTERNAL_SERVER_ERROR.getStatusCode(), actual.getStatus());
+        final List<BatchItemStatus> items = items(actual);
+        assertEquals(3, items.size());
+        assertEquals(CREATED.getStatusCode(), items.get(0).getStatus());
+        assertEquals(INTERNAL_SERVER_ERROR.getStatusCode(), items.get(1).getStatus());
+        assertEquals(FAILED_DEPENDENCY, items.get(2).getStatus());
+        verify(mockSession).save();
+        verify(mockSession).refresh(false);
+    }
+
+    @Test
+    public void testBatchCreateWithSaveFailure() throws Exception {
+        doThrow(new RepositoryException("expected")).when(mockSession).save();
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(part("a", NTRIPLES_TYPE, toInputStream("")))
+                .bodyPart(part("b", APPLICATION_OCTET_STREAM_TYPE, toInputStream("x")));
+
+        final Response actual = testObj.batchCreate(null, multipart);
+
+        assertEquals(INTERNAL_SERVER_ERROR.getStatusCode(), actual.getStatus());
+        final List<BatchItemStatus> items = items(actual);
+        assertEquals(2, items.size());
+        assertEquals(FAILED_DEPENDENCY, items.get(0).getStatus());
+        assertEquals(INTERNAL_SERVER_ERROR.getStatusCode(), items.get(1).getStatus());
+        verify(mockSession).refresh(false);
+    }
+
+    @Test
+    public void testBatchCreateWithoutName() throws Exception {
+        final MultiPart multipart = new MultiPart()
+                .bodyPart(new BodyPart(toInputStream("x"), APPLICATION_OCTET_STREAM_TYPE));
+
+        final Response actual = testObj.batchCreate(null, multipart);
+
+        assertEquals(400, actual.getStatus());
+    }
+
+    @Test(expected = ClientErrorException.class)
+    public void testBatchCreateInBinary() throws Exception {
+        doReturn(mockBinary).when(testObj).resource();
+        testObj.batchCreate(null, new MultiPart());
+    }
+}
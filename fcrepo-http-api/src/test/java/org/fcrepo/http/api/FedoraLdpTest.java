@@ -27,7 +27,11 @@ import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
 import static javax.ws.rs.core.Response.Status.CREATED;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.Status.PARTIAL_CONTENT;
+import static javax.ws.rs.core.Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE;
 import static javax.ws.rs.core.Response.Status.TEMPORARY_REDIRECT;
+import static java.io.File.createTempFile;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
 import static org.apache.commons.io.IOUtils.toInputStream;
 import static org.apache.jena.riot.WebContent.contentTypeSPARQLUpdate;
 import static org.fcrepo.http.api.ContentExposingResource.getSimpleContentType;
@@ -44,11 +48,13 @@ import static org.fcrepo.kernel.RdfLexicon.INDIRECT_CONTAINER;
 import static org.fcrepo.kernel.RdfLexicon.LDP_NAMESPACE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -56,10 +62,13 @@ import static org.mockito.MockitoAnnotations.initMocks;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.text.ParseException;
+import java.util.Collections;
 import java.util.List;
 
 import javax.jcr.Node;
@@ -71,6 +80,7 @@ import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 
 import org.apache.commons.io.IOUtils;
@@ -85,6 +95,7 @@ import org.fcrepo.kernel.models.NonRdfSourceDescription;
 import org.fcrepo.kernel.services.BinaryService;
 import org.fcrepo.kernel.services.ContainerService;
 import org.fcrepo.kernel.services.NodeService;
+import org.fcrepo.kernel.utils.ContainmentPage;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.junit.Before;
 import org.junit.Test;
@@ -494,6 +505,59 @@ public class FedoraLdpTest {
 
     }
 
+    @Test
+    public void testGetWithObjectPaged() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        setField(testObj, "pageSize", 10);
+        when(resource.getChildren(null, 10)).thenReturn(
+                new ContainmentPage(Collections.<FedoraResource>emptyList(), "abc"));
+        final Response actual = testObj.describe(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        assertTrue("Should link to the next page of children",
+                any(mockResponse.getHeaders("Link"), containsPattern("pageToken=abc.*rel=\"next\"")));
+    }
+
+    @Test
+    public void testGetWithObjectLastPage() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        setField(testObj, "pageSize", 10);
+        setField(testObj, "pageToken", "abc");
+        when(resource.getChildren("abc", 10)).thenReturn(
+                new ContainmentPage(Collections.<FedoraResource>emptyList(), null));
+        final Response actual = testObj.describe(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        assertFalse("Should not link to a next page of children",
+                any(mockResponse.getHeaders("Link"), containsPattern("rel=\"next\"")));
+    }
+
+    @Test
+    public void testGetWithObjectPageSizeClamped() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        setField(testObj, "pageSize", Integer.MAX_VALUE);
+        when(mockHttpConfiguration.containmentMaxPageSize()).thenReturn(100);
+        when(resource.getChildren(null, 100)).thenReturn(
+                new ContainmentPage(Collections.<FedoraResource>emptyList(), "abc"));
+        testObj.describe(null);
+        assertTrue("Should link to the next page of children with the clamped size",
+                any(mockResponse.getHeaders("Link"), containsPattern("pageSize=100&.*rel=\"next\"")));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testGetWithObjectNonPositivePageSize() throws Exception {
+        setResource(Container.class);
+        setField(testObj, "pageSize", 0);
+        testObj.describe(null);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testGetWithObjectInvalidPageToken() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        setField(testObj, "pageSize", 10);
+        setField(testObj, "pageToken", "bad");
+        when(resource.getChildren("bad", 10)).thenThrow(new IllegalArgumentException("Invalid continuation token"));
+        testObj.describe(null);
+    }
+
     @Test
     public void testGetWithObjectOmitMembership() throws Exception {
         setResource(Container.class);
@@ -562,6 +626,175 @@ public class FedoraLdpTest {
         assertTrue(IOUtils.toString((InputStream)actual.getEntity()).equals("xyz"));
     }
 
+    @Test
+    public void testGetWithBinaryFromFile() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        final File file = createTempFile("fedora", ".bin");
+        file.deleteOnExit();
+        writeStringToFile(file, "xyz");
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentFile()).thenReturn(file);
+        when(mockResource.getContentSize()).thenReturn(3L);
+        final Response actual = testObj.describe(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) actual.getEntity()).write(out);
+        assertEquals("xyz", out.toString());
+        verify(mockResource, never()).getContent();
+    }
+
+    @Test
+    public void testGetWithBinaryRangeFromFile() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        final File file = createTempFile("fedora", ".bin");
+        file.deleteOnExit();
+        writeStringToFile(file, "0123456789");
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentFile()).thenReturn(file);
+        when(mockResource.getContentSize()).thenReturn(10L);
+        final Response actual = testObj.describe("bytes=2-4");
+        assertEquals(PARTIAL_CONTENT.getStatusCode(), actual.getStatus());
+        assertEquals("bytes 2-4/10", actual.getHeaderString("Content-Range"));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) actual.getEntity()).write(out);
+        assertEquals("234", out.toString());
+        verify(mockResource, never()).getBinaryContent();
+    }
+
+    @Test
+    public void testGetWithBinaryRange() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        when(mockResource.getContent()).thenReturn(toInputStream("0123456789"));
+        final Response actual = testObj.describe("bytes=2-4");
+        assertEquals(PARTIAL_CONTENT.getStatusCode(), actual.getStatus());
+        assertEquals("bytes 2-4/10", actual.getHeaderString("Content-Range"));
+        assertEquals("3", actual.getHeaderString("Content-Length"));
+        assertEquals("234", IOUtils.toString((InputStream)actual.getEntity()));
+        verify(mockResource, never()).getBinaryContent();
+    }
+
+    @Test
+    public void testGetWithBinaryRangePastEnd() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        when(mockResource.getContent()).thenReturn(toInputStream("0123456789"));
+        final Response actual = testObj.describe("bytes=5-1000");
+        assertEquals(PARTIAL_CONTENT.getStatusCode(), actual.getStatus());
+        assertEquals("bytes 5-9/10", actual.getHeaderString("Content-Range"));
+        assertEquals("5", actual.getHeaderString("Content-Length"));
+        assertEquals("56789", IOUtils.toString((InputStream)actual.getEntity()));
+    }
+
+    @Test
+    public void testGetWithBinaryRangeStartingAtEnd() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        final Response actual = testObj.describe("bytes=10-");
+        assertEquals(REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(), actual.getStatus());
+        assertEquals("bytes */10", actual.getHeaderString("Content-Range"));
+    }
+
+    @Test
+    public void testGetWithBinaryMultipleRanges() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        when(mockResource.getContent()).thenReturn(toInputStream("0123456789"), toInputStream("0123456789"));
+        final Response actual = testObj.describe("bytes=0-1,8-,20-30");
+        assertEquals(PARTIAL_CONTENT.getStatusCode(), actual.getStatus());
+        assertEquals("multipart", actual.getMediaType().getType());
+        assertEquals("byteranges", actual.getMediaType().getSubtype());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) actual.getEntity()).write(out);
+        final String body = out.toString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/10\r\n\r\n01\r\n"));
+        assertTrue(body.contains("Content-Range: bytes 8-9/10\r\n\r\n89\r\n"));
+        assertFalse(body.contains("bytes 20-"));
+    }
+
+    @Test
+    public void testGetWithBinarySuffixAmongRanges() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        when(mockResource.getContent()).thenReturn(toInputStream("0123456789"), toInputStream("0123456789"));
+        final Response actual = testObj.describe("bytes=0-1,-3");
+        assertEquals(PARTIAL_CONTENT.getStatusCode(), actual.getStatus());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) actual.getEntity()).write(out);
+        final String body = out.toString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/10\r\n\r\n01\r\n"));
+        assertTrue(body.contains("Content-Range: bytes 7-9/10\r\n\r\n789\r\n"));
+    }
+
+    @Test
+    public void testGetWithBinaryOverlappingRanges() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        when(mockResource.getContent()).thenReturn(toInputStream("0123456789"));
+        final Response actual = testObj.describe("bytes=2-4,3-5,2-3,6-6");
+        assertEquals(PARTIAL_CONTENT.getStatusCode(), actual.getStatus());
+        assertEquals("bytes 2-6/10", actual.getHeaderString("Content-Range"));
+        assertEquals("5", actual.getHeaderString("Content-Length"));
+        assertEquals("23456", IOUtils.toString((InputStream)actual.getEntity()));
+    }
+
+    @Test
+    public void testGetWithBinaryTooManyRanges() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(100L);
+        when(mockResource.getContent()).thenReturn(toInputStream("0123456789"));
+        final StringBuilder header = new StringBuilder("bytes=0-0");
+        for (int i = 1; i < 20; i++) {
+            header.append(',').append(i * 2).append('-').append(i * 2);
+        }
+        final Response actual = testObj.describe(header.toString());
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        assertNull(actual.getHeaderString("Content-Range"));
+    }
+
+    @Test
+    public void testGetWithBinaryUnsatisfiableRanges() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentSize()).thenReturn(10L);
+        final Response actual = testObj.describe("bytes=20-30,40-");
+        assertEquals(REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(), actual.getStatus());
+        assertEquals("bytes */10", actual.getHeaderString("Content-Range"));
+    }
+
+    @Test
+    public void testGetWithBinaryFromStaleFile() throws Exception {
+        final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
+        final File file = createTempFile("fedora", ".bin");
+        file.deleteOnExit();
+        writeStringToFile(file, "x");
+        when(mockResource.getDescription()).thenReturn(mockNonRdfSourceDescription);
+        when(mockResource.getMimeType()).thenReturn("text/plain");
+        when(mockResource.getContentFile()).thenReturn(file);
+        when(mockResource.getContentSize()).thenReturn(3L);
+        when(mockResource.getContent()).thenReturn(toInputStream("xyz"));
+        final Response actual = testObj.describe(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+        assertEquals("xyz", IOUtils.toString((InputStream)actual.getEntity()));
+    }
+
     @Test
     public void testGetWithExternalMessageBinary() throws Exception {
         final FedoraBinary mockResource = (FedoraBinary)setResource(FedoraBinary.class);
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api.repository;
+
+import static java.util.Collections.singleton;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static javax.ws.rs.core.Response.Status.GONE;
+import static javax.xml.bind.DatatypeConverter.parseDateTime;
+import static org.fcrepo.http.commons.test.util.TestHelpers.getUriInfoImpl;
+import static org.fcrepo.kernel.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import javax.jcr.Session;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.fcrepo.kernel.services.ModificationIndexService;
+import org.fcrepo.kernel.utils.Modification;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <p>FedoraRepositoryChangesTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FedoraRepositoryChangesTest {
+
+    private FedoraRepositoryChanges testObj;
+
+    @Mock
+    private ModificationIndexService mockService;
+
+    @Mock
+    private Session mockSession;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        testObj = new FedoraRepositoryChanges();
+        setField(testObj, "modificationIndexService", mockService);
+        setField(testObj, "uriInfo", getUriInfoImpl());
+        setField(testObj, "session", mockSession);
+        when(mockSession.getAttributeNames()).thenReturn(new String[0]);
+    }
+
+    @Test
+    public void testChangesSince() throws IOException {
+        when(mockService.findSequence(1420070400000L)).thenReturn(7L);
+        when(mockService.getModifications(7, 2)).thenReturn(Arrays.asList(
+                new Modification(7, 1420070400000L, "/a", singleton(NODE_ADDED)),
+                new Modification(8, 1420070401000L, "/b", singleton(NODE_ADDED))).iterator());
+
+        final JsonNode json = read(testObj.getChanges("2015-01-01T00:00:00Z", null, 2));
+        final JsonNode changes = json.get("changes");
+        assertEquals(2, changes.size());
+        assertEquals(7, changes.get(0).get("sequence").asLong());
+        assertEquals("/a", changes.get(0).get("path").asText());
+        assertEquals("http://localhost/fcrepo/a", changes.get(0).get("resource").asText());
+        assertEquals(REPOSITORY_NAMESPACE + "NODE_ADDED", changes.get(0).get("eventTypes").get(0).asText());
+        assertEquals(1420070401000L, parseDateTime(
+                changes.get(1).get("timestamp").asText()).getTimeInMillis());
+        assertEquals("http://localhost/fcrepo/fcr:changes?limit=2&after=8", json.get("next").asText());
+    }
+
+    @Test
+    public void testChangesAfter() throws IOException {
+        when(mockService.getModifications(11, 1000)).thenReturn(Collections.<Modification>emptyIterator());
+        final JsonNode json = read(testObj.getChanges(null, 10L, 1000));
+        assertEquals(0, json.get("changes").size());
+        assertEquals("http://localhost/fcrepo/fcr:changes?limit=1000&after=10", json.get("next").asText());
+    }
+
+    @Test
+    public void testChangesFromStart() throws IOException {
+        when(mockService.getModifications(0, 1000)).thenReturn(Collections.<Modification>emptyIterator());
+        read(testObj.getChanges(null, null, 1000));
+        verify(mockService).getModifications(0, 1000);
+    }
+
+    @Test
+    public void testChangesFromFirstRetained() throws IOException {
+        when(mockService.getFirstSequence()).thenReturn(50L);
+        when(mockService.getModifications(50, 1000)).thenReturn(Collections.<Modification>emptyIterator());
+        read(testObj.getChanges(null, null, 1000));
+        verify(mockService).getModifications(50, 1000);
+    }
+
+    @Test
+    public void testChangesAfterPruned() {
+        when(mockService.getFirstSequence()).thenReturn(50L);
+        try {
+            testObj.getChanges(null, 10L, 1000);
+            fail("Expected changes after a pruned sequence to be gone");
+        } catch (final WebApplicationException e) {
+            assertEquals(GONE.getStatusCode(), e.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void testChangesFilteredBySession() throws Exception {
+        when(mockSession.getAttributeNames()).thenReturn(new String[] {"fedora-user-principal"});
+        when(mockSession.itemExists("/a")).thenReturn(false);
+        when(mockSession.itemExists("/b")).thenReturn(true);
+        when(mockService.getModifications(0, 2)).thenReturn(Arrays.asList(
+                new Modification(0, 1420070400000L, "/a", singleton(NODE_ADDED)),
+                new Modification(1, 1420070401000L, "/b", singleton(NODE_ADDED))).iterator());
+
+        final JsonNode json = read(testObj.getChanges(null, null, 2));
+        assertEquals(1, json.get("changes").size());
+        assertEquals("/b", json.get("changes").get(0).get("path").asText());
+        assertEquals("http://localhost/fcrepo/fcr:changes?limit=2&after=1", json.get("next").asText());
+    }
+
+    @Test
+    public void testRemovalsShownToRestrictedSession() throws Exception {
+        when(mockSession.getAttributeNames()).thenReturn(new String[] {"fedora-user-principal"});
+        when(mockSession.itemExists("/a")).thenReturn(false);
+        when(mockService.getModifications(0, 2)).thenReturn(Arrays.asList(
+                new Modification(0, 1420070400000L, "/a", singleton(PROPERTY_CHANGED)),
+                new Modification(1, 1420070401000L, "/a",
+                        new HashSet<>(Arrays.asList(NODE_REMOVED, PROPERTY_CHANGED)))).iterator());
+
+        final JsonNode json = read(testObj.getChanges(null, null, 2));
+        final JsonNode changes = json.get("changes");
+        assertEquals(1, changes.size());
+        assertEquals(1, changes.get(0).get("sequence").asLong());
+        assertEquals("/a", changes.get(0).get("path").asText());
+        assertEquals(1, changes.get(0).get("eventTypes").size());
+        assertEquals(REPOSITORY_NAMESPACE + "NODE_REMOVED", changes.get(0).get("eventTypes").get(0).asText());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testSinceAndAfter() {
+        testObj.getChanges("0", 10L, 1000);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testLimitTooLarge() {
+        testObj.getChanges(null, null, FedoraRepositoryChanges.MAX_LIMIT + 1);
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void testNoIndex() {
+        setField(testObj, "modificationIndexService", null);
+        testObj.getChanges(null, null, 1000);
+    }
+
+    private static JsonNode read(final Response response) throws IOException {
+        assertEquals(200, response.getStatus());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api.repository;
+
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
+import static org.fcrepo.http.commons.test.util.TestHelpers.getUriInfoImpl;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.util.Map;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.Response;
+
+import org.fcrepo.kernel.services.EventJournalService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>FedoraRepositoryEventJournalTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FedoraRepositoryEventJournalTest {
+
+    private FedoraRepositoryEventJournal testObj;
+
+    @Mock
+    private EventJournalService mockService;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        testObj = new FedoraRepositoryEventJournal();
+        setField(testObj, "eventJournalService", mockService);
+        setField(testObj, "uriInfo", getUriInfoImpl());
+        when(mockService.getFirstSequence()).thenReturn(10L);
+        when(mockService.getLastSequence()).thenReturn(99L);
+        when(mockService.getForwardedSequence()).thenReturn(90L);
+    }
+
+    @Test
+    public void testGetStatus() {
+        final Map<String, Long> status = testObj.getStatus();
+        assertEquals(Long.valueOf(10), status.get("firstSequence"));
+        assertEquals(Long.valueOf(99), status.get("lastSequence"));
+        assertEquals(Long.valueOf(90), status.get("forwardedSequence"));
+    }
+
+    @Test
+    public void testReplayFrom() {
+        when(mockService.replayFrom(50)).thenReturn(50L);
+        final Response actual = testObj.replay(50L, null);
+        assertEquals(ACCEPTED.getStatusCode(), actual.getStatus());
+        @SuppressWarnings("unchecked")
+        final Map<String, Long> result = (Map<String, Long>) actual.getEntity();
+        assertEquals(Long.valueOf(50), result.get("replaying"));
+    }
+
+    @Test
+    public void testReplaySince() {
+        testObj.replay(null, "2015-01-01T00:00:00Z");
+        verify(mockService).replaySince(1420070400000L);
+    }
+
+    @Test
+    public void testReplaySinceMillis() {
+        testObj.replay(null, "1420070400000");
+        verify(mockService).replaySince(1420070400000L);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testReplayWithoutStart() {
+        testObj.replay(null, null);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testReplayWithBadDate() {
+        testObj.replay(null, "yesterday");
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void testNoJournal() {
+        setField(testObj, "eventJournalService", null);
+        testObj.getStatus();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.api.repository;
+
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
+import static org.fcrepo.http.commons.test.util.TestHelpers.getUriInfoImpl;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import javax.ws.rs.core.Response;
+
+import org.fcrepo.kernel.services.FixityAuditService;
+import org.fcrepo.kernel.utils.FixityAuditStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>FedoraRepositoryFixityAuditTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FedoraRepositoryFixityAuditTest {
+
+    private FedoraRepositoryFixityAudit testObj;
+
+    @Mock
+    private FixityAuditService mockService;
+
+    @Mock
+    private FixityAuditStatus mockStatus;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        testObj = new FedoraRepositoryFixityAudit();
+        setField(testObj, "fixityAuditService", mockService);
+        setField(testObj, "uriInfo", getUriInfoImpl());
+    }
+
+    @Test
+    public void testGetStatus() {
+        when(mockService.getStatus()).thenReturn(mockStatus);
+        assertEquals(mockStatus, testObj.getStatus());
+    }
+
+    @Test
+    public void testStartAudit() {
+        when(mockService.start(true)).thenReturn(mockStatus);
+        final Response actual = testObj.startAudit(true);
+        assertEquals(ACCEPTED.getStatusCode(), actual.getStatus());
+        assertEquals(mockStatus, actual.getEntity());
+    }
+
+    @Test
+    public void testStopAudit() {
+        when(mockService.stop()).thenReturn(mockStatus);
+        assertEquals(mockStatus, testObj.stopAudit());
+    }
+}
@@ -16,8 +16,14 @@
 package org.fcrepo.http.commons.domain;
 
 import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.util.Collections.sort;
+import static java.util.Collections.singletonList;
 import static java.util.regex.Pattern.compile;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,9 +38,15 @@ public class Range {
 
     private final long end;
 
+    private final boolean suffix;
+
     private static Pattern rangePattern =
         compile("^bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)");
 
+    private static Pattern rangeSetPattern = compile("^bytes\\s*=(.*)");
+
+    private static Pattern rangeSpecPattern = compile("^\\s*(\\d*)\\s*-\\s*(\\d*)\\s*");
+
     /**
      * Unbounded Range
      */
@@ -56,8 +68,48 @@ public class Range {
      * @param end
      */
     public Range(final long start, final long end) {
+        this(start, end, false);
+    }
+
+    private Range(final long start, final long end, final boolean suffix) {
         this.start = start;
         this.end = end;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Suffix range, i.e. the last bytes of the content
+     * @param length the number of bytes
+     * @return suffix range
+     */
+    public static Range suffix(final long length) {
+        return new Range(0, length, true);
+    }
+
+    /**
+     * Whether this is a suffix range, whose end is the number of bytes to take from the end of the content
+     * @return true if this is a suffix range
+     */
+    public boolean isSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Resolve this range against content of the given size
+     * @param contentSize
+     * @return the bounded range of bytes, or null if the range is not satisfiable
+     */
+    public Range resolve(final long contentSize) {
+        if (suffix) {
+            if (end == 0 || contentSize == 0) {
+                return null;
+            }
+            return new Range(max(0, contentSize - end), contentSize - 1);
+        }
+
+        final long last = end == -1 || end >= contentSize ? contentSize - 1 : end;
+
+        return start <= last ? new Range(start, last) : null;
     }
 
     /**
@@ -108,7 +160,101 @@ public class Range {
             return new Range();
         }
 
-        matcher.matches();
+        return convert(matcher);
+    }
+
+    /**
+     * Convert an HTTP Range header that may list several byte ranges to Range objects. Unlike
+     * {@link #convert(String)}, a range of the form "-N" is a suffix range, as in RFC 7233.
+     * @param source
+     * @return range objects, in the order they were requested
+     */
+    public static List<Range> convertAll(final String source) {
+
+        final Matcher matcher = rangeSetPattern.matcher(source);
+
+        if (!matcher.matches()) {
+            return singletonList(new Range());
+        }
+
+        final List<Range> ranges = new ArrayList<>();
+
+        try {
+            for (final String spec : matcher.group(1).split(",")) {
+                final Matcher specMatcher = rangeSpecPattern.matcher(spec);
+
+                if (!specMatcher.matches() || (specMatcher.group(1).equals("") && specMatcher.group(2).equals(""))) {
+                    return singletonList(new Range());
+                }
+
+                if (specMatcher.group(1).equals("")) {
+                    ranges.add(suffix(parseLong(specMatcher.group(2))));
+                    continue;
+                }
+
+                final Range range = convert(specMatcher);
+
+                if (range.end() != -1 && range.end() < range.start()) {
+                    return singletonList(new Range());
+                }
+                ranges.add(range);
+            }
+        } catch (final NumberFormatException e) {
+            return singletonList(new Range());
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Resolve ranges against content of the given size, dropping those that are not satisfiable
+     * and merging those that overlap or adjoin, so that no byte is sent more than once
+     * @param ranges
+     * @param contentSize
+     * @return the bounded, disjoint ranges, in order of their start
+     */
+    public static List<Range> coalesce(final List<Range> ranges, final long contentSize) {
+        final List<Range> resolved = new ArrayList<>(ranges.size());
+
+        for (final Range range : ranges) {
+            final Range bounded = range.resolve(contentSize);
+
+            if (bounded != null) {
+                resolved.add(bounded);
+            }
+        }
+
+        sort(resolved, byStart);
+
+        final List<Range> coalesced = new ArrayList<>(resolved.size());
+        Range current = null;
+
+        for (final Range range : resolved) {
+            if (current == null) {
+                current = range;
+            } else if (range.start() <= current.end() + 1) {
+                current = new Range(current.start(), max(current.end(), range.end()));
+            } else {
+                coalesced.add(current);
+                current = range;
+            }
+        }
+
+        if (current != null) {
+            coalesced.add(current);
+        }
+        return coalesced;
+    }
+
+    private static final Comparator<Range> byStart = new Comparator<Range>() {
+
+        @Override
+        public int compare(final Range a, final Range b) {
+            return Long.compare(a.start(), b.start());
+        }
+    };
+
+    private static Range convert(final Matcher matcher) {
         final String from = matcher.group(1);
         final String to = matcher.group(2);
 
@@ -19,6 +19,7 @@ import static com.google.common.base.Optional.fromNullable;
 import static java.util.Arrays.asList;
 import static org.fcrepo.kernel.RdfLexicon.EMBED_CONTAINS;
 import static org.fcrepo.kernel.RdfLexicon.INBOUND_REFERENCES;
+import static org.fcrepo.kernel.RdfLexicon.INBOUND_REFERENCE_COUNT;
 import static org.fcrepo.kernel.RdfLexicon.LDP_NAMESPACE;
 import static org.fcrepo.kernel.RdfLexicon.SERVER_MANAGED;
 
@@ -41,6 +42,8 @@ public class LdpPreferTag extends PreferTag {
 
     private final boolean references;
 
+    private final boolean referenceCount;
+
     private final boolean preferMinimalContainer;
 
     private final boolean embed;
@@ -74,6 +77,8 @@ public class LdpPreferTag extends PreferTag {
 
         references = includes.contains(INBOUND_REFERENCES.toString());
 
+        referenceCount = includes.contains(INBOUND_REFERENCE_COUNT.toString());
+
         embed = includes.contains(EMBED_CONTAINS.toString());
 
         managedProperties = includes.contains(SERVER_MANAGED.toString())
@@ -100,6 +105,13 @@ public class LdpPreferTag extends PreferTag {
     public boolean prefersReferences() {
         return references;
     }
+
+    /**
+     * @return Whether this prefer tag demands the number of inbound references.
+     */
+    public boolean prefersReferenceCount() {
+        return referenceCount;
+    }
     /**
      * @return Whether this prefer tag demands embedded triples.
      */
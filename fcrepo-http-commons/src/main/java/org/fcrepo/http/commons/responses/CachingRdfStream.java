@@ -0,0 +1,196 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.ws.rs.core.MediaType;
+
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Iterators;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * An {@link RdfStream} whose triples are only built if its serialization is
+ * not already in a {@link RepresentationCache}. {@link RdfStreamProvider}
+ * writes cached bytes directly when it finds them, and otherwise caches what it
+ * serializes.
+ *
+ * <p>The triples come only from the supplier, so triples must not be added to
+ * this stream with {@code concat}. The paths of other resources appearing as
+ * subjects are collected as they are serialized, so that the cached entry is
+ * dropped when any of them changes. The serialization is not cached if the
+ * resource or any of those resources changed after its triples began to be
+ * built.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class CachingRdfStream extends RdfStream {
+
+    private final RepresentationCache cache;
+
+    private final String path;
+
+    private final String variant;
+
+    private final Supplier<RdfStream> source;
+
+    private final Function<Node, String> pathOf;
+
+    private final Set<String> embedded = new HashSet<>();
+
+    private RdfStream built;
+
+    private long generation;
+
+    /**
+     * @param cache the cache to consult
+     * @param path the repository path of the resource
+     * @param variant everything but the media type that the representation depends on
+     * @param source builds the triples on a cache miss
+     */
+    public CachingRdfStream(final RepresentationCache cache, final String path, final String variant,
+            final Supplier<RdfStream> source) {
+        this(cache, path, variant, source, null);
+    }
+
+    /**
+     * @param cache the cache to consult
+     * @param path the repository path of the resource
+     * @param variant everything but the media type that the representation depends on
+     * @param source builds the triples on a cache miss
+     * @param pathOf the repository path of a subject, or null if it is not a repository resource
+     */
+    public CachingRdfStream(final RepresentationCache cache, final String path, final String variant,
+            final Supplier<RdfStream> source, final Function<Node, String> pathOf) {
+        this.cache = cache;
+        this.path = path;
+        this.variant = variant;
+        this.source = source;
+        this.pathOf = pathOf;
+    }
+
+    @Override
+    protected Iterator<Triple> delegate() {
+        if (built == null) {
+            generation = cache.getGeneration();
+            built = source.get();
+            namespaces(built.namespaces());
+            if (pathOf != null) {
+                built = built.withThisContext(Iterators.transform(built, new Function<Triple, Triple>() {
+
+                    private Node lastSubject;
+
+                    @Override
+                    public Triple apply(final Triple t) {
+                        if (!t.getSubject().equals(lastSubject)) {
+                            lastSubject = t.getSubject();
+                            final String subjectPath = pathOf.apply(lastSubject);
+                            if (subjectPath != null && !subjectPath.equals(path)) {
+                                embedded.add(subjectPath);
+                            }
+                        }
+                        return t;
+                    }
+                }));
+            }
+        }
+        return built;
+    }
+
+    /**
+     * @param mediaType
+     * @return the cached serialization in the given media type, or null
+     */
+    public byte[] getCached(final MediaType mediaType) {
+        return cache.get(path, variant(mediaType));
+    }
+
+    /**
+     * Wrap an output stream so that what is written to it can be cached.
+     *
+     * @param mediaType the media type being written
+     * @param out the stream to wrap
+     * @return a stream whose {@link CapturingOutputStream#commit()} caches what was written
+     */
+    public CapturingOutputStream capture(final MediaType mediaType, final OutputStream out) {
+        return new CapturingOutputStream(out, variant(mediaType));
+    }
+
+    private String variant(final MediaType mediaType) {
+        return variant + "\n" + mediaType.getType() + "/" + mediaType.getSubtype();
+    }
+
+    /**
+     * Copies bytes to the cache as they are written, giving up once they
+     * exceed the largest entry the cache will hold.
+     */
+    public class CapturingOutputStream extends FilterOutputStream {
+
+        private final String mediaVariant;
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        CapturingOutputStream(final OutputStream out, final String mediaVariant) {
+            super(out);
+            this.mediaVariant = mediaVariant;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            if (room(1)) {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            if (room(len)) {
+                buffer.write(b, off, len);
+            }
+        }
+
+        private boolean room(final int len) {
+            if (buffer != null && buffer.size() + len > cache.getMaxEntrySize()) {
+                buffer = null;
+            }
+            return buffer != null;
+        }
+
+        /**
+         * Cache everything written, if it was small enough
+         */
+        public void commit() {
+            if (buffer != null) {
+                cache.put(path, mediaVariant, buffer.toByteArray(), new HashSet<>(embedded), generation);
+                buffer = null;
+            }
+        }
+    }
+}
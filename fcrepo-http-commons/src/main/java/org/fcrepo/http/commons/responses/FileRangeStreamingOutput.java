@@ -0,0 +1,94 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.slf4j.Logger;
+
+/**
+ * Writes a region of a local file to the response, reading it straight from
+ * the file rather than through the repository's stream stack. This is a plain
+ * copy through one buffer, not a zero-copy transfer: the servlet API only
+ * exposes an OutputStream, and FileChannel#transferTo into a channel wrapping
+ * one copies through a small heap buffer anyway.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class FileRangeStreamingOutput implements StreamingOutput {
+
+    private static final Logger LOGGER = getLogger(FileRangeStreamingOutput.class);
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final File file;
+
+    private final long start;
+
+    private final long length;
+
+    /**
+     * Write the whole of a file
+     * @param file the file to write
+     */
+    public FileRangeStreamingOutput(final File file) {
+        this(file, 0, -1);
+    }
+
+    /**
+     * Write a region of a file
+     * @param file the file to write
+     * @param start the offset of the first byte to write
+     * @param length the number of bytes to write, or -1 for the remainder of the file
+     */
+    public FileRangeStreamingOutput(final File file, final long start, final long length) {
+        this.file = file;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            final long end = length < 0 ? channel.size() : Math.min(start + length, channel.size());
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(Math.min(BUFFER_SIZE, end - start), 1));
+
+            long position = start;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                final int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    // the file was truncated underneath us
+                    break;
+                }
+                output.write(buffer.array(), 0, read);
+                position += read;
+            }
+            LOGGER.trace("Copied {} bytes of {}", position - start, file);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Collections.singletonMap;
+import static java.util.UUID.randomUUID;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.fcrepo.http.commons.domain.Range;
+
+import com.google.common.io.ByteSource;
+
+/**
+ * Writes several ranges of some content as a multipart/byteranges body (RFC 7233, appendix A).
+ * Each part is read from its own slice of the content, so no part is buffered in memory and
+ * sources able to seek do not read the content between the ranges.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class MultipartByteRangesStreamingOutput implements StreamingOutput {
+
+    private static final String CRLF = "\r\n";
+
+    private final ByteSource content;
+
+    private final List<Range> ranges;
+
+    private final long contentSize;
+
+    private final String contentType;
+
+    private final String boundary;
+
+    /**
+     * @param content the content to take the ranges from
+     * @param ranges the ranges to write; each must be bounded and lie within the content
+     * @param contentSize the size of the whole content
+     * @param contentType the media type of the content (optional)
+     */
+    public MultipartByteRangesStreamingOutput(final ByteSource content,
+                                              final List<Range> ranges,
+                                              final long contentSize,
+                                              final String contentType) {
+        this.content = content;
+        this.ranges = ranges;
+        this.contentSize = contentSize;
+        this.contentType = contentType;
+        this.boundary = randomUUID().toString();
+    }
+
+    /**
+     * @return the media type of the multipart body, naming its boundary
+     */
+    public MediaType getMediaType() {
+        return new MediaType("multipart", "byteranges", singletonMap("boundary", boundary));
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        for (final Range range : ranges) {
+            final StringBuilder headers = new StringBuilder();
+            headers.append(CRLF).append("--").append(boundary).append(CRLF);
+            if (contentType != null) {
+                headers.append("Content-Type: ").append(contentType).append(CRLF);
+            }
+            headers.append(String.format("Content-Range: bytes %s-%s/%s", range.start(), range.end(), contentSize))
+                    .append(CRLF).append(CRLF);
+
+            output.write(headers.toString().getBytes(US_ASCII));
+            content.slice(range.start(), range.size()).copyTo(output);
+        }
+        output.write((CRLF + "--" + boundary + "--" + CRLF).getBytes(US_ASCII));
+    }
+}
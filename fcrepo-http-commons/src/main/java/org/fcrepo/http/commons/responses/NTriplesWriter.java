@@ -0,0 +1,207 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * Writes Jena triples as N-Triples straight into a reused byte buffer,
+ * without building intermediate strings or converting nodes to another
+ * RDF model. Everything outside printable ASCII is written as a numeric
+ * escape, so the output is also valid for consumers that expect the older
+ * ASCII-only N-Triples.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class NTriplesWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final String IRI_EXCLUDED = "<>\"{}|^`\\";
+
+    private final OutputStream out;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int count;
+
+    /**
+     * @param out the stream to write to
+     */
+    public NTriplesWriter(final OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Write a triple as one line of N-Triples
+     *
+     * @param triple
+     * @throws IOException
+     */
+    public void write(final Triple triple) throws IOException {
+        writeNode(triple.getSubject());
+        put(' ');
+        writeNode(triple.getPredicate());
+        put(' ');
+        writeNode(triple.getObject());
+        put(' ');
+        put('.');
+        put('\n');
+    }
+
+    /**
+     * Write out anything still buffered and flush the underlying stream
+     *
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void writeNode(final Node node) throws IOException {
+        if (node.isURI()) {
+            writeIRI(node.getURI());
+        } else if (node.isBlank()) {
+            put('_');
+            put(':');
+            put('b');
+            writeLabel(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            put('"');
+            writeLexicalForm(node.getLiteralLexicalForm());
+            put('"');
+            final String language = node.getLiteralLanguage();
+            if (language != null && !language.isEmpty()) {
+                put('@');
+                writeLexicalForm(language);
+            } else if (node.getLiteralDatatypeURI() != null) {
+                put('^');
+                put('^');
+                writeIRI(node.getLiteralDatatypeURI());
+            }
+        } else {
+            throw new IllegalArgumentException("Unable to write " + node + " as N-Triples");
+        }
+    }
+
+    private void writeIRI(final String iri) throws IOException {
+        put('<');
+        final int length = iri.length();
+        for (int i = 0; i < length; i++) {
+            final char c = iri.charAt(i);
+            if (c <= 0x20 || c > 0x7e || IRI_EXCLUDED.indexOf(c) >= 0) {
+                i = writeEscape(iri, i);
+            } else {
+                put(c);
+            }
+        }
+        put('>');
+    }
+
+    private void writeLexicalForm(final String lexicalForm) throws IOException {
+        final int length = lexicalForm.length();
+        for (int i = 0; i < length; i++) {
+            final char c = lexicalForm.charAt(i);
+            switch (c) {
+                case '\\':
+                case '"':
+                    put('\\');
+                    put(c);
+                    break;
+                case '\n':
+                    put('\\');
+                    put('n');
+                    break;
+                case '\r':
+                    put('\\');
+                    put('r');
+                    break;
+                case '\t':
+                    put('\\');
+                    put('t');
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        i = writeEscape(lexicalForm, i);
+                    } else {
+                        put(c);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Blank node labels may contain characters that N-Triples does not allow
+     * in labels, so everything but letters and digits is written as its hex
+     * value. 'X' marks such a value, so it is itself escaped to keep labels
+     * distinct.
+     */
+    private void writeLabel(final String label) throws IOException {
+        final int length = label.length();
+        for (int i = 0; i < length; i++) {
+            final char c = label.charAt(i);
+            if (c != 'X' && (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9')) {
+                put(c);
+            } else {
+                put('X');
+                putHex(c, 4);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the last char consumed
+     */
+    private int writeEscape(final String s, final int i) throws IOException {
+        final char c = s.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            put('\\');
+            put('U');
+            putHex(Character.toCodePoint(c, s.charAt(i + 1)), 8);
+            return i + 1;
+        }
+        put('\\');
+        put('u');
+        putHex(c, 4);
+        return i;
+    }
+
+    private void putHex(final int value, final int digits) throws IOException {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            put(HEX[(value >> shift) & 0xf]);
+        }
+    }
+
+    private void put(final char c) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte) c;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, count);
+        count = 0;
+    }
+}
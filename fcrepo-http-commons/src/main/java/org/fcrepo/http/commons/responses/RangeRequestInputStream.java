@@ -58,7 +58,9 @@ public class RangeRequestInputStream extends FilterInputStream {
     private static class SkipInputStream extends ProxyInputStream {
 
         /**
-         * An InputStream wrapper that always skips the first N bytes
+         * An InputStream wrapper that always skips the first N bytes. The underlying stream is asked
+         * to skip them itself, so that streams able to seek (files, chunked binaries) need not read
+         * the skipped content.
          * @param in
          * @param skip
          * @throws IOException
@@ -66,7 +68,17 @@ public class RangeRequestInputStream extends FilterInputStream {
         public SkipInputStream(final InputStream in,
                                final long skip) throws IOException {
             super(in);
-            IOUtils.skip(in, skip);
+            long remaining = skip;
+            while (remaining > 0) {
+                final long skipped = in.skip(remaining);
+                if (skipped > 0) {
+                    remaining -= skipped;
+                } else if (IOUtils.skip(in, 1) == 1) {
+                    remaining--;
+                } else {
+                    break;
+                }
+            }
         }
     }
 }
@@ -30,6 +30,7 @@ import static org.openrdf.rio.RDFFormat.NO_CONTEXTS;
 import static org.openrdf.rio.RDFFormat.NO_NAMESPACES;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
@@ -96,9 +97,20 @@ public class RdfStreamProvider implements MessageBodyWriter<RdfStream> {
         final Type genericType, final Annotation[] annotations,
         final MediaType mediaType,
         final MultivaluedMap<String, Object> httpHeaders,
-        final OutputStream entityStream) {
+        final OutputStream entityStream) throws IOException {
 
         LOGGER.debug("Serializing an RdfStream to mimeType: {}", mediaType);
+        CachingRdfStream.CapturingOutputStream capture = null;
+        if (rdfStream instanceof CachingRdfStream) {
+            final CachingRdfStream cachingStream = (CachingRdfStream) rdfStream;
+            final byte[] cached = cachingStream.getCached(mediaType);
+            if (cached != null) {
+                LOGGER.debug("Writing a cached serialization");
+                entityStream.write(cached);
+                return;
+            }
+            capture = cachingStream.capture(mediaType, entityStream);
+        }
         try {
             if (rdfStream.namespaces().isEmpty()) {
                 final RdfStream namespaceRdfContext = new NamespaceRdfContext(rdfStream.session());
@@ -106,7 +118,10 @@ public class RdfStreamProvider implements MessageBodyWriter<RdfStream> {
             }
 
             final RdfStreamStreamingOutput streamOutput = new RdfStreamStreamingOutput(rdfStream, mediaType);
-            streamOutput.write(entityStream);
+            streamOutput.write(capture == null ? entityStream : capture);
+            if (capture != null) {
+                capture.commit();
+            }
         } catch (final RepositoryException e) {
             throw new WebApplicationException(e);
         }
@@ -16,10 +16,13 @@
 package org.fcrepo.http.commons.responses;
 
 import static javax.ws.rs.core.Response.Status.NOT_ACCEPTABLE;
+import static org.apache.jena.riot.RDFFormat.TURTLE_BLOCKS;
+import static org.apache.jena.riot.system.StreamRDFWriter.getWriterStream;
 import static org.openrdf.model.impl.ValueFactoryImpl.getInstance;
 import static org.openrdf.model.util.Literals.createLiteral;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.Map;
@@ -30,6 +33,7 @@ import javax.ws.rs.core.StreamingOutput;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
+import org.apache.jena.riot.system.StreamRDF;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
@@ -51,7 +55,9 @@ import com.hp.hpl.jena.graph.Node;
 import com.hp.hpl.jena.graph.Triple;
 
 /**
- * Serializes an {@link RdfStream}.
+ * Serializes an {@link RdfStream}. N-Triples and Turtle are written directly
+ * from Jena nodes; other formats are converted to Sesame statements and
+ * written with Rio.
  *
  * @author ajs6f
  * @since Oct 30, 2013
@@ -68,6 +74,8 @@ public class RdfStreamStreamingOutput extends AbstractFuture<Void> implements
 
     private final RdfStream rdfStream;
 
+    private final boolean useJena;
+
     /**
      * Normal constructor
      *
@@ -76,6 +84,18 @@ public class RdfStreamStreamingOutput extends AbstractFuture<Void> implements
      */
     public RdfStreamStreamingOutput(final RdfStream rdfStream,
             final MediaType mediaType) {
+        this(rdfStream, mediaType, true);
+    }
+
+    /**
+     * Constructor that chooses how N-Triples and Turtle are written, so the two
+     * writers can be compared
+     *
+     * @param rdfStream
+     * @param mediaType
+     * @param useJena whether to write N-Triples and Turtle directly from Jena nodes rather than with Rio
+     */
+    public RdfStreamStreamingOutput(final RdfStream rdfStream, final MediaType mediaType, final boolean useJena) {
         super();
 
         if (LOGGER.isDebugEnabled()) {
@@ -94,20 +114,47 @@ public class RdfStreamStreamingOutput extends AbstractFuture<Void> implements
         }
 
         this.rdfStream = rdfStream;
+        this.useJena = useJena;
     }
 
     @Override
     public void write(final OutputStream output) {
         LOGGER.debug("Serializing RDF stream in: {}", format);
         try {
-            write(asStatements(), output, format);
-        } catch (final RDFHandlerException e) {
+            if (useJena && format.equals(RDFFormat.NTRIPLES)) {
+                writeNTriples(output);
+            } else if (useJena && format.equals(RDFFormat.TURTLE)) {
+                writeTurtle(output);
+            } else {
+                write(asStatements(), output, format);
+            }
+        } catch (final RDFHandlerException | IOException e) {
             setException(e);
             LOGGER.debug("Error serializing RDF", e);
             throw new WebApplicationException(e);
         }
     }
 
+    private void writeNTriples(final OutputStream output) throws IOException {
+        final NTriplesWriter writer = new NTriplesWriter(output);
+        while (rdfStream.hasNext()) {
+            writer.write(rdfStream.next());
+        }
+        writer.flush();
+    }
+
+    private void writeTurtle(final OutputStream output) {
+        final StreamRDF writer = getWriterStream(output, TURTLE_BLOCKS);
+        writer.start();
+        for (final Map.Entry<String, String> namespace : excludeProtectedNamespaces(rdfStream.namespaces())) {
+            writer.prefix(namespace.getKey(), namespace.getValue());
+        }
+        while (rdfStream.hasNext()) {
+            writer.triple(rdfStream.next());
+        }
+        writer.finish();
+    }
+
     private void write(final Iterable<Statement> model,
                        final OutputStream output,
                        final RDFFormat dataFormat)
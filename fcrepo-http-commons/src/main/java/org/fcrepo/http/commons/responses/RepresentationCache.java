@@ -0,0 +1,555 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.modeshape.jcr.api.JcrConstants.JCR_CONTENT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.http.commons.session.SessionPoolingPolicy;
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.metrics.RegistryService;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.hash.Hashing;
+
+/**
+ * A bounded cache of serialized RDF representations, so that repeated GETs of
+ * an unchanged resource do not rebuild and re-serialize its triples.
+ *
+ * <p>Entries are keyed by resource path and by a variant string that callers
+ * build from everything else the representation depends on (e.g. request URI,
+ * ETag, Prefer, principals and media type). The heap tier holds up to
+ * {@code fcrepo.representation.cache.heapSize} bytes; if
+ * {@code fcrepo.representation.cache.directory} is set, entries evicted from
+ * the heap spill to files there, up to {@code fcrepo.representation.cache.diskSize}
+ * bytes.</p>
+ *
+ * <p>An entry is also indexed under the paths of the other resources whose
+ * triples it embeds. When an event for a resource arrives on the internal event
+ * bus, the entries of the resource, of its parent, of the resource that owns it
+ * if it is a hash resource, and of everything embedding it are dropped.</p>
+ *
+ * <p>Each invalidation is numbered, and the latest number is remembered for the
+ * last {@code fcrepo.representation.cache.invalidationHistory} paths invalidated.
+ * A representation is cached along with the number current when its triples
+ * began to be read, and is dropped again if the resource or any resource it
+ * embeds was invalidated since, so that one serialized while a change was
+ * being saved is not served afterwards.</p>
+ *
+ * <p>Whether a user may read a resource is not part of its ETag, so the cache
+ * is disabled when a {@link SessionPoolingPolicy} says that sessions depend on
+ * more than their principals, as they do when an authorization delegate
+ * decides access.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class RepresentationCache {
+
+    private static final Logger LOGGER = getLogger(RepresentationCache.class);
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Meter hits = metrics.meter(name(RepresentationCache.class, "hits"));
+
+    private static final Meter misses = metrics.meter(name(RepresentationCache.class, "misses"));
+
+    private static final Meter diskHits = metrics.meter(name(RepresentationCache.class, "disk-hits"));
+
+    private static final Meter invalidations = metrics.meter(name(RepresentationCache.class, "invalidations"));
+
+    private static final String HASH_SEGMENT = "/#/";
+
+    @Inject
+    private EventBus eventBus;
+
+    @Autowired(required = false)
+    private List<SessionPoolingPolicy> policies;
+
+    private long heapSize = getLong("fcrepo.representation.cache.heapSize", 64L * 1024 * 1024);
+
+    private int maxEntrySize = getInteger("fcrepo.representation.cache.maxEntrySize", 1024 * 1024);
+
+    private String directory = getProperty("fcrepo.representation.cache.directory");
+
+    private long diskSize = getLong("fcrepo.representation.cache.diskSize", 1024L * 1024 * 1024);
+
+    private int invalidationHistory = getInteger("fcrepo.representation.cache.invalidationHistory", 10000);
+
+    private Cache<Key, byte[]> heap;
+
+    private String disabled;
+
+    private DiskTier disk;
+
+    // guarded by itself, so that a set is never dropped while a key is being added to it
+    private final Map<String, Set<Key>> index = new HashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<String, Long> invalidated;
+
+    // the latest generation of any invalidation no longer remembered in invalidated
+    private final AtomicLong forgotten = new AtomicLong();
+
+    /**
+     * Build the cache tiers and start listening for changes
+     */
+    @PostConstruct
+    public void start() {
+        if (policies != null) {
+            for (final SessionPoolingPolicy policy : policies) {
+                if (policy.getPoolingVeto() != null) {
+                    disabled = policy.getPoolingVeto();
+                    LOGGER.info("Not caching RDF representations: {}", disabled);
+                    return;
+                }
+            }
+        }
+        heap = CacheBuilder.newBuilder().maximumWeight(heapSize).weigher(new Weigher<Key, byte[]>() {
+
+            @Override
+            public int weigh(final Key key, final byte[] value) {
+                return value.length;
+            }
+        }).removalListener(new RemovalListener<Key, byte[]>() {
+
+            @Override
+            public void onRemoval(final RemovalNotification<Key, byte[]> notification) {
+                if (notification.wasEvicted()) {
+                    if (disk != null) {
+                        disk.put(notification.getKey(), notification.getValue());
+                    } else {
+                        unindex(notification.getKey());
+                    }
+                }
+            }
+        }).build();
+        invalidated = CacheBuilder.newBuilder().maximumSize(invalidationHistory)
+                .removalListener(new RemovalListener<String, Long>() {
+
+                    @Override
+                    public void onRemoval(final RemovalNotification<String, Long> notification) {
+                        if (notification.wasEvicted()) {
+                            raise(forgotten, notification.getValue());
+                        }
+                    }
+                }).build();
+        if (directory != null) {
+            disk = new DiskTier(Paths.get(directory), diskSize);
+        }
+        if (eventBus != null) {
+            eventBus.register(this);
+        }
+        LOGGER.info("Caching RDF representations in {} bytes of heap{}", heapSize,
+                disk == null ? "" : " and " + diskSize + " bytes under " + directory);
+    }
+
+    /**
+     * Stop listening for changes and drop all entries
+     */
+    @PreDestroy
+    public void stop() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (eventBus != null) {
+            eventBus.unregister(this);
+        }
+        heap.invalidateAll();
+        if (disk != null) {
+            disk.clear();
+        }
+        synchronized (index) {
+            index.clear();
+        }
+    }
+
+    /**
+     * @return whether representations may be cached
+     */
+    public boolean isEnabled() {
+        return disabled == null && heap != null;
+    }
+
+    /**
+     * @param path the repository path of the resource
+     * @param variant everything else the representation depends on
+     * @return the cached representation, or null
+     */
+    public byte[] get(final String path, final String variant) {
+        final Key key = new Key(path, variant);
+        byte[] value = heap.getIfPresent(key);
+        if (value == null && disk != null) {
+            // served from disk without promotion, so the entry keeps the paths it is indexed under
+            value = disk.get(key);
+            if (value != null) {
+                diskHits.mark();
+            }
+        }
+        if (value == null) {
+            misses.mark();
+        } else {
+            hits.mark();
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of the latest invalidation, to pass to
+     *         {@link #put(String, String, byte[], Set, long)} once the representation has been built
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @param path the repository path of the resource
+     * @param variant everything else the representation depends on
+     * @param value the serialized representation
+     */
+    public void put(final String path, final String variant, final byte[] value) {
+        put(path, variant, value, Collections.<String>emptySet());
+    }
+
+    /**
+     * @param path the repository path of the resource
+     * @param variant everything else the representation depends on
+     * @param value the serialized representation
+     * @param embedded the paths of other resources whose triples the representation holds
+     */
+    public void put(final String path, final String variant, final byte[] value, final Set<String> embedded) {
+        put(path, variant, value, embedded, getGeneration());
+    }
+
+    /**
+     * @param path the repository path of the resource
+     * @param variant everything else the representation depends on
+     * @param value the serialized representation
+     * @param embedded the paths of other resources whose triples the representation holds
+     * @param since the generation when the triples of the representation began to be read
+     */
+    public void put(final String path, final String variant, final byte[] value, final Set<String> embedded,
+            final long since) {
+        if (value.length > maxEntrySize) {
+            return;
+        }
+        final Key key = new Key(path, variant, embedded);
+        index(path, key);
+        for (final String dependency : embedded) {
+            index(dependency, key);
+        }
+        heap.put(key, value);
+        // checked after indexing: an invalidation recorded later than this finds the entry through the index
+        if (invalidatedSince(path, since) || invalidatedSince(embedded, since)) {
+            LOGGER.debug("Not caching representation of {} changed while it was serialized", path);
+            heap.invalidate(key);
+            if (disk != null) {
+                disk.remove(key);
+            }
+            unindex(key);
+        }
+    }
+
+    private boolean invalidatedSince(final Set<String> paths, final long since) {
+        for (final String path : paths) {
+            if (invalidatedSince(path, since)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean invalidatedSince(final String path, final long since) {
+        final Long at = invalidated.getIfPresent(path);
+        return (at == null ? forgotten.get() : at) > since;
+    }
+
+    private static void raise(final AtomicLong value, final long to) {
+        long current = value.get();
+        while (current < to && !value.compareAndSet(current, to)) {
+            current = value.get();
+        }
+    }
+
+    private void index(final String path, final Key key) {
+        synchronized (index) {
+            Set<Key> keys = index.get(path);
+            if (keys == null) {
+                keys = new HashSet<>();
+                index.put(path, keys);
+            }
+            keys.add(key);
+        }
+    }
+
+    /**
+     * @return the largest representation that will be cached, in bytes
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Drop every cached representation of a resource
+     *
+     * @param path
+     */
+    public void invalidate(final String path) {
+        invalidated.put(path, generation.incrementAndGet());
+        final Set<Key> keys;
+        synchronized (index) {
+            keys = index.remove(path);
+        }
+        if (keys == null) {
+            return;
+        }
+        invalidations.mark();
+        heap.invalidateAll(keys);
+        for (final Key key : keys) {
+            if (disk != null) {
+                disk.remove(key);
+            }
+            unindex(key);
+        }
+    }
+
+    /**
+     * A change to a resource changes its own representation, those that embed
+     * it (which are indexed under its path too), and through containment its
+     * parent's. Hash resources are embedded in the resource that owns them even
+     * before they are first cached with it.
+     *
+     * @param event
+     */
+    @Subscribe
+    public void onEvent(final FedoraEvent event) {
+        try {
+            String path = event.getPath();
+            if (path.endsWith("/" + JCR_CONTENT)) {
+                path = path.substring(0, path.length() - JCR_CONTENT.length() - 1);
+            }
+            invalidate(path);
+            invalidate(parentOf(path));
+            final int hash = path.indexOf(HASH_SEGMENT);
+            if (hash > 0) {
+                final String owner = path.substring(0, hash);
+                invalidate(owner);
+                invalidate(parentOf(owner));
+            }
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    private static String parentOf(final String path) {
+        final int slash = path.lastIndexOf('/');
+        return slash > 0 ? path.substring(0, slash) : "/";
+    }
+
+    private void unindex(final Key key) {
+        unindex(key.path, key);
+        for (final String dependency : key.embedded) {
+            unindex(dependency, key);
+        }
+    }
+
+    private void unindex(final String path, final Key key) {
+        synchronized (index) {
+            final Set<Key> keys = index.get(path);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                index.remove(path);
+            }
+        }
+    }
+
+    /**
+     * A cached representation's resource path and variant.
+     */
+    private static final class Key {
+
+        private final String path;
+
+        private final String variant;
+
+        // where the entry is indexed besides its path; not part of its identity
+        private final Set<String> embedded;
+
+        Key(final String path, final String variant) {
+            this(path, variant, Collections.<String>emptySet());
+        }
+
+        Key(final String path, final String variant, final Set<String> embedded) {
+            this.path = path;
+            this.variant = variant;
+            this.embedded = embedded;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return path.equals(other.path) && variant.equals(other.variant);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * path.hashCode() + variant.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return path + "\n" + variant;
+        }
+    }
+
+    /**
+     * Least-recently-used files holding representations evicted from the heap.
+     */
+    private class DiskTier {
+
+        private static final String SUFFIX = ".rep";
+
+        private final Path root;
+
+        private final long maxSize;
+
+        private final LinkedHashMap<Key, Integer> sizes = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long size;
+
+        DiskTier(final Path root, final long maxSize) {
+            this.root = root;
+            this.maxSize = maxSize;
+            try {
+                Files.createDirectories(root);
+            } catch (final IOException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+            clear();
+        }
+
+        synchronized void put(final Key key, final byte[] value) {
+            final Path file = fileFor(key);
+            try {
+                final Path tmp = Files.createTempFile(root, "rep", ".tmp");
+                Files.write(tmp, value);
+                Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to spill representation of {} to disk", key.path, e);
+                unindex(key);
+                return;
+            }
+            final Integer previous = sizes.put(key, value.length);
+            size += value.length - (previous == null ? 0 : previous);
+            final Iterator<Map.Entry<Key, Integer>> eldest = sizes.entrySet().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                final Map.Entry<Key, Integer> entry = eldest.next();
+                eldest.remove();
+                size -= entry.getValue();
+                delete(entry.getKey());
+                if (!heap.asMap().containsKey(entry.getKey())) {
+                    unindex(entry.getKey());
+                }
+            }
+        }
+
+        synchronized byte[] get(final Key key) {
+            if (sizes.get(key) == null) {
+                return null;
+            }
+            try {
+                return Files.readAllBytes(fileFor(key));
+            } catch (final IOException e) {
+                LOGGER.debug("Unable to read spilled representation of {}", key.path, e);
+                remove(key);
+                return null;
+            }
+        }
+
+        synchronized void remove(final Key key) {
+            final Integer previous = sizes.remove(key);
+            if (previous != null) {
+                size -= previous;
+                delete(key);
+            }
+        }
+
+        synchronized void clear() {
+            sizes.clear();
+            size = 0;
+            try (final DirectoryStream<Path> files = Files.newDirectoryStream(root, "*" + SUFFIX)) {
+                for (final Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to clear representation cache directory {}", root, e);
+            }
+        }
+
+        private void delete(final Key key) {
+            try {
+                Files.deleteIfExists(fileFor(key));
+            } catch (final IOException e) {
+                LOGGER.debug("Unable to delete spilled representation of {}", key.path, e);
+            }
+        }
+
+        private Path fileFor(final Key key) {
+            return root.resolve(Hashing.sha1().hashString(key.toString(), UTF_8) + SUFFIX);
+        }
+    }
+}
@@ -15,32 +15,81 @@
  */
 package org.fcrepo.http.commons.session;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static javax.ws.rs.core.Response.Status.GONE;
+import static javax.ws.rs.core.Response.Status.TEMPORARY_REDIRECT;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.net.URI;
 import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.jcr.Repository;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
+import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.RedirectionException;
 
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.exception.TransactionMissingException;
+import org.fcrepo.kernel.exception.TransactionOnOtherNodeException;
 import org.fcrepo.kernel.Transaction;
 import org.fcrepo.kernel.services.TransactionService;
+import org.fcrepo.metrics.RegistryService;
 import org.modeshape.jcr.api.ServletCredentials;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Splitter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+
 /**
  * Factory for generating sessions for HTTP requests, taking
  * into account transactions and authentication.
  *
+ * <p>If {@code fcrepo.session.pool.size} is positive, sessions for read-only
+ * requests (GET, HEAD and OPTIONS outside a transaction) are kept after the
+ * request and handed to later requests with the same user principal, the same
+ * answers to {@code isUserInRole} for the roles in
+ * {@code fcrepo.session.pool.roles}, and the same values of the headers in
+ * {@code fcrepo.session.pool.headers}. A pooled session is lent to one request
+ * at a time and is refreshed, discarding any unsaved changes, both when it is
+ * returned and when it is lent again.</p>
+ *
+ * <p>Each pool also holds sessions with one set of principals, those the
+ * authentication provider computed for the first session offered to it; a
+ * session computed with other principals is logged out instead. A session
+ * whose attributes hold the servlet request it was created for is never
+ * pooled, because a later request would be authorized against that request.
+ * Pooling is turned off if any {@link SessionPoolingPolicy} bean vetoes it,
+ * as authentication providers that compute principals or delegate
+ * authorization from the rest of the request do.</p>
+ *
  * @author awoods
  * @author gregjan
  * @author kaisternad
@@ -63,12 +112,42 @@ public class SessionFactory {
 
     private static final Logger LOGGER = getLogger(SessionFactory.class);
 
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Timer loginTimer = metrics.timer(name(SessionFactory.class, "login"));
+
+    private static final Meter poolHits = metrics.meter(name(SessionFactory.class, "pool-hits"));
+
+    private static final Meter poolMisses = metrics.meter(name(SessionFactory.class, "pool-misses"));
+
+    private int poolSize = getInteger("fcrepo.session.pool.size", 0);
+
+    private int poolKeys = getInteger("fcrepo.session.pool.keys", 1000);
+
+    private int poolIdleSeconds = getInteger("fcrepo.session.pool.idle", 300);
+
+    private List<String> poolRoles = split(getProperty("fcrepo.session.pool.roles", "fedoraAdmin,fedoraUser"));
+
+    private List<String> poolHeaders = split(getProperty("fcrepo.session.pool.headers", ""));
+
+    private volatile LoadingCache<String, Pool> pools;
+
+    private volatile String poolingDisabled;
+
+    /**
+     * Pooled sessions currently lent to a request, with the key of the pool they return to
+     */
+    private final Map<Session, String> lent = new MapMaker().weakKeys().makeMap();
+
     @Autowired
     private Repository repo;
 
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired(required = false)
+    private List<SessionPoolingPolicy> poolingPolicies;
+
     /**
      * initialize an empty session factory
      */
@@ -94,6 +173,57 @@ public class SessionFactory {
     @PostConstruct
     public void init() {
         checkNotNull(repo, "SessionFactory requires a Repository instance!");
+        if (poolingPolicies != null) {
+            for (final SessionPoolingPolicy policy : poolingPolicies) {
+                final String veto = policy.getPoolingVeto();
+                if (veto != null) {
+                    disablePooling(veto);
+                }
+            }
+        }
+        if (poolSize > 0 && poolingDisabled == null) {
+            pools = CacheBuilder.newBuilder().maximumSize(poolKeys).expireAfterAccess(poolIdleSeconds, SECONDS)
+                    .removalListener(new RemovalListener<String, Pool>() {
+
+                        @Override
+                        public void onRemoval(final RemovalNotification<String, Pool> n) {
+                            logout(n.getValue().sessions);
+                        }
+                    }).build(new CacheLoader<String, Pool>() {
+
+                        @Override
+                        public Pool load(final String key) {
+                            return new Pool(poolSize);
+                        }
+                    });
+            LOGGER.info("Pooling up to {} session(s) per principal set for read-only requests", poolSize);
+        }
+    }
+
+    /**
+     * Log out any pooled sessions
+     */
+    @PreDestroy
+    public void destroy() {
+        final LoadingCache<String, Pool> current = pools;
+        if (current != null) {
+            current.invalidateAll();
+            current.cleanUp();
+        }
+    }
+
+    /**
+     * Stop pooling sessions, logging out any that are idle.
+     *
+     * @param reason why sessions may not be shared between requests
+     */
+    public void disablePooling(final String reason) {
+        poolingDisabled = reason;
+        if (poolSize > 0) {
+            LOGGER.info("Not pooling sessions: {}", reason);
+        }
+        destroy();
+        pools = null;
     }
 
     /**
@@ -124,10 +254,14 @@ public class SessionFactory {
 
         try {
             if (txId == null) {
-                session = createSession(servletRequest);
+                final LoadingCache<String, Pool> current = pools;
+                session = current != null && isReadOnly(servletRequest) ? borrowSession(current, servletRequest)
+                        : createSession(servletRequest);
             } else {
                 session = getSessionFromTransaction(servletRequest, txId);
             }
+        } catch (final TransactionOnOtherNodeException e) {
+            throw new RedirectionException(TEMPORARY_REDIRECT, getRedirect(servletRequest, e.getNodeURL()));
         } catch (final TransactionMissingException e) {
             throw new ClientErrorException(GONE, e);
         } catch (final RepositoryException e) {
@@ -151,7 +285,158 @@ public class SessionFactory {
                 new ServletCredentials(servletRequest);
 
         LOGGER.debug("Returning an authenticated session in the default workspace");
-        return  repo.login(creds);
+        final Timer.Context context = loginTimer.time();
+        try {
+            return repo.login(creds);
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Release a session obtained from {@link #getSession}, returning it to its
+     * pool if it was pooled and logging it out otherwise.
+     *
+     * @param session
+     */
+    public void releaseSession(final Session session) {
+        final String key = lent.remove(session);
+        if (!session.isLive()) {
+            return;
+        }
+        final LoadingCache<String, Pool> current = pools;
+        if (key != null && current != null) {
+            final Pool pool = current.getIfPresent(key);
+            try {
+                if (pool != null && !session.hasPendingChanges() && pool.accepts(getPrincipals(session))) {
+                    session.refresh(false);
+                    if (pool.sessions.offer(session)) {
+                        LOGGER.trace("Returned session {} to the pool", session);
+                        return;
+                    }
+                }
+            } catch (final RepositoryException e) {
+                LOGGER.debug("Unable to refresh session {}, discarding it", session, e);
+            }
+        }
+        session.logout();
+    }
+
+    /**
+     * Lend a pooled session for the request's principal set, logging in if none is idle.
+     *
+     * @param current the pools
+     * @param servletRequest
+     * @return a session for the request
+     * @throws RepositoryException if a new session could not be created
+     */
+    private Session borrowSession(final LoadingCache<String, Pool> current, final HttpServletRequest servletRequest)
+            throws RepositoryException {
+        final String key = getPoolKey(servletRequest);
+        final Pool pool = current.getUnchecked(key);
+        Session session;
+        while ((session = pool.sessions.poll()) != null) {
+            if (session.isLive()) {
+                try {
+                    session.refresh(false);
+                    poolHits.mark();
+                    lent.put(session, key);
+                    return session;
+                } catch (final RepositoryException e) {
+                    LOGGER.debug("Unable to refresh pooled session {}, discarding it", session, e);
+                }
+                session.logout();
+            }
+        }
+        poolMisses.mark();
+        session = createSession(servletRequest);
+        if (getPrincipals(session) != null) {
+            lent.put(session, key);
+        }
+        return session;
+    }
+
+    /**
+     * @param session
+     * @return the names of the principals in the session's attributes, or null if
+     *   the attributes hold a servlet request and the session may not be shared
+     */
+    protected static Set<String> getPrincipals(final Session session) {
+        final Set<String> principals = new TreeSet<>();
+        for (final String name : session.getAttributeNames()) {
+            final Object value = session.getAttribute(name);
+            final Collection<?> values = value instanceof Collection ? (Collection<?>) value : singleton(value);
+            for (final Object v : values) {
+                if (v instanceof ServletRequest) {
+                    return null;
+                } else if (v instanceof Principal) {
+                    principals.add(((Principal) v).getName());
+                }
+            }
+        }
+        return principals;
+    }
+
+    /**
+     * @param servletRequest
+     * @return the key identifying sessions that may serve the request
+     */
+    protected String getPoolKey(final HttpServletRequest servletRequest) {
+        final Principal userPrincipal = servletRequest.getUserPrincipal();
+        final StringBuilder key = new StringBuilder(userPrincipal == null ? "" : userPrincipal.getName());
+        for (final String role : poolRoles) {
+            key.append('\n').append(servletRequest.isUserInRole(role));
+        }
+        for (final String header : poolHeaders) {
+            key.append('\n').append(servletRequest.getHeader(header));
+        }
+        return key.toString();
+    }
+
+    private static boolean isReadOnly(final HttpServletRequest servletRequest) {
+        final String method = servletRequest.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    /**
+     * Idle sessions sharing a pool key, all with the same principals
+     */
+    private static class Pool {
+
+        private final BlockingQueue<Session> sessions;
+
+        private Set<String> principals;
+
+        Pool(final int size) {
+            sessions = new ArrayBlockingQueue<>(size);
+        }
+
+        /**
+         * @param sessionPrincipals the principals of a session, or null if it may not be shared
+         * @return whether a session with those principals may join the pool
+         */
+        synchronized boolean accepts(final Set<String> sessionPrincipals) {
+            if (sessionPrincipals == null) {
+                return false;
+            }
+            if (principals == null) {
+                principals = sessionPrincipals;
+            }
+            return principals.equals(sessionPrincipals);
+        }
+    }
+
+    private static void logout(final BlockingQueue<Session> pool) {
+        Session session;
+        while ((session = pool.poll()) != null) {
+            if (session.isLive()) {
+                session.logout();
+            }
+        }
+    }
+
+    private static List<String> split(final String value) {
+        return ImmutableList.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(value));
     }
 
     /**
@@ -178,6 +463,17 @@ public class SessionFactory {
 
     }
 
+    /**
+     * @param servletRequest
+     * @param nodeURL the base URL of the node holding the request's transaction
+     * @return the request's URL on that node
+     */
+    private static URI getRedirect(final HttpServletRequest servletRequest, final String nodeURL) {
+        final String path = servletRequest.getPathInfo() == null ? "" : servletRequest.getPathInfo();
+        final String query = servletRequest.getQueryString() == null ? "" : "?" + servletRequest.getQueryString();
+        return URI.create(nodeURL.replaceAll("/+$", "") + path + query);
+    }
+
     /**
      * Extract the id embedded at the beginning of a request path
      *
@@ -64,7 +64,7 @@ public class SessionProvider implements Factory<Session> {
         LOGGER.trace("Disposing session {}", session);
 
         if (session.isLive() && !isInTransaction(session)) {
-            session.logout();
+            sessionFactory.releaseSession(session);
         }
     }
 }
@@ -17,8 +17,11 @@ package org.fcrepo.http.commons.domain;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
 import org.junit.Test;
 
 /**
@@ -78,4 +81,75 @@ public class RangeTest {
         assertEquals(-1L, range.size());
 
     }
+
+    @Test
+    public void testMultipleRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-9, 50-100,200-");
+
+        assertEquals(3, ranges.size());
+        assertEquals(0L, ranges.get(0).start());
+        assertEquals(9L, ranges.get(0).end());
+        assertEquals(50L, ranges.get(1).start());
+        assertEquals(100L, ranges.get(1).end());
+        assertEquals(200L, ranges.get(2).start());
+        assertEquals(-1L, ranges.get(2).end());
+    }
+
+    @Test
+    public void testSingleRangeParsingOfAll() {
+        final List<Range> ranges = Range.convertAll("bytes=50-100");
+
+        assertEquals(1, ranges.size());
+        assertEquals(50L, ranges.get(0).start());
+        assertEquals(100L, ranges.get(0).end());
+    }
+
+    @Test
+    public void testGarbageMultipleRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-9,something");
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).hasRange());
+    }
+
+    @Test
+    public void testSuffixRangeParsingOfAll() {
+        final List<Range> ranges = Range.convertAll("bytes=0-1,-50");
+
+        assertEquals(2, ranges.size());
+        assertFalse(ranges.get(0).isSuffix());
+        assertTrue(ranges.get(1).isSuffix());
+        assertEquals(90L, ranges.get(1).resolve(140).start());
+        assertEquals(139L, ranges.get(1).resolve(140).end());
+        assertEquals(0L, ranges.get(1).resolve(10).start());
+    }
+
+    @Test
+    public void testBackwardsRangeParsingOfAll() {
+        final List<Range> ranges = Range.convertAll("bytes=0-1,9-5");
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).hasRange());
+    }
+
+    @Test
+    public void testResolve() {
+        assertEquals(9L, new Range(5).resolve(10).end());
+        assertEquals(9L, new Range(5, 20).resolve(10).end());
+        assertNull(new Range(10, 20).resolve(10));
+        assertNull(Range.suffix(0).resolve(10));
+    }
+
+    @Test
+    public void testCoalesce() {
+        final List<Range> ranges = Range.coalesce(Range.convertAll("bytes=50-60,0-9,5-19,20-29,-5,200-"), 100);
+
+        assertEquals(3, ranges.size());
+        assertEquals(0L, ranges.get(0).start());
+        assertEquals(29L, ranges.get(0).end());
+        assertEquals(50L, ranges.get(1).start());
+        assertEquals(60L, ranges.get(1).end());
+        assertEquals(95L, ranges.get(2).start());
+        assertEquals(99L, ranges.get(2).end());
+    }
 }
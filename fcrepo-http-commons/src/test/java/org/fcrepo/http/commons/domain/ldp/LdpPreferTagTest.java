@@ -22,6 +22,7 @@ import java.text.ParseException;
 
 import static org.fcrepo.kernel.RdfLexicon.EMBED_CONTAINS;
 import static org.fcrepo.kernel.RdfLexicon.INBOUND_REFERENCES;
+import static org.fcrepo.kernel.RdfLexicon.INBOUND_REFERENCE_COUNT;
 import static org.fcrepo.kernel.RdfLexicon.LDP_NAMESPACE;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -119,4 +120,14 @@ public class LdpPreferTagTest {
         assertTrue(testObj.prefersReferences());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testPreferReferenceCount() throws ParseException {
+        final PreferTag prefer
+                = new PreferTag("return=representation; include=\"" + INBOUND_REFERENCE_COUNT + "\"");
+        testObj = new LdpPreferTag(prefer);
+
+        assertTrue(testObj.prefersReferenceCount());
+        assertFalse(testObj.prefersReferences());
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.util.Arrays.copyOfRange;
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * <p>FileRangeStreamingOutputTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FileRangeStreamingOutputTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = tmp.newFile();
+        writeStringToFile(file, "0123456789");
+    }
+
+    @Test
+    public void shouldWriteTheWholeFile() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FileRangeStreamingOutput(file).write(out);
+        assertEquals("0123456789", out.toString());
+    }
+
+    @Test
+    public void shouldWriteARange() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FileRangeStreamingOutput(file, 5L, 3L).write(out);
+        assertEquals("567", out.toString());
+    }
+
+    @Test
+    public void shouldWriteAnOpenEndedRange() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FileRangeStreamingOutput(file, 7L, -1L).write(out);
+        assertEquals("789", out.toString());
+    }
+
+    @Test
+    public void shouldWriteARangeLargerThanTheBuffer() throws IOException {
+        final byte[] content = new byte[600 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        final File large = tmp.newFile();
+        writeByteArrayToFile(large, content);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FileRangeStreamingOutput(large, 1, content.length - 2).write(out);
+        assertArrayEquals(copyOfRange(content, 1, content.length - 1), out.toByteArray());
+    }
+
+    @Test
+    public void shouldStopAtTheEndOfTheFile() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FileRangeStreamingOutput(file, 8L, 10L).write(out);
+        assertEquals("89", out.toString());
+    }
+}
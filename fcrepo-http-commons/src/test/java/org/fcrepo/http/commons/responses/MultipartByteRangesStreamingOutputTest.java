@@ -0,0 +1,74 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.fcrepo.http.commons.domain.Range;
+import org.junit.Test;
+
+import com.google.common.io.ByteSource;
+
+/**
+ * <p>MultipartByteRangesStreamingOutputTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class MultipartByteRangesStreamingOutputTest {
+
+    @Test
+    public void shouldWriteEachRangeAsAPart() throws IOException {
+        final ByteSource content = ByteSource.wrap("0123456789".getBytes());
+        final MultipartByteRangesStreamingOutput testObj = new MultipartByteRangesStreamingOutput(content,
+                asList(new Range(0, 1), new Range(7, 9)), 10, "text/plain");
+        final String boundary = testObj.getMediaType().getParameters().get("boundary");
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testObj.write(out);
+
+        assertEquals("multipart", testObj.getMediaType().getType());
+        assertEquals("byteranges", testObj.getMediaType().getSubtype());
+        assertEquals("\r\n--" + boundary + "\r\n"
+                + "Content-Type: text/plain\r\n"
+                + "Content-Range: bytes 0-1/10\r\n\r\n"
+                + "01"
+                + "\r\n--" + boundary + "\r\n"
+                + "Content-Type: text/plain\r\n"
+                + "Content-Range: bytes 7-9/10\r\n\r\n"
+                + "789"
+                + "\r\n--" + boundary + "--\r\n", out.toString());
+    }
+
+    @Test
+    public void shouldOmitAMissingContentType() throws IOException {
+        final ByteSource content = ByteSource.wrap("0123456789".getBytes());
+        final MultipartByteRangesStreamingOutput testObj = new MultipartByteRangesStreamingOutput(content,
+                asList(new Range(3, 4)), 10, null);
+        final String boundary = testObj.getMediaType().getParameters().get("boundary");
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testObj.write(out);
+
+        assertEquals("\r\n--" + boundary + "\r\n"
+                + "Content-Range: bytes 3-4/10\r\n\r\n"
+                + "34"
+                + "\r\n--" + boundary + "--\r\n", out.toString());
+    }
+}
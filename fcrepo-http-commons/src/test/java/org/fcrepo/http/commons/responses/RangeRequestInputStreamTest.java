@@ -16,6 +16,7 @@
 package org.fcrepo.http.commons.responses;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -48,4 +49,41 @@ public class RangeRequestInputStreamTest {
             assertEquals("0123456789", s);
         }
     }
+
+    @Test
+    public void shouldSkipRatherThanRead() throws IOException {
+        final SkippingInputStream in = new SkippingInputStream("0123456789".getBytes());
+        try (final RangeRequestInputStream out = new RangeRequestInputStream(in, 5L, 3L)) {
+            final String s = IOUtils.toString(out);
+            assertEquals("567", s);
+            assertTrue("Should have skipped the start of the stream", in.skipped);
+        }
+    }
+
+    private static class SkippingInputStream extends ByteArrayInputStream {
+
+        private boolean skipped = false;
+
+        public SkippingInputStream(final byte[] buf) {
+            super(buf);
+        }
+
+        @Override
+        public synchronized int read() {
+            assertTrue("Should not read before the range", skipped);
+            return super.read();
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+            assertTrue("Should not read before the range", skipped);
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public synchronized long skip(final long n) {
+            skipped = true;
+            return super.skip(n);
+        }
+    }
 }
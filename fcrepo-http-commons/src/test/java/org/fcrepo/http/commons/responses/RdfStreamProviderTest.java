@@ -18,9 +18,14 @@ package org.fcrepo.http.commons.responses;
 import static com.hp.hpl.jena.graph.NodeFactory.createURI;
 import static com.hp.hpl.jena.graph.Triple.create;
 import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -39,6 +44,8 @@ import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+
+import com.google.common.base.Supplier;
 import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.Model;
 
@@ -60,6 +67,9 @@ public class RdfStreamProviderTest {
     @Mock
     private NamespaceRegistry mockNamespaceRegistry;
 
+    @Mock
+    private Supplier<RdfStream> mockSource;
+
     @Before
     public void setUp() throws RepositoryException {
         initMocks(this);
@@ -108,4 +118,38 @@ public class RdfStreamProviderTest {
                 .contains(postSerialization.asStatement(t)));
     }
 
+    @Test
+    public void testWriteToCachesSerialization() throws IOException {
+        final Triple t = create(createURI("info:test"), createURI("property:test"), createURI("info:test"));
+        when(mockSource.get()).thenReturn(new RdfStream(t));
+        final RepresentationCache cache = new RepresentationCache();
+        cache.start();
+        final MediaType mediaType = MediaType.valueOf("application/rdf+xml");
+        final RdfStream rdfStream = new CachingRdfStream(cache, "/test", "variant", mockSource).session(mockSession);
+        final byte[] result;
+        try (ByteArrayOutputStream entityStream = new ByteArrayOutputStream()) {
+            testProvider.writeTo(rdfStream, RdfStream.class, null, null, mediaType, null, entityStream);
+            result = entityStream.toByteArray();
+        }
+        final Model postSerialization = createDefaultModel().read(new ByteArrayInputStream(result), null);
+        assertTrue("Didn't find our triple!", postSerialization.contains(postSerialization.asStatement(t)));
+        assertNotNull("Should have cached the serialization!", cache.get("/test", "variant\napplication/rdf+xml"));
+        assertArrayEquals(result, cache.get("/test", "variant\napplication/rdf+xml"));
+    }
+
+    @Test
+    public void testWriteToFromCache() throws IOException {
+        final RepresentationCache cache = new RepresentationCache();
+        cache.start();
+        final byte[] cached = "cached".getBytes(UTF_8);
+        cache.put("/test", "variant\ntext/turtle", cached);
+        final RdfStream rdfStream = new CachingRdfStream(cache, "/test", "variant", mockSource).session(mockSession);
+        try (ByteArrayOutputStream entityStream = new ByteArrayOutputStream()) {
+            testProvider.writeTo(rdfStream, RdfStream.class, null, null, MediaType.valueOf("text/turtle"), null,
+                    entityStream);
+            assertArrayEquals(cached, entityStream.toByteArray());
+        }
+        verify(mockSource, never()).get();
+    }
+
 }
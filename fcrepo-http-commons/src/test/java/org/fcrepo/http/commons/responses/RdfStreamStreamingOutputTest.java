@@ -38,10 +38,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.List;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 
+import com.google.common.collect.ImmutableList;
 import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
 import com.hp.hpl.jena.rdf.model.RDFNode;
 import org.fcrepo.http.commons.domain.RDFMediaType;
@@ -213,6 +215,85 @@ public class RdfStreamStreamingOutputTest {
 
     }
 
+    @Test
+    public void testWriteNTriples() throws IOException {
+        assertRoundTrips(RDFMediaType.NTRIPLES_TYPE, "N-TRIPLES");
+    }
+
+    @Test
+    public void testWriteTurtle() throws IOException {
+        assertRoundTrips(RDFMediaType.TURTLE_TYPE, "TURTLE");
+    }
+
+    @Test
+    public void testWriteNTriplesIsAscii() throws IOException {
+        final RdfStream input = new RdfStream(create(createURI("info:testSubject"),
+                createURI("info:testPredicate"), NodeFactory.createLiteral("caf\u00e9 \ud83d\ude00")));
+        try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            new RdfStreamStreamingOutput(input, RDFMediaType.NTRIPLES_TYPE).write(output);
+            assertEquals("<info:testSubject> <info:testPredicate> \"caf\\u00E9 \\U0001F600\" .\n",
+                    output.toString("US-ASCII"));
+        }
+    }
+
+    @Test
+    public void testWriteNTriplesLikeRio() throws IOException {
+        assertWritesLikeRio(RDFMediaType.NTRIPLES_TYPE, "N-TRIPLES");
+    }
+
+    @Test
+    public void testWriteTurtleLikeRio() throws IOException {
+        assertWritesLikeRio(RDFMediaType.TURTLE_TYPE, "TURTLE");
+    }
+
+    private static void assertRoundTrips(final MediaType mediaType, final String lang) throws IOException {
+        final List<Triple> triples = sampleTriples();
+        final Model expected = createDefaultModel();
+        for (final Triple t : triples) {
+            expected.add(expected.asStatement(t));
+        }
+        final Model result = writeAndRead(triples, mediaType, lang, true);
+        assertTrue("Didn't round-trip our triples!", result.isIsomorphicWith(expected));
+    }
+
+    private static void assertWritesLikeRio(final MediaType mediaType, final String lang) throws IOException {
+        final List<Triple> triples = sampleTriples();
+        final Model jena = writeAndRead(triples, mediaType, lang, true);
+        final Model rio = writeAndRead(triples, mediaType, lang, false);
+        assertEquals(triples.size(), jena.size());
+        assertTrue("Writing directly from Jena should give the same graph as Rio!", jena.isIsomorphicWith(rio));
+    }
+
+    private static Model writeAndRead(final List<Triple> triples, final MediaType mediaType, final String lang,
+            final boolean useJena) throws IOException {
+        final RdfStream input = new RdfStream(triples).namespace("test", "info:test");
+        try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            new RdfStreamStreamingOutput(input, mediaType, useJena).write(output);
+            return createDefaultModel().read(new ByteArrayInputStream(output.toByteArray()), null, lang);
+        }
+    }
+
+    private static List<Triple> sampleTriples() {
+        final Node blank = createResource().asNode();
+        final Node otherBlank = createResource().asNode();
+        final Node subject = createURI("info:testSubject");
+        final Node predicate = createURI("info:testPredicate");
+        return ImmutableList.of(
+                triple,
+                create(subject, predicate,
+                        NodeFactory.createLiteral("quote \" backslash \\ newline \n tab \t caf\u00e9")),
+                create(subject, predicate, NodeFactory.createLiteral("return \r emoji \ud83d\ude00")),
+                create(subject, predicate, NodeFactory.createLiteral("french string", "fr", false)),
+                create(subject, predicate, NodeFactory.createLiteral("colour", "en-GB", false)),
+                create(subject, predicate, NodeFactory.createLiteral("", "en", false)),
+                create(subject, predicate, createTypedLiteral(0).asNode()),
+                create(subject, predicate, NodeFactory.createLiteral("x", NodeFactory.getType("info:testType"))),
+                create(subject, predicate, blank),
+                create(blank, predicate, createURI("info:testObject")),
+                create(blank, predicate, otherBlank),
+                create(otherBlank, predicate, NodeFactory.createLiteral("nested \"blank\"", "de", false)));
+    }
+
     @Test(expected = WebApplicationException.class)
     public void testWriteWithException() throws IOException {
 
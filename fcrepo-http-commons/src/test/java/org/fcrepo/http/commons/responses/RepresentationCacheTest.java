@@ -0,0 +1,224 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.fcrepo.http.commons.test.util.TestHelpers.setField;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.util.ReflectionUtils.findField;
+import static org.springframework.util.ReflectionUtils.getField;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.http.commons.session.SessionPoolingPolicy;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+/**
+ * <p>RepresentationCacheTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class RepresentationCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Mock
+    private FedoraEvent mockEvent;
+
+    private RepresentationCache testObj;
+
+    private final byte[] value = "<> a <info:test> .".getBytes(UTF_8);
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        testObj = new RepresentationCache();
+    }
+
+    @After
+    public void tearDown() {
+        testObj.stop();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        testObj.start();
+        testObj.put("/a", "v1", value);
+        assertArrayEquals(value, testObj.get("/a", "v1"));
+        assertNull(testObj.get("/a", "v2"));
+        assertNull(testObj.get("/b", "v1"));
+    }
+
+    @Test
+    public void testTooLargeToCache() {
+        setField(testObj, "maxEntrySize", value.length - 1);
+        testObj.start();
+        testObj.put("/a", "v1", value);
+        assertNull(testObj.get("/a", "v1"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        testObj.start();
+        testObj.put("/a", "v1", value);
+        testObj.put("/a", "v2", value);
+        testObj.put("/b", "v1", value);
+        testObj.invalidate("/a");
+        assertNull(testObj.get("/a", "v1"));
+        assertNull(testObj.get("/a", "v2"));
+        assertArrayEquals(value, testObj.get("/b", "v1"));
+    }
+
+    @Test
+    public void testEventInvalidatesResourceAndParent() throws RepositoryException {
+        testObj.start();
+        testObj.put("/a", "v1", value);
+        testObj.put("/a/b", "v1", value);
+        testObj.put("/a/b/c", "v1", value);
+        testObj.put("/d", "v1", value);
+        when(mockEvent.getPath()).thenReturn("/a/b/jcr:content");
+        testObj.onEvent(mockEvent);
+        assertNull(testObj.get("/a", "v1"));
+        assertNull(testObj.get("/a/b", "v1"));
+        assertArrayEquals(value, testObj.get("/a/b/c", "v1"));
+        assertArrayEquals(value, testObj.get("/d", "v1"));
+    }
+
+    @Test
+    public void testEventInvalidatesRoot() throws RepositoryException {
+        testObj.start();
+        testObj.put("/", "v1", value);
+        when(mockEvent.getPath()).thenReturn("/a");
+        testObj.onEvent(mockEvent);
+        assertNull(testObj.get("/", "v1"));
+    }
+
+    @Test
+    public void testSpillsToDisk() {
+        final File directory = tmp.getRoot();
+        setField(testObj, "directory", directory.getAbsolutePath());
+        setField(testObj, "heapSize", 0L);
+        testObj.start();
+        testObj.put("/a", "v1", value);
+        testObj.put("/b", "v1", value);
+        assertEquals(2, directory.listFiles().length);
+        assertArrayEquals(value, testObj.get("/a", "v1"));
+        assertArrayEquals(value, testObj.get("/b", "v1"));
+        testObj.invalidate("/a");
+        testObj.invalidate("/b");
+        assertNull(testObj.get("/a", "v1"));
+        assertNull(testObj.get("/b", "v1"));
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testEventInvalidatesEmbeddingEntries() throws RepositoryException {
+        testObj.start();
+        testObj.put("/a", "v1", value, singleton("/.well-known/genid/x"));
+        testObj.put("/b", "v1", value);
+        when(mockEvent.getPath()).thenReturn("/.well-known/genid/x");
+        testObj.onEvent(mockEvent);
+        assertNull(testObj.get("/a", "v1"));
+        assertArrayEquals(value, testObj.get("/b", "v1"));
+    }
+
+    @Test
+    public void testEventInvalidatesHashOwner() throws RepositoryException {
+        testObj.start();
+        testObj.put("/a", "v1", value);
+        when(mockEvent.getPath()).thenReturn("/a/#/new");
+        testObj.onEvent(mockEvent);
+        assertNull(testObj.get("/a", "v1"));
+    }
+
+    @Test
+    public void testNotCachedIfInvalidatedWhileSerializing() {
+        testObj.start();
+        final long since = testObj.getGeneration();
+        testObj.invalidate("/b");
+        testObj.put("/a", "v1", value, singleton("/b"), since);
+        assertNull(testObj.get("/a", "v1"));
+        testObj.put("/a", "v1", value, singleton("/b"), testObj.getGeneration());
+        assertArrayEquals(value, testObj.get("/a", "v1"));
+    }
+
+    @Test
+    public void testCachedIfUnrelatedPathInvalidated() {
+        testObj.start();
+        final long since = testObj.getGeneration();
+        testObj.invalidate("/c");
+        testObj.put("/a", "v1", value, singleton("/b"), since);
+        assertArrayEquals(value, testObj.get("/a", "v1"));
+    }
+
+    @Test
+    public void testForgottenInvalidationsCountAsRecent() {
+        setField(testObj, "invalidationHistory", 1);
+        testObj.start();
+        final long since = testObj.getGeneration();
+        testObj.invalidate("/b");
+        testObj.invalidate("/c");
+        // whether /d was invalidated is no longer known
+        testObj.put("/a", "v1", value, singleton("/d"), since);
+        assertNull(testObj.get("/a", "v1"));
+    }
+
+    @Test
+    public void testUnindexDropsEmptySets() {
+        testObj.start();
+        testObj.put("/a", "v1", value, singleton("/b"));
+        testObj.put("/c", "v1", value, singleton("/b"));
+        testObj.invalidate("/a");
+        assertEquals(2, index().size());
+        testObj.invalidate("/c");
+        assertEquals(0, index().size());
+    }
+
+    @Test
+    public void testDisabledByPolicy() {
+        final SessionPoolingPolicy mockPolicy = mock(SessionPoolingPolicy.class);
+        when(mockPolicy.getPoolingVeto()).thenReturn("an authorization delegate is configured");
+        setField(testObj, "policies", asList(mockPolicy));
+        testObj.start();
+        assertFalse(testObj.isEnabled());
+    }
+
+    private Map<?, ?> index() {
+        final Field field = findField(RepresentationCache.class, "index");
+        makeAccessible(field);
+        return (Map<?, ?>) getField(field, testObj);
+    }
+}
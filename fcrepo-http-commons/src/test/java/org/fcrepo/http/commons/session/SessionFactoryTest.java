@@ -15,14 +15,22 @@
  */
 package org.fcrepo.http.commons.session;
 
+import static java.util.Arrays.asList;
+import static org.fcrepo.http.commons.test.util.TestHelpers.setField;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.net.URI;
 import java.security.Principal;
 
 import javax.jcr.Credentials;
@@ -30,9 +38,11 @@ import javax.jcr.Repository;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.RedirectionException;
 
 import org.fcrepo.kernel.Transaction;
 import org.fcrepo.kernel.exception.TransactionMissingException;
+import org.fcrepo.kernel.exception.TransactionOnOtherNodeException;
 import org.fcrepo.kernel.services.TransactionService;
 import org.junit.Before;
 import org.junit.Test;
@@ -74,6 +84,7 @@ public class SessionFactoryTest {
     @Before
     public void setUp() {
         initMocks(this);
+        when(mockSession.getAttributeNames()).thenReturn(new String[] {});
         testObj = new SessionFactory(mockRepo, mockTxService);
         testObj.init();
     }
@@ -124,6 +135,20 @@ public class SessionFactoryTest {
         }
     }
 
+    @Test
+    public void testGetSessionRedirectsToOwningNode() {
+        when(mockRequest.getPathInfo()).thenReturn("/tx:123/some/path");
+        when(mockRequest.getQueryString()).thenReturn("a=b");
+        when(mockTxService.getTransaction("123", null)).thenThrow(
+                new TransactionOnOtherNodeException("123", "http://node2/rest/"));
+        try {
+            testObj.getSession(mockRequest);
+            fail("Expected a redirect");
+        } catch (final RedirectionException e) {
+            assertEquals(URI.create("http://node2/rest/tx:123/some/path?a=b"), e.getLocation());
+        }
+    }
+
     @Test
     public void testGetEmbeddedIdTx() {
         when(mockRequest.getPathInfo()).thenReturn("/tx:123/some/path");
@@ -131,4 +156,135 @@ public class SessionFactoryTest {
         assertEquals("txId should be 123", "123", txId);
     }
 
+    @Test
+    public void testReadOnlySessionsArePooled() throws RepositoryException {
+        final Session otherSession = mock(Session.class);
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession, otherSession);
+        when(mockSession.isLive()).thenReturn(true);
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("GET");
+        when(mockRequest.getUserPrincipal()).thenReturn(mockUser);
+        when(mockUser.getName()).thenReturn("someone");
+
+        final Session first = testObj.getSession(mockRequest);
+        testObj.releaseSession(first);
+        verify(mockSession, never()).logout();
+        verify(mockSession).refresh(false);
+
+        final Session second = testObj.getSession(mockRequest);
+        assertSame(first, second);
+        verify(mockRepo, times(1)).login(any(Credentials.class));
+    }
+
+    @Test
+    public void testPoolsAreKeyedByPrincipal() throws RepositoryException {
+        final Session otherSession = mock(Session.class);
+        when(otherSession.getAttributeNames()).thenReturn(new String[] {});
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession, otherSession);
+        when(mockSession.isLive()).thenReturn(true);
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("GET");
+        when(mockRequest.getUserPrincipal()).thenReturn(mockUser);
+        when(mockUser.getName()).thenReturn("someone");
+        testObj.releaseSession(testObj.getSession(mockRequest));
+
+        when(mockUser.getName()).thenReturn("someone-else");
+        assertNotSame(mockSession, testObj.getSession(mockRequest));
+    }
+
+    @Test
+    public void testWritesAreNotPooled() throws RepositoryException {
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession);
+        when(mockSession.isLive()).thenReturn(true);
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("PUT");
+        testObj.releaseSession(testObj.getSession(mockRequest));
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testDirtySessionsAreDiscarded() throws RepositoryException {
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession);
+        when(mockSession.isLive()).thenReturn(true);
+        when(mockSession.hasPendingChanges()).thenReturn(true);
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("GET");
+        testObj.releaseSession(testObj.getSession(mockRequest));
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testDestroyLogsOutPooledSessions() throws RepositoryException {
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession);
+        when(mockSession.isLive()).thenReturn(true);
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("HEAD");
+        testObj.releaseSession(testObj.getSession(mockRequest));
+        testObj.destroy();
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testSessionsHoldingTheRequestAreNotPooled() throws RepositoryException {
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession);
+        when(mockSession.isLive()).thenReturn(true);
+        when(mockSession.getAttributeNames()).thenReturn(new String[] { "request" });
+        when(mockSession.getAttribute("request")).thenReturn(mockRequest);
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("GET");
+        testObj.releaseSession(testObj.getSession(mockRequest));
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testPoolsHoldOnePrincipalSet() throws RepositoryException {
+        final Session otherSession = mock(Session.class);
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession, otherSession);
+        when(mockSession.isLive()).thenReturn(true);
+        when(otherSession.isLive()).thenReturn(true);
+        final Principal other = mock(Principal.class);
+        when(other.getName()).thenReturn("group");
+        when(otherSession.getAttributeNames()).thenReturn(new String[] { "principals" });
+        when(otherSession.getAttribute("principals")).thenReturn(asList(mockUser, other));
+        when(mockSession.getAttributeNames()).thenReturn(new String[] { "principals" });
+        when(mockSession.getAttribute("principals")).thenReturn(asList(mockUser));
+        enablePooling();
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("GET");
+        when(mockRequest.getUserPrincipal()).thenReturn(mockUser);
+        when(mockUser.getName()).thenReturn("someone");
+
+        final Session first = testObj.getSession(mockRequest);
+        final Session second = testObj.getSession(mockRequest);
+        testObj.releaseSession(first);
+        testObj.releaseSession(second);
+        verify(mockSession, never()).logout();
+        verify(otherSession).logout();
+    }
+
+    @Test
+    public void testPoolingVeto() throws RepositoryException {
+        when(mockRepo.login(any(Credentials.class))).thenReturn(mockSession);
+        when(mockSession.isLive()).thenReturn(true);
+        final SessionPoolingPolicy mockPolicy = mock(SessionPoolingPolicy.class);
+        when(mockPolicy.getPoolingVeto()).thenReturn("not safe");
+        enablePooling(mockPolicy);
+        when(mockRequest.getPathInfo()).thenReturn("/some/path");
+        when(mockRequest.getMethod()).thenReturn("GET");
+        testObj.releaseSession(testObj.getSession(mockRequest));
+        verify(mockSession).logout();
+    }
+
+    private void enablePooling(final SessionPoolingPolicy... policies) {
+        testObj = new SessionFactory(mockRepo, mockTxService);
+        setField(testObj, "poolSize", 2);
+        setField(testObj, "poolingPolicies", asList(policies));
+        testObj.init();
+    }
 }
@@ -17,9 +17,11 @@ package org.fcrepo.http.commons.session;
 
 import static org.fcrepo.http.commons.test.util.TestHelpers.setField;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.servlet.http.HttpServletRequest;
 
@@ -62,4 +64,12 @@ public class SessionProviderTest {
         final Session inj = testObj.provide();
         assertNotNull("Didn't get a session", inj);
     }
+
+    @Test
+    public void testDisposeReleasesToFactory() throws RepositoryException {
+        when(mockSession.isLive()).thenReturn(true);
+        when(mockSession.getNamespacePrefixes()).thenReturn(new String[0]);
+        testObj.dispose(mockSession);
+        verify(mockSessionFactory).releaseSession(mockSession);
+    }
 }
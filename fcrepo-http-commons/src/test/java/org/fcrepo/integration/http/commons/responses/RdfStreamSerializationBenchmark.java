@@ -0,0 +1,123 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.integration.http.commons.responses;
+
+import static com.google.common.io.ByteStreams.nullOutputStream;
+import static com.hp.hpl.jena.graph.NodeFactory.createLiteral;
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static com.hp.hpl.jena.graph.Triple.create;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.fcrepo.http.commons.domain.RDFMediaType.NTRIPLES_TYPE;
+import static org.fcrepo.http.commons.domain.RDFMediaType.TURTLE_TYPE;
+import static org.junit.Assert.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import org.fcrepo.http.commons.responses.RdfStreamStreamingOutput;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import com.google.common.io.CountingOutputStream;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * Compares the time taken to serialize a large {@link RdfStream} directly from
+ * Jena nodes with the time taken through Sesame's Rio writers. The number of
+ * triples may be set with {@code fcrepo.serialization.benchmark.triples}.
+ *
+ * <p>It only logs its timings, so it is left out of the default build; run it
+ * with -Pbenchmarks. That both paths write the same graph is tested in
+ * RdfStreamStreamingOutputTest.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class RdfStreamSerializationBenchmark {
+
+    private static final Logger LOGGER = getLogger(RdfStreamSerializationBenchmark.class);
+
+    private static final int TRIPLES = getInteger("fcrepo.serialization.benchmark.triples", 100000);
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final int ROUNDS = 5;
+
+    private final List<Triple> triples = buildTriples();
+
+    @Test
+    public void testNTriples() {
+        compare(NTRIPLES_TYPE);
+    }
+
+    @Test
+    public void testTurtle() {
+        compare(TURTLE_TYPE);
+    }
+
+    private void compare(final MediaType mediaType) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            time(mediaType, true);
+            time(mediaType, false);
+        }
+        long jena = 0;
+        long rio = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            jena += time(mediaType, true);
+            rio += time(mediaType, false);
+        }
+        LOGGER.info("Serialized {} triples as {} in {} ms directly from Jena and {} ms with Rio", TRIPLES,
+                mediaType, NANOSECONDS.toMillis(jena / ROUNDS), NANOSECONDS.toMillis(rio / ROUNDS));
+    }
+
+    private long time(final MediaType mediaType, final boolean useJena) {
+        final CountingOutputStream output = new CountingOutputStream(nullOutputStream());
+        final RdfStream rdfStream = new RdfStream(triples).namespace("test", "info:fedora/test/");
+        final long start = nanoTime();
+        new RdfStreamStreamingOutput(rdfStream, mediaType, useJena).write(output);
+        final long elapsed = nanoTime() - start;
+        assertTrue("Should have written something!", output.getCount() > 0);
+        return elapsed;
+    }
+
+    private static List<Triple> buildTriples() {
+        final List<Triple> triples = new ArrayList<>(TRIPLES);
+        final Node title = createURI("http://purl.org/dc/elements/1.1/title");
+        final Node size = createURI("info:fedora/test/size");
+        final Node hasPart = createURI("info:fedora/test/hasPart");
+        for (int i = 0; i < TRIPLES; i++) {
+            final Node subject = createURI("info:fedora/test/resource/" + i / 10);
+            switch (i % 3) {
+                case 0:
+                    triples.add(create(subject, title, createLiteral("Resource number " + i, "en", false)));
+                    break;
+                case 1:
+                    triples.add(create(subject, size, createLiteral(Integer.toString(i), XSDDatatype.XSDint)));
+                    break;
+                default:
+                    triples.add(create(subject, hasPart, createURI("info:fedora/test/resource/" + i)));
+            }
+        }
+        return triples;
+    }
+}
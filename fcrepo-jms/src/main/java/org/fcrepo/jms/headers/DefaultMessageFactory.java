@@ -99,12 +99,12 @@ public class DefaultMessageFactory implements JMSEventMessageFactory {
             setBaseURL(jcrEvent);
         }
 
-        final Message message = jmsSession.createMessage();
-        message.setLongProperty(TIMESTAMP_HEADER_NAME, jcrEvent.getDate());
         String path = jcrEvent.getPath();
         if ( path.endsWith("/" + JCR_CONTENT) ) {
             path = path.replaceAll("/" + JCR_CONTENT,"");
         }
+        final Message message = createMessage(jcrEvent, path, jmsSession);
+        message.setLongProperty(TIMESTAMP_HEADER_NAME, jcrEvent.getDate());
         message.setStringProperty(IDENTIFIER_HEADER_NAME, path);
         message.setStringProperty(EVENT_TYPE_HEADER_NAME, getEventURIs( jcrEvent
                 .getTypes()));
@@ -115,6 +115,22 @@ public class DefaultMessageFactory implements JMSEventMessageFactory {
         return message;
     }
 
+    /**
+     * Create the message that headers will be set on. Subclasses may override
+     * this to attach a body.
+     *
+     * @param jcrEvent the event being published
+     * @param path the repository path of the resource the event concerns
+     * @param jmsSession
+     * @return an empty message
+     * @throws RepositoryException
+     * @throws JMSException
+     */
+    protected Message createMessage(final FedoraEvent jcrEvent, final String path,
+            final javax.jms.Session jmsSession) throws RepositoryException, JMSException {
+        return jmsSession.createMessage();
+    }
+
     private static String getEventURIs(final Set<Integer> types) {
         final String uris = Joiner.on(',').join(Iterables.transform(types, new Function<Integer, String>() {
 
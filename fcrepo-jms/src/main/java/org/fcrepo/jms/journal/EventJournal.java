@@ -0,0 +1,378 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.journal;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.slf4j.Logger;
+
+/**
+ * An append-only journal of {@link FedoraEvent}s, held in a directory of
+ * memory-mapped segment files. Each event is given a sequence number, starting
+ * from 0, by which it may be read back.
+ *
+ * <p>A segment is named for the sequence number of its first event and holds
+ * records of the form: length, CRC-32 of the payload, payload. A zero length
+ * marks the end of the records written so far, so that a journal left behind by
+ * a crash can be reopened and appended to from its last intact record.</p>
+ *
+ * <p>Appended events reach the segment files as soon as they are written, but
+ * are only forced to disk, surviving an operating system failure, in groups:
+ * once every {@code syncBatch} appends, and whenever {@link #sync()} is
+ * called.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class EventJournal implements Closeable {
+
+    private static final Logger LOGGER = getLogger(EventJournal.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{20})\\.seg");
+
+    private static final int HEADER_SIZE = 8;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final int syncBatch;
+
+    private int unsynced;
+
+    private final int retainedSegments;
+
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+
+    private long nextSequence;
+
+    private long activeStart;
+
+    private MappedByteBuffer active;
+
+    private long cursorSequence = -1;
+
+    private long cursorStart;
+
+    private int cursorPosition;
+
+    private long readStart = -1;
+
+    private MappedByteBuffer readBuffer;
+
+    /**
+     * Open the journal in the given directory, recovering any segments already there.
+     *
+     * @param directory where the segments are kept
+     * @param segmentSize the size of each segment, in bytes
+     * @param syncBatch how many appended events to force to disk at once, or 0 to force them only on
+     *        {@link #sync()}
+     * @param retainedSegments how many segments to keep after their events have been forwarded
+     */
+    public EventJournal(final File directory, final int segmentSize, final int syncBatch,
+            final int retainedSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncBatch = Math.max(syncBatch, 0);
+        this.retainedSegments = Math.max(retainedSegments, 1);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RepositoryRuntimeException("Unable to create event journal directory " + directory);
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(0);
+            nextSequence = 0;
+        } else {
+            recover();
+        }
+        LOGGER.info("Opened event journal in {} at sequence {}", directory, nextSequence);
+    }
+
+    /**
+     * Append an event to the journal.
+     *
+     * @param event the event
+     * @return the sequence number given to the event
+     */
+    public synchronized long append(final FedoraEvent event) {
+        final long sequence = nextSequence;
+        final byte[] payload = JournalRecord.of(sequence, event).encode();
+        final int needed = HEADER_SIZE + payload.length + 4;
+        if (needed > segmentSize) {
+            throw new RepositoryRuntimeException("Event of " + payload.length
+                    + " bytes is too large for an event journal segment of " + segmentSize + " bytes");
+        }
+        if (active.remaining() < needed) {
+            sealSegment();
+            openSegment(sequence);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        active.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        active.putInt(active.position(), 0);
+        unsynced++;
+        if (syncBatch > 0 && unsynced >= syncBatch) {
+            sync();
+        }
+        nextSequence++;
+        notifyAll();
+        return sequence;
+    }
+
+    /**
+     * Force any events appended since the last sync to disk.
+     */
+    public synchronized void sync() {
+        if (unsynced > 0 && active != null) {
+            active.force();
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Read events from the journal.
+     *
+     * @param fromSequence the sequence number of the first event to read; events before the oldest
+     *        held in the journal are skipped
+     * @param max the most events to read
+     * @return the events, in order of sequence number
+     */
+    public synchronized List<JournalRecord> read(final long fromSequence, final int max) {
+        if (fromSequence >= nextSequence || max <= 0) {
+            return Collections.emptyList();
+        }
+        final List<JournalRecord> records = new ArrayList<>(Math.min(max, (int) (nextSequence - fromSequence)));
+        // carry on from where the last read stopped rather than scanning the segment from its start
+        final boolean resume = fromSequence == cursorSequence && segments.containsKey(cursorStart);
+        final Long floor = resume ? Long.valueOf(cursorStart) : segments.floorKey(fromSequence);
+        for (final Long start : segments.tailMap(floor == null ? segments.firstKey() : floor).keySet()) {
+            final ByteBuffer buffer = segmentBuffer(start);
+            int position = resume && start == cursorStart ? cursorPosition : 0;
+            while (position + HEADER_SIZE <= buffer.limit()) {
+                final int length = buffer.getInt(position);
+                if (length <= 0) {
+                    break;
+                }
+                final int payloadStart = position + HEADER_SIZE;
+                position = payloadStart + length;
+                if (buffer.getLong(payloadStart) < fromSequence) {
+                    continue;
+                }
+                buffer.position(payloadStart);
+                final JournalRecord record = JournalRecord.decode(buffer);
+                records.add(record);
+                if (records.size() == max) {
+                    cursorSequence = record.getSequence() + 1;
+                    cursorStart = start;
+                    cursorPosition = position;
+                    return records;
+                }
+            }
+            if (!records.isEmpty()) {
+                cursorSequence = records.get(records.size() - 1).getSequence() + 1;
+                cursorStart = start;
+                cursorPosition = position;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Find the first event at or after the given time.
+     *
+     * @param timestamp milliseconds since the epoch
+     * @return the sequence number of the event, or that of the next event to be appended if there is none
+     */
+    public synchronized long findSequence(final long timestamp) {
+        Long from = segments.firstKey();
+        for (final Long start : segments.keySet()) {
+            final ByteBuffer buffer = segmentBuffer(start);
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) <= 0
+                    || buffer.getLong(HEADER_SIZE + 8) >= timestamp) {
+                break;
+            }
+            from = start;
+        }
+        long sequence = from;
+        while (sequence < nextSequence) {
+            final List<JournalRecord> records = read(sequence, 256);
+            if (records.isEmpty()) {
+                break;
+            }
+            for (final JournalRecord record : records) {
+                if (record.getTimestamp() >= timestamp) {
+                    return record.getSequence();
+                }
+            }
+            sequence = records.get(records.size() - 1).getSequence() + 1;
+        }
+        return nextSequence;
+    }
+
+    /**
+     * @return the sequence number of the oldest event held, or -1 if there is none
+     */
+    public synchronized long getFirstSequence() {
+        final long first = segments.firstKey();
+        return first < nextSequence ? first : -1;
+    }
+
+    /**
+     * @return the sequence number of the most recent event, or -1 if there is none
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Wait until an event after the given sequence number has been appended.
+     *
+     * @param sequence the sequence number already seen
+     * @param timeout the longest to wait, in milliseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void awaitAppend(final long sequence, final long timeout) throws InterruptedException {
+        if (nextSequence - 1 <= sequence) {
+            wait(timeout);
+        }
+    }
+
+    /**
+     * Discard the oldest segments whose events have all been forwarded, keeping the configured number
+     * of segments for replay.
+     *
+     * @param forwardedSequence the sequence number of the last event forwarded
+     */
+    public synchronized void release(final long forwardedSequence) {
+        while (segments.size() > retainedSegments) {
+            final Map.Entry<Long, File> oldest = segments.firstEntry();
+            final Long next = segments.higherKey(oldest.getKey());
+            if (next == null || next - 1 > forwardedSequence) {
+                return;
+            }
+            if (oldest.getKey() == readStart) {
+                readStart = -1;
+                readBuffer = null;
+            }
+            segments.remove(oldest.getKey());
+            if (!oldest.getValue().delete()) {
+                LOGGER.warn("Unable to delete event journal segment {}", oldest.getValue());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        sealSegment();
+        readBuffer = null;
+    }
+
+    private void recover() {
+        final Map.Entry<Long, File> last = segments.lastEntry();
+        openSegment(last.getKey());
+        nextSequence = last.getKey();
+        int position = 0;
+        while (position + HEADER_SIZE <= active.capacity()) {
+            final int length = active.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > active.capacity()) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            active.position(position + HEADER_SIZE);
+            active.get(payload);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != active.getInt(position + 4)) {
+                LOGGER.warn("Discarding torn record at offset {} of event journal segment {}", position,
+                        last.getValue());
+                break;
+            }
+            nextSequence = ByteBuffer.wrap(payload).getLong() + 1;
+            position += HEADER_SIZE + length;
+        }
+        active.position(position);
+        if (active.remaining() >= 4) {
+            active.putInt(position, 0);
+        }
+    }
+
+    private void openSegment(final long start) {
+        final File file = new File(directory, String.format("journal-%020d.seg", start));
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                final FileChannel channel = raf.getChannel()) {
+            active = channel.map(READ_WRITE, 0, segmentSize);
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Unable to open event journal segment " + file, e);
+        }
+        activeStart = start;
+        segments.put(start, file);
+    }
+
+    private void sealSegment() {
+        if (active != null) {
+            active.force();
+            active = null;
+            unsynced = 0;
+        }
+    }
+
+    private ByteBuffer segmentBuffer(final long start) {
+        if (start == activeStart && active != null) {
+            final ByteBuffer buffer = active.duplicate();
+            buffer.limit(buffer.position());
+            return buffer;
+        }
+        if (start != readStart) {
+            final File file = segments.get(start);
+            try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+                    final FileChannel channel = raf.getChannel()) {
+                readBuffer = channel.map(READ_ONLY, 0, channel.size());
+            } catch (final IOException e) {
+                throw new RepositoryRuntimeException("Unable to read event journal segment " + file, e);
+            }
+            readStart = start;
+        }
+        return readBuffer.duplicate();
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.jcr.observation.Event.PROPERTY_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static javax.jcr.observation.Event.PROPERTY_REMOVED;
+import static org.modeshape.jcr.api.JcrConstants.JCR_PRIMARY_TYPE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.observer.FedoraEvent;
+
+/**
+ * A {@link FedoraEvent} as it is held in the {@link EventJournal}, together
+ * with the sequence number it was given there.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class JournalRecord {
+
+    private final long sequence;
+
+    private final long timestamp;
+
+    private final List<Integer> types;
+
+    private final String path;
+
+    private final Set<String> properties;
+
+    private final String userID;
+
+    private final String identifier;
+
+    private final String userData;
+
+    private final Map<String, String> info;
+
+    private JournalRecord(final long sequence, final long timestamp, final List<Integer> types, final String path,
+            final Set<String> properties, final String userID, final String identifier, final String userData,
+            final Map<String, String> info) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.types = types;
+        this.path = path;
+        this.properties = properties;
+        this.userID = userID;
+        this.identifier = identifier;
+        this.userData = userData;
+        this.info = info;
+    }
+
+    /**
+     * Capture an event for the journal.
+     *
+     * @param sequence the sequence number of the event in the journal
+     * @param event the event
+     * @return the record
+     */
+    public static JournalRecord of(final long sequence, final FedoraEvent event) {
+        try {
+            final Map<String, String> info = new HashMap<>();
+            for (final Map.Entry<Object, Object> entry : event.getInfo().entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    info.put(entry.getKey().toString(), entry.getValue().toString());
+                }
+            }
+            return new JournalRecord(sequence, event.getDate(), new ArrayList<>(event.getTypes()), event.getPath(),
+                    new LinkedHashSet<>(event.getProperties()), event.getUserID(), event.getIdentifier(),
+                    event.getUserData(), info);
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the sequence number of the event in the journal
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the time of the event, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the path of the resource the event concerns
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Rebuild the event this record was captured from.
+     *
+     * @return the event
+     */
+    public FedoraEvent toFedoraEvent() {
+        final FedoraEvent event = new FedoraEvent(new JournaledEvent());
+        for (final Integer type : types) {
+            event.addType(type);
+        }
+        for (final String property : properties) {
+            event.addProperty(property);
+        }
+        return event;
+    }
+
+    /**
+     * @return the serialized form of this record
+     */
+    byte[] encode() {
+        try (final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(sequence);
+            out.writeLong(timestamp);
+            out.writeInt(types.size());
+            for (final Integer type : types) {
+                out.writeInt(type);
+            }
+            writeString(out, path);
+            out.writeInt(properties.size());
+            for (final String property : properties) {
+                writeString(out, property);
+            }
+            writeString(out, userID);
+            writeString(out, identifier);
+            writeString(out, userData);
+            out.writeInt(info.size());
+            for (final Map.Entry<String, String> entry : info.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    /**
+     * Read a record back from its serialized form.
+     *
+     * @param buffer positioned at the start of the serialized record
+     * @return the record
+     */
+    static JournalRecord decode(final ByteBuffer buffer) {
+        final long sequence = buffer.getLong();
+        final long timestamp = buffer.getLong();
+        final int typeCount = buffer.getInt();
+        final List<Integer> types = new ArrayList<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            types.add(buffer.getInt());
+        }
+        final String path = readString(buffer);
+        final int propertyCount = buffer.getInt();
+        final Set<String> properties = new LinkedHashSet<>(propertyCount);
+        for (int i = 0; i < propertyCount; i++) {
+            properties.add(readString(buffer));
+        }
+        final String userID = readString(buffer);
+        final String identifier = readString(buffer);
+        final String userData = readString(buffer);
+        final int infoCount = buffer.getInt();
+        final Map<String, String> info = new HashMap<>(infoCount);
+        for (int i = 0; i < infoCount; i++) {
+            info.put(readString(buffer), readString(buffer));
+        }
+        return new JournalRecord(sequence, timestamp, types, path, properties, userID, identifier, userData, info);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * The JCR event behind a {@link FedoraEvent} rebuilt from the journal.
+     */
+    private class JournaledEvent implements Event {
+
+        private final int type = types.isEmpty() ? Event.NODE_ADDED : types.get(0);
+
+        @Override
+        public int getType() {
+            return type;
+        }
+
+        @Override
+        public String getPath() {
+            // FedoraEvent expects property events to carry the path of the property itself
+            if (type == PROPERTY_ADDED || type == PROPERTY_CHANGED || type == PROPERTY_REMOVED) {
+                final String property = properties.isEmpty() ? JCR_PRIMARY_TYPE : properties.iterator().next();
+                return path + "/" + property;
+            }
+            return path;
+        }
+
+        @Override
+        public String getUserID() {
+            return userID;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Map<Object, Object> getInfo() {
+            return new HashMap<Object, Object>(info);
+        }
+
+        @Override
+        public String getUserData() {
+            return userData;
+        }
+
+        @Override
+        public long getDate() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.journal;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.fcrepo.jms.headers.DefaultMessageFactory.JMS_NAMESPACE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.fcrepo.jms.observer.EventCoalescer;
+import org.fcrepo.jms.observer.JMSEventMessageFactory;
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.kernel.services.EventJournalService;
+import org.fcrepo.metrics.RegistryService;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Publishes events from the EventBus to JMS by way of an {@link EventJournal},
+ * so that events are not lost while the broker is unavailable.
+ *
+ * <p>Each event is appended to the journal as it is received. A background
+ * thread forwards journaled events to the broker in transacted batches and
+ * records the last sequence number sent in a checkpoint file once each batch is
+ * committed, so delivery is at-least-once: a batch interrupted by a failure or
+ * shutdown is sent again. Each message carries its sequence number in the
+ * {@link #SEQUENCE_HEADER_NAME} header so that consumers may discard
+ * duplicates. Journaled events may be replayed on request.</p>
+ *
+ * <p>Appended events are forced to disk in groups of
+ * {@code fcrepo.jms.journal.syncBatch}, and before each batch is forwarded.
+ * With {@code fcrepo.jms.journal.sync=false} they are left to the operating
+ * system, surviving a crash of the repository but not of the host.</p>
+ *
+ * <p>This is used in place of {@link org.fcrepo.jms.observer.JMSTopicPublisher}.
+ * The journal takes the place of that publisher's queue and worker threads: the
+ * EventBus thread only appends to it, and the forwarder sends in transacted
+ * batches. If {@code fcrepo.jms.coalesce.window} is positive, events pass
+ * through the same {@link EventCoalescer} before they are journaled, so an
+ * event is not durable until its window has closed.</p>
+ *
+ * <p>After {@code fcrepo.jms.journal.reconnectAfter} consecutive failed batches
+ * the connection, session and producer are closed and created again, so that
+ * forwarding resumes after the broker restarts even without a {@code failover:}
+ * broker URL.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class JournalingEventForwarder implements EventJournalService {
+
+    private static final Logger LOGGER = getLogger(JournalingEventForwarder.class);
+
+    public static final String SEQUENCE_HEADER_NAME = JMS_NAMESPACE + "sequence";
+
+    static final String DIRECTORY_PROPERTY = "fcrepo.jms.journal.directory";
+
+    static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+    private static final long MAX_BACKOFF = 30000;
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Meter journaledMeter = metrics.meter(name(EventJournalService.class, "journaled"));
+
+    private static final Meter forwardedMeter = metrics.meter(name(EventJournalService.class, "forwarded"));
+
+    private static final Counter failureCounter = metrics.counter(name(EventJournalService.class, "failures"));
+
+    private static final String LAG = name(EventJournalService.class, "lag");
+
+    @Inject
+    private EventBus eventBus;
+
+    @Inject
+    private ActiveMQConnectionFactory connectionFactory;
+
+    @Inject
+    private JMSEventMessageFactory eventFactory;
+
+    private File directory = new File(getProperty(DIRECTORY_PROPERTY,
+            getProperty("java.io.tmpdir") + File.separator + "fcrepo-jms-journal"));
+
+    private int segmentSize = getInteger("fcrepo.jms.journal.segmentSize", 64 * 1024 * 1024);
+
+    private boolean sync = Boolean.parseBoolean(getProperty("fcrepo.jms.journal.sync", "true"));
+
+    private int syncBatch = getInteger("fcrepo.jms.journal.syncBatch", 100);
+
+    private int retainedSegments = getInteger("fcrepo.jms.journal.retainedSegments", 16);
+
+    private int batchSize = getInteger("fcrepo.jms.journal.batchSize", 100);
+
+    private int reconnectAfter = getInteger("fcrepo.jms.journal.reconnectAfter", 3);
+
+    private long coalesceWindow = getLong("fcrepo.jms.coalesce.window", 0L);
+
+    private int coalesceMaxPending = getInteger("fcrepo.jms.coalesce.maxPending", 10000);
+
+    private EventCoalescer coalescer;
+
+    private EventJournal journal;
+
+    private Connection connection;
+
+    private Session jmsSession;
+
+    private MessageProducer producer;
+
+    private Thread forwarder;
+
+    private volatile boolean running;
+
+    private long nextToForward;
+
+    private int consecutiveFailures;
+
+    private volatile long forwardedSequence = -1;
+
+    /**
+     * Append an event from the EventBus to the journal, by way of the coalescer if there is one.
+     *
+     * @param fedoraEvent the event
+     */
+    @Subscribe
+    public void journalEvent(final FedoraEvent fedoraEvent) {
+        if (coalescer != null) {
+            coalescer.add(fedoraEvent);
+            return;
+        }
+        append(fedoraEvent);
+    }
+
+    private void append(final FedoraEvent fedoraEvent) {
+        final long sequence = journal.append(fedoraEvent);
+        journaledMeter.mark();
+        LOGGER.debug("Journaled event {}: {}", sequence, fedoraEvent);
+    }
+
+    /**
+     * Open the journal, connect to the broker and start forwarding.
+     *
+     * @throws JMSException
+     */
+    @PostConstruct
+    public void start() throws JMSException {
+        LOGGER.debug("Initializing: {}", this.getClass().getCanonicalName());
+
+        journal = new EventJournal(directory, segmentSize, sync ? syncBatch : 0, retainedSegments);
+        forwardedSequence = readCheckpoint();
+        nextToForward = Math.max(forwardedSequence + 1, journal.getFirstSequence());
+
+        connect();
+
+        metrics.remove(LAG);
+        metrics.register(LAG, new Gauge<Long>() {
+
+            @Override
+            public Long getValue() {
+                return journal.getLastSequence() - forwardedSequence;
+            }
+        });
+
+        running = true;
+        forwarder = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                forward();
+            }
+        }, "fcrepo-jms-journal-forwarder");
+        forwarder.setDaemon(true);
+        forwarder.start();
+        if (coalesceWindow > 0) {
+            coalescer = new EventCoalescer(coalesceWindow, coalesceMaxPending, new EventCoalescer.Sink() {
+
+                @Override
+                public void accept(final FedoraEvent event) {
+                    append(event);
+                }
+            });
+            coalescer.start();
+            LOGGER.info("Coalescing events per resource within {} ms before journaling them", coalesceWindow);
+        }
+        eventBus.register(this);
+        LOGGER.info("Forwarding journaled events to JMS from sequence {}", nextToForward);
+    }
+
+    /**
+     * Stop forwarding and close the journal and the connection to the broker.
+     *
+     * @throws JMSException
+     */
+    @PreDestroy
+    public void stop() throws JMSException {
+        LOGGER.debug("Tearing down: {}", this.getClass().getCanonicalName());
+
+        eventBus.unregister(this);
+        if (coalescer != null) {
+            coalescer.stop();
+            coalescer = null;
+        }
+        running = false;
+        if (forwarder != null) {
+            forwarder.interrupt();
+            try {
+                forwarder.join(MAX_BACKOFF);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        disconnect();
+        journal.close();
+    }
+
+    private void connect() throws JMSException {
+        connection = connectionFactory.createConnection();
+        connection.start();
+        jmsSession = connection.createSession(true, Session.SESSION_TRANSACTED);
+        producer = jmsSession.createProducer(jmsSession.createTopic("fedora"));
+    }
+
+    private void disconnect() {
+        // closing the connection closes its sessions and producers, but close each in case it is already broken
+        try {
+            if (producer != null) {
+                producer.close();
+            }
+        } catch (final JMSException e) {
+            LOGGER.debug("Unable to close JMS producer", e);
+        }
+        try {
+            if (jmsSession != null) {
+                jmsSession.close();
+            }
+        } catch (final JMSException e) {
+            LOGGER.debug("Unable to close JMS session", e);
+        }
+        try {
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (final JMSException e) {
+            LOGGER.debug("Unable to close JMS connection", e);
+        }
+        producer = null;
+        jmsSession = null;
+        connection = null;
+    }
+
+    /**
+     * Close the connection to the broker and open a new one.
+     *
+     * @return whether the new connection could be opened
+     */
+    private boolean reconnect() {
+        LOGGER.info("Reconnecting to JMS after {} failed attempt(s) to forward journaled events",
+                consecutiveFailures);
+        disconnect();
+        try {
+            connect();
+            consecutiveFailures = 0;
+            return true;
+        } catch (final JMSException e) {
+            LOGGER.warn("Unable to reconnect to JMS, will retry", e);
+            disconnect();
+            return false;
+        }
+    }
+
+    @Override
+    public long getFirstSequence() {
+        return journal.getFirstSequence();
+    }
+
+    @Override
+    public long getLastSequence() {
+        return journal.getLastSequence();
+    }
+
+    @Override
+    public long getForwardedSequence() {
+        return forwardedSequence;
+    }
+
+    @Override
+    public long replayFrom(final long sequence) {
+        final long from;
+        synchronized (this) {
+            final long first = journal.getFirstSequence();
+            // never skip events that have been journaled but not yet forwarded
+            final long requested = Math.min(sequence, Math.min(nextToForward, forwardedSequence + 1));
+            from = first < 0 ? journal.getLastSequence() + 1 : Math.max(requested, first);
+            nextToForward = from;
+        }
+        LOGGER.info("Replaying journaled events from sequence {}", from);
+        return Math.max(journal.getLastSequence() - from + 1, 0);
+    }
+
+    @Override
+    public long replaySince(final long timestamp) {
+        return replayFrom(journal.findSequence(timestamp));
+    }
+
+    /**
+     * Forward journaled events until stopped.
+     */
+    void forward() {
+        long backoff = 100;
+        while (running) {
+            final long from;
+            synchronized (this) {
+                from = nextToForward;
+            }
+            try {
+                if (sync) {
+                    journal.sync();
+                }
+                final List<JournalRecord> batch = readBatch(from);
+                if (batch != null && batch.isEmpty()) {
+                    journal.awaitAppend(from - 1, 500);
+                    continue;
+                }
+                if (batch != null && send(batch)) {
+                    backoff = 100;
+                    final long last = batch.get(batch.size() - 1).getSequence();
+                    synchronized (this) {
+                        // a replay requested while the batch was in flight takes precedence
+                        if (nextToForward == from) {
+                            nextToForward = last + 1;
+                        }
+                    }
+                    forwardedSequence = last;
+                    writeCheckpoint(last);
+                    journal.release(last);
+                } else {
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF);
+                }
+            } catch (final InterruptedException e) {
+                LOGGER.debug("Journal forwarder interrupted");
+            }
+        }
+    }
+
+    private List<JournalRecord> readBatch(final long from) {
+        try {
+            return journal.read(from, batchSize);
+        } catch (final RepositoryRuntimeException e) {
+            LOGGER.error("Unable to read the event journal from sequence {}, will retry", from, e);
+            failureCounter.inc();
+            return null;
+        }
+    }
+
+    private boolean send(final List<JournalRecord> batch) {
+        if (jmsSession == null && !reconnect()) {
+            failureCounter.inc();
+            return false;
+        }
+        try {
+            for (final JournalRecord record : batch) {
+                final Message message = eventFactory.getMessage(record.toFedoraEvent(), jmsSession);
+                message.setLongProperty(SEQUENCE_HEADER_NAME, record.getSequence());
+                producer.send(message);
+            }
+            jmsSession.commit();
+            forwardedMeter.mark(batch.size());
+            LOGGER.debug("Forwarded {} journaled event(s) to JMS", batch.size());
+            consecutiveFailures = 0;
+            return true;
+        } catch (final JMSException | RepositoryException | IOException | RuntimeException e) {
+            LOGGER.warn("Unable to forward {} journaled event(s) to JMS, will retry", batch.size(), e);
+            failureCounter.inc();
+            try {
+                jmsSession.rollback();
+            } catch (final JMSException ex) {
+                LOGGER.warn("Unable to roll back JMS session", ex);
+            }
+            if (++consecutiveFailures >= reconnectAfter) {
+                reconnect();
+            }
+            return false;
+        }
+    }
+
+    private long readCheckpoint() {
+        final Path checkpoint = new File(directory, CHECKPOINT_FILE).toPath();
+        if (!Files.exists(checkpoint)) {
+            return -1;
+        }
+        try (final Reader reader = Files.newBufferedReader(checkpoint, UTF_8)) {
+            final Properties properties = new Properties();
+            properties.load(reader);
+            return Long.parseLong(properties.getProperty("forwarded", "-1"));
+        } catch (final IOException | NumberFormatException e) {
+            LOGGER.warn("Unable to read event journal checkpoint, forwarding from the start of the journal", e);
+            return -1;
+        }
+    }
+
+    private void writeCheckpoint(final long sequence) {
+        final Path checkpoint = new File(directory, CHECKPOINT_FILE).toPath();
+        final Path temp = new File(directory, CHECKPOINT_FILE + ".tmp").toPath();
+        final Properties properties = new Properties();
+        properties.setProperty("forwarded", Long.toString(sequence));
+        try {
+            try (final Writer writer = Files.newBufferedWriter(temp, UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temp, checkpoint, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to write event journal checkpoint", e);
+        }
+    }
+}
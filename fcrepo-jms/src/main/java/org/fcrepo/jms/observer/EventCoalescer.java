@@ -0,0 +1,257 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.observer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.modeshape.jcr.api.JcrConstants.JCR_CONTENT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.metrics.RegistryService;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Merges {@link FedoraEvent}s for the same resource that arrive within a time
+ * window into a single event, so that a burst of writes against one resource
+ * (e.g. a PUT followed by several PATCHes) produces one message rather than one
+ * per observation batch.
+ *
+ * <p>The window opens when the first event for a resource arrives; when it
+ * closes, the pending event carrying the union of the types and properties seen
+ * is handed to the {@link Sink}. Resources are flushed in the order their first
+ * event arrived, and the oldest pending resource is flushed early whenever more
+ * than {@code maxPending} resources are waiting.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class EventCoalescer {
+
+    /**
+     * Receives coalesced events.
+     */
+    public static interface Sink {
+
+        /**
+         * @param event the merged event
+         * @throws Exception if the event could not be handled
+         */
+        void accept(final FedoraEvent event) throws Exception;
+    }
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Meter eventsIn = metrics.meter(name(EventCoalescer.class, "events-in"));
+
+    private static final Meter messagesOut = metrics.meter(name(EventCoalescer.class, "messages-out"));
+
+    private static final String PENDING = name(EventCoalescer.class, "pending");
+
+    private static final Logger LOGGER = getLogger(EventCoalescer.class);
+
+    private final long window;
+
+    private final int maxPending;
+
+    private final Sink sink;
+
+    private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    /**
+     * @param window how long, in milliseconds, to hold events for a resource
+     * @param maxPending the most resources to hold events for at once
+     * @param sink where merged events are delivered
+     */
+    public EventCoalescer(final long window, final int maxPending, final Sink sink) {
+        this.window = window;
+        this.maxPending = Math.max(maxPending, 1);
+        this.sink = sink;
+    }
+
+    /**
+     * Start flushing expired windows in the background.
+     */
+    public void start() {
+        metrics.remove(PENDING);
+        metrics.register(PENDING, new Gauge<Integer>() {
+
+            @Override
+            public Integer getValue() {
+                synchronized (pending) {
+                    return pending.size();
+                }
+            }
+        });
+        flusher = newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("fcrepo-jms-coalescer-%d").build());
+        final long period = Math.max(window / 4, 10);
+        flusher.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                flush(currentTimeMillis());
+            }
+        }, period, period, MILLISECONDS);
+    }
+
+    /**
+     * Stop the background flush and deliver everything still pending.
+     */
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        flush(Long.MAX_VALUE);
+        metrics.remove(PENDING);
+    }
+
+    /**
+     * Add an event, merging it with any pending event for the same resource.
+     *
+     * @param event
+     */
+    public void add(final FedoraEvent event) {
+        add(event, currentTimeMillis());
+    }
+
+    void add(final FedoraEvent event, final long now) {
+        eventsIn.mark();
+        final String key = keyOf(event);
+        final List<FedoraEvent> overflow = new ArrayList<>(1);
+        synchronized (pending) {
+            final Pending existing = pending.get(key);
+            if (existing == null) {
+                pending.put(key, new Pending(event, now));
+                if (pending.size() > maxPending) {
+                    final Iterator<Pending> oldest = pending.values().iterator();
+                    overflow.add(oldest.next().event);
+                    oldest.remove();
+                }
+            } else {
+                existing.merge(event);
+            }
+        }
+        deliver(overflow);
+    }
+
+    /**
+     * Deliver every pending event whose window has closed by the given time.
+     *
+     * @param now
+     */
+    void flush(final long now) {
+        final List<FedoraEvent> expired = new ArrayList<>();
+        synchronized (pending) {
+            final Iterator<Pending> it = pending.values().iterator();
+            while (it.hasNext()) {
+                final Pending p = it.next();
+                if (now != Long.MAX_VALUE && now - p.opened < window) {
+                    break;
+                }
+                expired.add(p.event);
+                it.remove();
+            }
+        }
+        deliver(expired);
+    }
+
+    private void deliver(final List<FedoraEvent> events) {
+        for (final FedoraEvent event : events) {
+            try {
+                sink.accept(event);
+                messagesOut.mark();
+            } catch (final Exception e) {
+                LOGGER.error("Unable to deliver coalesced event: {}", event, e);
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the pending events, keyed by resource path
+     */
+    Map<String, FedoraEvent> pendingEvents() {
+        final Map<String, FedoraEvent> snapshot = new LinkedHashMap<>();
+        synchronized (pending) {
+            for (final Map.Entry<String, Pending> entry : pending.entrySet()) {
+                snapshot.put(entry.getKey(), entry.getValue().event);
+            }
+        }
+        return snapshot;
+    }
+
+    private static String keyOf(final FedoraEvent event) {
+        try {
+            final String path = event.getPath();
+            return path.endsWith("/" + JCR_CONTENT) ? path.substring(0, path.length() - JCR_CONTENT.length() - 1)
+                    : path;
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    /**
+     * The merged event for one resource and when its window opened.
+     */
+    private static class Pending {
+
+        private final long opened;
+
+        private FedoraEvent event;
+
+        Pending(final FedoraEvent event, final long opened) {
+            this.event = event;
+            this.opened = opened;
+        }
+
+        /**
+         * Rebase on the newer event, which carries the latest date and user, and
+         * fold in everything seen so far.
+         */
+        void merge(final FedoraEvent newer) {
+            final FedoraEvent merged = new FedoraEvent(newer);
+            for (final FedoraEvent e : new FedoraEvent[] { event, newer }) {
+                for (final Integer type : e.getTypes()) {
+                    merged.addType(type);
+                }
+                for (final String property : e.getProperties()) {
+                    merged.addProperty(property);
+                }
+            }
+            event = merged;
+        }
+    }
+}
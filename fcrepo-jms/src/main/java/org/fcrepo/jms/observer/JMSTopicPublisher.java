@@ -15,9 +15,22 @@
  */
 package org.fcrepo.jms.observer;
 
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -31,20 +44,75 @@ import javax.jms.Session;
 
 import org.apache.activemq.ActiveMQConnectionFactory;
 import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.metrics.RegistryService;
 import org.slf4j.Logger;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Machinery to publish JMS messages when an EventBus
  * message is received.
  *
+ * <p>Events are handed off to a bounded queue and published by a small pool
+ * of workers, each owning its own transacted JMS session, so that a slow
+ * broker does not stall the JCR observer thread. What happens when the queue
+ * is full is governed by {@link OverflowPolicy}.</p>
+ *
+ * <p>A batch that fails is rolled back and sent again on a fresh session, up to
+ * {@code fcrepo.jms.publisher.retries} times, waiting a little longer before
+ * each attempt. If it still fails, its events are sent one at a time, so that a
+ * single event that cannot be published does not take the rest of its batch
+ * with it. Only events that fail on their own are given up on.</p>
+ *
+ * <p>If {@code fcrepo.jms.coalesce.window} is set to a positive number of
+ * milliseconds, events are first passed through an {@link EventCoalescer} so
+ * that repeated events for the same resource within the window are published
+ * as one message.</p>
+ *
  * @author barmintor
  * @author awoods
  */
 public class JMSTopicPublisher {
 
+    /**
+     * What to do with an event when the publishing queue is full.
+     */
+    public static enum OverflowPolicy {
+        /** wait for room in the queue */
+        BLOCK,
+        /** discard the incoming event */
+        DROP_NEWEST,
+        /** discard the oldest queued event */
+        DROP_OLDEST,
+        /** publish the incoming event on the calling thread */
+        CALLER_RUNS
+    }
+
+    static final String TOPIC_NAME = "fedora";
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Meter publishedMeter = metrics.meter(name(JMSTopicPublisher.class, "published"));
+
+    private static final Meter droppedMeter = metrics.meter(name(JMSTopicPublisher.class, "dropped"));
+
+    private static final Meter callerRunsMeter = metrics.meter(name(JMSTopicPublisher.class, "caller-runs"));
+
+    private static final Counter failureCounter = metrics.counter(name(JMSTopicPublisher.class, "failures"));
+
+    private static final Meter retryMeter = metrics.meter(name(JMSTopicPublisher.class, "retries"));
+
+    private static final Timer batchTimer = metrics.timer(name(JMSTopicPublisher.class, "batch-send"));
+
+    private static final String QUEUE_DEPTH = name(JMSTopicPublisher.class, "queue-depth");
+
     @Inject
     private EventBus eventBus;
 
@@ -60,6 +128,31 @@ public class JMSTopicPublisher {
 
     private MessageProducer producer;
 
+    private int queueSize = getInteger("fcrepo.jms.publisher.queueSize", 10000);
+
+    private int threads = getInteger("fcrepo.jms.publisher.threads", 1);
+
+    private int batchSize = getInteger("fcrepo.jms.publisher.batchSize", 100);
+
+    private int retries = getInteger("fcrepo.jms.publisher.retries", 3);
+
+    private long retryDelay = getLong("fcrepo.jms.publisher.retryDelay", 1000L);
+
+    private OverflowPolicy overflowPolicy =
+            OverflowPolicy.valueOf(getProperty("fcrepo.jms.publisher.overflow", OverflowPolicy.BLOCK.name()));
+
+    private long coalesceWindow = getLong("fcrepo.jms.coalesce.window", 0L);
+
+    private int coalesceMaxPending = getInteger("fcrepo.jms.coalesce.maxPending", 10000);
+
+    private EventCoalescer coalescer;
+
+    private BlockingQueue<FedoraEvent> queue;
+
+    private ExecutorService workers;
+
+    private volatile boolean running;
+
     private static final Logger LOGGER = getLogger(JMSTopicPublisher.class);
 
     /**
@@ -75,10 +168,64 @@ public class JMSTopicPublisher {
     public void publishJCREvent(final FedoraEvent fedoraEvent) throws JMSException,
         RepositoryException, IOException {
         LOGGER.debug("Received an event from the internal bus.");
+        if (coalescer != null) {
+            coalescer.add(fedoraEvent);
+            return;
+        }
+        enqueue(fedoraEvent);
+    }
+
+    /**
+     * Hand an event to the publishing workers, or publish it directly if there are none.
+     */
+    private void enqueue(final FedoraEvent fedoraEvent) throws JMSException, RepositoryException, IOException {
+        if (!running) {
+            publishSynchronously(fedoraEvent);
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_NEWEST:
+                if (!queue.offer(fedoraEvent)) {
+                    LOGGER.warn("JMS publishing queue is full, dropping event: {}", fedoraEvent);
+                    droppedMeter.mark();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(fedoraEvent)) {
+                    final FedoraEvent evicted = queue.poll();
+                    if (evicted != null) {
+                        LOGGER.warn("JMS publishing queue is full, dropping event: {}", evicted);
+                        droppedMeter.mark();
+                    }
+                }
+                break;
+            case CALLER_RUNS:
+                if (!queue.offer(fedoraEvent)) {
+                    callerRunsMeter.mark();
+                    publishSynchronously(fedoraEvent);
+                }
+                break;
+            default:
+                try {
+                    queue.put(fedoraEvent);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.warn("Interrupted while queueing event, publishing it directly: {}", fedoraEvent);
+                    publishSynchronously(fedoraEvent);
+                }
+        }
+    }
+
+    /**
+     * Publish an event on the calling thread, using the non-transacted session.
+     */
+    private synchronized void publishSynchronously(final FedoraEvent fedoraEvent) throws JMSException,
+        RepositoryException, IOException {
         final Message tm =
                 eventFactory.getMessage(fedoraEvent, jmsSession);
         LOGGER.debug("Transformed the event to a JMS message.");
         producer.send(tm);
+        publishedMeter.mark();
 
         LOGGER.debug("Put event: {} onto JMS.", tm.getJMSMessageID());
     }
@@ -95,7 +242,38 @@ public class JMSTopicPublisher {
         connection = connectionFactory.createConnection();
         connection.start();
         jmsSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-        producer = jmsSession.createProducer(jmsSession.createTopic("fedora"));
+        producer = jmsSession.createProducer(jmsSession.createTopic(TOPIC_NAME));
+
+        if (threads > 0) {
+            queue = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+            metrics.remove(QUEUE_DEPTH);
+            metrics.register(QUEUE_DEPTH, new Gauge<Integer>() {
+
+                @Override
+                public Integer getValue() {
+                    return queue.size();
+                }
+            });
+            running = true;
+            workers = newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("fcrepo-jms-publisher-%d").build());
+            for (int i = 0; i < threads; i++) {
+                workers.execute(new PublishingWorker(connection.createSession(true, Session.SESSION_TRANSACTED)));
+            }
+            LOGGER.info("Publishing JMS events with {} worker(s), queue size {}, batch size {}, overflow policy {}"
+                    + ", {} retries", threads, queueSize, batchSize, overflowPolicy, retries);
+        }
+        if (coalesceWindow > 0) {
+            coalescer = new EventCoalescer(coalesceWindow, coalesceMaxPending, new EventCoalescer.Sink() {
+
+                @Override
+                public void accept(final FedoraEvent event) throws JMSException, RepositoryException, IOException {
+                    enqueue(event);
+                }
+            });
+            coalescer.start();
+            LOGGER.info("Coalescing JMS events per resource within {} ms", coalesceWindow);
+        }
         eventBus.register(this);
     }
 
@@ -108,9 +286,144 @@ public class JMSTopicPublisher {
     public void releaseConnections() throws JMSException {
         LOGGER.debug("Tearing down: {}", this.getClass().getCanonicalName());
 
+        eventBus.unregister(this);
+        if (coalescer != null) {
+            coalescer.stop();
+            coalescer = null;
+        }
+        if (workers != null) {
+            running = false;
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(30, SECONDS)) {
+                    LOGGER.warn("JMS publishing workers did not finish; {} event(s) left unpublished", queue.size());
+                    workers.shutdownNow();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.shutdownNow();
+            }
+            workers = null;
+        }
         producer.close();
         jmsSession.close();
         connection.close();
-        eventBus.unregister(this);
+    }
+
+    /**
+     * Drains the queue in batches, sending each batch within one JMS transaction.
+     */
+    private class PublishingWorker implements Runnable {
+
+        private Session session;
+
+        private MessageProducer workerProducer;
+
+        PublishingWorker(final Session session) throws JMSException {
+            this.session = session;
+            this.workerProducer = session.createProducer(session.createTopic(TOPIC_NAME));
+        }
+
+        @Override
+        public void run() {
+            final List<FedoraEvent> batch = new ArrayList<>(batchSize);
+            try {
+                while (running || !queue.isEmpty()) {
+                    final FedoraEvent first = queue.poll(100, MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    send(batch);
+                    batch.clear();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while publishing; {} event(s) left unpublished", batch.size() + queue.size());
+            } finally {
+                closeSession();
+            }
+        }
+
+        /**
+         * Send a batch, retrying it on a fresh session and then event by event if it fails.
+         */
+        private void send(final List<FedoraEvent> batch) throws InterruptedException {
+            for (int attempt = 0; attempt <= retries; attempt++) {
+                if (attempt > 0) {
+                    retryMeter.mark();
+                    MILLISECONDS.sleep(retryDelay * attempt);
+                    reopenSession();
+                }
+                if (trySend(batch)) {
+                    return;
+                }
+            }
+            if (batch.size() > 1) {
+                LOGGER.warn("Sending the {} event(s) of a failed batch one at a time", batch.size());
+                for (final FedoraEvent event : batch) {
+                    if (!trySend(singletonList(event))) {
+                        giveUp(event);
+                    }
+                }
+            } else {
+                giveUp(batch.get(0));
+            }
+        }
+
+        /**
+         * Send events within one transaction, rolling it back if any of them fails.
+         * @return whether the events were committed
+         */
+        private boolean trySend(final List<FedoraEvent> events) {
+            final Timer.Context context = batchTimer.time();
+            try {
+                for (final FedoraEvent event : events) {
+                    workerProducer.send(eventFactory.getMessage(event, session));
+                }
+                session.commit();
+                publishedMeter.mark(events.size());
+                LOGGER.debug("Put {} event(s) onto JMS.", events.size());
+                return true;
+            } catch (final JMSException | RepositoryException | IOException | RuntimeException e) {
+                LOGGER.warn("Unable to publish {} event(s) to JMS", events.size(), e);
+                try {
+                    session.rollback();
+                } catch (final JMSException ex) {
+                    LOGGER.warn("Unable to roll back JMS publishing session", ex);
+                }
+                return false;
+            } finally {
+                context.stop();
+            }
+        }
+
+        private void giveUp(final FedoraEvent event) {
+            LOGGER.error("Giving up on publishing event to JMS: {}", event);
+            failureCounter.inc();
+        }
+
+        /**
+         * Replace the session, which may have been left unusable by the failure.
+         */
+        private void reopenSession() {
+            closeSession();
+            try {
+                session = connection.createSession(true, Session.SESSION_TRANSACTED);
+                workerProducer = session.createProducer(session.createTopic(TOPIC_NAME));
+            } catch (final JMSException e) {
+                LOGGER.warn("Unable to open a new JMS publishing session", e);
+            }
+        }
+
+        private void closeSession() {
+            try {
+                workerProducer.close();
+                session.close();
+            } catch (final JMSException e) {
+                LOGGER.warn("Unable to close JMS publishing session", e);
+            }
+        }
     }
 }
@@ -0,0 +1,296 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.payload;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Predicates.alwaysTrue;
+import static com.google.common.collect.ImmutableSet.copyOf;
+import static java.util.Collections.newSetFromMap;
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.fcrepo.kernel.impl.identifiers.NodeResourceConverter.nodeConverter;
+import static org.fcrepo.kernel.impl.rdf.impl.DefaultIdentifierTranslator.RESOURCE_NAMESPACE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.fcrepo.jms.headers.DefaultMessageFactory;
+import org.fcrepo.kernel.impl.rdf.impl.DefaultIdentifierTranslator;
+import org.fcrepo.kernel.impl.rdf.impl.PropertiesRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.TypeRdfContext;
+import org.fcrepo.kernel.models.FedoraBinary;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.models.NonRdfSource;
+import org.fcrepo.kernel.models.NonRdfSourceDescription;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.fcrepo.metrics.RegistryService;
+import org.modeshape.jcr.api.Repository;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * Generates JMS {@link TextMessage}s that carry, besides the usual headers, a
+ * serialization of the resource's RDF and the digest, size and MIME type of
+ * binaries. Each event is rendered once, here, instead of once per consumer
+ * calling back to the repository.
+ *
+ * <p>The payload is rendered when the message is built, shortly after the event,
+ * not captured as the event happened: if the resource changed again in between,
+ * the payload already shows the later change. Its last-modified date is sent as
+ * {@link #PAYLOAD_LAST_MODIFIED_HEADER_NAME}, so that consumers can compare it with
+ * the event's timestamp. Each publishing thread builds messages with its own
+ * long-lived session, refreshed for each message, so that threads render in
+ * parallel.</p>
+ *
+ * <p>The serialization is taken from the type and property contexts and written
+ * as N-Triples unless {@code fcrepo.jms.payload.format} names another RIOT
+ * language (e.g. JSON-LD). Predicates may be restricted with the comma-separated
+ * {@code fcrepo.jms.payload.includes} and {@code fcrepo.jms.payload.excludes}.
+ * Bodies larger than {@code fcrepo.jms.payload.maxSize} bytes are left off and
+ * the message is marked with {@link #PAYLOAD_OMITTED_HEADER_NAME}; the body is
+ * also empty when the resource no longer exists.</p>
+ *
+ * <p>Subjects are rebased onto the repository's public URL, which must be set with
+ * the {@code baseURL} bean property or {@code fcrepo.jms.baseUrl}.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class RdfPayloadMessageFactory extends DefaultMessageFactory {
+
+    public static final String PAYLOAD_FORMAT_HEADER_NAME = JMS_NAMESPACE + "payloadFormat";
+
+    public static final String PAYLOAD_OMITTED_HEADER_NAME = JMS_NAMESPACE + "payloadOmitted";
+
+    public static final String DIGEST_HEADER_NAME = JMS_NAMESPACE + "digest";
+
+    public static final String CONTENT_SIZE_HEADER_NAME = JMS_NAMESPACE + "contentSize";
+
+    public static final String MIME_TYPE_HEADER_NAME = JMS_NAMESPACE + "mimeType";
+
+    public static final String PAYLOAD_LAST_MODIFIED_HEADER_NAME = JMS_NAMESPACE + "payloadLastModified";
+
+    private static final List<Class<? extends RdfStream>> CONTEXTS =
+            ImmutableList.<Class<? extends RdfStream>>of(TypeRdfContext.class, PropertiesRdfContext.class);
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Timer renderTimer = metrics.timer(name(RdfPayloadMessageFactory.class, "render"));
+
+    private static final Meter omittedMeter = metrics.meter(name(RdfPayloadMessageFactory.class, "omitted"));
+
+    private static final Logger LOGGER = getLogger(RdfPayloadMessageFactory.class);
+
+    @Inject
+    private Repository repository;
+
+    private Lang format = RDFLanguages.nameToLang(getProperty("fcrepo.jms.payload.format", "N-Triples"));
+
+    private int maxSize = getInteger("fcrepo.jms.payload.maxSize", 256 * 1024);
+
+    private Set<String> includes = split(getProperty("fcrepo.jms.payload.includes", ""));
+
+    private Set<String> excludes = split(getProperty("fcrepo.jms.payload.excludes", ""));
+
+    private String baseURL = getProperty("fcrepo.jms.baseUrl");
+
+    private final ThreadLocal<Session> renderSession = new ThreadLocal<>();
+
+    // every session handed out, so that they can be logged out on close
+    private final Set<Session> renderSessions = newSetFromMap(new ConcurrentHashMap<Session, Boolean>());
+
+    /**
+     * Set the public URL of the repository, onto which subjects are rebased
+     * @param baseURL
+     */
+    public void setBaseURL(final String baseURL) {
+        String url = baseURL;
+        while (url != null && url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        this.baseURL = url;
+    }
+
+    /**
+     * Refuse to start without a base URL, rather than send internal URIs to consumers
+     */
+    @PostConstruct
+    public void checkConfiguration() {
+        checkState(baseURL != null && !baseURL.isEmpty(),
+                "RdfPayloadMessageFactory requires a baseURL property, or fcrepo.jms.baseUrl to be set");
+    }
+
+    /**
+     * Release the sessions used to render messages
+     */
+    @PreDestroy
+    public void close() {
+        for (final Session session : renderSessions) {
+            session.logout();
+        }
+        renderSessions.clear();
+    }
+
+    @Override
+    protected Message createMessage(final FedoraEvent jcrEvent, final String path,
+            final javax.jms.Session jmsSession) throws RepositoryException, JMSException {
+        final TextMessage message = jmsSession.createTextMessage();
+        final Session session = session();
+        try {
+            final FedoraResource resource = getResource(session, path);
+            if (resource == null) {
+                LOGGER.debug("{} no longer exists, sending no payload", path);
+                return message;
+            }
+            if (resource instanceof NonRdfSourceDescription) {
+                final NonRdfSource described = ((NonRdfSourceDescription) resource).getDescribedResource();
+                if (described instanceof FedoraBinary) {
+                    final FedoraBinary binary = (FedoraBinary) described;
+                    if (binary.getContentDigest() != null) {
+                        message.setStringProperty(DIGEST_HEADER_NAME, binary.getContentDigest().toString());
+                    }
+                    message.setLongProperty(CONTENT_SIZE_HEADER_NAME, binary.getContentSize());
+                    message.setStringProperty(MIME_TYPE_HEADER_NAME, binary.getMimeType());
+                }
+            }
+            if (resource.getLastModifiedDate() != null) {
+                message.setLongProperty(PAYLOAD_LAST_MODIFIED_HEADER_NAME, resource.getLastModifiedDate().getTime());
+            }
+            final byte[] body = render(resource, session);
+            if (body.length > maxSize) {
+                LOGGER.debug("Payload for {} is {} bytes, over the limit of {}", path, body.length, maxSize);
+                omittedMeter.mark();
+                message.setBooleanProperty(PAYLOAD_OMITTED_HEADER_NAME, true);
+            } else {
+                message.setText(new String(body, UTF_8));
+                message.setStringProperty(PAYLOAD_FORMAT_HEADER_NAME, format.getContentType().getContentType());
+            }
+        } finally {
+            // let go of the resource's state, rather than accumulate it in the long-lived session
+            session.refresh(false);
+        }
+        return message;
+    }
+
+    /**
+     * @return this thread's session for rendering messages, logging in the first time or when it has been closed
+     * @throws RepositoryException
+     */
+    private Session session() throws RepositoryException {
+        Session session = renderSession.get();
+        if (session == null || !session.isLive()) {
+            if (session != null) {
+                renderSessions.remove(session);
+            }
+            session = repository.login();
+            renderSessions.add(session);
+            renderSession.set(session);
+        }
+        return session;
+    }
+
+    /**
+     * @param session
+     * @param path
+     * @return the resource at the given path, or null if there is none
+     * @throws RepositoryException
+     */
+    FedoraResource getResource(final Session session, final String path) throws RepositoryException {
+        return session.nodeExists(path) ? nodeConverter.convert(session.getNode(path)) : null;
+    }
+
+    private byte[] render(final FedoraResource resource, final Session session) {
+        final Timer.Context context = renderTimer.time();
+        try {
+            final RdfStream triples = resource.getTriples(new DefaultIdentifierTranslator(session), CONTEXTS)
+                    .filter(predicateFilter());
+            final RdfStream rebased = triples.withThisContext(triples.transform(rebase(baseURL)));
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            RDFDataMgr.write(out, rebased.asModel(), format);
+            return out.toByteArray();
+        } finally {
+            context.stop();
+        }
+    }
+
+    private Predicate<Triple> predicateFilter() {
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return alwaysTrue();
+        }
+        return new Predicate<Triple>() {
+
+            @Override
+            public boolean apply(final Triple t) {
+                final String predicate = t.getPredicate().getURI();
+                return (includes.isEmpty() || includes.contains(predicate)) && !excludes.contains(predicate);
+            }
+        };
+    }
+
+    /**
+     * Replace the internal subject namespace with the repository's public URL, so
+     * that consumers see the same URIs they would get from a GET.
+     */
+    private static Function<Triple, Triple> rebase(final String baseURL) {
+        return new Function<Triple, Triple>() {
+
+            @Override
+            public Triple apply(final Triple t) {
+                return new Triple(rebase(t.getSubject(), baseURL), t.getPredicate(),
+                        rebase(t.getObject(), baseURL));
+            }
+        };
+    }
+
+    private static Node rebase(final Node node, final String baseURL) {
+        if (node.isURI() && node.getURI().startsWith(RESOURCE_NAMESPACE)) {
+            return createURI(baseURL + "/" + node.getURI().substring(RESOURCE_NAMESPACE.length()));
+        }
+        return node;
+    }
+
+    private static Set<String> split(final String value) {
+        return copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(value));
+    }
+}
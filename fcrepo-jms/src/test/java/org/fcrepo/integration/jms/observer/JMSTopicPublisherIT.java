@@ -0,0 +1,179 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.integration.jms.observer;
+
+import static java.util.Collections.newSetFromMap;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.fcrepo.jms.observer.JMSEventMessageFactory;
+import org.fcrepo.jms.observer.JMSTopicPublisher;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * <p>JMSTopicPublisherIT class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class JMSTopicPublisherIT {
+
+    private static final String BROKER_URL = "vm://publisher?broker.persistent=false&broker.useJmx=false";
+
+    private static final String PATH = "path";
+
+    private static final int EVENTS = 20;
+
+    /**
+     * Time to wait for each message, in milliseconds.
+     */
+    private static final long TIMEOUT = 10000;
+
+    private final Set<String> failOnce = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final Set<String> failAlways = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final CountDownLatch posted = new CountDownLatch(1);
+
+    private final EventBus eventBus = new EventBus();
+
+    private JMSTopicPublisher publisher;
+
+    private Connection connection;
+
+    private Session session;
+
+    private MessageConsumer consumer;
+
+    @Before
+    public void setUp() throws JMSException {
+        final ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(BROKER_URL);
+        connection = connectionFactory.createConnection();
+        connection.start();
+        session = connection.createSession(false, AUTO_ACKNOWLEDGE);
+        consumer = session.createConsumer(session.createTopic("fedora"));
+
+        publisher = new JMSTopicPublisher();
+        setField(publisher, "eventBus", eventBus);
+        setField(publisher, "connectionFactory", connectionFactory);
+        setField(publisher, "eventFactory", new JMSEventMessageFactory() {
+
+            @Override
+            public Message getMessage(final FedoraEvent event, final Session jmsSession)
+                    throws RepositoryException, JMSException {
+                // hold the first batch until every event is queued, so the rest are sent as one batch
+                try {
+                    posted.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failOnce.remove(event.getPath()) || failAlways.contains(event.getPath())) {
+                    throw new JMSException("Expected failure for " + event.getPath());
+                }
+                final Message message = jmsSession.createMessage();
+                message.setStringProperty(PATH, event.getPath());
+                return message;
+            }
+        });
+        setField(publisher, "batchSize", EVENTS);
+        setField(publisher, "retryDelay", 10L);
+    }
+
+    @After
+    public void tearDown() throws JMSException {
+        publisher.releaseConnections();
+        consumer.close();
+        session.close();
+        connection.close();
+    }
+
+    @Test
+    public void testPublishesEveryEventOnce() throws Exception {
+        publisher.acquireConnections();
+        assertEquals(postEvents(), receive(EVENTS));
+    }
+
+    @Test
+    public void testFailedBatchIsRolledBackAndRetried() throws Exception {
+        failOnce.add(path(EVENTS / 2));
+        publisher.acquireConnections();
+        // the messages sent before the failure were rolled back, so none arrives twice
+        assertEquals(postEvents(), receive(EVENTS));
+    }
+
+    @Test
+    public void testUnpublishableEventDoesNotLoseItsBatch() throws Exception {
+        setField(publisher, "retries", 1);
+        failAlways.add(path(EVENTS / 2));
+        publisher.acquireConnections();
+        final List<String> expected = postEvents();
+        expected.remove(path(EVENTS / 2));
+        assertEquals(expected, receive(EVENTS - 1));
+    }
+
+    private List<String> postEvents() throws RepositoryException {
+        final List<String> paths = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            final Event event = mock(Event.class);
+            when(event.getType()).thenReturn(NODE_ADDED);
+            when(event.getPath()).thenReturn(path(i));
+            eventBus.post(new FedoraEvent(event));
+            paths.add(path(i));
+        }
+        posted.countDown();
+        return paths;
+    }
+
+    private List<String> receive(final int count) throws JMSException {
+        final List<String> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Message message = consumer.receive(TIMEOUT);
+            assertNotNull("Expected " + count + " messages but received " + paths, message);
+            paths.add(message.getStringProperty(PATH));
+        }
+        assertNull("Received an unexpected message", consumer.receive(500));
+        return paths;
+    }
+
+    private static String path(final int i) {
+        return "/event/" + i;
+    }
+}
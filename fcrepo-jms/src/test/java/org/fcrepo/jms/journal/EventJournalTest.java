@@ -0,0 +1,210 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.journal;
+
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * <p>EventJournalTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class EventJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    private EventJournal journal;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot();
+        journal = new EventJournal(directory, 1024, 0, 1);
+    }
+
+    @After
+    public void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(-1, journal.getFirstSequence());
+        assertEquals(-1, journal.getLastSequence());
+        assertTrue(journal.read(0, 10).isEmpty());
+    }
+
+    @Test
+    public void testAppendAndRead() throws RepositoryException {
+        final FedoraEvent event = event(NODE_ADDED, "/a", 1000L);
+        event.addType(PROPERTY_CHANGED);
+        event.addProperty("dc:title");
+        assertEquals(0, journal.append(event));
+        assertEquals(1, journal.append(event(NODE_ADDED, "/b", 2000L)));
+
+        final List<JournalRecord> records = journal.read(0, 10);
+        assertEquals(2, records.size());
+        final FedoraEvent actual = records.get(0).toFedoraEvent();
+        assertEquals("/a", actual.getPath());
+        assertEquals(1000L, actual.getDate());
+        assertEquals(event.getTypes(), actual.getTypes());
+        assertEquals(Collections.singleton("dc:title"), actual.getProperties());
+        assertEquals("fedoraAdmin", actual.getUserID());
+        assertEquals("{\"baseURL\":\"http://localhost/rest\"}", actual.getUserData());
+        assertEquals("/b", records.get(1).getPath());
+        assertEquals(1, journal.read(1, 10).size());
+    }
+
+    @Test
+    public void testPropertyEvent() throws RepositoryException {
+        final FedoraEvent event = new FedoraEvent(jcrEvent(PROPERTY_CHANGED, "/a/dc:title", 1000L));
+        event.addProperty("dc:title");
+        journal.append(event);
+        final FedoraEvent actual = journal.read(0, 1).get(0).toFedoraEvent();
+        assertEquals("/a", actual.getPath());
+        assertEquals(Collections.singleton(PROPERTY_CHANGED), actual.getTypes());
+    }
+
+    @Test
+    public void testRollsSegments() {
+        for (int i = 0; i < 50; i++) {
+            journal.append(event(NODE_ADDED, "/resource-" + i, i));
+        }
+        assertTrue(directory.list().length > 1);
+        final List<JournalRecord> records = journal.read(0, 100);
+        assertEquals(50, records.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, records.get(i).getSequence());
+            assertEquals("/resource-" + i, records.get(i).getPath());
+        }
+    }
+
+    @Test
+    public void testReadInBatches() {
+        for (int i = 0; i < 50; i++) {
+            journal.append(event(NODE_ADDED, "/resource-" + i, i));
+        }
+        long next = 0;
+        while (next < 50) {
+            final List<JournalRecord> records = journal.read(next, 7);
+            assertEquals(next, records.get(0).getSequence());
+            next = records.get(records.size() - 1).getSequence() + 1;
+        }
+        assertTrue(journal.read(50, 7).isEmpty());
+        assertEquals(5, journal.read(5, 3).get(0).getSequence());
+    }
+
+    @Test
+    public void testFindSequence() {
+        for (int i = 0; i < 50; i++) {
+            journal.append(event(NODE_ADDED, "/resource-" + i, i * 10));
+        }
+        assertEquals(0, journal.findSequence(0));
+        assertEquals(21, journal.findSequence(205));
+        assertEquals(49, journal.findSequence(490));
+        assertEquals(50, journal.findSequence(10000));
+    }
+
+    @Test
+    public void testRecover() {
+        for (int i = 0; i < 20; i++) {
+            journal.append(event(NODE_ADDED, "/resource-" + i, i));
+        }
+        journal.close();
+        journal = new EventJournal(directory, 1024, 0, 1);
+        assertEquals(19, journal.getLastSequence());
+        assertEquals(20, journal.append(event(NODE_ADDED, "/next", 20)));
+        assertEquals("/next", journal.read(20, 1).get(0).getPath());
+        assertEquals(21, journal.read(0, 100).size());
+    }
+
+    @Test
+    public void testRecoverFromTornRecord() throws Exception {
+        journal.append(event(NODE_ADDED, "/a", 1));
+        journal.append(event(NODE_ADDED, "/b", 2));
+        journal.close();
+        final int firstLength;
+        try (final RandomAccessFile raf = new RandomAccessFile(directory.listFiles()[0], "rw")) {
+            firstLength = raf.readInt();
+            // corrupt the payload of the second record
+            raf.seek(8 + firstLength + 8 + 20);
+            raf.writeInt(0xdeadbeef);
+        }
+        journal = new EventJournal(directory, 1024, 0, 1);
+        assertEquals(0, journal.getLastSequence());
+        assertEquals(1, journal.append(event(NODE_ADDED, "/c", 3)));
+        assertEquals("/c", journal.read(1, 1).get(0).getPath());
+    }
+
+    @Test
+    public void testRelease() {
+        for (int i = 0; i < 50; i++) {
+            journal.append(event(NODE_ADDED, "/resource-" + i, i));
+        }
+        final int segments = directory.list().length;
+        journal.release(9);
+        assertTrue(directory.list().length < segments);
+        assertTrue(journal.getFirstSequence() > 0);
+        assertTrue(journal.getFirstSequence() <= 10);
+        assertEquals(journal.getFirstSequence(), journal.read(0, 1).get(0).getSequence());
+
+        journal.release(49);
+        assertEquals(1, directory.list().length);
+        assertEquals(49, journal.getLastSequence());
+    }
+
+    private static FedoraEvent event(final int type, final String path, final long date) {
+        return new FedoraEvent(jcrEvent(type, path, date));
+    }
+
+    private static Event jcrEvent(final int type, final String path, final long date) {
+        final Event event = mock(Event.class);
+        try {
+            when(event.getType()).thenReturn(type);
+            when(event.getPath()).thenReturn(path);
+            when(event.getDate()).thenReturn(date);
+            when(event.getUserID()).thenReturn("fedoraAdmin");
+            when(event.getIdentifier()).thenReturn("id-" + path);
+            when(event.getUserData()).thenReturn("{\"baseURL\":\"http://localhost/rest\"}");
+            when(event.getInfo()).thenReturn(Collections.emptyMap());
+        } catch (final RepositoryException e) {
+            throw new AssertionError(e);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.journal;
+
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jms.Session.SESSION_TRANSACTED;
+import static org.fcrepo.jms.journal.JournalingEventForwarder.SEQUENCE_HEADER_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.File;
+import java.util.Collections;
+
+import javax.jcr.observation.Event;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.Topic;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.fcrepo.jms.observer.JMSEventMessageFactory;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * <p>JournalingEventForwarderTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class JournalingEventForwarderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JournalingEventForwarder testObj;
+
+    @Mock
+    private EventBus mockBus;
+
+    @Mock
+    private ActiveMQConnectionFactory mockConnections;
+
+    @Mock
+    private Connection mockConn;
+
+    @Mock
+    private Session mockSession;
+
+    @Mock
+    private Topic mockTopic;
+
+    @Mock
+    private MessageProducer mockProducer;
+
+    @Mock
+    private JMSEventMessageFactory mockEventFactory;
+
+    @Mock
+    private Message mockMessage;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        when(mockConnections.createConnection()).thenReturn(mockConn);
+        when(mockConn.createSession(true, SESSION_TRANSACTED)).thenReturn(mockSession);
+        when(mockSession.createTopic("fedora")).thenReturn(mockTopic);
+        when(mockSession.createProducer(mockTopic)).thenReturn(mockProducer);
+        when(mockEventFactory.getMessage(any(FedoraEvent.class), any(Session.class))).thenReturn(mockMessage);
+        testObj = newForwarder();
+    }
+
+    @After
+    public void tearDown() throws JMSException {
+        testObj.stop();
+    }
+
+    @Test
+    public void testForwardsJournaledEvents() throws Exception {
+        testObj.start();
+        verify(mockBus).register(testObj);
+        testObj.journalEvent(event("/a"));
+        testObj.journalEvent(event("/b"));
+
+        verify(mockProducer, timeout(2000).times(2)).send(mockMessage);
+        verify(mockMessage, timeout(2000)).setLongProperty(SEQUENCE_HEADER_NAME, 0);
+        verify(mockMessage, timeout(2000)).setLongProperty(SEQUENCE_HEADER_NAME, 1);
+        verify(mockSession, timeout(2000).atLeastOnce()).commit();
+        awaitForwarded(1);
+        assertEquals(1, testObj.getLastSequence());
+        assertTrue(new File(folder.getRoot(), JournalingEventForwarder.CHECKPOINT_FILE).exists());
+    }
+
+    @Test
+    public void testRetriesAfterFailure() throws Exception {
+        when(mockEventFactory.getMessage(any(FedoraEvent.class), any(Session.class)))
+                .thenThrow(new JMSException("broker down")).thenReturn(mockMessage);
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+
+        verify(mockSession, timeout(2000)).rollback();
+        verify(mockProducer, timeout(2000)).send(mockMessage);
+        awaitForwarded(0);
+    }
+
+    @Test
+    public void testReconnectsAfterRepeatedFailures() throws Exception {
+        setField(testObj, "reconnectAfter", 2);
+        when(mockEventFactory.getMessage(any(FedoraEvent.class), any(Session.class)))
+                .thenThrow(new JMSException("broker down"), new JMSException("broker down"))
+                .thenReturn(mockMessage);
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+
+        verify(mockProducer, timeout(2000)).send(mockMessage);
+        awaitForwarded(0);
+        verify(mockConnections, times(2)).createConnection();
+        verify(mockConn).close();
+    }
+
+    @Test
+    public void testRetriesReconnectUntilBrokerReturns() throws Exception {
+        setField(testObj, "reconnectAfter", 1);
+        testObj.start();
+        when(mockEventFactory.getMessage(any(FedoraEvent.class), any(Session.class)))
+                .thenThrow(new JMSException("broker down")).thenReturn(mockMessage);
+        when(mockConnections.createConnection()).thenThrow(new JMSException("broker down")).thenReturn(mockConn);
+        testObj.journalEvent(event("/a"));
+
+        awaitForwarded(0);
+        verify(mockConnections, times(3)).createConnection();
+    }
+
+    @Test
+    public void testResumesFromCheckpoint() throws Exception {
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+        testObj.journalEvent(event("/b"));
+        awaitForwarded(1);
+        testObj.stop();
+
+        testObj = newForwarder();
+        testObj.start();
+        testObj.journalEvent(event("/c"));
+        awaitForwarded(2);
+        verify(mockProducer, times(3)).send(mockMessage);
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+        testObj.journalEvent(event("/b"));
+        testObj.journalEvent(event("/c"));
+        awaitForwarded(2);
+
+        assertEquals(2, testObj.replayFrom(1));
+        verify(mockProducer, timeout(2000).times(5)).send(mockMessage);
+        verify(mockMessage, timeout(2000).times(2)).setLongProperty(SEQUENCE_HEADER_NAME, 2);
+        verify(mockMessage, times(1)).setLongProperty(SEQUENCE_HEADER_NAME, 0);
+    }
+
+    @Test
+    public void testReplaySince() throws Exception {
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+        awaitForwarded(0);
+        assertEquals(1, testObj.replaySince(0));
+        verify(mockMessage, timeout(2000).times(2)).setLongProperty(SEQUENCE_HEADER_NAME, 0);
+        assertEquals(0, testObj.replaySince(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testReplayDoesNotSkipUnforwardedEvents() throws Exception {
+        when(mockEventFactory.getMessage(any(FedoraEvent.class), any(Session.class)))
+                .thenThrow(new JMSException("broker down"));
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+        testObj.journalEvent(event("/b"));
+        testObj.journalEvent(event("/c"));
+
+        assertEquals(3, testObj.replayFrom(2));
+        assertEquals(-1, testObj.getForwardedSequence());
+    }
+
+    @Test
+    public void testCoalescesBeforeJournaling() throws Exception {
+        setField(testObj, "coalesceWindow", 60000L);
+        testObj.start();
+        testObj.journalEvent(event("/a"));
+        testObj.journalEvent(event("/a"));
+        assertEquals(-1, testObj.getLastSequence());
+
+        testObj.stop();
+        assertEquals(0, testObj.getLastSequence());
+    }
+
+    private JournalingEventForwarder newForwarder() {
+        final JournalingEventForwarder forwarder = new JournalingEventForwarder();
+        setField(forwarder, "eventBus", mockBus);
+        setField(forwarder, "connectionFactory", mockConnections);
+        setField(forwarder, "eventFactory", mockEventFactory);
+        setField(forwarder, "directory", folder.getRoot());
+        setField(forwarder, "segmentSize", 4096);
+        setField(forwarder, "sync", false);
+        return forwarder;
+    }
+
+    private void awaitForwarded(final long sequence) throws InterruptedException {
+        for (int i = 0; i < 200 && testObj.getForwardedSequence() < sequence; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(sequence, testObj.getForwardedSequence());
+    }
+
+    private static FedoraEvent event(final String path) throws Exception {
+        final Event event = mock(Event.class);
+        when(event.getType()).thenReturn(NODE_ADDED);
+        when(event.getPath()).thenReturn(path);
+        when(event.getDate()).thenReturn(System.currentTimeMillis());
+        when(event.getInfo()).thenReturn(Collections.emptyMap());
+        return new FedoraEvent(event);
+    }
+}
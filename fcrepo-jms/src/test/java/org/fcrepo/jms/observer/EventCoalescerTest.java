@@ -0,0 +1,130 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.observer;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>EventCoalescerTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class EventCoalescerTest {
+
+    private List<FedoraEvent> delivered;
+
+    private EventCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        delivered = new ArrayList<>();
+        coalescer = new EventCoalescer(1000, 2, new EventCoalescer.Sink() {
+
+            @Override
+            public void accept(final FedoraEvent event) {
+                delivered.add(event);
+            }
+        });
+    }
+
+    @Test
+    public void testMergesEventsWithinWindow() throws RepositoryException {
+        coalescer.add(event(NODE_ADDED, "/a"), 0);
+        coalescer.add(event(PROPERTY_ADDED, "/a/dc:title").addProperty("dc:title"), 100);
+        coalescer.add(event(PROPERTY_CHANGED, "/a/dc:subject").addProperty("dc:subject"), 200);
+
+        coalescer.flush(999);
+        assertTrue(delivered.isEmpty());
+
+        coalescer.flush(1000);
+        assertEquals(1, delivered.size());
+        final FedoraEvent merged = delivered.get(0);
+        assertEquals("/a", merged.getPath());
+        assertEquals(newHashSet(NODE_ADDED, PROPERTY_ADDED, PROPERTY_CHANGED), merged.getTypes());
+        assertEquals(newHashSet("dc:title", "dc:subject"), merged.getProperties());
+        assertTrue(coalescer.pendingEvents().isEmpty());
+    }
+
+    @Test
+    public void testContentEventsMergeWithBinary() throws RepositoryException {
+        coalescer.add(event(NODE_ADDED, "/bin"), 0);
+        coalescer.add(event(PROPERTY_CHANGED, "/bin/jcr:content/jcr:data"), 10);
+        assertEquals(1, coalescer.pendingEvents().size());
+        assertTrue(coalescer.pendingEvents().containsKey("/bin"));
+    }
+
+    @Test
+    public void testFlushesInArrivalOrder() throws RepositoryException {
+        coalescer.add(event(NODE_ADDED, "/a"), 0);
+        coalescer.add(event(NODE_ADDED, "/b"), 500);
+        coalescer.add(event(PROPERTY_ADDED, "/a/dc:title"), 600);
+
+        coalescer.flush(1200);
+        assertEquals(1, delivered.size());
+        assertEquals("/a", delivered.get(0).getPath());
+
+        coalescer.flush(1500);
+        assertEquals(2, delivered.size());
+        assertEquals("/b", delivered.get(1).getPath());
+    }
+
+    @Test
+    public void testOverflowFlushesOldest() throws RepositoryException {
+        coalescer.add(event(NODE_ADDED, "/a"), 0);
+        coalescer.add(event(NODE_ADDED, "/b"), 1);
+        coalescer.add(event(NODE_ADDED, "/c"), 2);
+        assertEquals(1, delivered.size());
+        assertEquals("/a", delivered.get(0).getPath());
+        assertEquals(2, coalescer.pendingEvents().size());
+    }
+
+    @Test
+    public void testStopDeliversPending() {
+        coalescer.start();
+        coalescer.add(event(NODE_ADDED, "/a"));
+        coalescer.add(event(NODE_ADDED, "/b"));
+        coalescer.stop();
+        assertEquals(2, delivered.size());
+    }
+
+    private static FedoraEvent event(final int type, final String path) {
+        final Event e = mock(Event.class);
+        when(e.getType()).thenReturn(type);
+        try {
+            when(e.getPath()).thenReturn(path);
+        } catch (final RepositoryException ex) {
+            throw new AssertionError(ex);
+        }
+        return new FedoraEvent(e);
+    }
+}
@@ -15,24 +15,37 @@
  */
 package org.fcrepo.jms.observer;
 
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
 import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static javax.jms.Session.SESSION_TRANSACTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
 import javax.jms.Connection;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
+import javax.jms.Topic;
 
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.fcrepo.jms.observer.JMSTopicPublisher.OverflowPolicy;
 import org.fcrepo.kernel.observer.FedoraEvent;
 import org.junit.Before;
 import org.junit.Test;
@@ -64,6 +77,15 @@ public class JMSTopicPublisherTest {
     @Mock
     private javax.jms.Session mockJmsSession;
 
+    @Mock
+    private javax.jms.Session mockTxSession;
+
+    @Mock
+    private MessageProducer mockTxProducer;
+
+    @Mock
+    private Topic mockTopic;
+
     @Mock
     private Connection mockConn;
 
@@ -82,8 +104,183 @@ public class JMSTopicPublisherTest {
         when(mockConnections.createConnection()).thenReturn(mockConn);
         when(mockConn.createSession(false, AUTO_ACKNOWLEDGE))
                 .thenReturn(mockJmsSession);
+        when(mockConn.createSession(true, SESSION_TRANSACTED))
+                .thenReturn(mockTxSession);
+        when(mockJmsSession.createProducer(any(Topic.class))).thenReturn(mockProducer);
+        when(mockTxSession.createProducer(any(Topic.class))).thenReturn(mockTxProducer);
         testJMSTopicPublisher.acquireConnections();
         verify(mockBus).register(any());
+        testJMSTopicPublisher.releaseConnections();
+    }
+
+    @Test
+    public void testSynchronousWithoutWorkers() throws Exception {
+        setField(testJMSTopicPublisher, "threads", 0);
+        when(mockConnections.createConnection()).thenReturn(mockConn);
+        when(mockConn.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(mockJmsSession);
+        when(mockJmsSession.createTopic("fedora")).thenReturn(mockTopic);
+        when(mockJmsSession.createProducer(mockTopic)).thenReturn(mockProducer);
+        testJMSTopicPublisher.acquireConnections();
+        verify(mockConn, never()).createSession(true, SESSION_TRANSACTED);
+
+        final Message mockMsg = mock(Message.class);
+        final FedoraEvent mockEvent = mock(FedoraEvent.class);
+        when(mockEventFactory.getMessage(mockEvent, mockJmsSession)).thenReturn(mockMsg);
+        testJMSTopicPublisher.publishJCREvent(mockEvent);
+        verify(mockProducer).send(mockMsg);
+        testJMSTopicPublisher.releaseConnections();
+    }
+
+    @Test
+    public void testAsynchronousPublishCommitsBatch() throws Exception {
+        acquireWithWorkers();
+        final Message mockMsg1 = mock(Message.class);
+        final Message mockMsg2 = mock(Message.class);
+        final FedoraEvent mockEvent1 = mock(FedoraEvent.class);
+        final FedoraEvent mockEvent2 = mock(FedoraEvent.class);
+        when(mockEventFactory.getMessage(mockEvent1, mockTxSession)).thenReturn(mockMsg1);
+        when(mockEventFactory.getMessage(mockEvent2, mockTxSession)).thenReturn(mockMsg2);
+
+        testJMSTopicPublisher.publishJCREvent(mockEvent1);
+        testJMSTopicPublisher.publishJCREvent(mockEvent2);
+
+        verify(mockTxProducer, timeout(2000)).send(mockMsg1);
+        verify(mockTxProducer, timeout(2000)).send(mockMsg2);
+        verify(mockTxSession, timeout(2000).atLeastOnce()).commit();
+        verify(mockProducer, never()).send(any(Message.class));
+
+        testJMSTopicPublisher.releaseConnections();
+        verify(mockTxProducer).close();
+        verify(mockTxSession).close();
+    }
+
+    @Test
+    public void testAsynchronousFailureRollsBack() throws Exception {
+        setField(testJMSTopicPublisher, "retries", 2);
+        acquireWithWorkers();
+        final FedoraEvent mockEvent = mock(FedoraEvent.class);
+        when(mockEventFactory.getMessage(mockEvent, mockTxSession)).thenThrow(new JMSException("broker down"));
+
+        testJMSTopicPublisher.publishJCREvent(mockEvent);
+
+        verify(mockTxSession, timeout(2000).times(3)).rollback();
+        verify(mockConn, timeout(2000).times(3)).createSession(true, SESSION_TRANSACTED);
+        testJMSTopicPublisher.releaseConnections();
+        verify(mockEventFactory, times(3)).getMessage(mockEvent, mockTxSession);
+        verify(mockTxSession, never()).commit();
+    }
+
+    @Test
+    public void testAsynchronousFailureRetried() throws Exception {
+        acquireWithWorkers();
+        final Message mockMsg = mock(Message.class);
+        final FedoraEvent mockEvent = mock(FedoraEvent.class);
+        when(mockEventFactory.getMessage(mockEvent, mockTxSession)).thenThrow(new JMSException("broker down"))
+                .thenReturn(mockMsg);
+
+        testJMSTopicPublisher.publishJCREvent(mockEvent);
+
+        verify(mockTxSession, timeout(2000)).commit();
+        verify(mockTxSession).rollback();
+        verify(mockTxProducer).send(mockMsg);
+        testJMSTopicPublisher.releaseConnections();
+    }
+
+    @Test
+    public void testAsynchronousFailureSendsRestOfBatch() throws Exception {
+        setField(testJMSTopicPublisher, "retries", 0);
+        acquireWithWorkers();
+        final Message mockMsg = mock(Message.class);
+        final FedoraEvent badEvent = mock(FedoraEvent.class);
+        final FedoraEvent goodEvent = mock(FedoraEvent.class);
+        when(mockEventFactory.getMessage(badEvent, mockTxSession)).thenThrow(new JMSException("bad event"));
+        when(mockEventFactory.getMessage(goodEvent, mockTxSession)).thenReturn(mockMsg);
+
+        testJMSTopicPublisher.publishJCREvent(badEvent);
+        testJMSTopicPublisher.publishJCREvent(goodEvent);
+
+        verify(mockTxSession, timeout(2000)).commit();
+        verify(mockTxProducer).send(mockMsg);
+        testJMSTopicPublisher.releaseConnections();
+    }
+
+    @Test
+    public void testDropNewest() throws Exception {
+        final FedoraEvent queued = mock(FedoraEvent.class);
+        final BlockingQueue<FedoraEvent> queue = fullQueue(queued, OverflowPolicy.DROP_NEWEST);
+        testJMSTopicPublisher.publishJCREvent(mock(FedoraEvent.class));
+        assertEquals(1, queue.size());
+        assertSame(queued, queue.peek());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        final BlockingQueue<FedoraEvent> queue = fullQueue(mock(FedoraEvent.class), OverflowPolicy.DROP_OLDEST);
+        final FedoraEvent mockEvent = mock(FedoraEvent.class);
+        testJMSTopicPublisher.publishJCREvent(mockEvent);
+        assertEquals(1, queue.size());
+        assertSame(mockEvent, queue.peek());
+    }
+
+    @Test
+    public void testCallerRuns() throws Exception {
+        final FedoraEvent queued = mock(FedoraEvent.class);
+        final BlockingQueue<FedoraEvent> queue = fullQueue(queued, OverflowPolicy.CALLER_RUNS);
+        setField(testJMSTopicPublisher, "jmsSession", mockJmsSession);
+        final Message mockMsg = mock(Message.class);
+        final FedoraEvent mockEvent = mock(FedoraEvent.class);
+        when(mockEventFactory.getMessage(mockEvent, mockJmsSession)).thenReturn(mockMsg);
+        testJMSTopicPublisher.publishJCREvent(mockEvent);
+        verify(mockProducer).send(mockMsg);
+        assertSame(queued, queue.peek());
+    }
+
+    @Test
+    public void testCoalescesEventsForSameResource() throws Exception {
+        setField(testJMSTopicPublisher, "threads", 0);
+        setField(testJMSTopicPublisher, "coalesceWindow", 60000L);
+        when(mockConnections.createConnection()).thenReturn(mockConn);
+        when(mockConn.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(mockJmsSession);
+        when(mockJmsSession.createTopic("fedora")).thenReturn(mockTopic);
+        when(mockJmsSession.createProducer(mockTopic)).thenReturn(mockProducer);
+        testJMSTopicPublisher.acquireConnections();
+
+        final Message mockMsg = mock(Message.class);
+        when(mockEventFactory.getMessage(any(FedoraEvent.class), eq(mockJmsSession))).thenReturn(mockMsg);
+        testJMSTopicPublisher.publishJCREvent(fedoraEvent(NODE_ADDED, "/a"));
+        testJMSTopicPublisher.publishJCREvent(fedoraEvent(PROPERTY_CHANGED, "/a/dc:title"));
+        verify(mockProducer, never()).send(any(Message.class));
+
+        testJMSTopicPublisher.releaseConnections();
+        verify(mockProducer, times(1)).send(mockMsg);
+    }
+
+    private static FedoraEvent fedoraEvent(final int type, final String path) throws RepositoryException {
+        final Event e = mock(Event.class);
+        when(e.getType()).thenReturn(type);
+        when(e.getPath()).thenReturn(path);
+        return new FedoraEvent(e);
+    }
+
+    private void acquireWithWorkers() throws JMSException {
+        setField(testJMSTopicPublisher, "retryDelay", 1L);
+        when(mockConnections.createConnection()).thenReturn(mockConn);
+        when(mockConn.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(mockJmsSession);
+        when(mockJmsSession.createTopic("fedora")).thenReturn(mockTopic);
+        when(mockJmsSession.createProducer(mockTopic)).thenReturn(mockProducer);
+        when(mockConn.createSession(true, SESSION_TRANSACTED)).thenReturn(mockTxSession);
+        when(mockTxSession.createTopic("fedora")).thenReturn(mockTopic);
+        when(mockTxSession.createProducer(mockTopic)).thenReturn(mockTxProducer);
+        testJMSTopicPublisher.acquireConnections();
+    }
+
+    private BlockingQueue<FedoraEvent> fullQueue(final FedoraEvent queued, final OverflowPolicy policy) {
+        final BlockingQueue<FedoraEvent> queue = new ArrayBlockingQueue<>(1);
+        queue.add(queued);
+        setField(testJMSTopicPublisher, "queue", queue);
+        setField(testJMSTopicPublisher, "running", true);
+        setField(testJMSTopicPublisher, "overflowPolicy", policy);
+        return queue;
     }
 
     @Test
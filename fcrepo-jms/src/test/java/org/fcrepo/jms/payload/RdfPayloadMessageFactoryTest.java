@@ -0,0 +1,223 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.jms.payload;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static com.hp.hpl.jena.graph.NodeFactory.createLiteral;
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static java.util.Collections.singleton;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static org.fcrepo.jms.payload.RdfPayloadMessageFactory.CONTENT_SIZE_HEADER_NAME;
+import static org.fcrepo.jms.payload.RdfPayloadMessageFactory.DIGEST_HEADER_NAME;
+import static org.fcrepo.jms.payload.RdfPayloadMessageFactory.PAYLOAD_FORMAT_HEADER_NAME;
+import static org.fcrepo.jms.payload.RdfPayloadMessageFactory.PAYLOAD_LAST_MODIFIED_HEADER_NAME;
+import static org.fcrepo.jms.payload.RdfPayloadMessageFactory.PAYLOAD_OMITTED_HEADER_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.net.URI;
+import java.util.Date;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jms.JMSException;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.models.FedoraBinary;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.models.NonRdfSourceDescription;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.modeshape.jcr.api.Repository;
+
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>RdfPayloadMessageFactoryTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class RdfPayloadMessageFactoryTest {
+
+    private static final String TITLE = "http://purl.org/dc/elements/1.1/title";
+
+    private static final String CREATOR = "http://purl.org/dc/elements/1.1/creator";
+
+    @Mock
+    private javax.jms.Session mockJmsSession;
+
+    @Mock
+    private Repository mockRepository;
+
+    @Mock
+    private Session mockSession;
+
+    @Mock
+    private FedoraEvent mockEvent;
+
+    @Mock
+    private FedoraResource mockResource;
+
+    private RdfPayloadMessageFactory testFactory;
+
+    @Before
+    public void setUp() throws RepositoryException, JMSException {
+        initMocks(this);
+        when(mockJmsSession.createTextMessage()).thenReturn(new ActiveMQTextMessage());
+        when(mockRepository.login()).thenReturn(mockSession);
+        when(mockSession.isLive()).thenReturn(true);
+        when(mockEvent.getPath()).thenReturn("/a");
+        when(mockEvent.getUserData()).thenReturn("{\"baseURL\":\"http://localhost/rest/\"}");
+        when(mockEvent.getTypes()).thenReturn(singleton(NODE_ADDED));
+        testFactory = spy(new RdfPayloadMessageFactory());
+        setField(testFactory, "repository", mockRepository);
+        testFactory.setBaseURL("http://localhost/rest/");
+        testFactory.checkConfiguration();
+    }
+
+    @Test
+    public void testPayloadCarriesRebasedTriples() throws Exception {
+        withResource(mockResource);
+        final TextMessage msg = (TextMessage) testFactory.getMessage(mockEvent, mockJmsSession);
+        assertEquals("application/n-triples", msg.getStringProperty(PAYLOAD_FORMAT_HEADER_NAME));
+        assertTrue(msg.getText().contains("<http://localhost/rest/a> <" + TITLE + "> \"A title\""));
+        assertTrue(msg.getText().contains(CREATOR));
+        verify(mockSession).refresh(false);
+    }
+
+    @Test
+    public void testSessionIsReused() throws Exception {
+        withResource(mockResource);
+        testFactory.getMessage(mockEvent, mockJmsSession);
+        withResource(mockResource);
+        testFactory.getMessage(mockEvent, mockJmsSession);
+        verify(mockRepository).login();
+        verify(mockSession, times(2)).refresh(false);
+        testFactory.close();
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testSessionPerThread() throws Exception {
+        final Session otherSession = mock(Session.class);
+        when(otherSession.isLive()).thenReturn(true);
+        when(mockRepository.login()).thenReturn(mockSession, otherSession);
+        withResource(mockResource);
+        testFactory.getMessage(mockEvent, mockJmsSession);
+        withResource(mockResource);
+        final Exception[] failure = new Exception[1];
+        final Thread publisher = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    testFactory.getMessage(mockEvent, mockJmsSession);
+                } catch (final Exception e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        publisher.start();
+        publisher.join();
+        assertNull(failure[0]);
+        verify(mockRepository, times(2)).login();
+        verify(mockSession).refresh(false);
+        verify(otherSession).refresh(false);
+        testFactory.close();
+        verify(mockSession).logout();
+        verify(otherSession).logout();
+    }
+
+    @Test
+    public void testLastModifiedHeader() throws Exception {
+        withResource(mockResource);
+        when(mockResource.getLastModifiedDate()).thenReturn(new Date(1000L));
+        final TextMessage msg = (TextMessage) testFactory.getMessage(mockEvent, mockJmsSession);
+        assertEquals(1000L, msg.getLongProperty(PAYLOAD_LAST_MODIFIED_HEADER_NAME));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRequiresBaseURL() {
+        final RdfPayloadMessageFactory factory = new RdfPayloadMessageFactory();
+        factory.setBaseURL(null);
+        factory.checkConfiguration();
+    }
+
+    @Test
+    public void testPredicateFilter() throws Exception {
+        setField(testFactory, "excludes", of(CREATOR));
+        withResource(mockResource);
+        final TextMessage msg = (TextMessage) testFactory.getMessage(mockEvent, mockJmsSession);
+        assertTrue(msg.getText().contains(TITLE));
+        assertFalse(msg.getText().contains(CREATOR));
+    }
+
+    @Test
+    public void testOversizedPayloadIsOmitted() throws Exception {
+        setField(testFactory, "maxSize", 10);
+        withResource(mockResource);
+        final TextMessage msg = (TextMessage) testFactory.getMessage(mockEvent, mockJmsSession);
+        assertNull(msg.getText());
+        assertTrue(msg.getBooleanProperty(PAYLOAD_OMITTED_HEADER_NAME));
+    }
+
+    @Test
+    public void testRemovedResourceHasNoPayload() throws Exception {
+        doReturn(null).when(testFactory).getResource(mockSession, "/a");
+        final TextMessage msg = (TextMessage) testFactory.getMessage(mockEvent, mockJmsSession);
+        assertNull(msg.getText());
+        assertNull(msg.getStringProperty(PAYLOAD_FORMAT_HEADER_NAME));
+        verify(mockSession).refresh(false);
+    }
+
+    @Test
+    public void testBinaryDigestHeaders() throws Exception {
+        final NonRdfSourceDescription description = mock(NonRdfSourceDescription.class);
+        final FedoraBinary binary = mock(FedoraBinary.class);
+        when(description.getDescribedResource()).thenReturn(binary);
+        when(binary.getContentDigest()).thenReturn(new URI("urn:sha1:abc"));
+        when(binary.getContentSize()).thenReturn(42L);
+        withResource(description);
+        final TextMessage msg = (TextMessage) testFactory.getMessage(mockEvent, mockJmsSession);
+        assertEquals("urn:sha1:abc", msg.getStringProperty(DIGEST_HEADER_NAME));
+        assertEquals(42L, msg.getLongProperty(CONTENT_SIZE_HEADER_NAME));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void withResource(final FedoraResource resource) throws RepositoryException {
+        doReturn(resource).when(testFactory).getResource(any(Session.class), anyString());
+        when(resource.getTriples(any(IdentifierConverter.class), any(Iterable.class))).thenReturn(new RdfStream(
+                new Triple(createURI("info:fedora/a"), createURI(TITLE), createLiteral("A title")),
+                new Triple(createURI("info:fedora/a"), createURI(CREATOR), createLiteral("Someone"))));
+    }
+}
@@ -27,7 +27,11 @@ import org.fcrepo.kernel.exception.PathNotFoundRuntimeException;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.identifiers.IdentifierConverter;
 import org.fcrepo.kernel.impl.rdf.impl.FixityRdfContext;
+import org.fcrepo.kernel.impl.utils.MultiDigestInputStream;
 import org.fcrepo.kernel.impl.utils.impl.CacheEntryFactory;
+import org.fcrepo.kernel.impl.utils.impl.FileSystemBinaryStoreEntry;
+import org.fcrepo.kernel.impl.utils.impl.InfinispanCacheStoreEntry;
+import org.fcrepo.kernel.utils.CacheEntry;
 import org.fcrepo.kernel.services.policy.StoragePolicyDecisionPoint;
 import org.fcrepo.kernel.utils.ContentDigest;
 import org.fcrepo.kernel.utils.FixityResult;
@@ -35,19 +39,24 @@ import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.fcrepo.metrics.RegistryService;
 import org.modeshape.jcr.api.Binary;
 import org.modeshape.jcr.api.ValueFactory;
+import org.modeshape.jcr.value.binary.StoredBinaryValue;
 import org.slf4j.Logger;
 
 import javax.jcr.Node;
 import javax.jcr.PathNotFoundException;
 import javax.jcr.Property;
+import javax.jcr.PropertyType;
 import javax.jcr.Repository;
 import javax.jcr.RepositoryException;
 import javax.jcr.version.Version;
 import javax.jcr.version.VersionHistory;
+import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static com.codahale.metrics.MetricRegistry.name;
 import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isFedoraBinary;
@@ -64,6 +73,10 @@ public class FedoraBinaryImpl extends FedoraResourceImpl implements FedoraBinary
 
     private static final Logger LOGGER = getLogger(FedoraBinaryImpl.class);
 
+    /**
+     * Digests calculated on ingest alongside ModeShape's own SHA-1
+     */
+    private static final String[] ADDITIONAL_DIGESTS = { "SHA-256", "MD5" };
 
     static final RegistryService registryService = RegistryService.getInstance();
     static final Counter fixityCheckCounter
@@ -111,7 +124,18 @@ public class FedoraBinaryImpl extends FedoraResourceImpl implements FedoraBinary
     @Override
     public InputStream getContent() {
         try {
-            return getBinaryContent().getStream();
+            final javax.jcr.Binary binary = getBinaryContent();
+
+            if (binary instanceof StoredBinaryValue) {
+                // chunked binaries are read through a stream that loads the chunks ahead of the reader
+                final Repository repo = node.getSession().getRepository();
+                final CacheEntry entry = CacheEntryFactory.forProperty(repo, getProperty(JCR_DATA));
+
+                if (entry instanceof InfinispanCacheStoreEntry) {
+                    return entry.getInputStream();
+                }
+            }
+            return binary.getStream();
         } catch (final RepositoryException e) {
             throw new RepositoryRuntimeException(e);
         }
@@ -132,6 +156,27 @@ public class FedoraBinaryImpl extends FedoraResourceImpl implements FedoraBinary
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.fcrepo.kernel.models.FedoraBinary#getContentFile()
+     */
+    @Override
+    public File getContentFile() {
+        try {
+            final Repository repo = node.getSession().getRepository();
+            final CacheEntry entry = CacheEntryFactory.forProperty(repo, getProperty(JCR_DATA));
+
+            if (entry instanceof FileSystemBinaryStoreEntry) {
+                return ((FileSystemBinaryStoreEntry) entry).getFile();
+            }
+            return null;
+        } catch (final PathNotFoundException e) {
+            throw new PathNotFoundRuntimeException(e);
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
     /*
      * (non-Javadoc)
      * @see org.fcrepo.kernel.Datastream#setContent(java.io.InputStream,
@@ -168,7 +213,8 @@ public class FedoraBinaryImpl extends FedoraResourceImpl implements FedoraBinary
             }
             final ValueFactory modevf =
                     (ValueFactory) node.getSession().getValueFactory();
-            final Binary binary = modevf.createBinary(content, hint);
+            final MultiDigestInputStream digestStream = new MultiDigestInputStream(content, ADDITIONAL_DIGESTS);
+            final Binary binary = modevf.createBinary(digestStream, hint);
 
         /*
          * This next line of code deserves explanation. If we chose for the
@@ -186,16 +232,32 @@ public class FedoraBinaryImpl extends FedoraResourceImpl implements FedoraBinary
             final Property dataProperty = contentNode.setProperty(JCR_DATA, binary);
 
             final String dsChecksum = binary.getHexHash();
-            final URI uriChecksumString = ContentDigest.asURI("SHA-1", dsChecksum);
-            if (checksum != null &&
-                    !checksum.equals(uriChecksumString)) {
-                LOGGER.debug("Failed checksum test");
-                throw new InvalidChecksumException("Checksum Mismatch of " +
-                        uriChecksumString + " and " + checksum);
+            final Map<String, URI> digests = new LinkedHashMap<>();
+            digests.put("SHA-1", ContentDigest.asURI("SHA-1", dsChecksum));
+            digests.putAll(digestStream.getContentDigests());
+
+            if (checksum != null) {
+                final String algorithm = ContentDigest.getAlgorithm(checksum);
+                if (!digests.containsKey(algorithm)) {
+                    throw new InvalidChecksumException("Unsupported checksum algorithm in " + checksum);
+                }
+                final URI uriChecksumString = digests.get(algorithm);
+                if (!checksum.equals(uriChecksumString)) {
+                    LOGGER.debug("Failed checksum test");
+                    throw new InvalidChecksumException("Checksum Mismatch of " +
+                            uriChecksumString + " and " + checksum);
+                }
             }
 
             decorateContentNode(contentNode);
 
+            final String[] digestValues = new String[digests.size()];
+            int i = 0;
+            for (final URI digest : digests.values()) {
+                digestValues[i++] = digest.toString();
+            }
+            contentNode.setProperty(CONTENT_DIGESTS, digestValues, PropertyType.URI);
+
             LOGGER.debug("Created data property at path: {}", dataProperty.getPath());
 
         } catch (final RepositoryException e) {
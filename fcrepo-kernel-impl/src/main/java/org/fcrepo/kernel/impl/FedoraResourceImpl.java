@@ -15,34 +15,38 @@
  */
 package org.fcrepo.kernel.impl;
 
-import static com.google.common.base.Predicates.not;
-import static com.google.common.base.Throwables.propagate;
-import static com.google.common.collect.Iterators.concat;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Predicates.notNull;
 import static com.google.common.collect.Iterators.filter;
-import static com.google.common.collect.Iterators.singletonIterator;
 import static com.google.common.collect.Iterators.transform;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.io.BaseEncoding.base64Url;
 import static com.hp.hpl.jena.update.UpdateAction.execute;
 import static com.hp.hpl.jena.update.UpdateFactory.create;
 import static org.apache.commons.codec.digest.DigestUtils.shaHex;
 import static org.fcrepo.kernel.impl.identifiers.NodeResourceConverter.nodeConverter;
+import static org.fcrepo.kernel.impl.services.TransactionServiceImpl.getCurrentTransactionId;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.getContainedNodes;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isHiddenChild;
 import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isFrozenNode;
-import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isInternalNode;
 import static org.fcrepo.kernel.services.functions.JcrPropertyFunctions.isFrozen;
 import static org.fcrepo.kernel.services.functions.JcrPropertyFunctions.property2values;
 import static org.fcrepo.kernel.services.functions.JcrPropertyFunctions.value2string;
-import static org.modeshape.jcr.api.JcrConstants.JCR_CONTENT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
+import javax.jcr.AccessDeniedException;
 import javax.jcr.ItemNotFoundException;
 import javax.jcr.Node;
+import javax.jcr.NodeIterator;
 import javax.jcr.PathNotFoundException;
 import javax.jcr.Property;
 import javax.jcr.RepositoryException;
@@ -52,7 +56,8 @@ import javax.jcr.version.VersionHistory;
 
 import com.google.common.base.Converter;
 import com.google.common.base.Function;
-import com.google.common.base.Predicate;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
 import com.google.common.collect.Iterators;
 import com.hp.hpl.jena.rdf.model.Resource;
 
@@ -64,10 +69,15 @@ import org.fcrepo.kernel.exception.MalformedRdfException;
 import org.fcrepo.kernel.exception.PathNotFoundRuntimeException;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.impl.rdf.RdfContextRegistry;
+import org.fcrepo.kernel.impl.utils.ContainmentIndex;
+import org.fcrepo.kernel.impl.utils.IncrementalSparqlUpdate;
 import org.fcrepo.kernel.impl.utils.JcrPropertyStatementListener;
-import org.fcrepo.kernel.utils.iterators.GraphDifferencingIterator;
+import org.fcrepo.kernel.impl.utils.ReferenceIndex;
+import org.fcrepo.kernel.utils.iterators.HashedGraphDiff;
 import org.fcrepo.kernel.impl.utils.iterators.RdfAdder;
 import org.fcrepo.kernel.impl.utils.iterators.RdfRemover;
+import org.fcrepo.kernel.utils.ContainmentPage;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 
 import org.modeshape.jcr.api.JcrTools;
@@ -87,6 +97,8 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
 
     private static final Logger LOGGER = getLogger(FedoraResourceImpl.class);
 
+    private static final String INDEX_TOKEN_PREFIX = "i";
+
     protected Node node;
 
     /**
@@ -123,56 +135,322 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
     @Override
     public Iterator<FedoraResource> getChildren() {
         try {
-            return concat(nodeToGoodChildren(node));
+            final ContainmentIndex.Members members = indexedMembers();
+
+            final Iterator<Node> children;
+
+            if (members == null) {
+                children = getContainedNodes(node);
+            } else {
+                children = filter(transform(members.paths().iterator(), pathToNode()), notNull());
+            }
+            return transform(children, nodeToObjectBinaryConverter);
         } catch (final RepositoryException e) {
             throw new RepositoryRuntimeException(e);
         }
     }
 
+    /* (non-Javadoc)
+     * @see org.fcrepo.kernel.models.FedoraResource#getChildren(java.lang.String, int)
+     */
+    @Override
+    public ContainmentPage getChildren(final String token, final int pageSize) {
+        checkArgument(pageSize > 0, "Page size must be positive, but was %s", pageSize);
+
+        final String cursor = decodeToken(token);
+
+        try {
+            final ContainmentIndex.Members members = indexedMembers();
+
+            if (cursor.startsWith(INDEX_TOKEN_PREFIX) || (cursor.isEmpty() && members != null)) {
+                if (members == null) {
+                    throw new IllegalArgumentException("Continuation token " + token + " is no longer valid");
+                }
+                return getIndexedChildren(members, cursor, pageSize);
+            }
+
+            return getTraversedChildren(parseCursors(cursor, token), pageSize);
+        } catch (final RepositoryException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+    }
+
+    /**
+     * Get a page of children from the containment index, seeking to the member sequence number in the cursor
+     * @param members
+     * @param cursor
+     * @param pageSize
+     * @return
+     */
+    private ContainmentPage getIndexedChildren(final ContainmentIndex.Members members,
+                                               final String cursor,
+                                               final int pageSize) {
+        final long start;
+
+        try {
+            start = cursor.isEmpty() ? 0 : Long.parseLong(cursor.substring(INDEX_TOKEN_PREFIX.length()));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+
+        final List<FedoraResource> children = new ArrayList<>(Math.min(pageSize, members.size()));
+        String nextToken = null;
+
+        for (final Map.Entry<Long, String> member : members.page(start, pageSize + 1).entrySet()) {
+            if (children.size() == pageSize) {
+                nextToken = encodeToken(INDEX_TOKEN_PREFIX + member.getKey());
+                break;
+            }
+
+            final Node child = pathToNode().apply(member.getValue());
+
+            if (child != null) {
+                children.add(nodeToObjectBinaryConverter.convert(child));
+            }
+        }
+
+        // the index size counts every member, including any this session may not read: filtering it here
+        // would check every member on every page
+        return new ContainmentPage(children, nextToken, members.size());
+    }
+
     /**
-     * Get the "good" children for a node by skipping all pairtree nodes in the way.
-     * @param input
+     * Get a page of children by traversing the JCR children, resuming just after the last child of the
+     * previous page. The cursor names that child and the pairtree nodes above it, with the positions at which
+     * they were found as hints, so that children added or removed between pages do not shift the page.
+     * @param start
+     * @param pageSize
      * @return
      * @throws RepositoryException
      */
-    private Iterator<Iterator<FedoraResource>> nodeToGoodChildren(final Node input) throws RepositoryException {
-        final Iterator<Node> allChildren = input.getNodes();
-        final Iterator<Node> children = filter(allChildren, not(nastyChildren));
-        return transform(children, new Function<Node, Iterator<FedoraResource>>() {
+    private ContainmentPage getTraversedChildren(final List<ChildCursor> start, final int pageSize)
+            throws RepositoryException {
+        // the iterators (and positions within them) of the pairtree nodes we have descended through
+        final List<NodeIterator> iterators = new ArrayList<>();
+        final List<Long> positions = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+
+        NodeIterator current = start.isEmpty() ? node.getNodes() : null;
+        long position = 0;
+
+        try {
+            Node parent = node;
+
+            for (final ChildCursor cursor : start) {
+                final Node found = cursor.seek(parent);
+                current = cursor.iterator;
+                position = cursor.position;
+
+                if (found == null || cursor == start.get(start.size() - 1) || !found.isNodeType(FEDORA_PAIRTREE)) {
+                    break;
+                }
+                iterators.add(current);
+                positions.add(position - 1);
+                names.add(found.getName());
+                parent = found;
+            }
+        } catch (final NoSuchElementException e) {
+            LOGGER.debug("Continuation token points past the last child of {}", this);
+            return new ContainmentPage(Collections.<FedoraResource>emptyList(), null);
+        }
+
+        final List<FedoraResource> children = new ArrayList<>();
+        String pendingToken = null;
+        String nextToken = null;
+
+        while (true) {
+            if (!current.hasNext()) {
+                if (iterators.isEmpty()) {
+                    break;
+                }
+                final int top = iterators.size() - 1;
+                current = iterators.remove(top);
+                position = positions.remove(top) + 1;
+                names.remove(top);
+                continue;
+            }
+
+            final Node child = current.nextNode();
+
+            if (isHiddenChild.apply(child)) {
+                position++;
+                continue;
+            }
+
+            if (child.isNodeType(FEDORA_PAIRTREE)) {
+                iterators.add(current);
+                positions.add(position);
+                names.add(child.getName());
+                current = child.getNodes();
+                position = 0;
+                continue;
+            }
+
+            // the page is full, and we've found evidence of another page
+            if (pendingToken != null) {
+                nextToken = pendingToken;
+                break;
+            }
+
+            children.add(nodeToObjectBinaryConverter.convert(child));
+
+            if (children.size() == pageSize) {
+                final List<String> cursor = new ArrayList<>(names.size() + 1);
+                for (int i = 0; i < names.size(); i++) {
+                    cursor.add(positions.get(i) + ":" + names.get(i));
+                }
+                cursor.add(position + ":" + child.getName());
+                pendingToken = encodeToken(Joiner.on('/').join(cursor));
+            }
+            position++;
+        }
+
+        return new ContainmentPage(children, nextToken);
+    }
+
+    /**
+     * Get the containment index entry for this resource, if the index may be used. The index only
+     * reflects persisted changes that its observer has seen, so it is bypassed for sessions with
+     * pending changes or transactions, and by the index itself while saved changes are in flight.
+     * @return
+     * @throws RepositoryException
+     */
+    private ContainmentIndex.Members indexedMembers() throws RepositoryException {
+        final ContainmentIndex index = ContainmentIndex.getInstance();
+
+        if (!index.isEnabled()
+                || getSession().hasPendingChanges()
+                || getCurrentTransactionId(getSession()) != null
+                || getPath().startsWith("/jcr:system")) {
+            return null;
+        }
+
+        return index.getMembers(node);
+    }
+
+    /**
+     * Look up nodes by path, yielding null for nodes that have been removed or that may not be read
+     * @return
+     */
+    private Function<String, Node> pathToNode() {
+        final Session session = getSession();
+
+        return new Function<String, Node>() {
 
             @Override
-            public Iterator<FedoraResource> apply(final Node input) {
+            public Node apply(final String path) {
                 try {
-                    if (input.isNodeType(FEDORA_PAIRTREE)) {
-                        return concat(nodeToGoodChildren(input));
-                    }
-                    return singletonIterator(nodeToObjectBinaryConverter.convert(input));
+                    return session.getNode(path);
+                } catch (final PathNotFoundException | AccessDeniedException e) {
+                    LOGGER.debug("Skipping unavailable child {}", path);
+                    return null;
                 } catch (final RepositoryException e) {
                     throw new RepositoryRuntimeException(e);
                 }
             }
-        });
+        };
+    }
+
+    private static String encodeToken(final String cursor) {
+        return base64Url().omitPadding().encode(cursor.getBytes(UTF_8));
     }
+
+    private static String decodeToken(final String token) {
+        if (token == null || token.isEmpty()) {
+            return "";
+        }
+
+        try {
+            return new String(base64Url().omitPadding().decode(token), UTF_8);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+        }
+    }
+
+    private static List<ChildCursor> parseCursors(final String cursor, final String token) {
+        if (cursor.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            final List<ChildCursor> cursors = new ArrayList<>();
+
+            for (final String part : Splitter.on('/').split(cursor)) {
+                final int separator = part.indexOf(':');
+                checkArgument(separator > 0 && separator < part.length() - 1);
+
+                final long position = Long.parseLong(part.substring(0, separator));
+                checkArgument(position >= 0);
+                cursors.add(new ChildCursor(position, part.substring(separator + 1)));
+            }
+            return cursors;
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+        }
+    }
+
     /**
-     * Children for whom we will not generate triples.
+     * A child named in a continuation token, with the position at which it was last seen
      */
-    private static Predicate<Node> nastyChildren =
-            new Predicate<Node>() {
-
-                @Override
-                public boolean apply(final Node n) {
-                    LOGGER.trace("Testing child node {}", n);
-                    try {
-                        return isInternalNode.apply(n)
-                                || n.getName().equals(JCR_CONTENT)
-                                || TombstoneImpl.hasMixin(n)
-                                || n.getName().equals("#");
-                    } catch (final RepositoryException e) {
-                        throw new RepositoryRuntimeException(e);
+    private static class ChildCursor {
+
+        private final long hint;
+
+        private final String name;
+
+        private NodeIterator iterator;
+
+        private long position;
+
+        private ChildCursor(final long hint, final String name) {
+            this.hint = hint;
+            this.name = name;
+        }
+
+        /**
+         * Position an iterator over the children of a node just past the named child, looking first
+         * where it was last seen. If the child is gone, the iterator is left at the hinted position.
+         * @param parent
+         * @return the named child, or null if it is gone
+         * @throws RepositoryException
+         */
+        private Node seek(final Node parent) throws RepositoryException {
+            iterator = parent.getNodes();
+
+            try {
+                iterator.skip(hint);
+
+                if (iterator.hasNext()) {
+                    final Node candidate = iterator.nextNode();
+
+                    if (candidate.getName().equals(name)) {
+                        position = hint + 1;
+                        return candidate;
                     }
                 }
-            };
+            } catch (final NoSuchElementException e) {
+                LOGGER.trace("Child {} is no longer at position {}", name, hint);
+            }
+
+            // the children have shifted since the previous page
+            iterator = parent.getNodes();
+            position = 0;
 
+            while (iterator.hasNext()) {
+                final Node candidate = iterator.nextNode();
+                position++;
+
+                if (candidate.getName().equals(name)) {
+                    return candidate;
+                }
+            }
+
+            iterator = parent.getNodes();
+            iterator.skip(hint);
+            position = hint;
+            return null;
+        }
+    }
 
     private static final Converter<FedoraResource, FedoraResource> datastreamToBinary
             = new Converter<FedoraResource, FedoraResource>() {
@@ -268,6 +546,8 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
             }
             final String name = getNode().getName();
 
+            ContainmentIndex.getInstance().childPending(getPath());
+            ReferenceIndex.getInstance().nodePending(getPath());
             node.remove();
 
             if (parent != null) {
@@ -354,14 +634,28 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
                                  final String sparqlUpdateStatement, final RdfStream originalTriples)
             throws MalformedRdfException {
 
-        final Model model = originalTriples.asModel();
+        final Resource subject = idTranslator.reverse().convert(this);
+        final UpdateRequest request = create(sparqlUpdateStatement, subject.toString());
+
+        // common updates only need the few triples their WHERE clauses can match
+        Model model = null;
+        final IncrementalSparqlUpdate incremental = new IncrementalSparqlUpdate(request, subject.asNode());
+        if (incremental.isSupported()) {
+            try {
+                model = incremental.model(this, idTranslator, originalTriples);
+            } catch (final RepositoryException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+        }
+        if (model == null) {
+            model = originalTriples.asModel();
+        }
 
         final JcrPropertyStatementListener listener =
                 new JcrPropertyStatementListener(idTranslator, getSession());
 
         model.register(listener);
 
-        final UpdateRequest request = create(sparqlUpdateStatement, idTranslator.reverse().convert(this).toString());
         model.setNsPrefixes(request.getPrefixMapping());
         execute(request, model);
 
@@ -381,23 +675,9 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
 
         for (final Class<? extends RdfStream> context : contexts) {
             try {
-                final Constructor<? extends RdfStream> declaredConstructor
-                        = context.getDeclaredConstructor(FedoraResource.class, IdentifierConverter.class);
-
-                final RdfStream rdfStream = declaredConstructor.newInstance(this, idTranslator);
-
-                stream.concat(rdfStream);
-            } catch (final NoSuchMethodException |
-                    InstantiationException |
-                    IllegalAccessException e) {
-                // Shouldn't happen.
-                throw propagate(e);
-            } catch (final InvocationTargetException e) {
-                final Throwable cause = e.getCause();
-                if (cause instanceof RepositoryException) {
-                    throw new RepositoryRuntimeException(cause);
-                }
-                throw propagate(cause);
+                stream.concat(RdfContextRegistry.create(context, this, idTranslator));
+            } catch (final RepositoryException e) {
+                throw new RepositoryRuntimeException(e);
             }
         }
 
@@ -448,13 +728,15 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
 
         final RdfStream replacementStream = new RdfStream().namespaces(inputModel.getNsPrefixMap());
 
-        final GraphDifferencingIterator differencer =
-            new GraphDifferencingIterator(inputModel, originalTriples);
+        // the whole difference is known before any property is changed. It is then applied in two passes
+        // over the differences alone, all removals before any additions, so that a single-valued property
+        // is cleared before its new value is set.
+        final HashedGraphDiff diff = new HashedGraphDiff(inputModel, originalTriples);
 
         final StringBuilder exceptions = new StringBuilder();
         try {
             new RdfRemover(idTranslator, getSession(), replacementStream
-                    .withThisContext(differencer)).consume();
+                    .withThisContext(diff.removed())).consume();
         } catch (final MalformedRdfException e) {
             exceptions.append(e.getMessage());
             exceptions.append("\n");
@@ -462,7 +744,7 @@ public class FedoraResourceImpl extends JcrTools implements FedoraJcrTypes, Fedo
 
         try {
             new RdfAdder(idTranslator, getSession(), replacementStream
-                    .withThisContext(differencer.notCommon())).consume();
+                    .withThisContext(diff.added())).consume();
         } catch (final MalformedRdfException e) {
             exceptions.append(e.getMessage());
         }
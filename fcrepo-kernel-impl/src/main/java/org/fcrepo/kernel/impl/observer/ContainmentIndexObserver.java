@@ -0,0 +1,194 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_PAIRTREE;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isHiddenChild;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.Node;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.impl.utils.ContainmentIndex;
+import org.fcrepo.metrics.RegistryService;
+import org.modeshape.jcr.api.Repository;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Counter;
+
+/**
+ * Keeps the {@link ContainmentIndex} current by recording nodes added to, and removed
+ * from, indexed containers.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class ContainmentIndexObserver implements EventListener {
+
+    private static final Logger LOGGER = getLogger(ContainmentIndexObserver.class);
+
+    /**
+     * A simple counter of events that pass through this observer
+     */
+    static final Counter EVENT_COUNTER = RegistryService.getInstance().getMetrics().counter(
+            name(ContainmentIndexObserver.class, "onEvent"));
+
+    static final int EVENT_TYPES = NODE_ADDED + NODE_REMOVED + NODE_MOVED;
+
+    @Inject
+    private Repository repository;
+
+    private ContainmentIndex index = ContainmentIndex.getInstance();
+
+    // THIS SESSION SHOULD NOT BE USED TO LOOK UP NODES
+    private Session session;
+
+    /**
+     * Register this observer with the JCR event listeners, and start maintaining the index
+     * @throws RepositoryException
+     */
+    @PostConstruct
+    public void buildListener() throws RepositoryException {
+        LOGGER.debug("Constructing an observer for the containment index...");
+        session = repository.login();
+        session.getWorkspace().getObservationManager().addEventListener(this,
+                EVENT_TYPES, "/", true, null, null, false);
+        session.save();
+        index.start(repository);
+    }
+
+    /**
+     * Stop maintaining the index, and logout of the session
+     * @throws RepositoryException
+     */
+    @PreDestroy
+    public void stopListening() throws RepositoryException {
+        LOGGER.debug("Destroying an observer for the containment index...");
+        index.stop();
+        session.getWorkspace().getObservationManager().removeEventListener(this);
+        session.logout();
+    }
+
+    /**
+     * Apply node additions and removals to the containment index
+     *
+     * @param events
+     */
+    @Override
+    public void onEvent(final EventIterator events) {
+        Session lookupSession = null;
+        try {
+            while (events.hasNext()) {
+                final Event e = events.nextEvent();
+                EVENT_COUNTER.inc();
+
+                switch (e.getType()) {
+                    case NODE_REMOVED:
+                        nodeRemoved(e.getPath());
+                        break;
+                    case NODE_ADDED:
+                        lookupSession = nodeAdded(lookupSession, e.getPath(), false);
+                        break;
+                    case NODE_MOVED:
+                        final Map<?, ?> info = e.getInfo();
+                        nodeRemoved((String) info.get("srcAbsPath"));
+                        lookupSession = nodeAdded(lookupSession, (String) info.get("destAbsPath"), true);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (final RepositoryException ex) {
+            throw new RepositoryRuntimeException(ex);
+        } finally {
+            if (lookupSession != null) {
+                lookupSession.logout();
+            }
+        }
+    }
+
+    private void nodeRemoved(final String path) {
+        if (path != null && !isInternalPath(path)) {
+            index.nodeRemoved(path);
+        }
+    }
+
+    /**
+     * Add a node to the index of its container, logging in for lookups if necessary
+     * @param lookupSession an existing lookup session, or null
+     * @param path
+     * @param moved whether the node was moved, bringing its subtree with it
+     * @return the lookup session
+     * @throws RepositoryException
+     */
+    private Session nodeAdded(final Session lookupSession, final String path, final boolean moved)
+            throws RepositoryException {
+        if (path == null || isInternalPath(path) || !index.hasIndexedAncestor(path)) {
+            return lookupSession;
+        }
+
+        final Session s = lookupSession == null ? repository.login() : lookupSession;
+
+        final Node node;
+        try {
+            node = s.getNode(path);
+        } catch (final PathNotFoundException e) {
+            LOGGER.trace("Node {} was removed before it could be indexed", path);
+            index.nodeSettled(path);
+            return s;
+        }
+
+        if (node.isNodeType(FEDORA_PAIRTREE)) {
+            if (moved) {
+                index.pairtreeMoved(path);
+            }
+            index.nodeSettled(path);
+            return s;
+        }
+
+        if (isHiddenChild.apply(node)) {
+            index.nodeSettled(path);
+            return s;
+        }
+
+        Node container = node.getParent();
+        while (container.getDepth() > 0 && container.isNodeType(FEDORA_PAIRTREE)) {
+            container = container.getParent();
+        }
+
+        index.childAdded(container.getPath(), path);
+        return s;
+    }
+
+    private static boolean isInternalPath(final String path) {
+        return path.startsWith("/jcr:system") || path.startsWith("jcr:", path.lastIndexOf('/') + 1);
+    }
+}
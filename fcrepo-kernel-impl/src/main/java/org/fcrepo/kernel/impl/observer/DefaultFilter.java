@@ -16,7 +16,6 @@
 package org.fcrepo.kernel.impl.observer;
 
 import static com.google.common.base.Throwables.propagate;
-import static com.google.common.collect.Iterables.transform;
 import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_BINARY;
 import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_NON_RDF_SOURCE_DESCRIPTION;
 import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_CONTAINER;
@@ -29,16 +28,13 @@ import javax.jcr.Session;
 import javax.jcr.nodetype.NodeType;
 import javax.jcr.observation.Event;
 
-import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.fcrepo.kernel.observer.EventFilter;
 import org.slf4j.Logger;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.Set;
 
 /**
  * {@link EventFilter} that passes only events emitted from nodes with a Fedora
@@ -58,28 +54,22 @@ public class DefaultFilter implements EventFilter {
 
     private static final Logger LOGGER = getLogger(DefaultFilter.class);
 
-    private static final Function<NodeType, String> nodetype2string = new Function<NodeType, String>() {
-        @Override
-        public String apply(final NodeType input) {
-            return input.getName();
-        }
-    };
-
     /**
-     * Default constructor.
+     * The mixins that mark a node as a Fedora resource
      */
-    public DefaultFilter() {
-    }
+    private static final Set<String> FEDORA_MIXINS = ImmutableSet.of(FEDORA_RESOURCE, FEDORA_BINARY,
+            FEDORA_NON_RDF_SOURCE_DESCRIPTION, FEDORA_CONTAINER);
 
     /**
-     * @param session
+     * Default constructor.
      */
-    private DefaultFilter(final Session session) {
+    public DefaultFilter() {
     }
 
     @Override
     public Predicate<Event> getFilter(final Session session) {
-        return new DefaultFilter(session);
+        // the filter holds no state, so it may be shared by every batch of events
+        return this;
     }
 
     @Override
@@ -87,12 +77,12 @@ public class DefaultFilter implements EventFilter {
         try {
             final org.modeshape.jcr.api.observation.Event modeEvent = getJcr21Event(event);
 
-            final List<NodeType> nodeTypes = ImmutableList.copyOf(modeEvent.getMixinNodeTypes());
-            final Collection<String> mixinTypes = ImmutableSet.copyOf(transform(nodeTypes, nodetype2string));
-            return mixinTypes.contains(FEDORA_RESOURCE)
-                    || mixinTypes.contains(FEDORA_BINARY)
-                    || mixinTypes.contains(FEDORA_NON_RDF_SOURCE_DESCRIPTION)
-                    || mixinTypes.contains(FEDORA_CONTAINER);
+            for (final NodeType mixin : modeEvent.getMixinNodeTypes()) {
+                if (FEDORA_MIXINS.contains(mixin.getName())) {
+                    return true;
+                }
+            }
+            return false;
         } catch (final PathNotFoundException e) {
             LOGGER.trace("Dropping event from outside our assigned workspace:\n", e);
             return false;
@@ -16,6 +16,7 @@
 package org.fcrepo.kernel.impl.observer;
 
 import com.google.common.base.Function;
+import org.fcrepo.kernel.impl.utils.NamespacePrefixCache;
 import org.fcrepo.kernel.observer.FedoraEvent;
 import org.slf4j.Logger;
 
@@ -36,26 +37,40 @@ public class GetNamespacedProperties implements Function<FedoraEvent, FedoraEven
 
     private Session session;
 
+    private final NamespacePrefixCache prefixes;
+
+    private NamespaceRegistry namespaceRegistry;
+
     /**
      * Constructor
      *
      * @param session used to get NamespaceRegistry
      */
     public GetNamespacedProperties(final Session session) {
+        this(session, NamespacePrefixCache.getInstance());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param session used to get NamespaceRegistry
+     * @param prefixes the cache of namespace prefixes to consult before the NamespaceRegistry
+     */
+    public GetNamespacedProperties(final Session session, final NamespacePrefixCache prefixes) {
         this.session = session;
+        this.prefixes = prefixes;
     }
 
     @Override
     public FedoraEvent apply(final FedoraEvent evt) {
-        final NamespaceRegistry namespaceRegistry = getNamespaceRegistry(session);
-
         final FedoraEvent event = new FedoraEvent(evt);
         for (String property : evt.getProperties()) {
             final String[] parts = property.split(":", 2);
             if (parts.length == 2) {
                 final String prefix = parts[0];
                 try {
-                    event.addProperty(namespaceRegistry.getURI(prefix) + parts[1]);
+                    final String uri = prefixes.lookup(prefix);
+                    event.addProperty((uri != null ? uri : prefixes.getURI(namespaceRegistry(), prefix)) + parts[1]);
                 } catch (RepositoryException ex) {
                     LOGGER.trace("Prefix could not be dereferenced using the namespace registry: {}", property);
                     event.addProperty(property);
@@ -71,4 +86,11 @@ public class GetNamespacedProperties implements Function<FedoraEvent, FedoraEven
         return event;
     }
 
+    private NamespaceRegistry namespaceRegistry() {
+        if (namespaceRegistry == null) {
+            namespaceRegistry = getNamespaceRegistry(session);
+        }
+        return namespaceRegistry;
+    }
+
 }
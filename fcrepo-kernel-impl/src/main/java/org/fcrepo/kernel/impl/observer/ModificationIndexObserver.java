@@ -0,0 +1,152 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static org.modeshape.jcr.api.JcrConstants.JCR_CONTENT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.impl.utils.ModificationLog;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.kernel.services.ModificationIndexService;
+import org.fcrepo.kernel.utils.Modification;
+import org.fcrepo.metrics.RegistryService;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Records the {@link FedoraEvent}s posted to the internal event bus in a
+ * repository-wide, time-ordered {@link ModificationLog}, from which the
+ * modifications made since a point in time can be read without crawling the
+ * repository.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class ModificationIndexObserver implements ModificationIndexService {
+
+    private static final Logger LOGGER = getLogger(ModificationIndexObserver.class);
+
+    static final String DIRECTORY_PROPERTY = "fcrepo.modification.index.directory";
+
+    /**
+     * A simple counter of events that pass through this observer
+     */
+    static final Counter EVENT_COUNTER = RegistryService.getInstance().getMetrics().counter(
+            name(ModificationIndexObserver.class, "onEvent"));
+
+    @Inject
+    private EventBus eventBus;
+
+    private File directory;
+
+    private long segmentSize = getInteger("fcrepo.modification.index.segmentSize", 16 * 1024 * 1024);
+
+    private int retainedSegments = getInteger("fcrepo.modification.index.retainedSegments", 64);
+
+    private ModificationLog log;
+
+    /**
+     * Open the index and start recording events from the bus
+     */
+    @PostConstruct
+    public void buildListener() {
+        LOGGER.debug("Constructing an observer for the modification index...");
+        if (directory == null) {
+            directory = defaultDirectory();
+        }
+        log = new ModificationLog(directory, segmentSize, retainedSegments);
+        eventBus.register(this);
+    }
+
+    /**
+     * Stop recording events and close the index
+     */
+    @PreDestroy
+    public void stopListening() {
+        LOGGER.debug("Destroying an observer for the modification index...");
+        eventBus.unregister(this);
+        log.close();
+    }
+
+    /**
+     * Record an event from the bus.
+     *
+     * @param event the event
+     * @throws RepositoryException
+     */
+    @Subscribe
+    public void onEvent(final FedoraEvent event) throws RepositoryException {
+        String path = event.getPath();
+        // changes to the content of a binary are changes to the binary
+        if (path.endsWith("/" + JCR_CONTENT)) {
+            path = path.substring(0, path.length() - JCR_CONTENT.length() - 1);
+        }
+        final Modification modification = log.append(event.getDate(), path, new LinkedHashSet<>(event.getTypes()));
+        EVENT_COUNTER.inc();
+        LOGGER.trace("Recorded {}", modification);
+    }
+
+    /**
+     * The index is kept with the rest of the repository's data, where
+     * {@link org.fcrepo.kernel.impl.spring.DefaultPropertiesLoader} puts it, and never in a
+     * temporary directory that may be cleared or shared with other users.
+     */
+    private static File defaultDirectory() {
+        final String configured = getProperty(DIRECTORY_PROPERTY);
+
+        if (configured != null) {
+            return new File(configured);
+        }
+
+        final String home = getProperty("fcrepo.home", getProperty("user.dir") + File.separator + "fcrepo4-data");
+        return new File(home, DIRECTORY_PROPERTY);
+    }
+
+    @Override
+    public long getFirstSequence() {
+        return log.getFirstSequence();
+    }
+
+    @Override
+    public long getLastSequence() {
+        return log.getLastSequence();
+    }
+
+    @Override
+    public long findSequence(final long timestamp) {
+        return log.findSequence(timestamp);
+    }
+
+    @Override
+    public Iterator<Modification> getModifications(final long fromSequence, final int limit) {
+        return log.read(fromSequence, limit);
+    }
+}
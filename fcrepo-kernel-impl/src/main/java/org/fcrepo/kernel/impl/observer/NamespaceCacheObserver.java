@@ -0,0 +1,98 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static javax.jcr.observation.Event.PROPERTY_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static javax.jcr.observation.Event.PROPERTY_REMOVED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.fcrepo.kernel.impl.utils.NamespacePrefixCache;
+import org.modeshape.jcr.api.Repository;
+import org.slf4j.Logger;
+
+/**
+ * Clears the {@link NamespacePrefixCache} whenever a namespace is registered, remapped or
+ * removed, by any session or cluster member, as the repository records namespaces below
+ * {@link #NAMESPACES_PATH}.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class NamespaceCacheObserver implements EventListener {
+
+    private static final Logger LOGGER = getLogger(NamespaceCacheObserver.class);
+
+    static final String NAMESPACES_PATH = "/jcr:system/mode:namespaces";
+
+    static final int EVENT_TYPES = NODE_ADDED + NODE_REMOVED + NODE_MOVED + PROPERTY_ADDED + PROPERTY_CHANGED
+            + PROPERTY_REMOVED;
+
+    @Inject
+    private Repository repository;
+
+    private NamespacePrefixCache cache = NamespacePrefixCache.getInstance();
+
+    // THIS SESSION SHOULD NOT BE USED TO LOOK UP NODES
+    private Session session;
+
+    /**
+     * Register this observer with the JCR event listeners
+     * @throws RepositoryException
+     */
+    @PostConstruct
+    public void buildListener() throws RepositoryException {
+        LOGGER.debug("Constructing an observer for namespace changes...");
+        session = repository.login();
+        session.getWorkspace().getObservationManager().addEventListener(this,
+                EVENT_TYPES, NAMESPACES_PATH, true, null, null, false);
+        session.save();
+    }
+
+    /**
+     * logout of the session
+     * @throws RepositoryException
+     */
+    @PreDestroy
+    public void stopListening() throws RepositoryException {
+        LOGGER.debug("Destroying an observer for namespace changes...");
+        session.getWorkspace().getObservationManager().removeEventListener(this);
+        session.logout();
+    }
+
+    /**
+     * Discard the cached prefixes after any change to the namespaces
+     *
+     * @param events
+     */
+    @Override
+    public void onEvent(final EventIterator events) {
+        if (events.hasNext()) {
+            cache.invalidate();
+        }
+    }
+}
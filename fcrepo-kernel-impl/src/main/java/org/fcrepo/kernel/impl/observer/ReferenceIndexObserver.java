@@ -0,0 +1,189 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static javax.jcr.PropertyType.REFERENCE;
+import static javax.jcr.PropertyType.WEAKREFERENCE;
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static javax.jcr.observation.Event.PROPERTY_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static javax.jcr.observation.Event.PROPERTY_REMOVED;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.REFERENCE_PROPERTY_SUFFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.impl.utils.ReferenceIndex;
+import org.fcrepo.metrics.RegistryService;
+import org.modeshape.jcr.api.Repository;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Counter;
+
+/**
+ * Keeps the {@link ReferenceIndex} current by recording changes to reference properties,
+ * and the removal of referring and referenced nodes. Only Fedora's own reference
+ * properties are looked up as they change; nothing is looked up while no node is indexed.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class ReferenceIndexObserver implements EventListener {
+
+    private static final Logger LOGGER = getLogger(ReferenceIndexObserver.class);
+
+    /**
+     * A simple counter of events that pass through this observer
+     */
+    static final Counter EVENT_COUNTER = RegistryService.getInstance().getMetrics().counter(
+            name(ReferenceIndexObserver.class, "onEvent"));
+
+    static final int EVENT_TYPES = PROPERTY_ADDED + PROPERTY_CHANGED + PROPERTY_REMOVED + NODE_REMOVED + NODE_MOVED;
+
+    @Inject
+    private Repository repository;
+
+    private ReferenceIndex index = ReferenceIndex.getInstance();
+
+    // THIS SESSION SHOULD NOT BE USED TO LOOK UP NODES
+    private Session session;
+
+    /**
+     * Register this observer with the JCR event listeners, and start maintaining the index
+     * @throws RepositoryException
+     */
+    @PostConstruct
+    public void buildListener() throws RepositoryException {
+        LOGGER.debug("Constructing an observer for the reference index...");
+        session = repository.login();
+        session.getWorkspace().getObservationManager().addEventListener(this,
+                EVENT_TYPES, "/", true, null, null, false);
+        session.save();
+        index.start(repository);
+    }
+
+    /**
+     * Stop maintaining the index, and logout of the session
+     * @throws RepositoryException
+     */
+    @PreDestroy
+    public void stopListening() throws RepositoryException {
+        LOGGER.debug("Destroying an observer for the reference index...");
+        index.stop();
+        session.getWorkspace().getObservationManager().removeEventListener(this);
+        session.logout();
+    }
+
+    /**
+     * Apply reference property changes and node removals to the reference index
+     *
+     * @param events
+     */
+    @Override
+    public void onEvent(final EventIterator events) {
+        Session lookupSession = null;
+        try {
+            while (events.hasNext()) {
+                final Event e = events.nextEvent();
+                EVENT_COUNTER.inc();
+
+                if (index.isEmpty()) {
+                    continue;
+                }
+
+                switch (e.getType()) {
+                    case PROPERTY_ADDED:
+                    case PROPERTY_CHANGED:
+                        if (isReferenceProperty(e.getPath())) {
+                            if (lookupSession == null) {
+                                lookupSession = repository.login();
+                            }
+                            propertyChanged(lookupSession, e.getPath());
+                        }
+                        break;
+                    case PROPERTY_REMOVED:
+                        if (isReferenceProperty(e.getPath())) {
+                            index.propertyRemoved(e.getPath());
+                        }
+                        break;
+                    case NODE_REMOVED:
+                        index.nodeRemoved(e.getPath());
+                        break;
+                    case NODE_MOVED:
+                        // the paths of referring properties and referenced nodes may all have changed
+                        LOGGER.debug("Discarding the reference index after a move");
+                        index.clear();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (final RepositoryException ex) {
+            throw new RepositoryRuntimeException(ex);
+        } finally {
+            if (lookupSession != null) {
+                lookupSession.logout();
+            }
+        }
+    }
+
+    private boolean isReferenceProperty(final String path) {
+        return path.endsWith(REFERENCE_PROPERTY_SUFFIX) || index.isIndexedSource(path);
+    }
+
+    private void propertyChanged(final Session lookupSession, final String path) throws RepositoryException {
+        final Property property;
+        try {
+            property = lookupSession.getProperty(path);
+        } catch (final PathNotFoundException e) {
+            LOGGER.trace("Property {} was removed before it could be indexed", path);
+            index.propertyRemoved(path);
+            return;
+        }
+
+        final Set<String> targets = new HashSet<>();
+
+        if (property.getType() == REFERENCE || property.getType() == WEAKREFERENCE) {
+            final Value[] values = property.isMultiple() ? property.getValues() : new Value[] { property.getValue() };
+            for (final Value value : values) {
+                try {
+                    targets.add(lookupSession.getNodeByIdentifier(value.getString()).getPath());
+                } catch (final ItemNotFoundException e) {
+                    LOGGER.trace("Property {} refers to a missing node {}", path, value.getString());
+                }
+            }
+        }
+
+        index.propertyChanged(path, targets);
+    }
+}
@@ -19,6 +19,7 @@ import static com.codahale.metrics.MetricRegistry.name;
 import static com.google.common.base.Throwables.propagate;
 import static com.google.common.collect.Iterators.filter;
 import static com.google.common.collect.Iterators.transform;
+import static java.lang.Integer.getInteger;
 import static javax.jcr.observation.Event.NODE_ADDED;
 import static javax.jcr.observation.Event.NODE_MOVED;
 import static javax.jcr.observation.Event.NODE_REMOVED;
@@ -29,6 +30,8 @@ import static org.slf4j.LoggerFactory.getLogger;
 import  org.fcrepo.metrics.RegistryService;
 
 import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -85,6 +88,10 @@ public class SimpleObserver implements EventListener {
     // it is used only to register and deregister this observer to the JCR
     private Session session;
 
+    // sessions used to filter and map events, kept between batches of events rather than logging in for each
+    private final BlockingQueue<Session> lookupSessions =
+            new ArrayBlockingQueue<>(Math.max(getInteger("fcrepo.observer.sessions", 2), 1));
+
     /**
      * Register this observer with the JCR event listeners
      *
@@ -109,6 +116,10 @@ public class SimpleObserver implements EventListener {
         LOGGER.debug("Destroying an observer for JCR events...");
         session.getWorkspace().getObservationManager().removeEventListener(this);
         session.logout();
+        for (Session lookupSession = lookupSessions.poll(); lookupSession != null;
+                lookupSession = lookupSessions.poll()) {
+            lookupSession.logout();
+        }
     }
 
     /**
@@ -120,7 +131,7 @@ public class SimpleObserver implements EventListener {
     public void onEvent(final javax.jcr.observation.EventIterator events) {
         Session lookupSession = null;
         try {
-            lookupSession = repository.login();
+            lookupSession = borrowSession();
 
             @SuppressWarnings("unchecked")
             final Iterator<Event> filteredEvents = filter(events, eventFilter.getFilter(lookupSession));
@@ -136,8 +147,30 @@ public class SimpleObserver implements EventListener {
             throw propagate(ex);
         } finally {
             if (lookupSession != null) {
-                lookupSession.logout();
+                returnSession(lookupSession);
             }
         }
     }
+
+    private Session borrowSession() throws RepositoryException {
+        final Session pooled = lookupSessions.poll();
+        if (pooled != null && pooled.isLive()) {
+            return pooled;
+        }
+        return repository.login();
+    }
+
+    private void returnSession(final Session lookupSession) {
+        try {
+            // discard any state cached while handling the last batch
+            lookupSession.refresh(false);
+        } catch (final RepositoryException e) {
+            LOGGER.debug("Unable to refresh lookup session, discarding it", e);
+            lookupSession.logout();
+            return;
+        }
+        if (!lookupSessions.offer(lookupSession)) {
+            lookupSession.logout();
+        }
+    }
 }
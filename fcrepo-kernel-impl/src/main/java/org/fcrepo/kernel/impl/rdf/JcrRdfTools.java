@@ -59,6 +59,7 @@ import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.exception.ServerManagedPropertyException;
 import org.fcrepo.kernel.identifiers.IdentifierConverter;
 import org.fcrepo.kernel.impl.rdf.converters.ValueConverter;
+import org.fcrepo.kernel.impl.utils.BatchingNodePropertiesTools;
 import org.fcrepo.kernel.impl.utils.NodePropertiesTools;
 import org.fcrepo.mint.UUIDPathMinter;
 import org.modeshape.jcr.api.JcrTools;
@@ -97,7 +98,7 @@ public class JcrRdfTools {
     private final ValueConverter valueConverter;
 
     private final Session session;
-    private final NodePropertiesTools nodePropertiesTools = new NodePropertiesTools();
+    private NodePropertiesTools nodePropertiesTools = new NodePropertiesTools();
 
     @VisibleForTesting
     protected JcrTools jcrTools = new JcrTools();
@@ -122,6 +123,30 @@ public class JcrRdfTools {
         this.skolemizedBnodeMap = new HashMap<>();
     }
 
+    /**
+     * Hold back changes to multi-valued properties until {@link #flush()}, so
+     * that each property is written once however many values are changed.
+     *
+     * @return this
+     */
+    public JcrRdfTools batchPropertyWrites() {
+        if (!(nodePropertiesTools instanceof BatchingNodePropertiesTools)) {
+            nodePropertiesTools = new BatchingNodePropertiesTools();
+        }
+        return this;
+    }
+
+    /**
+     * Write any property changes held back by {@link #batchPropertyWrites()}
+     *
+     * @throws RepositoryException
+     */
+    public void flush() throws RepositoryException {
+        if (nodePropertiesTools instanceof BatchingNodePropertiesTools) {
+            ((BatchingNodePropertiesTools) nodePropertiesTools).flush();
+        }
+    }
+
     /**
      * Convert a Fedora RDF Namespace into its JCR equivalent
      *
@@ -217,6 +242,9 @@ public class JcrRdfTools {
                          final Map<String,String> namespaces)
             throws RepositoryException {
 
+        // a new mixin may change the definitions of pending properties
+        flush();
+
         final Node node = resource.getNode();
         final Session session = node.getSession();
         final String mixinName = getPropertyNameFromPredicate(node, mixinResource, namespaces);
@@ -296,6 +324,8 @@ public class JcrRdfTools {
                             final Resource mixinResource,
                             final Map<String, String> nsPrefixMap) throws RepositoryException {
 
+        flush();
+
         final Node node = resource.getNode();
         final String mixinName = getPropertyNameFromPredicate(node, mixinResource, nsPrefixMap);
         if (repositoryHasType(session, mixinName) && node.isNodeType(mixinName)) {
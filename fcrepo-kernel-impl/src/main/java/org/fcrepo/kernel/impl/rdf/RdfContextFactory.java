@@ -0,0 +1,44 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.rdf;
+
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * Creates an RDF context for a resource, so that contexts requested by class
+ * through {@link FedoraResource#getTriples} need not be built reflectively.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ * @param <T> the type of context created
+ */
+public interface RdfContextFactory<T extends RdfStream> {
+
+    /**
+     * @param resource the resource whose triples the context holds
+     * @param idTranslator
+     * @return a new context
+     * @throws RepositoryException
+     */
+    T create(FedoraResource resource, IdentifierConverter<Resource, FedoraResource> idTranslator)
+            throws RepositoryException;
+}
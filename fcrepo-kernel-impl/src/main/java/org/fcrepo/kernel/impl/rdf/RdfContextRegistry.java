@@ -0,0 +1,283 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.rdf;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Throwables.propagate;
+import static java.lang.reflect.Modifier.isAbstract;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.impl.rdf.impl.AclRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.BlankNodeRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.ChildrenRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.ContentRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.HashRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.LdpContainerRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.LdpIsMemberOfRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.LdpRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.ParentRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.PropertiesRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.ReferenceCountRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.ReferencesRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.RootRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.TypeRdfContext;
+import org.fcrepo.kernel.impl.rdf.impl.VersionsRdfContext;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.fcrepo.metrics.RegistryService;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * Maps RDF context classes to the factories that create them. The contexts in
+ * this module are registered up front; other modules may {@link #register}
+ * their own. A context class that was never registered is resolved once to its
+ * {@code (FedoraResource, IdentifierConverter)} constructor, which is then
+ * reused. A class that is neither registered nor has such a constructor is
+ * rejected with an {@link IllegalArgumentException}.
+ *
+ * <p>The time taken to create each kind of context is recorded in a timer
+ * named for the context class. It covers only the constructor; the triples of
+ * lazy contexts are produced later, as the stream is read.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public final class RdfContextRegistry {
+
+    private static final Logger LOGGER = getLogger(RdfContextRegistry.class);
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final ConcurrentMap<Class<? extends RdfStream>, Registration> registrations =
+            new ConcurrentHashMap<>();
+
+    static {
+        register(AclRdfContext.class, new RdfContextFactory<AclRdfContext>() {
+
+            @Override
+            public AclRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new AclRdfContext(resource, idTranslator);
+            }
+        });
+        register(BlankNodeRdfContext.class, new RdfContextFactory<BlankNodeRdfContext>() {
+
+            @Override
+            public BlankNodeRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new BlankNodeRdfContext(resource, idTranslator);
+            }
+        });
+        register(ChildrenRdfContext.class, new RdfContextFactory<ChildrenRdfContext>() {
+
+            @Override
+            public ChildrenRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new ChildrenRdfContext(resource, idTranslator);
+            }
+        });
+        register(ContentRdfContext.class, new RdfContextFactory<ContentRdfContext>() {
+
+            @Override
+            public ContentRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) {
+                return new ContentRdfContext(resource, idTranslator);
+            }
+        });
+        register(HashRdfContext.class, new RdfContextFactory<HashRdfContext>() {
+
+            @Override
+            public HashRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new HashRdfContext(resource, idTranslator);
+            }
+        });
+        register(LdpContainerRdfContext.class, new RdfContextFactory<LdpContainerRdfContext>() {
+
+            @Override
+            public LdpContainerRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new LdpContainerRdfContext(resource, idTranslator);
+            }
+        });
+        register(LdpIsMemberOfRdfContext.class, new RdfContextFactory<LdpIsMemberOfRdfContext>() {
+
+            @Override
+            public LdpIsMemberOfRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new LdpIsMemberOfRdfContext(resource, idTranslator);
+            }
+        });
+        register(LdpRdfContext.class, new RdfContextFactory<LdpRdfContext>() {
+
+            @Override
+            public LdpRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) {
+                return new LdpRdfContext(resource, idTranslator);
+            }
+        });
+        register(ParentRdfContext.class, new RdfContextFactory<ParentRdfContext>() {
+
+            @Override
+            public ParentRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new ParentRdfContext(resource, idTranslator);
+            }
+        });
+        register(PropertiesRdfContext.class, new RdfContextFactory<PropertiesRdfContext>() {
+
+            @Override
+            public PropertiesRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new PropertiesRdfContext(resource, idTranslator);
+            }
+        });
+        register(ReferenceCountRdfContext.class, new RdfContextFactory<ReferenceCountRdfContext>() {
+
+            @Override
+            public ReferenceCountRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new ReferenceCountRdfContext(resource, idTranslator);
+            }
+        });
+        register(ReferencesRdfContext.class, new RdfContextFactory<ReferencesRdfContext>() {
+
+            @Override
+            public ReferencesRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new ReferencesRdfContext(resource, idTranslator);
+            }
+        });
+        register(RootRdfContext.class, new RdfContextFactory<RootRdfContext>() {
+
+            @Override
+            public RootRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new RootRdfContext(resource, idTranslator);
+            }
+        });
+        register(TypeRdfContext.class, new RdfContextFactory<TypeRdfContext>() {
+
+            @Override
+            public TypeRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new TypeRdfContext(resource, idTranslator);
+            }
+        });
+        register(VersionsRdfContext.class, new RdfContextFactory<VersionsRdfContext>() {
+
+            @Override
+            public VersionsRdfContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                return new VersionsRdfContext(resource, idTranslator);
+            }
+        });
+    }
+
+    private RdfContextRegistry() {
+    }
+
+    /**
+     * Register the factory for a context, replacing any earlier one
+     *
+     * @param context the context class, as passed to {@link FedoraResource#getTriples}
+     * @param factory
+     */
+    public static <T extends RdfStream> void register(final Class<T> context,
+            final RdfContextFactory<? extends T> factory) {
+        LOGGER.debug("Registering RDF context {}", context.getName());
+        registrations.put(context, new Registration(context, factory));
+    }
+
+    /**
+     * Create a context for a resource
+     *
+     * @param context the context class
+     * @param resource
+     * @param idTranslator
+     * @return a new context
+     * @throws RepositoryException
+     */
+    public static RdfStream create(final Class<? extends RdfStream> context, final FedoraResource resource,
+            final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+        Registration registration = registrations.get(context);
+        if (registration == null) {
+            registration = resolve(context);
+        }
+        try (final Timer.Context time = registration.timer.time()) {
+            return registration.factory.create(resource, idTranslator);
+        }
+    }
+
+    private static <T extends RdfStream> Registration resolve(final Class<T> context) {
+        if (isAbstract(context.getModifiers())) {
+            throw new IllegalArgumentException("No factory registered for abstract RDF context " + context.getName());
+        }
+        final Constructor<T> constructor;
+        try {
+            constructor = context.getDeclaredConstructor(FedoraResource.class, IdentifierConverter.class);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalArgumentException("No factory registered for RDF context " + context.getName(), e);
+        }
+        final Registration registration = new Registration(context, new RdfContextFactory<T>() {
+
+            @Override
+            public T create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+                try {
+                    return constructor.newInstance(resource, idTranslator);
+                } catch (final InstantiationException | IllegalAccessException e) {
+                    throw propagate(e);
+                } catch (final InvocationTargetException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RepositoryException) {
+                        throw (RepositoryException) cause;
+                    }
+                    throw propagate(cause);
+                }
+            }
+        });
+        final Registration existing = registrations.putIfAbsent(context, registration);
+        return existing == null ? registration : existing;
+    }
+
+    /**
+     * A context's factory and the timer for its creation.
+     */
+    private static final class Registration {
+
+        private final RdfContextFactory<?> factory;
+
+        private final Timer timer;
+
+        Registration(final Class<? extends RdfStream> context, final RdfContextFactory<?> factory) {
+            this.factory = factory;
+            this.timer = metrics.timer(name(RdfContextRegistry.class, "create", context.getSimpleName()));
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hp.hpl.jena.rdf.model.Property;
 import com.hp.hpl.jena.rdf.model.Resource;
 
 import org.fcrepo.kernel.exception.FedoraInvalidNamespaceException;
+import org.fcrepo.kernel.impl.utils.NamespacePrefixCache;
 import org.modeshape.jcr.api.NamespaceRegistry;
 import org.modeshape.jcr.api.Namespaced;
 import org.slf4j.Logger;
@@ -142,6 +143,7 @@ public class PropertyConverter extends Converter<javax.jcr.Property, Property> {
             } else {
                 prefix = namespaceRegistry.registerNamespace(namespace);
             }
+            NamespacePrefixCache.getInstance().invalidate();
         }
 
         final String propertyName = prefix + ":" + rdfLocalname;
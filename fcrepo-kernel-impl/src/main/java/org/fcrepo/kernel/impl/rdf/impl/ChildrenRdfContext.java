@@ -22,6 +22,7 @@ import com.hp.hpl.jena.rdf.model.Resource;
 import org.fcrepo.kernel.models.NonRdfSourceDescription;
 import org.fcrepo.kernel.models.FedoraResource;
 import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.utils.ContainmentPage;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.slf4j.Logger;
 
@@ -30,7 +31,9 @@ import javax.jcr.RepositoryException;
 import java.util.Iterator;
 
 import static com.hp.hpl.jena.graph.Triple.create;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createTypedLiteral;
 import static org.fcrepo.kernel.RdfLexicon.CONTAINS;
+import static org.fcrepo.kernel.RdfLexicon.HAS_CHILD_COUNT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -60,6 +63,27 @@ public class ChildrenRdfContext extends NodeRdfContext {
     }
 
 
+    /**
+     * Constructor for a single page of children, as retrieved by
+     * {@link FedoraResource#getChildren(String, int)}
+     *
+     * @param resource
+     * @param idTranslator
+     * @param page
+     */
+    public ChildrenRdfContext(final FedoraResource resource,
+                              final IdentifierConverter<Resource, FedoraResource> idTranslator,
+                              final ContainmentPage page) {
+        super(resource, idTranslator);
+
+        LOGGER.trace("Found {} children on this page of the resource.", page.getChildren().size());
+        if (page.getTotalChildren() >= 0) {
+            concat(create(subject(), HAS_CHILD_COUNT.asNode(),
+                    createTypedLiteral(page.getTotalChildren()).asNode()));
+        }
+        concat(Iterators.concat(Iterators.transform(page.getChildren().iterator(), child2triples())));
+    }
+
     private Iterator<Triple> childrenContext() {
 
         final Iterator<FedoraResource> niceChildren = resource().getChildren();
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.rdf.impl;
+
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.models.FedoraResource;
+
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * The number of inbound references to a resource, without the references themselves
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class ReferenceCountRdfContext extends ReferencesRdfContext {
+
+    /**
+     * Default constructor.
+     *
+     * @param resource
+     * @param idTranslator
+     * @throws RepositoryException
+     */
+    public ReferenceCountRdfContext(final FedoraResource resource,
+                                    final IdentifierConverter<Resource, FedoraResource> idTranslator)
+        throws RepositoryException {
+        super(resource, idTranslator, null, 0);
+    }
+}
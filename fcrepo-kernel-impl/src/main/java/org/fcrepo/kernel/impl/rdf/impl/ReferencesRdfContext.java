@@ -15,16 +15,32 @@
  */
 package org.fcrepo.kernel.impl.rdf.impl;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.Iterators;
 import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.Resource;
 import org.fcrepo.kernel.models.FedoraResource;
 import org.fcrepo.kernel.identifiers.IdentifierConverter;
 import org.fcrepo.kernel.impl.rdf.impl.mappings.PropertyToTriple;
+import org.fcrepo.kernel.impl.utils.ReferenceIndex;
+import org.slf4j.Logger;
+
+import javax.jcr.AccessDeniedException;
+import javax.jcr.PathNotFoundException;
 import javax.jcr.Property;
 import javax.jcr.RepositoryException;
+import javax.jcr.Session;
 
 import java.util.Iterator;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.io.BaseEncoding.base64Url;
+import static com.hp.hpl.jena.graph.Triple.create;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createTypedLiteral;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.fcrepo.kernel.RdfLexicon.HAS_INBOUND_REFERENCE_COUNT;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Accumulate inbound references to a given resource
@@ -33,8 +49,12 @@ import java.util.Iterator;
  */
 public class ReferencesRdfContext extends NodeRdfContext {
 
+    private static final Logger LOGGER = getLogger(ReferencesRdfContext.class);
+
     private final PropertyToTriple property2triple;
 
+    private String nextToken;
+
     /**
      * Add the inbound references from other nodes to this resource to the stream
      *
@@ -52,6 +72,120 @@ public class ReferencesRdfContext extends NodeRdfContext {
         concat(putWeakReferencePropertiesIntoContext());
     }
 
+    /**
+     * Constructor for the number of inbound references to this resource, followed by a
+     * single page of the references themselves. Heavily-referenced resources are paged
+     * through the {@link ReferenceIndex}. The count includes every reference in the index;
+     * only those the resource's session can read are returned.
+     *
+     * @param resource
+     * @param idTranslator
+     * @param token the continuation token from the previous page, or null for the first page
+     * @param pageSize the number of referring properties to include, or zero for only the count
+     * @throws RepositoryException
+     */
+    public ReferencesRdfContext(final FedoraResource resource,
+                                final IdentifierConverter<Resource, FedoraResource> idTranslator,
+                                final String token,
+                                final int pageSize)
+        throws RepositoryException {
+        super(resource, idTranslator);
+        checkArgument(pageSize >= 0, "Page size must not be negative, but was %s", pageSize);
+        property2triple = new PropertyToTriple(resource.getNode().getSession(), idTranslator);
+
+        ReferenceIndex.Referrers referrers = ReferenceIndex.getInstance().getReferrers(resource.getPath());
+        if (referrers == null) {
+            referrers = ReferenceIndex.traverse(resource.getNode());
+        }
+
+        final Session session = resource.getNode().getSession();
+
+        // the count includes references from properties the session may not read, rather than checking
+        // every referring property on every request
+        concat(create(subject(), HAS_INBOUND_REFERENCE_COUNT.asNode(),
+                createTypedLiteral((long) referrers.size()).asNode()));
+
+        if (pageSize == 0) {
+            return;
+        }
+
+        final long start = resume(referrers, token);
+        int visited = 0;
+
+        for (final Map.Entry<Long, String> entry : referrers.page(start, pageSize + 1).entrySet()) {
+            if (visited++ == pageSize) {
+                final String cursor = entry.getKey() + ":" + entry.getValue();
+                nextToken = base64Url().omitPadding().encode(cursor.getBytes(UTF_8));
+                break;
+            }
+
+            final Property property = getProperty(session, entry.getValue());
+
+            if (property != null) {
+                concat(Iterators.filter(property2triple.apply(property), refersToSubject()));
+            }
+        }
+    }
+
+    /**
+     * @return the continuation token for the next page of references, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Find where the page named by a continuation token starts. The token names the first referring
+     * property of the page, with its sequence number as a hint for when that property is gone; it stays
+     * valid when the index is rebuilt, or the references are traversed instead, and sequences restart.
+     * @param referrers
+     * @param token
+     * @return the sequence number to start from
+     */
+    private static long resume(final ReferenceIndex.Referrers referrers, final String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+
+        final String cursor;
+        final long hint;
+
+        try {
+            cursor = new String(base64Url().omitPadding().decode(token), UTF_8);
+            final int separator = cursor.indexOf(':');
+            checkArgument(separator > 0);
+            hint = Long.parseLong(cursor.substring(0, separator));
+            checkArgument(hint >= 0);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+        }
+
+        final Long sequence = referrers.sequenceOf(cursor.substring(cursor.indexOf(':') + 1));
+        return sequence == null ? hint : sequence;
+    }
+
+    private static Property getProperty(final Session session, final String path) throws RepositoryException {
+        try {
+            return session.getProperty(path);
+        } catch (final PathNotFoundException | AccessDeniedException e) {
+            LOGGER.trace("Skipping unavailable reference {}", path);
+            return null;
+        }
+    }
+
+    /**
+     * Only the values of a multi-valued referring property that refer to this resource
+     */
+    private Predicate<Triple> refersToSubject() {
+        return new Predicate<Triple>() {
+
+            @Override
+            public boolean apply(final Triple triple) {
+                return triple.getObject().equals(subject());
+            }
+        };
+    }
+
     private Iterator<Triple> putWeakReferencePropertiesIntoContext() throws RepositoryException {
         final Iterator<Property> properties = resource().getNode().getWeakReferences();
 
@@ -18,6 +18,7 @@ package org.fcrepo.kernel.impl.services;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.exception.TombstoneException;
 import org.fcrepo.kernel.impl.TombstoneImpl;
+import org.fcrepo.kernel.impl.utils.ContainmentIndex;
 import org.modeshape.jcr.api.JcrTools;
 
 import javax.jcr.Node;
@@ -51,6 +52,7 @@ public class AbstractService {
 
         if (node.isNew()) {
             tagHierarchyWithPairtreeMixin(preexistingNode, node);
+            ContainmentIndex.getInstance().childPending(node.getPath());
         }
 
         return node;
@@ -0,0 +1,500 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static javax.jcr.PropertyType.PATH;
+import static javax.jcr.query.Query.JCR_SQL2;
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_BINARY;
+import static org.fcrepo.kernel.utils.ContentDigest.getAlgorithm;
+import static org.fcrepo.kernel.utils.ContentDigest.missingChecksum;
+import static org.fcrepo.kernel.utils.FixityAuditStatus.State.COMPLETE;
+import static org.fcrepo.kernel.utils.FixityAuditStatus.State.IDLE;
+import static org.fcrepo.kernel.utils.FixityAuditStatus.State.PAUSED;
+import static org.fcrepo.kernel.utils.FixityAuditStatus.State.RUNNING;
+import static org.modeshape.jcr.api.JcrConstants.JCR_DATA;
+import static org.modeshape.jcr.api.JcrConstants.JCR_PATH;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.Node;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.query.Query;
+import javax.jcr.query.RowIterator;
+
+import org.fcrepo.kernel.impl.FedoraBinaryImpl;
+import org.fcrepo.kernel.impl.utils.impl.CacheEntryFactory;
+import org.fcrepo.kernel.models.FedoraBinary;
+import org.fcrepo.kernel.services.FixityAuditService;
+import org.fcrepo.kernel.utils.FixityAuditStatus;
+import org.fcrepo.kernel.utils.FixityAuditStatus.State;
+import org.fcrepo.kernel.utils.FixityResult;
+import org.fcrepo.metrics.RegistryService;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Audits the fixity of every binary in the repository in the background.
+ *
+ * Binaries are checked in path order, a batch at a time, on a small pool of workers, read from a single
+ * query that stays open for the whole run. The content read may be limited to a number of bytes per
+ * second. Once every binary in a batch has been checked, the path of the last one is recorded as a
+ * checkpoint, from which a paused or interrupted audit resumes. If fcrepo.fixity.audit.directory is set,
+ * the checkpoint and the result of every check are written there, so that an audit survives a restart.
+ *
+ * The audit only reads the repository. Results are kept in the audit's own store, never on the binaries,
+ * so that a sweep does not emit an event per binary that consumers would take for a change.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+@Component
+public class FixityAuditServiceImpl implements FixityAuditService {
+
+    private static final Logger LOGGER = getLogger(FixityAuditServiceImpl.class);
+
+    static final String DIRECTORY_PROPERTY = "fcrepo.fixity.audit.directory";
+
+    static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+    static final String RESULTS_FILE = "results.log";
+
+    private static final int MAX_RECENT_FAILURES = 100;
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Counter checkedCounter =
+            metrics.counter(name(FixityAuditService.class, "binaries-checked"));
+
+    private static final Counter failureCounter = metrics.counter(name(FixityAuditService.class, "failures"));
+
+    private static final Meter bytesMeter = metrics.meter(name(FixityAuditService.class, "bytes-checked"));
+
+    private static final Timer checkTimer = metrics.timer(name(FixityAuditService.class, "check-time"));
+
+    @Inject
+    private Repository repository;
+
+    private int threads = getInteger("fcrepo.fixity.audit.threads", 2);
+
+    private int batchSize = getInteger("fcrepo.fixity.audit.batchSize", 100);
+
+    private long bytesPerSecond = getLong("fcrepo.fixity.audit.bytesPerSecond", 0L);
+
+    private File directory = System.getProperty(DIRECTORY_PROPERTY) == null
+            ? null : new File(System.getProperty(DIRECTORY_PROPERTY));
+
+    private State state = IDLE;
+    private Date started;
+    private Date finished;
+    private volatile Date lastChecked;
+    private String checkpoint;
+    private final AtomicLong binariesChecked = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong bytesChecked = new AtomicLong();
+    private final Deque<String> recentFailures = new ArrayDeque<>();
+    private final Object resultsLock = new Object();
+
+    private Thread runner;
+    private volatile boolean stopRequested;
+    private volatile boolean shuttingDown;
+    private RateLimiter rateLimiter;
+
+    /**
+     * Pick up an audit that was running when the repository was last shut down
+     */
+    @PostConstruct
+    public void resume() {
+        if (loadCheckpoint() && state == RUNNING) {
+            LOGGER.info("Resuming the fixity audit after {}", checkpoint);
+            state = PAUSED;
+            start(false);
+        }
+    }
+
+    /**
+     * Stop the audit without pausing it, so that it resumes with the repository
+     */
+    @PreDestroy
+    public void shutdown() {
+        final Thread thread;
+        synchronized (this) {
+            shuttingDown = true;
+            stopRequested = true;
+            thread = runner;
+        }
+        if (thread != null) {
+            try {
+                thread.join(30000);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public synchronized FixityAuditStatus start(final boolean restart) {
+        if (runner != null) {
+            return getStatus();
+        }
+        if (restart || state == IDLE || state == COMPLETE) {
+            started = new Date();
+            finished = null;
+            checkpoint = null;
+            binariesChecked.set(0);
+            failures.set(0);
+            bytesChecked.set(0);
+            synchronized (recentFailures) {
+                recentFailures.clear();
+            }
+        }
+        state = RUNNING;
+        stopRequested = false;
+        rateLimiter = bytesPerSecond > 0 ? RateLimiter.create(bytesPerSecond) : null;
+        saveCheckpoint();
+
+        runner = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                audit();
+            }
+        }, "fcrepo-fixity-audit");
+        runner.setDaemon(true);
+        runner.start();
+
+        return getStatus();
+    }
+
+    @Override
+    public synchronized FixityAuditStatus stop() {
+        stopRequested = true;
+        if (runner == null && state == RUNNING) {
+            state = PAUSED;
+            saveCheckpoint();
+        }
+        return getStatus();
+    }
+
+    @Override
+    public synchronized FixityAuditStatus getStatus() {
+        final List<String> failed;
+        synchronized (recentFailures) {
+            failed = ImmutableList.copyOf(recentFailures);
+        }
+        return new FixityAuditStatus(state, started, finished, lastChecked, checkpoint, binariesChecked.get(),
+                failures.get(), bytesChecked.get(), failed);
+    }
+
+    /**
+     * Check batches of binaries until there are none left or we are asked to stop
+     */
+    private void audit() {
+        final ExecutorService workers = newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("fcrepo-fixity-audit-%d").build());
+        Session session = null;
+        try {
+            session = repository.login();
+            String last;
+            synchronized (this) {
+                last = checkpoint;
+            }
+            final RowIterator binaries = binariesAfter(session, last);
+
+            while (!stopRequested) {
+                final List<String> batch = nextBatch(binaries);
+
+                if (batch.isEmpty()) {
+                    synchronized (this) {
+                        state = COMPLETE;
+                        finished = new Date();
+                        saveCheckpoint();
+                    }
+                    LOGGER.info("Fixity audit complete: {} binaries checked, {} failures",
+                            binariesChecked.get(), failures.get());
+                    break;
+                }
+
+                final List<Future<?>> checks = new ArrayList<>(batch.size());
+                for (final String path : batch) {
+                    checks.add(workers.submit(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            check(path);
+                        }
+                    }));
+                }
+                for (final Future<?> check : checks) {
+                    check.get();
+                }
+
+                last = batch.get(batch.size() - 1);
+                synchronized (this) {
+                    checkpoint = last;
+                    saveCheckpoint();
+                }
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Fixity audit interrupted after {}", checkpoint);
+            Thread.currentThread().interrupt();
+        } catch (final RepositoryException | ExecutionException | RuntimeException e) {
+            LOGGER.error("Fixity audit stopped after {}", checkpoint, e);
+        } finally {
+            if (session != null) {
+                session.logout();
+            }
+            workers.shutdownNow();
+            synchronized (this) {
+                if (state == RUNNING && !shuttingDown) {
+                    state = PAUSED;
+                }
+                saveCheckpoint();
+                runner = null;
+            }
+        }
+    }
+
+    /**
+     * Query for the binaries to audit, in path order. The query is run once for the whole audit and
+     * its rows read a batch at a time, rather than running a query per batch.
+     * @param session
+     * @param after the path of the last binary checked, or null to start from the beginning
+     * @return the rows of the binaries
+     * @throws RepositoryException
+     */
+    private static RowIterator binariesAfter(final Session session, final String after)
+            throws RepositoryException {
+        final String select = "SELECT [" + JCR_PATH + "] FROM [" + FEDORA_BINARY + "]";
+        final String order = " ORDER BY [" + JCR_PATH + "]";
+        final Query query;
+
+        if (after == null) {
+            query = session.getWorkspace().getQueryManager().createQuery(select + order, JCR_SQL2);
+        } else {
+            query = session.getWorkspace().getQueryManager().createQuery(
+                    select + " WHERE [" + JCR_PATH + "] > $after" + order, JCR_SQL2);
+            query.bindValue("after", session.getValueFactory().createValue(after, PATH));
+        }
+        return query.execute().getRows();
+    }
+
+    /**
+     * Read the next batch of binaries
+     * @param binaries
+     * @return the paths of the binaries
+     * @throws RepositoryException
+     */
+    private List<String> nextBatch(final RowIterator binaries) throws RepositoryException {
+        final List<String> paths = new ArrayList<>(batchSize);
+        while (paths.size() < batchSize && binaries.hasNext()) {
+            paths.add(binaries.nextRow().getPath());
+        }
+        return paths;
+    }
+
+    /**
+     * Check the fixity of a binary, and record the result
+     * @param path
+     */
+    private void check(final String path) {
+        try (final Timer.Context context = checkTimer.time()) {
+            final Session session = repository.login();
+            try {
+                final Node node = session.getNode(path);
+                final FedoraBinary binary = new FedoraBinaryImpl(node);
+                final long size = binary.getContentSize();
+                final URI digest = binary.getContentDigest();
+
+                if (digest == null || digest.equals(missingChecksum()) || getAlgorithm(digest) == null) {
+                    record(path, size, false, "\tno usable digest: " + digest);
+                    return;
+                }
+
+                throttle(size);
+
+                final Collection<FixityResult> results = CacheEntryFactory.forProperty(repository,
+                        node.getProperty(JCR_DATA)).checkFixity(getAlgorithm(digest));
+
+                boolean success = !results.isEmpty();
+                final StringBuilder details = new StringBuilder();
+                for (final FixityResult result : results) {
+                    if (!result.matches(size, digest)) {
+                        success = false;
+                        details.append('\t').append(result.getStoreIdentifier())
+                                .append(' ').append(result.getStatus(size, digest))
+                                .append(' ').append(result.getComputedChecksum())
+                                .append(' ').append(result.getComputedSize());
+                    }
+                }
+                record(path, size, success, details.toString());
+
+            } catch (final PathNotFoundException e) {
+                LOGGER.debug("{} was removed before its fixity could be checked", path);
+            } catch (final RepositoryException | RuntimeException e) {
+                LOGGER.warn("Unable to check the fixity of {}", path, e);
+                record(path, 0, false, "\t" + e);
+            } finally {
+                session.logout();
+            }
+        } catch (final RepositoryException e) {
+            LOGGER.warn("Unable to check the fixity of {}", path, e);
+            record(path, 0, false, "\t" + e);
+        }
+    }
+
+    private void throttle(final long size) {
+        if (rateLimiter != null) {
+            long remaining = size;
+            while (remaining > 0) {
+                final int permits = (int) Math.min(remaining, Integer.MAX_VALUE);
+                rateLimiter.acquire(permits);
+                remaining -= permits;
+            }
+        }
+    }
+
+    private void record(final String path, final long size, final boolean success, final String details) {
+        final Date now = new Date();
+        lastChecked = now;
+        binariesChecked.incrementAndGet();
+        bytesChecked.addAndGet(size);
+        checkedCounter.inc();
+        bytesMeter.mark(size);
+
+        if (!success) {
+            LOGGER.warn("Fixity check failed for {}{}", path, details);
+            failures.incrementAndGet();
+            failureCounter.inc();
+            synchronized (recentFailures) {
+                recentFailures.addFirst(path);
+                if (recentFailures.size() > MAX_RECENT_FAILURES) {
+                    recentFailures.removeLast();
+                }
+            }
+        }
+
+        if (directory != null) {
+            final String line = now.getTime() + "\t" + path + "\t" + (success ? "SUCCESS" : "FAILURE") + details;
+            synchronized (resultsLock) {
+                try (final Writer writer = Files.newBufferedWriter(
+                        new File(directory, RESULTS_FILE).toPath(), UTF_8, CREATE, APPEND)) {
+                    writer.write(line);
+                    writer.write('\n');
+                } catch (final IOException e) {
+                    LOGGER.warn("Unable to record the fixity of {}", path, e);
+                }
+            }
+        }
+    }
+
+    private void saveCheckpoint() {
+        if (directory == null) {
+            return;
+        }
+        final Properties properties = new Properties();
+        properties.setProperty("state", state.name());
+        properties.setProperty("binariesChecked", Long.toString(binariesChecked.get()));
+        properties.setProperty("failures", Long.toString(failures.get()));
+        properties.setProperty("bytesChecked", Long.toString(bytesChecked.get()));
+        if (checkpoint != null) {
+            properties.setProperty("checkpoint", checkpoint);
+        }
+        if (started != null) {
+            properties.setProperty("started", Long.toString(started.getTime()));
+        }
+        if (finished != null) {
+            properties.setProperty("finished", Long.toString(finished.getTime()));
+        }
+
+        try {
+            Files.createDirectories(directory.toPath());
+            final File temporary = new File(directory, CHECKPOINT_FILE + ".tmp");
+            try (final OutputStream out = Files.newOutputStream(temporary.toPath())) {
+                properties.store(out, "Fedora fixity audit");
+            }
+            Files.move(temporary.toPath(), new File(directory, CHECKPOINT_FILE).toPath(),
+                    REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to save the fixity audit checkpoint", e);
+        }
+    }
+
+    private boolean loadCheckpoint() {
+        if (directory == null || !new File(directory, CHECKPOINT_FILE).isFile()) {
+            return false;
+        }
+        final Properties properties = new Properties();
+        try (final InputStream in = Files.newInputStream(new File(directory, CHECKPOINT_FILE).toPath())) {
+            properties.load(in);
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to load the fixity audit checkpoint", e);
+            return false;
+        }
+        synchronized (this) {
+            state = State.valueOf(properties.getProperty("state", IDLE.name()));
+            checkpoint = properties.getProperty("checkpoint");
+            binariesChecked.set(Long.parseLong(properties.getProperty("binariesChecked", "0")));
+            failures.set(Long.parseLong(properties.getProperty("failures", "0")));
+            bytesChecked.set(Long.parseLong(properties.getProperty("bytesChecked", "0")));
+            started = properties.containsKey("started")
+                    ? new Date(Long.parseLong(properties.getProperty("started"))) : null;
+            finished = properties.containsKey("finished")
+                    ? new Date(Long.parseLong(properties.getProperty("finished"))) : null;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.Repository;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.infinispan.Cache;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.modeshape.jcr.GetBinaryStore;
+import org.modeshape.jcr.value.binary.BinaryStore;
+import org.modeshape.jcr.value.binary.infinispan.InfinispanBinaryStore;
+import org.slf4j.Logger;
+
+/**
+ * A {@link TransactionDirectory} kept in a replicated Infinispan cache, so that
+ * every node of the cluster sees every open transaction.
+ *
+ * <p>The cache is named by {@code fcrepo.transactions.directory.cache} (default
+ * "fcrepo-transactions"). It is taken from the cache manager behind the
+ * repository's Infinispan binary store, so that it shares the repository's
+ * cluster; if the repository does not use one, a cache manager is started from
+ * the Infinispan file named by {@code fcrepo.transactions.directory.configuration}.
+ * Entries expire after a day in case a node leaves the cluster without
+ * cleaning up.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class InfinispanTransactionDirectory implements TransactionDirectory {
+
+    private static final Logger LOGGER = getLogger(InfinispanTransactionDirectory.class);
+
+    private static final long LIFESPAN_HOURS = 24;
+
+    @Inject
+    private Repository repository;
+
+    private String configuration = System.getProperty("fcrepo.transactions.directory.configuration");
+
+    private String cacheName = System.getProperty("fcrepo.transactions.directory.cache", "fcrepo-transactions");
+
+    private DefaultCacheManager cacheManager;
+
+    private Cache<String, String> cache;
+
+    /**
+     * Default constructor, for use with {@link #start()}
+     */
+    public InfinispanTransactionDirectory() {
+    }
+
+    /**
+     * Use an existing cache
+     *
+     * @param cache
+     */
+    public InfinispanTransactionDirectory(final Cache<String, String> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Find or start the cache, unless one was supplied
+     */
+    @PostConstruct
+    public void start() {
+        if (cache != null) {
+            return;
+        }
+        final BinaryStore store = repository == null ? null : new GetBinaryStore().apply(repository);
+        final EmbeddedCacheManager manager;
+        if (store instanceof InfinispanBinaryStore) {
+            manager = ((InfinispanBinaryStore) store).getCaches().get(0).getCacheManager();
+        } else if (configuration != null) {
+            try {
+                cacheManager = new DefaultCacheManager(configuration);
+            } catch (final IOException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+            manager = cacheManager;
+        } else {
+            throw new RepositoryRuntimeException("The repository has no Infinispan binary store; set "
+                    + "fcrepo.transactions.directory.configuration to share transactions across the cluster");
+        }
+        cache = manager.getCache(cacheName);
+        LOGGER.info("Sharing open transactions through cache {} on cluster {}", cacheName, manager.getClusterName());
+    }
+
+    /**
+     * Stop the cache manager, if this directory started it
+     */
+    @PreDestroy
+    public void stop() {
+        if (cacheManager != null) {
+            cacheManager.stop();
+            cacheManager = null;
+        }
+    }
+
+    @Override
+    public void register(final String txId, final String nodeURL) {
+        cache.put(txId, nodeURL, LIFESPAN_HOURS, HOURS);
+    }
+
+    @Override
+    public String lookup(final String txId) {
+        return cache.get(txId);
+    }
+
+    @Override
+    public void remove(final String txId) {
+        cache.remove(txId);
+    }
+}
@@ -30,6 +30,7 @@ import org.fcrepo.kernel.models.FedoraResource;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.impl.FedoraResourceImpl;
 import org.fcrepo.kernel.impl.rdf.impl.NodeTypeRdfContext;
+import org.fcrepo.kernel.impl.utils.ContainmentIndex;
 import org.fcrepo.kernel.services.NodeService;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.modeshape.jcr.api.nodetype.NodeTypeManager;
@@ -89,6 +90,7 @@ public class NodeServiceImpl extends AbstractService implements NodeService {
     @Override
     public void copyObject(final Session session, final String source, final String destination) {
         try {
+            ContainmentIndex.getInstance().childPending(destination);
             session.getWorkspace().copy(source, destination);
         } catch (final RepositoryException e) {
             throw new RepositoryRuntimeException(e);
@@ -111,6 +113,8 @@ public class NodeServiceImpl extends AbstractService implements NodeService {
             final String name = sourceNode.getName();
             final Node parent = sourceNode.getDepth() > 0 ? sourceNode.getParent() : null;
 
+            ContainmentIndex.getInstance().childPending(source);
+            ContainmentIndex.getInstance().childPending(destination);
             session.getWorkspace().move(source, destination);
 
             if (parent != null) {
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+/**
+ * Records which cluster node holds each open transaction, so that a request
+ * for a transaction arriving at another node can be sent on to the right one.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public interface TransactionDirectory {
+
+    /**
+     * Record that a transaction is held by a node
+     *
+     * @param txId
+     * @param nodeURL the base URL of the node
+     */
+    void register(final String txId, final String nodeURL);
+
+    /**
+     * @param txId
+     * @return the base URL of the node holding the transaction, or null if it is not known
+     */
+    String lookup(final String txId);
+
+    /**
+     * Forget a transaction that has been committed, rolled back or expired
+     *
+     * @param txId
+     */
+    void remove(final String txId);
+}
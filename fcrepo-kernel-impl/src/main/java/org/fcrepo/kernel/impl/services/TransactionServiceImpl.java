@@ -19,25 +19,36 @@
 
 package org.fcrepo.kernel.impl.services;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.getProperty;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.Iterator;
+import java.util.Date;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Striped;
 import org.fcrepo.kernel.Transaction;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.exception.TransactionOnOtherNodeException;
 import org.fcrepo.kernel.impl.TransactionImpl;
+import org.fcrepo.kernel.impl.utils.TimingWheel;
 import org.fcrepo.kernel.TxSession;
 import org.fcrepo.kernel.exception.TransactionMissingException;
 import org.fcrepo.kernel.services.TransactionService;
+import org.fcrepo.metrics.RegistryService;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -47,6 +58,14 @@ import org.springframework.stereotype.Component;
  * create/commit/rollback {@link Transaction} objects A {@link Scheduled}
  * annotation is used for removing timed out Transactions
  *
+ * <p>Expiry is tracked in a {@link TimingWheel}, so each reap only looks at the
+ * transactions that may have fallen due; operations on one transaction are
+ * serialized by a lock striped on its id. If a {@link TransactionDirectory} is
+ * configured and {@code fcrepo.transactions.nodeURL} names this node, open
+ * transactions are recorded there and a request for a transaction held by
+ * another node fails with a {@link TransactionOnOtherNodeException} naming
+ * it.</p>
+ *
  * @author frank asseg
  */
 @Component
@@ -59,15 +78,58 @@ public class TransactionServiceImpl extends AbstractService implements Transacti
      */
     static final String FCREPO4_TX_ID = "fcrepo4.tx.id";
 
-    /**
-     * TODO since transactions have to be available on all nodes, they have to
-     * be either persisted or written to a distributed map or sth, not just this
-     * plain hashmap that follows
-     */
     private static Map<String, Transaction> transactions = new ConcurrentHashMap<>();
 
     public static final long REAP_INTERVAL = 1000;
 
+    private static final TimingWheel<String> expiries = new TimingWheel<>(REAP_INTERVAL, currentTimeMillis());
+
+    private static final Striped<Lock> locks = Striped.lock(64);
+
+    private static final MetricRegistry metrics = RegistryService.getInstance().getMetrics();
+
+    private static final Histogram ageHistogram = metrics.histogram(name(TransactionService.class, "age"));
+
+    private static final Meter expiredMeter = metrics.meter(name(TransactionService.class, "expired"));
+
+    private static final String OPEN = name(TransactionService.class, "open");
+
+    private static final String DIRTY = name(TransactionService.class, "dirty");
+
+    static {
+        metrics.remove(OPEN);
+        metrics.register(OPEN, new Gauge<Integer>() {
+
+            @Override
+            public Integer getValue() {
+                return transactions.size();
+            }
+        });
+        metrics.remove(DIRTY);
+        metrics.register(DIRTY, new Gauge<Integer>() {
+
+            @Override
+            public Integer getValue() {
+                int dirty = 0;
+                for (final Transaction tx : transactions.values()) {
+                    try {
+                        if (tx.getState() == Transaction.State.DIRTY) {
+                            dirty++;
+                        }
+                    } catch (final RepositoryException | RepositoryRuntimeException e) {
+                        LOGGER.trace("Unable to read the state of transaction {}", tx.getId(), e);
+                    }
+                }
+                return dirty;
+            }
+        });
+    }
+
+    @Autowired(required = false)
+    private TransactionDirectory directory;
+
+    private String nodeURL = getProperty("fcrepo.transactions.nodeURL");
+
     /**
      * Check if a session is possibly within a transaction
      * @param session
@@ -93,22 +155,33 @@ public class TransactionServiceImpl extends AbstractService implements Transacti
     @Override
     @Scheduled(fixedRate = REAP_INTERVAL)
     public void removeAndRollbackExpired() {
-        synchronized (transactions) {
-            final Iterator<Entry<String, Transaction>> txs =
-                    transactions.entrySet().iterator();
-            while (txs.hasNext()) {
-                final Transaction tx = txs.next().getValue();
-                if (tx.getExpires().getTime() <= currentTimeMillis()) {
-                    try {
-                        tx.rollback();
-                    } catch (final RepositoryRuntimeException e) {
-                        LOGGER.error(
-                                "Got exception rolling back expired" +
-                                        " transaction {}: {}",
-                                        tx, e);
-                    }
-                    txs.remove();
+        final long now = currentTimeMillis();
+        for (final String txId : expiries.advance(now)) {
+            final Lock lock = locks.get(txId);
+            lock.lock();
+            try {
+                final Transaction tx = transactions.get(txId);
+                if (tx == null) {
+                    continue;
                 }
+                final Date expires = tx.getExpires();
+                if (expires != null && expires.getTime() > now) {
+                    // the transaction was used since it was scheduled
+                    expiries.schedule(txId, expires.getTime());
+                    continue;
+                }
+                try {
+                    tx.rollback();
+                } catch (final RepositoryRuntimeException e) {
+                    LOGGER.error(
+                            "Got exception rolling back expired" +
+                                    " transaction {}: {}",
+                                    tx, e);
+                }
+                expiredMeter.mark();
+                deregister(tx);
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -123,7 +196,7 @@ public class TransactionServiceImpl extends AbstractService implements Transacti
     public Transaction beginTransaction(final Session sess, final String userName) {
         final Transaction tx = new TransactionImpl(sess, userName);
         final String txId = tx.getId();
-        transactions.put(txId, tx);
+        register(tx);
         try {
             sess.setNamespacePrefix(FCREPO4_TX_ID, txId);
         } catch (final RepositoryException e) {
@@ -132,11 +205,42 @@ public class TransactionServiceImpl extends AbstractService implements Transacti
         return tx;
     }
 
+    /**
+     * Add a transaction to the registry and schedule its expiry
+     *
+     * @param tx
+     */
+    void register(final Transaction tx) {
+        transactions.put(tx.getId(), tx);
+        final Date expires = tx.getExpires();
+        expiries.schedule(tx.getId(), expires == null ? 0 : expires.getTime());
+        if (directory != null && nodeURL != null) {
+            directory.register(tx.getId(), nodeURL);
+        }
+    }
+
+    private void deregister(final Transaction tx) {
+        transactions.remove(tx.getId());
+        expiries.cancel(tx.getId());
+        if (tx.getCreated() != null) {
+            ageHistogram.update(currentTimeMillis() - tx.getCreated().getTime());
+        }
+        if (directory != null && nodeURL != null) {
+            directory.remove(tx.getId());
+        }
+    }
+
     @Override
     public Transaction getTransaction(final String txId, final String userName) {
         final Transaction tx = transactions.get(txId);
 
         if (tx == null) {
+            if (directory != null) {
+                final String owner = directory.lookup(txId);
+                if (owner != null && !owner.equals(nodeURL)) {
+                    throw new TransactionOnOtherNodeException(txId, owner);
+                }
+            }
             throw new TransactionMissingException(
                     "Transaction is not available");
         }
@@ -209,13 +313,20 @@ public class TransactionServiceImpl extends AbstractService implements Transacti
      */
     @Override
     public Transaction commit(final String txid) {
-        final Transaction tx = transactions.remove(txid);
-        if (tx == null) {
-            throw new TransactionMissingException("Transaction with id " + txid +
-                    " is not available");
+        final Lock lock = locks.get(txid);
+        lock.lock();
+        try {
+            final Transaction tx = transactions.get(txid);
+            if (tx == null) {
+                throw new TransactionMissingException("Transaction with id " + txid +
+                        " is not available");
+            }
+            deregister(tx);
+            tx.commit();
+            return tx;
+        } finally {
+            lock.unlock();
         }
-        tx.commit();
-        return tx;
     }
 
     /**
@@ -226,13 +337,20 @@ public class TransactionServiceImpl extends AbstractService implements Transacti
      */
     @Override
     public Transaction rollback(final String txid) {
-        final Transaction tx = transactions.remove(txid);
-        if (tx == null) {
-            throw new TransactionMissingException("Transaction with id " + txid +
-                    " is not available");
+        final Lock lock = locks.get(txid);
+        lock.lock();
+        try {
+            final Transaction tx = transactions.get(txid);
+            if (tx == null) {
+                throw new TransactionMissingException("Transaction with id " + txid +
+                        " is not available");
+            }
+            deregister(tx);
+            tx.rollback();
+            return tx;
+        } finally {
+            lock.unlock();
         }
-        tx.rollback();
-        return tx;
     }
 
 }
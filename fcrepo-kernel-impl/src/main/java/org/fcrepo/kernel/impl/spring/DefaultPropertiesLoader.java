@@ -56,7 +56,10 @@ public class DefaultPropertiesLoader {
         ISPN_ALT_CACHE("fcrepo.ispn.alternative.cache"),
         ISPN_BIN_ALT_CACHE("fcrepo.ispn.binary.alternative.cache"),
         ISPN_REPO_CACHE("fcrepo.ispn.repo.cache"),
-        ACTIVE_MQ("fcrepo.activemq.directory");
+        ACTIVE_MQ("fcrepo.activemq.directory"),
+        FIXITY_AUDIT("fcrepo.fixity.audit.directory"),
+        JMS_JOURNAL("fcrepo.jms.journal.directory"),
+        MODIFICATION_INDEX("fcrepo.modification.index.directory");
 
         private String text;
 
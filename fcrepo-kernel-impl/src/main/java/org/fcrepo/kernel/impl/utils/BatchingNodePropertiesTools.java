@@ -0,0 +1,229 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static java.util.Arrays.asList;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isMultivaluedProperty;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+
+import org.fcrepo.kernel.exception.NoSuchPropertyDefinitionException;
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.slf4j.Logger;
+
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * {@link NodePropertiesTools} that holds back changes to multi-valued properties
+ * until {@link #flush()}, so that adding or removing N values of one property
+ * writes it once instead of rewriting its whole value array N times. Reference
+ * placeholder properties are batched in the same way.
+ *
+ * Single-valued properties are still written immediately, after flushing any
+ * pending changes, so that changes reach the node in the order they were made.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class BatchingNodePropertiesTools extends NodePropertiesTools {
+
+    private static final Logger LOGGER = getLogger(BatchingNodePropertiesTools.class);
+
+    private final Map<List<String>, PendingValues> pending = new LinkedHashMap<>();
+
+    /**
+     * Append the value to a multi-valued property when the batch is flushed, or
+     * write a single-valued property now.
+     *
+     * @return the existing property, or null if it will be created by {@link #flush()}
+     */
+    @Override
+    public Property appendOrReplaceNodeProperty(final Node node, final String propertyName, final Value newValue)
+            throws RepositoryException {
+        final PendingValues values = pending(node, propertyName);
+
+        if (values == null) {
+            flush();
+            return super.appendOrReplaceNodeProperty(node, propertyName, newValue);
+        }
+
+        values.add(newValue);
+        return values.exists ? node.getProperty(propertyName) : null;
+    }
+
+    /**
+     * Remove the value from a multi-valued property when the batch is flushed, or
+     * from a single-valued property now.
+     *
+     * @return the existing property, or null if there is none
+     */
+    @Override
+    public Property removeNodeProperty(final Node node, final String propertyName, final Value valueToRemove)
+            throws RepositoryException {
+        final List<String> key = key(node, propertyName);
+
+        // nothing to remove, and nothing pending that could be removed
+        if (!pending.containsKey(key) && !node.hasProperty(propertyName)) {
+            return null;
+        }
+
+        final PendingValues values = pending(node, propertyName);
+
+        if (values == null) {
+            flush();
+            return super.removeNodeProperty(node, propertyName, valueToRemove);
+        }
+
+        values.remove(valueToRemove);
+        return values.exists ? node.getProperty(propertyName) : null;
+    }
+
+    @Override
+    public void addReferencePlaceholders(final IdentifierConverter<Resource,FedoraResource> idTranslator,
+                                          final Node node,
+                                          final String propertyName,
+                                          final Resource resource) throws RepositoryException {
+        // placeholders for single-valued properties clear both properties directly
+        if (!isMultivalued(node, propertyName)) {
+            flush();
+        }
+        super.addReferencePlaceholders(idTranslator, node, propertyName, resource);
+    }
+
+    /**
+     * Write each property with pending changes once
+     *
+     * @throws RepositoryException
+     */
+    public void flush() throws RepositoryException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Writing {} batched properties", pending.size());
+        try {
+            for (final PendingValues values : pending.values()) {
+                values.write();
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * @return the pending values of a multi-valued property, or null if the property is single-valued
+     */
+    private PendingValues pending(final Node node, final String propertyName) throws RepositoryException {
+        final List<String> key = key(node, propertyName);
+        final PendingValues existing = pending.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final PendingValues values;
+        if (node.hasProperty(propertyName)) {
+            final Property property = node.getProperty(propertyName);
+            if (!property.isMultiple()) {
+                return null;
+            }
+            values = new PendingValues(node, propertyName, true);
+            Collections.addAll(values.values, property.getValues());
+        } else if (isMultivalued(node, propertyName)) {
+            values = new PendingValues(node, propertyName, false);
+        } else {
+            return null;
+        }
+
+        pending.put(key, values);
+        return values;
+    }
+
+    private static boolean isMultivalued(final Node node, final String propertyName) throws RepositoryException {
+        try {
+            return isMultivaluedProperty(node, propertyName);
+        } catch (final NoSuchPropertyDefinitionException e) {
+            // simply represents a new kind of property on this node
+            return true;
+        }
+    }
+
+    private static List<String> key(final Node node, final String propertyName) throws RepositoryException {
+        return asList(node.getIdentifier(), propertyName);
+    }
+
+    /**
+     * The values a multi-valued property will have once the batch is flushed
+     */
+    private static class PendingValues {
+
+        private final Node node;
+
+        private final String propertyName;
+
+        private final boolean exists;
+
+        private final Set<Value> values = new LinkedHashSet<>();
+
+        private boolean changed;
+
+        PendingValues(final Node node, final String propertyName, final boolean exists) {
+            this.node = node;
+            this.propertyName = propertyName;
+            this.exists = exists;
+        }
+
+        void add(final Value value) {
+            changed |= values.add(value);
+        }
+
+        void remove(final Value value) {
+            changed |= values.remove(value);
+        }
+
+        void write() throws RepositoryException {
+            if (!changed) {
+                return;
+            }
+            if (values.isEmpty()) {
+                if (exists) {
+                    LOGGER.debug("Removing property {}", propertyName);
+                    node.getProperty(propertyName).setValue((Value[]) null);
+                }
+            } else {
+                final Value[] newValues = values.toArray(new Value[values.size()]);
+                if (exists) {
+                    LOGGER.debug("Setting {} values of property {}", newValues.length, propertyName);
+                    node.getProperty(propertyName).setValue(newValues);
+                } else {
+                    LOGGER.debug("Creating new multivalued property {} with {} values", propertyName,
+                            newValues.length);
+                    node.setProperty(propertyName, newValues, newValues[0].getType());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,555 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static com.google.common.collect.Iterables.concat;
+import static com.google.common.collect.Iterators.transform;
+import static java.lang.Boolean.TRUE;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_PAIRTREE;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.getContainedNodes;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.slf4j.Logger;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * An index of the "good" children of large containers (i.e. with pairtree nodes
+ * collapsed, and tombstones, jcr:content and hash nodes skipped), in containment order.
+ *
+ * Containers are indexed lazily, the first time their children are requested, and are
+ * kept current by {@link org.fcrepo.kernel.impl.observer.ContainmentIndexObserver} as
+ * nodes are added and removed. Containers with fewer than
+ * {@code fcrepo.containment.index.threshold} children are not retained, because they
+ * are cheap enough to traverse directly, and the retained containers are bounded to
+ * {@code fcrepo.containment.index.maxMembers} members in total.
+ *
+ * Because the observer runs after a save, services announce changes with
+ * {@link #childPending(String)} as they make them; the index is bypassed for the affected
+ * containers until the observer catches up, so a session always sees its own changes.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class ContainmentIndex {
+
+    private static final Logger LOGGER = getLogger(ContainmentIndex.class);
+
+    private static final ContainmentIndex instance = new ContainmentIndex();
+
+    private final Cache<String, Members> containers;
+
+    private final ConcurrentMap<String, Members> building = new ConcurrentHashMap<>();
+
+    private final Cache<String, Boolean> smallContainers;
+
+    private volatile Repository repository;
+
+    private final int threshold;
+
+    private final long pendingTimeout;
+
+    /**
+     * Default constructor.
+     */
+    public ContainmentIndex() {
+        this(getInteger("fcrepo.containment.index.threshold", 100),
+                getLong("fcrepo.containment.index.maxMembers", 1000000L),
+                getLong("fcrepo.containment.index.pendingTimeout", 30000L));
+    }
+
+    /**
+     * Create an index that retains containers with at least the given number of children
+     * @param threshold
+     */
+    public ContainmentIndex(final int threshold) {
+        this(threshold, 1000000L, 30000L);
+    }
+
+    /**
+     * Create an index that retains containers with at least the given number of children,
+     * and at most the given number of members across all containers
+     * @param threshold
+     * @param maxMembers
+     * @param pendingTimeout how long, in milliseconds, to wait for the index to be told about a pending change
+     */
+    public ContainmentIndex(final int threshold, final long maxMembers, final long pendingTimeout) {
+        this.threshold = threshold;
+        this.pendingTimeout = pendingTimeout;
+        this.containers = CacheBuilder.newBuilder().maximumWeight(maxMembers).weigher(membersWeigher).build();
+        this.smallContainers = CacheBuilder.newBuilder().maximumSize(10000)
+                .expireAfterWrite(pendingTimeout, MILLISECONDS).build();
+    }
+
+    /**
+     * @return the index shared across the repository
+     */
+    public static ContainmentIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return whether the index is being maintained, and may be consulted
+     */
+    public boolean isEnabled() {
+        return repository != null;
+    }
+
+    /**
+     * Start maintaining the index; containers are indexed using sessions from the given repository,
+     * so that they include every child regardless of the requesting user
+     * @param repository
+     */
+    public void start(final Repository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Stop maintaining the index, and discard all indexed containers
+     */
+    public void stop() {
+        this.repository = null;
+        containers.invalidateAll();
+        building.clear();
+        smallContainers.invalidateAll();
+    }
+
+    /**
+     * Get the indexed members of a container, indexing the container if necessary.
+     *
+     * @param container the container, as seen by the requesting session
+     * @return the members, or null if the index is not enabled, the container is small enough to
+     *         traverse directly, the container is still being indexed by another thread, or the
+     *         index has not yet been told about a change to the container
+     * @throws RepositoryException
+     */
+    public Members getMembers(final Node container) throws RepositoryException {
+        final Repository repo = repository;
+
+        if (repo == null) {
+            return null;
+        }
+
+        final String containerPath = container.getPath();
+        final Members existing = get(containerPath);
+
+        if (existing != null) {
+            return existing.isCurrent() ? existing : null;
+        }
+
+        if (smallContainers.getIfPresent(containerPath) != null || isSmall(container)) {
+            return null;
+        }
+
+        final Members members = new Members(pendingTimeout);
+
+        if (building.putIfAbsent(containerPath, members) != null) {
+            return null;
+        }
+
+        try {
+            final Session session = repo.login();
+            try {
+                members.build(transform(getContainedNodes(session.getNode(containerPath)), nodeToPath));
+            } finally {
+                session.logout();
+            }
+        } catch (final RepositoryException e) {
+            building.remove(containerPath, members);
+            throw new RepositoryRuntimeException(e);
+        } catch (final RuntimeException e) {
+            building.remove(containerPath, members);
+            throw e;
+        }
+
+        if (members.size() < threshold) {
+            LOGGER.trace("Not retaining index of small container {}", containerPath);
+            smallContainers.put(containerPath, TRUE);
+            building.remove(containerPath, members);
+            return null;
+        }
+
+        LOGGER.debug("Indexed {} children of container {}", members.size(), containerPath);
+        containers.put(containerPath, members);
+        building.remove(containerPath, members);
+        return members.isCurrent() ? members : null;
+    }
+
+    /**
+     * A container is certainly small, without logging in to index it, if it has few direct
+     * children and none of them are pairtree nodes hiding further children
+     * @param container
+     * @return whether the container should be traversed directly
+     * @throws RepositoryException
+     */
+    private boolean isSmall(final Node container) throws RepositoryException {
+        final NodeIterator children = container.getNodes();
+        final long size = children.getSize();
+
+        if (size < 0 || size >= threshold) {
+            return false;
+        }
+
+        while (children.hasNext()) {
+            if (children.nextNode().isNodeType(FEDORA_PAIRTREE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Members get(final String containerPath) {
+        final Members members = containers.getIfPresent(containerPath);
+        return members == null ? building.get(containerPath) : members;
+    }
+
+    /**
+     * @param path
+     * @return whether the node at this path, or any of its ancestors, is an indexed container
+     */
+    public boolean hasIndexedAncestor(final String path) {
+        if (containers.size() == 0 && building.isEmpty()) {
+            return false;
+        }
+
+        for (String ancestor = parentOf(path); ancestor != null; ancestor = parentOf(ancestor)) {
+            if (get(ancestor) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record that a node has been added or removed by a session that has not yet been saved,
+     * or whose save has not yet reached the index. The index is not consulted for containers
+     * of the node until it is told of the change, so that the saving session sees its own
+     * changes and no session sees a stale listing for long.
+     * @param path
+     */
+    public void childPending(final String path) {
+        if (repository == null) {
+            return;
+        }
+
+        smallContainers.invalidate(parentOf(path));
+
+        for (String ancestor = parentOf(path); ancestor != null; ancestor = parentOf(ancestor)) {
+            final Members members = get(ancestor);
+
+            if (members != null) {
+                members.pending(path);
+            }
+        }
+    }
+
+    /**
+     * Record a new child of a container, if the container is indexed
+     * @param containerPath
+     * @param childPath
+     */
+    public void childAdded(final String containerPath, final String childPath) {
+        final Members members = get(containerPath);
+
+        if (members != null) {
+            LOGGER.trace("Adding {} to the index of {}", childPath, containerPath);
+            members.added(childPath);
+            reweigh(containerPath, members);
+        }
+        nodeSettled(childPath);
+    }
+
+    /**
+     * Record that the index has been told everything it needs to know about a node added
+     * to the repository, including nodes that are not members of any container
+     * @param path
+     */
+    public void nodeSettled(final String path) {
+        for (final Members members : indexedAncestorsOf(path).values()) {
+            members.settled(path);
+        }
+    }
+
+    /**
+     * Record the removal of a node (and its subtree) from the repository
+     * @param path
+     */
+    public void nodeRemoved(final String path) {
+        discard(path);
+
+        for (final String descendant : descendantsOf(path)) {
+            discard(descendant);
+        }
+
+        final Map<String, Members> ancestors = indexedAncestorsOf(path);
+
+        boolean found = false;
+
+        for (final Members members : ancestors.values()) {
+            found |= members.remove(path);
+        }
+
+        if (!found) {
+            // this may have been a pairtree node, hiding any number of indexed children
+            discard(ancestors);
+        }
+    }
+
+    /**
+     * Record a pairtree node arriving, with its subtree, in a container; the index of the
+     * container does not include the members hidden beneath it, so it is rebuilt on next use
+     * @param path
+     */
+    public void pairtreeMoved(final String path) {
+        discard(indexedAncestorsOf(path));
+    }
+
+    private void discard(final String path) {
+        containers.invalidate(path);
+        building.remove(path);
+    }
+
+    private void discard(final Map<String, Members> ancestors) {
+        for (final Map.Entry<String, Members> entry : ancestors.entrySet()) {
+            LOGGER.debug("Discarding index of {}", entry.getKey());
+            containers.asMap().remove(entry.getKey(), entry.getValue());
+            building.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private Map<String, Members> indexedAncestorsOf(final String path) {
+        final Map<String, Members> ancestors = new HashMap<>();
+
+        for (String ancestor = parentOf(path); ancestor != null; ancestor = parentOf(ancestor)) {
+            final Members members = get(ancestor);
+
+            if (members != null) {
+                ancestors.put(ancestor, members);
+            }
+        }
+        return ancestors;
+    }
+
+    private List<String> descendantsOf(final String path) {
+        final String prefix = path.equals("/") ? "/" : path + "/";
+        final List<String> descendants = new ArrayList<>();
+
+        for (final String container : concat(containers.asMap().keySet(), building.keySet())) {
+            if (container.startsWith(prefix)) {
+                descendants.add(container);
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * Re-insert a grown container, so that the cache bound accounts for its new size
+     */
+    private void reweigh(final String containerPath, final Members members) {
+        if (members.size() % REWEIGH_INTERVAL == 0) {
+            containers.asMap().replace(containerPath, members, members);
+        }
+    }
+
+    private static final int REWEIGH_INTERVAL = 1000;
+
+    private static final Weigher<String, Members> membersWeigher = new Weigher<String, Members>() {
+
+        @Override
+        public int weigh(final String path, final Members members) {
+            return Math.max(1, members.size());
+        }
+    };
+
+    private static final Function<Node, String> nodeToPath = new Function<Node, String>() {
+
+        @Override
+        public String apply(final Node node) {
+            try {
+                return node.getPath();
+            } catch (final RepositoryException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+        }
+    };
+
+    private static String parentOf(final String path) {
+        final int i = path.lastIndexOf('/');
+
+        if (i < 0 || path.equals("/")) {
+            return null;
+        }
+        return i == 0 ? "/" : path.substring(0, i);
+    }
+
+    /**
+     * The ordered members of a single container. Each member is assigned an increasing
+     * sequence number, which serves as a stable position for paging.
+     */
+    public static class Members {
+
+        private final TreeMap<Long, String> bySequence = new TreeMap<>();
+
+        private final Map<String, Long> byPath = new HashMap<>();
+
+        private final Set<String> removedWhileBuilding = new HashSet<>();
+
+        private final Map<String, Long> pending = new HashMap<>();
+
+        private final long pendingTimeout;
+
+        private long nextSequence = 0;
+
+        private boolean ready = false;
+
+        private Members(final long pendingTimeout) {
+            this.pendingTimeout = pendingTimeout;
+        }
+
+        private void build(final Iterator<String> children) {
+            while (children.hasNext()) {
+                final String path = children.next();
+
+                synchronized (this) {
+                    if (!removedWhileBuilding.contains(path)) {
+                        add(path);
+                    }
+                }
+            }
+
+            synchronized (this) {
+                removedWhileBuilding.clear();
+                ready = true;
+            }
+        }
+
+        private void add(final String path) {
+            if (!byPath.containsKey(path)) {
+                byPath.put(path, nextSequence);
+                bySequence.put(nextSequence, path);
+                nextSequence++;
+            }
+        }
+
+        private synchronized void added(final String path) {
+            removedWhileBuilding.remove(path);
+            add(path);
+        }
+
+        private synchronized boolean remove(final String path) {
+            pending.remove(path);
+
+            if (!ready) {
+                removedWhileBuilding.add(path);
+            }
+
+            final Long sequence = byPath.remove(path);
+
+            if (sequence == null) {
+                return false;
+            }
+
+            bySequence.remove(sequence);
+            return true;
+        }
+
+        private synchronized void settled(final String path) {
+            pending.remove(path);
+        }
+
+        private synchronized void pending(final String path) {
+            pending.put(path, currentTimeMillis() + pendingTimeout);
+        }
+
+        /**
+         * @return whether the members are built, and reflect every change made to the container
+         *         that has not yet timed out
+         */
+        private synchronized boolean isCurrent() {
+            if (!ready) {
+                return false;
+            }
+
+            final long now = currentTimeMillis();
+            final Iterator<Long> expiries = pending.values().iterator();
+
+            while (expiries.hasNext()) {
+                if (expiries.next() <= now) {
+                    expiries.remove();
+                }
+            }
+            return pending.isEmpty();
+        }
+
+        /**
+         * @return the number of members
+         */
+        public synchronized int size() {
+            return byPath.size();
+        }
+
+        /**
+         * Get a page of members
+         * @param fromSequence the first sequence number to include
+         * @param pageSize the maximum number of members to return
+         * @return the JCR paths of the members, keyed by sequence number
+         */
+        public synchronized SortedMap<Long, String> page(final long fromSequence, final int pageSize) {
+            final SortedMap<Long, String> page = new TreeMap<>();
+
+            for (final Map.Entry<Long, String> entry : bySequence.tailMap(fromSequence).entrySet()) {
+                if (page.size() == pageSize) {
+                    break;
+                }
+                page.put(entry.getKey(), entry.getValue());
+            }
+            return page;
+        }
+
+        /**
+         * @return a snapshot of the JCR paths of all members, in order
+         */
+        public synchronized List<String> paths() {
+            return new ArrayList<>(bySequence.values());
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.fcrepo.kernel.impl.utils;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import org.fcrepo.kernel.FedoraJcrTypes;
 import org.fcrepo.kernel.models.FedoraResource;
@@ -23,6 +24,8 @@ import org.fcrepo.kernel.services.functions.AnyTypesPredicate;
 import org.fcrepo.kernel.services.functions.JcrPropertyFunctions;
 import org.slf4j.Logger;
 
+import java.util.Iterator;
+
 import javax.jcr.Node;
 import javax.jcr.Property;
 import javax.jcr.RepositoryException;
@@ -31,9 +34,15 @@ import javax.jcr.nodetype.NodeType;
 import javax.jcr.nodetype.PropertyDefinition;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Predicates.not;
+import static com.google.common.collect.Iterators.concat;
+import static com.google.common.collect.Iterators.filter;
+import static com.google.common.collect.Iterators.singletonIterator;
+import static com.google.common.collect.Iterators.transform;
 import static javax.jcr.PropertyType.REFERENCE;
 import static javax.jcr.PropertyType.UNDEFINED;
 import static javax.jcr.PropertyType.WEAKREFERENCE;
+import static org.modeshape.jcr.api.JcrConstants.JCR_CONTENT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -170,6 +179,52 @@ public abstract class FedoraTypesUtils implements FedoraJcrTypes {
         }
     };
 
+    /**
+     * Children for whom we will not generate triples: internal nodes, binary content
+     * nodes, tombstones and the container for hash URI nodes.
+     */
+    public static Predicate<Node> isHiddenChild = new Predicate<Node>() {
+
+        @Override
+        public boolean apply(final Node n) {
+            LOGGER.trace("Testing child node {}", n);
+            try {
+                return isInternalNode.apply(n)
+                        || n.getName().equals(JCR_CONTENT)
+                        || n.isNodeType(FEDORA_TOMBSTONE)
+                        || n.getName().equals("#");
+            } catch (final RepositoryException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+        }
+    };
+
+    /**
+     * Get the children of a node that are exposed as contained resources, skipping all pairtree
+     * nodes in the way.
+     * @param node
+     * @return
+     * @throws RepositoryException
+     */
+    public static Iterator<Node> getContainedNodes(final Node node) throws RepositoryException {
+        final Iterator<Node> allChildren = node.getNodes();
+        final Iterator<Node> children = filter(allChildren, not(isHiddenChild));
+        return concat(transform(children, new Function<Node, Iterator<Node>>() {
+
+            @Override
+            public Iterator<Node> apply(final Node input) {
+                try {
+                    if (input.isNodeType(FEDORA_PAIRTREE)) {
+                        return getContainedNodes(input);
+                    }
+                    return singletonIterator(input);
+                } catch (final RepositoryException e) {
+                    throw new RepositoryRuntimeException(e);
+                }
+            }
+        }));
+    }
+
     /**
      * Get the JCR property type ID for a given property name. If unsure, mark
      * it as UNDEFINED.
@@ -0,0 +1,294 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static com.google.common.base.Predicates.not;
+import static com.google.common.collect.Iterators.concat;
+import static com.google.common.collect.Iterators.filter;
+import static com.google.common.collect.Iterators.transform;
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
+import static org.fcrepo.kernel.FedoraJcrTypes.LDP_IS_MEMBER_OF_RELATION;
+import static org.fcrepo.kernel.FedoraJcrTypes.LDP_MEMBER_RESOURCE;
+import static org.fcrepo.kernel.RdfLexicon.isManagedPredicate;
+import static org.fcrepo.kernel.impl.rdf.JcrRdfTools.getJcrNamespaceForRDFNamespace;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.getReferencePropertyName;
+import static org.fcrepo.kernel.impl.utils.FedoraTypesUtils.isInternalProperty;
+import static org.fcrepo.kernel.utils.NamespaceTools.getNamespaceRegistry;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.jcr.NamespaceRegistry;
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.impl.rdf.impl.mappings.PropertyToTriple;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.models.NonRdfSourceDescription;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.slf4j.Logger;
+
+import com.google.common.base.Predicate;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.sparql.core.TriplePath;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDataDelete;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDataInsert;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDeleteWhere;
+import com.hp.hpl.jena.sparql.modify.request.UpdateModify;
+import com.hp.hpl.jena.sparql.syntax.Element;
+import com.hp.hpl.jena.sparql.syntax.ElementGroup;
+import com.hp.hpl.jena.sparql.syntax.ElementPathBlock;
+import com.hp.hpl.jena.sparql.syntax.ElementTriplesBlock;
+import com.hp.hpl.jena.update.Update;
+import com.hp.hpl.jena.update.UpdateRequest;
+import com.hp.hpl.jena.vocabulary.RDF;
+
+/**
+ * Plans a SPARQL Update against a single resource so that it can run without
+ * materializing every triple of the resource.
+ *
+ * An update is supported when every operation is an INSERT DATA, a DELETE DATA,
+ * a DELETE WHERE or a DELETE/INSERT ... WHERE on the default graph whose WHERE
+ * clause is a basic graph pattern about the resource itself, with a fixed
+ * predicate that is stored as a plain JCR property. Such an update can only
+ * match triples with those predicates, so {@link #model} loads just those
+ * properties from the node. Updates without any WHERE clause read nothing at all.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class IncrementalSparqlUpdate {
+
+    private static final Logger LOGGER = getLogger(IncrementalSparqlUpdate.class);
+
+    private final Node subject;
+
+    private final Set<Node> predicates = new HashSet<>();
+
+    private final boolean supported;
+
+    /**
+     * Plan the given request
+     *
+     * @param request the parsed update
+     * @param subject the RDF subject of the resource being updated
+     */
+    public IncrementalSparqlUpdate(final UpdateRequest request, final Node subject) {
+        this.subject = subject;
+        this.supported = plan(request.getOperations());
+    }
+
+    /**
+     * @return whether the update can be run against {@link #model}
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * @return whether any operation has a WHERE clause that reads existing triples
+     */
+    public boolean readsGraph() {
+        return !predicates.isEmpty();
+    }
+
+    /**
+     * @return the predicates whose triples the WHERE clauses may match
+     */
+    public Set<Node> getPredicates() {
+        return predicates;
+    }
+
+    /**
+     * Build a model that matches the update's WHERE clauses exactly as a model
+     * of all the resource's triples would.
+     *
+     * @param resource the resource being updated
+     * @param idTranslator
+     * @param originalTriples the triples the update would otherwise run against
+     * @return a model holding only the triples the update could match, or null if
+     *         the resource carries derived triples for the predicates and the update
+     *         must run against the original triples instead
+     * @throws RepositoryException
+     */
+    public Model model(final FedoraResource resource,
+                       final IdentifierConverter<Resource, FedoraResource> idTranslator,
+                       final RdfStream originalTriples) throws RepositoryException {
+        final Model model = createDefaultModel();
+        model.setNsPrefixes(originalTriples.namespaces());
+
+        // an empty original graph can't match anything either
+        if (!readsGraph() || !originalTriples.hasNext()) {
+            return model;
+        }
+
+        if (resource instanceof NonRdfSourceDescription || hasMembershipTriples(resource)) {
+            return null;
+        }
+
+        final javax.jcr.Node node = resource.getNode();
+        final NamespaceRegistry namespaceRegistry = getNamespaceRegistry.apply(node);
+        final PropertyToTriple property2triple = new PropertyToTriple(node.getSession(), idTranslator);
+
+        for (final Node predicate : predicates) {
+            final String namespace = getJcrNamespaceForRDFNamespace(predicate.getNameSpace());
+
+            // nothing can have been stored with a namespace the repository doesn't know
+            if (!namespaceRegistry.isRegisteredUri(namespace)) {
+                continue;
+            }
+
+            final String propertyName = namespaceRegistry.getPrefix(namespace) + ":" + predicate.getLocalName();
+            final String[] names = { propertyName, getReferencePropertyName(propertyName), propertyName + "@*" };
+
+            @SuppressWarnings("unchecked")
+            final Iterator<javax.jcr.Property> properties = node.getProperties(names);
+            final Iterator<Triple> triples = filter(concat(transform(filter(properties, not(isInternalProperty)),
+                    property2triple)), hasPredicate(predicate));
+
+            while (triples.hasNext()) {
+                model.add(model.asStatement(triples.next()));
+            }
+        }
+
+        LOGGER.debug("Loaded {} triples for predicates {} of {}", model.size(), predicates, resource);
+        return model;
+    }
+
+    /**
+     * Membership triples are computed from other resources, and may share a
+     * predicate with the resource's own properties.
+     */
+    private static boolean hasMembershipTriples(final FedoraResource resource) throws RepositoryException {
+        if (resource.getNode().getReferences(LDP_MEMBER_RESOURCE).hasNext()) {
+            return true;
+        }
+        final FedoraResource container = resource.getContainer();
+        return container != null && container.hasProperty(LDP_IS_MEMBER_OF_RELATION);
+    }
+
+    private static Predicate<Triple> hasPredicate(final Node predicate) {
+        return new Predicate<Triple>() {
+
+            @Override
+            public boolean apply(final Triple t) {
+                return t.getPredicate().equals(predicate);
+            }
+        };
+    }
+
+    private boolean plan(final List<Update> operations) {
+        for (final Update update : operations) {
+            if (!plan(update)) {
+                LOGGER.debug("Update operation {} needs the full graph", update);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean plan(final Update update) {
+        if (update instanceof UpdateDataInsert) {
+            return inDefaultGraph(((UpdateDataInsert) update).getQuads());
+        } else if (update instanceof UpdateDataDelete) {
+            return inDefaultGraph(((UpdateDataDelete) update).getQuads());
+        } else if (update instanceof UpdateDeleteWhere) {
+            final List<Quad> quads = ((UpdateDeleteWhere) update).getQuads();
+            if (!inDefaultGraph(quads)) {
+                return false;
+            }
+            for (final Quad quad : quads) {
+                if (!addPattern(quad.getSubject(), quad.getPredicate())) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (update instanceof UpdateModify) {
+            final UpdateModify modify = (UpdateModify) update;
+            return modify.getWithIRI() == null
+                    && modify.getUsing().isEmpty()
+                    && modify.getUsingNamed().isEmpty()
+                    && inDefaultGraph(modify.getDeleteQuads())
+                    && inDefaultGraph(modify.getInsertQuads())
+                    && addPatterns(modify.getWherePattern());
+        }
+        return false;
+    }
+
+    private static boolean inDefaultGraph(final List<Quad> quads) {
+        for (final Quad quad : quads) {
+            if (!quad.isDefaultGraph() && !quad.isTriple()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean addPatterns(final Element element) {
+        if (element instanceof ElementGroup) {
+            for (final Element e : ((ElementGroup) element).getElements()) {
+                if (!addPatterns(e)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (element instanceof ElementPathBlock) {
+            final Iterator<TriplePath> paths = ((ElementPathBlock) element).patternElts();
+            while (paths.hasNext()) {
+                final TriplePath path = paths.next();
+                if (!path.isTriple() || !addPattern(path.getSubject(), path.getPredicate())) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (element instanceof ElementTriplesBlock) {
+            final Iterator<Triple> triples = ((ElementTriplesBlock) element).patternElts();
+            while (triples.hasNext()) {
+                final Triple t = triples.next();
+                if (!addPattern(t.getSubject(), t.getPredicate())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Only patterns about the resource itself, with a predicate that is stored as
+     * a property, can be answered from the node's properties.
+     */
+    private boolean addPattern(final Node s, final Node p) {
+        if (!s.equals(subject) || !p.isURI() || p.equals(RDF.type.asNode())) {
+            return false;
+        }
+        final Property property = createProperty(p.getURI());
+        if (isManagedPredicate.apply(property)) {
+            return false;
+        }
+        predicates.add(p);
+        return true;
+    }
+}
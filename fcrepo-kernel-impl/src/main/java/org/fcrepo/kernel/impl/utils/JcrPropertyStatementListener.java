@@ -55,14 +55,15 @@ public class JcrPropertyStatementListener extends StatementListener {
     private final List<String> exceptions;
 
     /**
-     * Construct a statement listener within the given session
+     * Construct a statement listener within the given session. Changes to
+     * multi-valued properties are written when {@link #assertNoExceptions()} is called.
      *
      * @param idTranslator
      * @param session
      */
     public JcrPropertyStatementListener(final IdentifierConverter<Resource, FedoraResource> idTranslator,
                                         final Session session) {
-        this(idTranslator, new JcrRdfTools(idTranslator, session));
+        this(idTranslator, new JcrRdfTools(idTranslator, session).batchPropertyWrites());
     }
 
     /**
@@ -161,9 +162,16 @@ public class JcrPropertyStatementListener extends StatementListener {
     }
 
     /**
-     * Assert that no exceptions were thrown while this listener was processing change
+     * Write any property changes still held back, and assert that no exceptions
+     * were thrown while this listener was processing change
      */
     public void assertNoExceptions() throws MalformedRdfException {
+        try {
+            jcrRdfTools.flush();
+        } catch (final RepositoryException | RepositoryRuntimeException e) {
+            exceptions.add(e.getMessage());
+        }
+
         if (!exceptions.isEmpty()) {
             throw new MalformedRdfException(Joiner.on("\n").join(exceptions));
         }
@@ -0,0 +1,403 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.kernel.utils.Modification;
+import org.slf4j.Logger;
+
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * An append-only log of {@link Modification}s, kept in a directory of segment
+ * files, each named for the sequence number of its first entry.
+ *
+ * Timestamps are kept in non-decreasing order, an entry being given the time of
+ * the entry before it if its own is earlier, so that every modification at or
+ * after a point in time may be found by scanning forward from it.
+ *
+ * Only the most recent segments are retained, if a limit is given; older
+ * modifications are then no longer available to readers.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class ModificationLog implements Closeable {
+
+    private static final Logger LOGGER = getLogger(ModificationLog.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("changes-(\\d{20})\\.log");
+
+    private final File directory;
+
+    private final long segmentSize;
+
+    private final int retainedSegments;
+
+    /**
+     * the first sequence number of each segment, mapped to the timestamp of its first entry
+     */
+    private final TreeMap<Long, Long> segments = new TreeMap<>();
+
+    private DataOutputStream out;
+
+    private long activeSize;
+
+    private long nextSequence;
+
+    private long lastTimestamp;
+
+    /**
+     * Open the log in the given directory, recovering any segments already there.
+     *
+     * @param directory where the segments are kept
+     * @param segmentSize the size, in bytes, at which to start a new segment
+     */
+    public ModificationLog(final File directory, final long segmentSize) {
+        this(directory, segmentSize, 0);
+    }
+
+    /**
+     * Open the log in the given directory, recovering any segments already there.
+     *
+     * @param directory where the segments are kept
+     * @param segmentSize the size, in bytes, at which to start a new segment
+     * @param retainedSegments how many segments to keep, or zero or less to keep them all
+     */
+    public ModificationLog(final File directory, final long segmentSize, final int retainedSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RepositoryRuntimeException("Unable to create modification index directory " + directory);
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), null);
+                }
+            }
+        }
+        try {
+            for (final Map.Entry<Long, Long> segment : segments.entrySet()) {
+                segment.setValue(firstTimestamp(segment.getKey()));
+            }
+            if (segments.isEmpty()) {
+                openSegment(0);
+            } else {
+                recover(segments.lastKey());
+            }
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Unable to open modification index in " + directory, e);
+        }
+        LOGGER.info("Opened modification index in {} at sequence {}", directory, nextSequence);
+    }
+
+    /**
+     * Record a modification.
+     *
+     * @param timestamp when the modification was made, in milliseconds since the epoch
+     * @param path the path of the modified resource
+     * @param types the JCR event types of the modification
+     * @return the modification as recorded
+     */
+    public synchronized Modification append(final long timestamp, final String path, final Set<Integer> types) {
+        final long sequence = nextSequence;
+        final long time = Math.max(timestamp, lastTimestamp);
+        try {
+            if (activeSize >= segmentSize) {
+                out.close();
+                openSegment(sequence);
+                prune();
+            }
+            final byte[] pathBytes = path.getBytes(UTF_8);
+            final int length = 8 + 8 + 4 + 4 * types.size() + 4 + pathBytes.length;
+            out.writeInt(length);
+            out.writeLong(sequence);
+            out.writeLong(time);
+            out.writeInt(types.size());
+            for (final Integer type : types) {
+                out.writeInt(type);
+            }
+            out.writeInt(pathBytes.length);
+            out.write(pathBytes);
+            out.flush();
+            activeSize += 4 + length;
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Unable to record modification of " + path, e);
+        }
+        if (segments.get(segments.lastKey()) == null) {
+            segments.put(segments.lastKey(), time);
+        }
+        nextSequence++;
+        lastTimestamp = time;
+        return new Modification(sequence, time, path, types);
+    }
+
+    /**
+     * @return the sequence number of the oldest modification still retained, or of the next to be
+     *         recorded if there is none
+     */
+    public synchronized long getFirstSequence() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @return the sequence number of the most recent modification, or -1 if there is none
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Find the first modification at or after the given time.
+     *
+     * @param timestamp milliseconds since the epoch
+     * @return the sequence number of the modification, or that of the next to be recorded if there is none
+     */
+    public long findSequence(final long timestamp) {
+        long from;
+        synchronized (this) {
+            from = segments.firstKey();
+            for (final Map.Entry<Long, Long> segment : segments.entrySet()) {
+                if (segment.getValue() == null || segment.getValue() >= timestamp) {
+                    break;
+                }
+                from = segment.getKey();
+            }
+        }
+        final Iterator<Modification> modifications = read(from, Integer.MAX_VALUE);
+        while (modifications.hasNext()) {
+            final Modification modification = modifications.next();
+            if (modification.getTimestamp() >= timestamp) {
+                if (modifications instanceof Closeable) {
+                    IOUtils.closeQuietly((Closeable) modifications);
+                }
+                return modification.getSequence();
+            }
+        }
+        return getLastSequence() + 1;
+    }
+
+    /**
+     * Read modifications in the order they were recorded.
+     *
+     * @param fromSequence the sequence number of the first modification to read
+     * @param limit the most modifications to read
+     * @return the modifications
+     */
+    public Iterator<Modification> read(final long fromSequence, final int limit) {
+        final long end;
+        final Long first;
+        synchronized (this) {
+            end = nextSequence;
+            final Long floor = segments.floorKey(fromSequence);
+            first = floor == null ? segments.firstKey() : floor;
+        }
+        return new ModificationIterator(first, fromSequence, end, limit);
+    }
+
+    @Override
+    public synchronized void close() {
+        IOUtils.closeQuietly(out);
+    }
+
+    private File segmentFile(final long start) {
+        return new File(directory, String.format("changes-%020d.log", start));
+    }
+
+    private void openSegment(final long start) throws IOException {
+        final File file = segmentFile(start);
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        activeSize = file.length();
+        if (!segments.containsKey(start)) {
+            segments.put(start, null);
+        }
+    }
+
+    /**
+     * Delete the oldest segments beyond those to be retained. Readers already in a deleted
+     * segment keep reading it through their open file.
+     */
+    private void prune() {
+        while (retainedSegments > 0 && segments.size() > retainedSegments) {
+            final long oldest = segments.pollFirstEntry().getKey();
+            final File file = segmentFile(oldest);
+
+            LOGGER.debug("Pruning modification index segment {}", file);
+            if (!file.delete()) {
+                LOGGER.warn("Unable to delete modification index segment {}", file);
+            }
+        }
+    }
+
+    private Long firstTimestamp(final long start) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new FileInputStream(segmentFile(start)))) {
+            in.readInt();
+            in.readLong();
+            return in.readLong();
+        } catch (final EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Find the end of the last intact entry of the last segment, discarding anything after it.
+     */
+    private void recover(final long start) throws IOException {
+        final File file = segmentFile(start);
+        long valid = 0;
+        nextSequence = start;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                final int length = in.readInt();
+                final byte[] entry = new byte[length];
+                in.readFully(entry);
+                final Modification modification = decode(entry);
+                nextSequence = modification.getSequence() + 1;
+                lastTimestamp = modification.getTimestamp();
+                valid += 4 + length;
+            }
+        } catch (final EOFException e) {
+            LOGGER.trace("Reached the end of modification index segment {}", file);
+        }
+        if (valid < file.length()) {
+            LOGGER.warn("Discarding incomplete entry at the end of modification index segment {}", file);
+            try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            }
+        }
+        openSegment(start);
+    }
+
+    private static Modification decode(final byte[] entry) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+        final long sequence = in.readLong();
+        final long timestamp = in.readLong();
+        final int typeCount = in.readInt();
+        final Set<Integer> types = new LinkedHashSet<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            types.add(in.readInt());
+        }
+        final byte[] path = new byte[in.readInt()];
+        in.readFully(path);
+        return new Modification(sequence, timestamp, new String(path, UTF_8), types);
+    }
+
+    /**
+     * Reads forward through the segments, up to the end of the log as it was when reading began.
+     */
+    private class ModificationIterator extends AbstractIterator<Modification> implements Closeable {
+
+        private final long fromSequence;
+
+        private final long end;
+
+        private final int limit;
+
+        private Long segment;
+
+        private DataInputStream in;
+
+        private int count;
+
+        ModificationIterator(final Long segment, final long fromSequence, final long end, final int limit) {
+            this.segment = segment;
+            this.fromSequence = fromSequence;
+            this.end = end;
+            this.limit = limit;
+        }
+
+        @Override
+        protected Modification computeNext() {
+            try {
+                while (count < limit) {
+                    if (in == null) {
+                        if (segment == null || segment >= end) {
+                            break;
+                        }
+                        final File file = segmentFile(segment);
+                        if (!file.exists()) {
+                            // pruned since reading began
+                            synchronized (ModificationLog.this) {
+                                segment = segments.higherKey(segment);
+                            }
+                            continue;
+                        }
+                        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                    }
+                    final Modification modification;
+                    try {
+                        final byte[] entry = new byte[in.readInt()];
+                        in.readFully(entry);
+                        modification = decode(entry);
+                    } catch (final EOFException e) {
+                        in.close();
+                        in = null;
+                        synchronized (ModificationLog.this) {
+                            segment = segments.higherKey(segment);
+                        }
+                        continue;
+                    }
+                    if (modification.getSequence() >= end) {
+                        break;
+                    }
+                    if (modification.getSequence() >= fromSequence) {
+                        count++;
+                        return modification;
+                    }
+                }
+            } catch (final IOException e) {
+                close();
+                throw new RepositoryRuntimeException("Unable to read modification index", e);
+            }
+            close();
+            return endOfData();
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeQuietly(in);
+            in = null;
+        }
+    }
+}
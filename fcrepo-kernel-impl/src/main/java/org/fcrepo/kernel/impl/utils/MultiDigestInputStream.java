@@ -0,0 +1,102 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.propagate;
+import static java.util.Collections.unmodifiableMap;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.fcrepo.kernel.utils.ContentDigest;
+
+/**
+ * A FixityInputStream that calculates several digests at once, so that
+ * e.g. SHA-1, SHA-256 and MD5 checksums of some content can be gathered
+ * from the single pass that stores it.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class MultiDigestInputStream extends FixityInputStream {
+
+    private final MessageDigest[] digests;
+
+    private Map<String, URI> contentDigests;
+
+    /**
+     * Wrap a stream, calculating a digest for each of the given algorithms
+     *
+     * @param in the underlying input stream
+     * @param algorithms MessageDigest algorithm names, e.g. "SHA-256"
+     */
+    public MultiDigestInputStream(final InputStream in, final String... algorithms) {
+        this(in, digestsFor(algorithms));
+    }
+
+    private MultiDigestInputStream(final InputStream in, final MessageDigest[] digests) {
+        super(chain(in, digests), digests[0]);
+        this.digests = digests;
+    }
+
+    private static MessageDigest[] digestsFor(final String[] algorithms) {
+        checkArgument(algorithms.length > 0, "At least one digest algorithm is required");
+        final MessageDigest[] digests = new MessageDigest[algorithms.length];
+        try {
+            for (int i = 0; i < algorithms.length; i++) {
+                digests[i] = MessageDigest.getInstance(algorithms[i]);
+            }
+        } catch (final NoSuchAlgorithmException e) {
+            throw propagate(e);
+        }
+        return digests;
+    }
+
+    /**
+     * The first digest is updated by the DigestInputStream FixityInputStream
+     * wraps around this chain, the rest by one DigestInputStream each.
+     */
+    private static InputStream chain(final InputStream in, final MessageDigest[] digests) {
+        InputStream chained = in;
+        for (int i = 1; i < digests.length; i++) {
+            chained = new DigestInputStream(chained, digests[i]);
+        }
+        return chained;
+    }
+
+    /**
+     * Retrieve the calculated digests for the input stream, as URIs keyed by
+     * algorithm. The stream should be consumed before calling this.
+     * @return digests for this input stream
+     */
+    public synchronized Map<String, URI> getContentDigests() {
+        if (contentDigests == null) {
+            final Map<String, URI> uris = new LinkedHashMap<>(digests.length);
+            for (final MessageDigest digest : digests) {
+                uris.put(digest.getAlgorithm(), ContentDigest.asURI(digest.getAlgorithm(), digest.digest()));
+            }
+            contentDigests = unmodifiableMap(uris);
+        }
+        return contentDigests;
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jcr.NamespaceRegistry;
+import javax.jcr.RepositoryException;
+
+import org.slf4j.Logger;
+
+/**
+ * A cache of the namespace URIs registered for JCR prefixes, so that the
+ * namespace registry need not be consulted for every property of every event.
+ *
+ * Prefixes are looked up in the registry the first time they are seen. Since a
+ * namespace change may remap a prefix already cached, the cache is cleared by
+ * {@link org.fcrepo.kernel.impl.observer.NamespaceCacheObserver} whenever the
+ * repository's namespaces change, and also by PropertyConverter as soon as it
+ * registers a namespace itself.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class NamespacePrefixCache {
+
+    private static final Logger LOGGER = getLogger(NamespacePrefixCache.class);
+
+    private static final NamespacePrefixCache instance = new NamespacePrefixCache();
+
+    private final ConcurrentMap<String, String> uris = new ConcurrentHashMap<>();
+
+    /**
+     * @return the cache shared across the repository
+     */
+    public static NamespacePrefixCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param prefix the JCR prefix
+     * @return the cached namespace URI for the prefix, or null if the prefix has not been seen
+     */
+    public String lookup(final String prefix) {
+        return uris.get(prefix);
+    }
+
+    /**
+     * Get the namespace URI for a prefix, consulting the registry only if the prefix has not been seen.
+     *
+     * @param registry the namespace registry to consult
+     * @param prefix the JCR prefix
+     * @return the namespace URI
+     * @throws RepositoryException if the prefix is not registered
+     */
+    public String getURI(final NamespaceRegistry registry, final String prefix) throws RepositoryException {
+        final String cached = uris.get(prefix);
+        if (cached != null) {
+            return cached;
+        }
+        final String uri = registry.getURI(prefix);
+        if (uri != null) {
+            uris.putIfAbsent(prefix, uri);
+        }
+        return uri;
+    }
+
+    /**
+     * Discard every cached prefix
+     */
+    public void invalidate() {
+        LOGGER.debug("Clearing {} cached namespace prefixes", uris.size());
+        uris.clear();
+    }
+}
@@ -117,6 +117,7 @@ public class NodePropertiesTools {
         if (!property.isMultiple() && !isInternalReferenceProperty.apply(property)) {
             final String referencePropertyName = getReferencePropertyName(propertyName);
             if (node.hasProperty(referencePropertyName)) {
+                ReferenceIndex.getInstance().propertyPending(propertyPathOf(node, referencePropertyName));
                 node.setProperty(referencePropertyName, (Value[]) null);
             }
         }
@@ -147,8 +148,11 @@ public class NodePropertiesTools {
 
             final String referencePropertyName = getReferencePropertyName(propertyName);
 
+            final String referencePropertyPath = propertyPathOf(node, referencePropertyName);
+
             if (!isMultivaluedProperty(node, propertyName)) {
                 if (node.hasProperty(referencePropertyName)) {
+                    ReferenceIndex.getInstance().propertyPending(referencePropertyPath);
                     node.setProperty(referencePropertyName, (Value[]) null);
                 }
 
@@ -157,6 +161,7 @@ public class NodePropertiesTools {
                 }
             }
 
+            ReferenceIndex.getInstance().referencePending(referencePropertyPath, refNode.getPath());
             final Value v = node.getSession().getValueFactory().createValue(refNode, true);
             appendOrReplaceNodeProperty(node, referencePropertyName, v);
 
@@ -181,9 +186,17 @@ public class NodePropertiesTools {
         final String referencePropertyName = getReferencePropertyName(propertyName);
 
         final Node refNode = idTranslator.convert(resource).getNode();
+        ReferenceIndex.getInstance().referencePending(propertyPathOf(node, referencePropertyName), refNode.getPath());
         final Value v = node.getSession().getValueFactory().createValue(refNode, true);
         removeNodeProperty(node, referencePropertyName, v);
     }
+
+    /**
+     * The JCR path a property of the given node has, or will have once set.
+     */
+    private static String propertyPathOf(final Node node, final String propertyName) throws RepositoryException {
+        return (node.getDepth() == 0 ? "" : node.getPath()) + "/" + propertyName;
+    }
     /**
      * Given a JCR node, property and value, remove the value (if it exists)
      * from the property, and remove the
@@ -0,0 +1,560 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static com.google.common.collect.Iterators.concat;
+import static com.google.common.collect.Iterators.transform;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.currentTimeMillis;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.slf4j.Logger;
+
+import com.google.common.base.Function;
+
+/**
+ * An index of the properties that refer to heavily-referenced nodes, so that their
+ * inbound references may be counted and paged through without walking every one.
+ *
+ * Nodes are indexed lazily, the first time their references are requested, and are
+ * kept current by {@link org.fcrepo.kernel.impl.observer.ReferenceIndexObserver} as
+ * reference properties change. Nodes with fewer than
+ * {@code fcrepo.references.index.threshold} inbound references are not retained.
+ *
+ * Because the observer runs after a save, reference properties are announced with
+ * {@link #referencePending} and {@link #propertyPending} as they are written; the index is
+ * bypassed for the affected nodes until the observer catches up, so a session always sees
+ * its own changes.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class ReferenceIndex {
+
+    private static final Logger LOGGER = getLogger(ReferenceIndex.class);
+
+    private static final ReferenceIndex instance = new ReferenceIndex();
+
+    private final ConcurrentNavigableMap<String, Referrers> targets = new ConcurrentSkipListMap<>();
+
+    /**
+     * The indexed nodes that each referring property refers to
+     */
+    private final ConcurrentNavigableMap<String, Set<String>> sources = new ConcurrentSkipListMap<>();
+
+    /**
+     * The nodes whose references are being read, and may yet hold since-changed properties
+     */
+    private final Set<String> building = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private volatile Repository repository;
+
+    private final int threshold;
+
+    private final long pendingTimeout;
+
+    /**
+     * Default constructor.
+     */
+    public ReferenceIndex() {
+        this(getInteger("fcrepo.references.index.threshold", 100),
+                getLong("fcrepo.references.index.pendingTimeout", 30000L));
+    }
+
+    /**
+     * Create an index that retains nodes with at least the given number of inbound references
+     * @param threshold
+     */
+    public ReferenceIndex(final int threshold) {
+        this(threshold, 30000L);
+    }
+
+    /**
+     * Create an index that retains nodes with at least the given number of inbound references
+     * @param threshold
+     * @param pendingTimeout how long, in milliseconds, to wait for the index to be told about a pending change
+     */
+    public ReferenceIndex(final int threshold, final long pendingTimeout) {
+        this.threshold = threshold;
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    /**
+     * @return the index shared across the repository
+     */
+    public static ReferenceIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return whether the index is being maintained, and may be consulted
+     */
+    public boolean isEnabled() {
+        return repository != null;
+    }
+
+    /**
+     * @return whether no nodes are currently indexed
+     */
+    public boolean isEmpty() {
+        return targets.isEmpty();
+    }
+
+    /**
+     * Start maintaining the index; nodes are indexed using sessions from the given repository,
+     * so that they include every reference regardless of the requesting user
+     * @param repository
+     */
+    public void start(final Repository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Stop maintaining the index, and discard all indexed nodes
+     */
+    public void stop() {
+        this.repository = null;
+        clear();
+    }
+
+    /**
+     * Discard all indexed nodes, to be indexed again when next requested
+     */
+    public void clear() {
+        targets.clear();
+        sources.clear();
+        building.clear();
+    }
+
+    /**
+     * Get the indexed references to a node, indexing the node if necessary.
+     *
+     * @param targetPath the JCR path of the referenced node
+     * @return the referring properties, or null if the index is not enabled, the node is still
+     *         being indexed by another thread, or the index has not yet been told about a change
+     *         to the node's references
+     */
+    public Referrers getReferrers(final String targetPath) {
+        final Repository repo = repository;
+
+        if (repo == null) {
+            return null;
+        }
+
+        final Referrers existing = targets.get(targetPath);
+
+        if (existing != null) {
+            return existing.isCurrent() ? existing : null;
+        }
+
+        final Referrers referrers = new Referrers(this, targetPath);
+
+        if (targets.putIfAbsent(targetPath, referrers) != null) {
+            return null;
+        }
+
+        building.add(targetPath);
+
+        try {
+            final Session session = repo.login();
+            try {
+                referrers.build(referringProperties(session.getNode(targetPath)));
+            } finally {
+                session.logout();
+            }
+        } catch (final RepositoryException e) {
+            discard(targetPath, referrers);
+            throw new RepositoryRuntimeException(e);
+        } catch (final RuntimeException e) {
+            discard(targetPath, referrers);
+            throw e;
+        } finally {
+            building.remove(targetPath);
+        }
+
+        if (referrers.size() < threshold) {
+            LOGGER.trace("Not retaining index of lightly-referenced node {}", targetPath);
+            discard(targetPath, referrers);
+        } else {
+            LOGGER.debug("Indexed {} references to {}", referrers.size(), targetPath);
+        }
+        return referrers.isCurrent() ? referrers : null;
+    }
+
+    /**
+     * Collect the references to a node without indexing it, e.g. when the index is not enabled
+     *
+     * @param target
+     * @return the referring properties
+     * @throws RepositoryException
+     */
+    public static Referrers traverse(final Node target) throws RepositoryException {
+        final Referrers referrers = new Referrers(null, null, 0);
+        referrers.build(referringProperties(target));
+        return referrers;
+    }
+
+    /**
+     * @param propertyPath
+     * @return whether this property is known to refer to an indexed node
+     */
+    public boolean isIndexedSource(final String propertyPath) {
+        return sources.containsKey(propertyPath);
+    }
+
+    /**
+     * Record the current values of a reference property
+     * @param propertyPath
+     * @param targetPaths the JCR paths of the nodes it now refers to
+     */
+    public void propertyChanged(final String propertyPath, final Set<String> targetPaths) {
+        final Set<String> previous = sources.get(propertyPath);
+
+        if (previous != null) {
+            for (final String target : previous) {
+                if (!targetPaths.contains(target)) {
+                    unindex(propertyPath, target);
+                }
+            }
+        }
+
+        for (final String target : targetPaths) {
+            final Referrers referrers = targets.get(target);
+            if (referrers != null) {
+                LOGGER.trace("Adding {} to the references of {}", propertyPath, target);
+                referrers.added(propertyPath);
+            }
+        }
+
+        for (final String target : building) {
+            final Referrers referrers = targets.get(target);
+            if (referrers != null && !targetPaths.contains(target) && !referrers.isReady()) {
+                // it may have referred to this node when the node's references were read
+                referrers.remove(propertyPath);
+            }
+        }
+    }
+
+    /**
+     * Record that a reference property is being written by a session that has not yet been
+     * saved, or whose save has not yet reached the index, adding a reference to a node. The
+     * index is not consulted for that node until it is told of the change.
+     * @param propertyPath
+     * @param targetPath
+     */
+    public void referencePending(final String propertyPath, final String targetPath) {
+        final Referrers referrers = targetPath == null ? null : targets.get(targetPath);
+        if (referrers != null) {
+            referrers.pending(propertyPath);
+        }
+        propertyPending(propertyPath);
+    }
+
+    /**
+     * Record that a reference property is being written or removed, which may remove its
+     * references to the nodes it is known to refer to
+     * @param propertyPath
+     */
+    public void propertyPending(final String propertyPath) {
+        final Set<String> referred = sources.get(propertyPath);
+        if (referred == null) {
+            return;
+        }
+        for (final String target : referred) {
+            final Referrers referrers = targets.get(target);
+            if (referrers != null) {
+                referrers.pending(propertyPath);
+            }
+        }
+    }
+
+    /**
+     * Record that a node (and its subtree) is being removed, along with its reference properties
+     * @param path
+     */
+    public void nodePending(final String path) {
+        for (final String propertyPath : sources.subMap(path + "/", path + "0").keySet()) {
+            propertyPending(propertyPath);
+        }
+    }
+
+    /**
+     * Record the removal of a reference property
+     * @param propertyPath
+     */
+    public void propertyRemoved(final String propertyPath) {
+        propertyChanged(propertyPath, Collections.<String>emptySet());
+    }
+
+    /**
+     * Record the removal of a node (and its subtree) from the repository
+     * @param path
+     */
+    public void nodeRemoved(final String path) {
+        removeTarget(path, targets.get(path));
+        for (final Map.Entry<String, Referrers> entry : targets.subMap(path + "/", path + "0").entrySet()) {
+            removeTarget(entry.getKey(), entry.getValue());
+        }
+
+        for (final String propertyPath : sources.subMap(path + "/", path + "0").keySet()) {
+            propertyRemoved(propertyPath);
+        }
+    }
+
+    private void removeTarget(final String targetPath, final Referrers referrers) {
+        if (referrers != null) {
+            discard(targetPath, referrers);
+        }
+    }
+
+    private void discard(final String targetPath, final Referrers referrers) {
+        targets.remove(targetPath, referrers);
+        for (final String propertyPath : referrers.paths()) {
+            final Set<String> referred = sources.get(propertyPath);
+            if (referred != null) {
+                referred.remove(targetPath);
+                if (referred.isEmpty()) {
+                    sources.remove(propertyPath, referred);
+                }
+            }
+        }
+    }
+
+    private void index(final String propertyPath, final String targetPath) {
+        Set<String> referred = sources.get(propertyPath);
+        if (referred == null) {
+            final Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            referred = sources.putIfAbsent(propertyPath, created);
+            if (referred == null) {
+                referred = created;
+            }
+        }
+        referred.add(targetPath);
+    }
+
+    private void unindex(final String propertyPath, final String targetPath) {
+        final Referrers referrers = targets.get(targetPath);
+        if (referrers != null) {
+            LOGGER.trace("Removing {} from the references of {}", propertyPath, targetPath);
+            referrers.remove(propertyPath);
+        }
+        final Set<String> referred = sources.get(propertyPath);
+        if (referred != null) {
+            referred.remove(targetPath);
+            if (referred.isEmpty()) {
+                sources.remove(propertyPath, referred);
+            }
+        }
+    }
+
+    private static Iterator<String> referringProperties(final Node target) throws RepositoryException {
+        final Iterator<Property> strong = target.getReferences();
+        final Iterator<Property> weak = target.getWeakReferences();
+        return transform(concat(strong, weak), propertyToPath);
+    }
+
+    private static final Function<Property, String> propertyToPath = new Function<Property, String>() {
+
+        @Override
+        public String apply(final Property property) {
+            try {
+                return property.getPath();
+            } catch (final RepositoryException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+        }
+    };
+
+    /**
+     * The properties referring to a single node. Each is assigned an increasing sequence
+     * number, which serves as a stable position for paging.
+     */
+    public static class Referrers {
+
+        private final ReferenceIndex index;
+
+        private final String targetPath;
+
+        private final TreeMap<Long, String> bySequence = new TreeMap<>();
+
+        private final Map<String, Long> byPath = new HashMap<>();
+
+        private final Set<String> removedWhileBuilding = new HashSet<>();
+
+        private final Map<String, Long> pending = new HashMap<>();
+
+        private final long pendingTimeout;
+
+        private long nextSequence = 0;
+
+        private boolean ready = false;
+
+        private Referrers(final ReferenceIndex index, final String targetPath) {
+            this(index, targetPath, index.pendingTimeout);
+        }
+
+        private Referrers(final ReferenceIndex index, final String targetPath, final long pendingTimeout) {
+            this.index = index;
+            this.targetPath = targetPath;
+            this.pendingTimeout = pendingTimeout;
+        }
+
+        private void build(final Iterator<String> properties) {
+            while (properties.hasNext()) {
+                final String path = properties.next();
+
+                synchronized (this) {
+                    if (!removedWhileBuilding.contains(path)) {
+                        add(path);
+                    }
+                }
+            }
+
+            synchronized (this) {
+                removedWhileBuilding.clear();
+                ready = true;
+            }
+        }
+
+        private void add(final String path) {
+            if (!byPath.containsKey(path)) {
+                byPath.put(path, nextSequence);
+                bySequence.put(nextSequence, path);
+                nextSequence++;
+                if (index != null) {
+                    index.index(path, targetPath);
+                }
+            }
+        }
+
+        private synchronized void added(final String path) {
+            removedWhileBuilding.remove(path);
+            pending.remove(path);
+            add(path);
+        }
+
+        private synchronized boolean remove(final String path) {
+            pending.remove(path);
+
+            if (!ready) {
+                removedWhileBuilding.add(path);
+            }
+
+            final Long sequence = byPath.remove(path);
+
+            if (sequence == null) {
+                return false;
+            }
+
+            bySequence.remove(sequence);
+            return true;
+        }
+
+        private synchronized boolean isReady() {
+            return ready;
+        }
+
+        private synchronized void pending(final String path) {
+            pending.put(path, currentTimeMillis() + pendingTimeout);
+        }
+
+        /**
+         * @return whether the references are built, and reflect every change made to them that
+         *         has not yet timed out
+         */
+        private synchronized boolean isCurrent() {
+            if (!ready) {
+                return false;
+            }
+
+            final long now = currentTimeMillis();
+            final Iterator<Long> expiries = pending.values().iterator();
+
+            while (expiries.hasNext()) {
+                if (expiries.next() <= now) {
+                    expiries.remove();
+                }
+            }
+            return pending.isEmpty();
+        }
+
+        /**
+         * @param path the JCR path of a referring property
+         * @return the sequence number of the property, or null if it does not refer to the node
+         */
+        public synchronized Long sequenceOf(final String path) {
+            return byPath.get(path);
+        }
+
+        /**
+         * @return a snapshot of the JCR paths of all referring properties
+         */
+        public synchronized List<String> propertyPaths() {
+            return new ArrayList<>(bySequence.values());
+        }
+
+        private synchronized Set<String> paths() {
+            return new HashSet<>(byPath.keySet());
+        }
+
+        /**
+         * @return the number of referring properties
+         */
+        public synchronized int size() {
+            return byPath.size();
+        }
+
+        /**
+         * Get a page of referring properties
+         * @param fromSequence the first sequence number to include
+         * @param pageSize the maximum number of properties to return
+         * @return the JCR paths of the properties, keyed by sequence number
+         */
+        public synchronized SortedMap<Long, String> page(final long fromSequence, final int pageSize) {
+            final SortedMap<Long, String> page = new TreeMap<>();
+
+            for (final Map.Entry<Long, String> entry : bySequence.tailMap(fromSequence).entrySet()) {
+                if (page.size() == pageSize) {
+                    break;
+                }
+                page.put(entry.getKey(), entry.getValue());
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A hierarchical timing wheel: keys are scheduled against a deadline and
+ * handed back by {@link #advance(long)} once it has passed, at a cost that
+ * depends on how many keys fall due rather than how many are scheduled.
+ *
+ * <p>Each of the {@value #LEVELS} levels has {@value #SLOTS} slots; a slot on
+ * level {@code n} spans {@code SLOTS^n} ticks. Keys due far ahead sit on a high
+ * level and cascade down as the wheel turns. Deadlines are rounded up to a whole
+ * tick, so keys are never returned early, and at most one tick late.</p>
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ * @param <K> the type of the scheduled keys
+ */
+public class TimingWheel<K> {
+
+    static final int LEVELS = 4;
+
+    static final int SLOTS = 64;
+
+    private static final int BITS = 6;
+
+    private final long tickMillis;
+
+    private final List<List<Set<K>>> wheels = new ArrayList<>(LEVELS);
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    private final Set<K> overdue = new HashSet<>();
+
+    private long currentTick;
+
+    /**
+     * @param tickMillis the resolution of the wheel, in milliseconds
+     * @param nowMillis the current time
+     */
+    public TimingWheel(final long tickMillis, final long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            final List<Set<K>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new HashSet<K>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    /**
+     * Schedule a key, replacing any deadline it already had.
+     *
+     * @param key
+     * @param deadlineMillis the time after which the key is due
+     */
+    public synchronized void schedule(final K key, final long deadlineMillis) {
+        cancel(key);
+        final Entry<K> entry = new Entry<>(key, (deadlineMillis + tickMillis - 1) / tickMillis);
+        entries.put(key, entry);
+        place(entry, overdue);
+    }
+
+    /**
+     * @param key
+     * @return whether the key had been scheduled
+     */
+    public synchronized boolean cancel(final K key) {
+        final Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.slot != null) {
+            entry.slot.remove(key);
+        } else {
+            overdue.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Turn the wheel to the given time.
+     *
+     * @param nowMillis
+     * @return the keys that have fallen due, which are no longer scheduled
+     */
+    public synchronized List<K> advance(final long nowMillis) {
+        final Set<K> due = new HashSet<>(overdue);
+        overdue.clear();
+        final long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick && entries.size() > due.size()) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, due);
+                }
+            }
+            final Set<K> slot = wheels.get(0).get((int) (currentTick & (SLOTS - 1)));
+            due.addAll(slot);
+            slot.clear();
+        }
+        if (currentTick < targetTick) {
+            currentTick = targetTick;
+        }
+        for (final K key : due) {
+            entries.remove(key);
+        }
+        return new ArrayList<>(due);
+    }
+
+    /**
+     * @return the number of keys scheduled
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void cascade(final int level, final Set<K> due) {
+        final Set<K> slot = wheels.get(level).get((int) ((currentTick >> (BITS * level)) & (SLOTS - 1)));
+        final List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        for (final K key : keys) {
+            place(entries.get(key), due);
+        }
+    }
+
+    /**
+     * Put an entry in the slot for its deadline, or straight into the due set
+     * if the deadline has been reached.
+     */
+    private void place(final Entry<K> entry, final Set<K> due) {
+        if (entry.tick <= currentTick) {
+            entry.slot = null;
+            due.add(entry.key);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            final int shift = BITS * level;
+            final long distance = (entry.tick >> shift) - (currentTick >> shift);
+            if (distance < SLOTS || level == LEVELS - 1) {
+                final long slotTick = distance < SLOTS ? entry.tick >> shift : (currentTick >> shift) + SLOTS - 1;
+                entry.slot = wheels.get(level).get((int) (slotTick & (SLOTS - 1)));
+                entry.slot.add(entry.key);
+                return;
+            }
+        }
+    }
+
+    /**
+     * A scheduled key, its deadline in ticks, and the slot holding it.
+     */
+    private static class Entry<K> {
+
+        private final K key;
+
+        private final long tick;
+
+        private Set<K> slot;
+
+        Entry(final K key, final long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -54,14 +54,13 @@ public final class CacheEntryFactory {
     public static CacheEntry forProperty(final Repository repository, final Property property)
         throws RepositoryException {
         final Binary binary = property.getBinary();
-        final BinaryStore store = binaryStore(repository);
 
         if (binary instanceof ExternalBinaryValue) {
             return new ProjectedCacheEntry(property);
         } else if (binary instanceof InMemoryBinaryValue) {
             return new BinaryCacheEntry(property);
         } else {
-            return forProperty(store, property);
+            return forProperty(binaryStore(repository), property);
         }
     }
 
@@ -17,6 +17,7 @@ package org.fcrepo.kernel.impl.utils.impl;
 
 import static org.apache.commons.io.IOUtils.copy;
 import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+import static org.fcrepo.kernel.impl.utils.infinispan.PrefetchingChunkInputStream.fromCacheLoader;
 
 import java.io.InputStream;
 import java.io.Serializable;
@@ -27,7 +28,7 @@ import java.util.Set;
 
 import org.fcrepo.kernel.impl.utils.FixityInputStream;
 import org.fcrepo.kernel.impl.utils.FixityResultImpl;
-import org.fcrepo.kernel.impl.utils.infinispan.CacheLoaderChunkInputStream;
+import org.fcrepo.kernel.impl.utils.infinispan.PrefetchingChunkInputStream;
 import org.fcrepo.kernel.utils.ContentDigest;
 import org.fcrepo.kernel.utils.FixityResult;
 import org.infinispan.Cache;
@@ -70,8 +71,8 @@ public class DistributedFixityCheck implements DistributedCallable<String, byte[
 
         for (final CacheLoader<String, byte[]> store : stores()) {
 
-            try (final InputStream cacheLoaderChunkInputStream = new CacheLoaderChunkInputStream(
-                    store, dataKey, chunkSize, length);
+            try (final InputStream cacheLoaderChunkInputStream = new PrefetchingChunkInputStream(
+                    fromCacheLoader(store), dataKey, chunkSize, length);
 
                     final FixityInputStream fixityInputStream = new FixityInputStream(
                             cacheLoaderChunkInputStream, MessageDigest.getInstance(digest))) {
@@ -15,6 +15,7 @@
  */
 package org.fcrepo.kernel.impl.utils.impl;
 
+import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -49,4 +50,19 @@ public class FileSystemBinaryStoreEntry extends LocalBinaryStoreEntry {
         }
     }
 
+    /**
+     * Locate the file in which the filesystem binary store keeps the content of this entry. The store
+     * shards its files by the leading characters of the binary key (e.g. ab/cd/ef/abcdef...).
+     *
+     * @return the file holding the content, or null if the store does not hold it as a regular file
+     */
+    public File getFile() {
+        final FileSystemBinaryStore store = (FileSystemBinaryStore)store();
+        final String key = binaryKey().toString();
+        final File directory = new File(new File(new File(store.getDirectory(),
+                key.substring(0, 2)), key.substring(2, 4)), key.substring(4, 6));
+        final File file = new File(directory, key);
+        return file.isFile() ? file : null;
+    }
+
 }
@@ -17,8 +17,10 @@ package org.fcrepo.kernel.impl.utils.impl;
 
 import static com.google.common.base.Throwables.propagate;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.fcrepo.kernel.impl.utils.infinispan.PrefetchingChunkInputStream.fromCache;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -27,8 +29,10 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
 import javax.jcr.Property;
+import javax.jcr.RepositoryException;
 
 import org.fcrepo.kernel.impl.services.functions.GetClusterExecutor;
+import org.fcrepo.kernel.impl.utils.infinispan.PrefetchingChunkInputStream;
 import org.fcrepo.kernel.utils.FixityResult;
 import org.infinispan.distexec.DistributedExecutorService;
 import org.modeshape.jcr.value.BinaryKey;
@@ -55,6 +59,24 @@ public class InfinispanCacheStoreEntry extends LocalBinaryStoreEntry {
         super(store, property);
     }
 
+    /**
+     * Read the content from the store's chunks, loading them ahead of the reader
+     * @return the content for this entry
+     */
+    @Override
+    public InputStream getInputStream() throws RepositoryException {
+        final InfinispanBinaryStore store = (InfinispanBinaryStore)store();
+        final BinaryKey key = binaryKey();
+
+        if (!store.hasBinary(key)) {
+            return super.getInputStream();
+        }
+
+        final ChunkBinaryMetadata metadata = InfinispanUtils.getMetadata(store, key);
+        return new PrefetchingChunkInputStream(fromCache(InfinispanUtils.getBlobCache(store)),
+                InfinispanUtils.dataKeyFrom(store, key), metadata.getChunkSize(), metadata.getLength());
+    }
+
     @Override
     public Collection<FixityResult> checkFixity(final String algorithm) {
         final BinaryKey key = binaryKey();
@@ -56,7 +56,7 @@ public class CacheLoaderChunkInputStream extends InputStream {
         this.chunkNumber = 0;
         this.indexInBuffer = 0;
         final int remainderSize = (int) (totalSize % chunkSize);
-        final int numberOfChunks = (int) totalSize / chunkSize;
+        final int numberOfChunks = (int) (totalSize / chunkSize);
         this.chunksCount = remainderSize > 0 ? numberOfChunks + 1 : numberOfChunks;
     }
 
@@ -138,9 +138,10 @@ public class CacheLoaderChunkInputStream extends InputStream {
         }
 
         //we need to skip past the current chunk, so find the chunk which needs to be loaded
-        final long lastChunkSize = totalSize - (chunksCount - 1) * chunkSize;
+        final long lastChunkSize = totalSize - (long) (chunksCount - 1) * chunkSize;
         final int chunksAvailableToSkip = chunksCount - chunkNumber - 1;
-        final long bytesAvailableToSkip = (chunksAvailableToSkip - 1) * chunkSize + lastChunkSize;
+        final long bytesAvailableToSkip =
+                chunksAvailableToSkip > 0 ? (long) (chunksAvailableToSkip - 1) * chunkSize + lastChunkSize : 0;
 
         final long stillRequiredToSkip = n - availableInBuffer;
         final int chunksToSkipOver = (int) (stillRequiredToSkip / chunkSize);
@@ -0,0 +1,300 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils.infinispan;
+
+import static java.lang.Integer.getInteger;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+
+import org.infinispan.Cache;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.slf4j.Logger;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * An InputStream over the chunks of an Infinispan-stored binary that loads the chunks ahead of the
+ * reader. Up to a window of chunks following the one being read are loaded on a shared, bounded
+ * executor, so that the reader does not stall on the store between chunks. Each chunk is fetched
+ * with a single lookup, and the fetched arrays are handed to the reader as they are.
+ *
+ * When the executor is saturated, chunks are loaded by the reading thread itself. A window of 0
+ * loads every chunk synchronously.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class PrefetchingChunkInputStream extends InputStream {
+
+    private static final Logger LOGGER = getLogger(PrefetchingChunkInputStream.class);
+
+    /**
+     * The number of chunks to load ahead of the reader
+     */
+    public static final int DEFAULT_WINDOW = getInteger("fcrepo.binary.prefetch.window", 4);
+
+    private static final int THREADS = getInteger("fcrepo.binary.prefetch.threads", 8);
+
+    private static final ExecutorService DEFAULT_EXECUTOR = buildExecutor();
+
+    private final Function<String, byte[]> chunks;
+    private final String key;
+    private final int chunkSize;
+    private final long totalSize;
+    private final int chunksCount;
+    private final int window;
+    private final ExecutorService executor;
+
+    private final Deque<Future<byte[]>> prefetched = new ArrayDeque<>();
+
+    // the chunk at the head of the prefetched queue
+    private int nextChunk = 0;
+    // the chunk that will be submitted next
+    private int nextToFetch = 0;
+    // the offset of the next byte to return
+    private long position = 0;
+
+    private byte[] buffer;
+    private int indexInBuffer;
+    // where to start reading in the next chunk, after a skip into the middle of it
+    private int offsetInNextChunk;
+    private boolean endOfStream = false;
+
+    /**
+     * Read a binary from the loaded chunks, using the default window and executor
+     * @param chunks a function loading a chunk by its key, or returning null if it is missing
+     * @param key the data key of the binary
+     * @param chunkSize
+     * @param totalSize
+     */
+    public PrefetchingChunkInputStream(final Function<String, byte[]> chunks,
+                                       final String key,
+                                       final int chunkSize,
+                                       final long totalSize) {
+        this(chunks, key, chunkSize, totalSize, DEFAULT_WINDOW, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Read a binary from the loaded chunks
+     * @param chunks a function loading a chunk by its key, or returning null if it is missing
+     * @param key the data key of the binary
+     * @param chunkSize
+     * @param totalSize
+     * @param window the number of chunks to load ahead of the reader
+     * @param executor the executor on which to load them
+     */
+    public PrefetchingChunkInputStream(final Function<String, byte[]> chunks,
+                                       final String key,
+                                       final int chunkSize,
+                                       final long totalSize,
+                                       final int window,
+                                       final ExecutorService executor) {
+        this.chunks = chunks;
+        this.key = key;
+        this.chunkSize = chunkSize;
+        this.totalSize = totalSize;
+        this.window = window;
+        this.executor = executor;
+        final long numberOfChunks = totalSize / chunkSize;
+        this.chunksCount = (int) (totalSize % chunkSize > 0 ? numberOfChunks + 1 : numberOfChunks);
+    }
+
+    /**
+     * Load chunks from a cache
+     * @param cache
+     * @return a function loading a chunk by its key
+     */
+    public static Function<String, byte[]> fromCache(final Cache<String, byte[]> cache) {
+        return new Function<String, byte[]>() {
+
+            @Override
+            public byte[] apply(final String chunkKey) {
+                return cache.get(chunkKey);
+            }
+        };
+    }
+
+    /**
+     * Load chunks directly from one of a cache's loaders
+     * @param cacheLoader
+     * @return a function loading a chunk by its key
+     */
+    public static Function<String, byte[]> fromCacheLoader(final CacheLoader<String, byte[]> cacheLoader) {
+        return new Function<String, byte[]>() {
+
+            @Override
+            public byte[] apply(final String chunkKey) {
+                final MarshalledEntry<String, byte[]> entry = cacheLoader.load(chunkKey);
+                return entry == null ? null : entry.getValue();
+            }
+        };
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fillBuffer()) {
+            return -1;
+        }
+        position++;
+        return buffer[indexInBuffer++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fillBuffer()) {
+            return -1;
+        }
+        final int n = Math.min(len, buffer.length - indexInBuffer);
+        System.arraycopy(buffer, indexInBuffer, b, off, n);
+        indexInBuffer += n;
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return buffer == null ? 0 : buffer.length - indexInBuffer;
+    }
+
+    @Override
+    public long skip(final long n) {
+        if (n <= 0 || endOfStream) {
+            return 0;
+        }
+        final long target = Math.min(position + n, totalSize);
+        final long skipped = target - position;
+
+        if (skipped <= available()) {
+            indexInBuffer += skipped;
+        } else {
+            final int targetChunk = (int) (target / chunkSize);
+
+            // discard the chunks loaded ahead of the target
+            while (nextChunk < targetChunk && !prefetched.isEmpty()) {
+                prefetched.poll().cancel(false);
+                nextChunk++;
+            }
+            nextChunk = targetChunk;
+            nextToFetch = Math.max(nextToFetch, targetChunk);
+            buffer = null;
+            offsetInNextChunk = (int) (target % chunkSize);
+        }
+        position = target;
+        return skipped;
+    }
+
+    @Override
+    public void close() {
+        endOfStream = true;
+        buffer = null;
+        while (!prefetched.isEmpty()) {
+            prefetched.poll().cancel(false);
+        }
+    }
+
+    /**
+     * Make sure there is something left to read in the buffer
+     * @return false at the end of the stream
+     * @throws IOException
+     */
+    private boolean fillBuffer() throws IOException {
+        while (buffer == null || indexInBuffer >= buffer.length) {
+            if (endOfStream) {
+                return false;
+            }
+            buffer = nextChunk();
+            if (buffer == null) {
+                close();
+                return false;
+            }
+            indexInBuffer = offsetInNextChunk;
+            offsetInNextChunk = 0;
+        }
+        return true;
+    }
+
+    private byte[] nextChunk() throws IOException {
+        if (nextChunk >= chunksCount) {
+            return null;
+        }
+        if (window <= 0) {
+            nextToFetch = nextChunk + 1;
+            return chunks.apply(chunkKey(nextChunk++));
+        }
+
+        prefetch();
+        final Future<byte[]> chunk = prefetched.poll();
+        nextChunk++;
+        prefetch();
+
+        try {
+            return chunk.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading " + key);
+        } catch (final ExecutionException e) {
+            throw new IOException("Unable to load a chunk of " + key, e.getCause());
+        }
+    }
+
+    /**
+     * Fill the window of chunks being loaded ahead of the reader
+     */
+    private void prefetch() {
+        while (nextToFetch < chunksCount && prefetched.size() < window) {
+            final String chunkKey = chunkKey(nextToFetch++);
+            prefetched.add(executor.submit(new Callable<byte[]>() {
+
+                @Override
+                public byte[] call() {
+                    LOGGER.trace("Prefetching chunk {}", chunkKey);
+                    return chunks.apply(chunkKey);
+                }
+            }));
+        }
+    }
+
+    private String chunkKey(final int chunkNumber) {
+        return key + "-" + chunkNumber;
+    }
+
+    private static ExecutorService buildExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, SECONDS,
+                new ArrayBlockingQueue<Runnable>(THREADS * Math.max(DEFAULT_WINDOW, 1) * 4),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("fcrepo-chunk-prefetch-%d").build(),
+                new CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -76,7 +76,7 @@ public abstract class PersistingRdfStreamConsumer implements RdfStreamConsumer {
     public PersistingRdfStreamConsumer(final IdentifierConverter<Resource, FedoraResource> idTranslator,
             final Session session, final RdfStream stream) {
         this.idTranslator = idTranslator;
-        this.jcrRdfTools = new JcrRdfTools(idTranslator, session);
+        this.jcrRdfTools = new JcrRdfTools(idTranslator, session).batchPropertyWrites();
         this.isFedoraSubjectTriple = new Predicate<Triple>() {
 
             @Override
@@ -115,6 +115,12 @@ public abstract class PersistingRdfStreamConsumer implements RdfStreamConsumer {
             }
         }
 
+        try {
+            jcrRdfTools.flush();
+        } catch (final RepositoryException | RepositoryRuntimeException e) {
+            exceptions.add(e.getMessage());
+        }
+
         if (!exceptions.isEmpty()) {
             throw new MalformedRdfException(Joiner.on("\n").join(exceptions));
         }
@@ -15,6 +15,7 @@
  */
 package org.modeshape.jcr.value.binary.infinispan;
 
+import org.infinispan.Cache;
 import org.modeshape.jcr.value.BinaryKey;
 
 /**
@@ -46,4 +47,13 @@ public final class InfinispanUtils {
         final String metadataKey = binaryStore.metadataKeyFrom(key);
         return new ChunkBinaryMetadata(binaryStore.metadataCache.get(metadataKey));
     }
+
+    /**
+     * Get the cache holding the chunks of the binaries in the given store
+     * @param binaryStore
+     * @return
+     */
+    public static Cache<String, byte[]> getBlobCache(final InfinispanBinaryStore binaryStore) {
+        return binaryStore.blobCache;
+    }
 }
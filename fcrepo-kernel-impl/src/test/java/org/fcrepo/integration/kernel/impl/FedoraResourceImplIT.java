@@ -371,6 +371,36 @@ public class FedoraResourceImplIT extends AbstractIT {
 
     }
 
+    @Test
+    public void testUpdatingOnePredicateOfObjectGraph() throws MalformedRdfException {
+
+        final FedoraResource object =
+            containerService.findOrCreate(session, "/testObjectGraphPredicateUpdates");
+        final String uri = createGraphSubjectNode(object).getURI();
+
+        object.updateProperties(subjects, "INSERT DATA { <" + uri + "> <info:fcrepo/zyx> \"a\" , \"b\" . <"
+                + uri + "> <info:fcrepo/wvu> \"c\" }", new RdfStream());
+
+        object.updateProperties(subjects, "DELETE { <" + uri + "> <info:fcrepo/zyx> ?o }\n"
+                + "INSERT { <" + uri + "> <info:fcrepo/zyx> \"d\" } "
+                + "WHERE { <" + uri + "> <info:fcrepo/zyx> ?o } ",
+                object.getTriples(subjects, PropertiesRdfContext.class));
+
+        final Resource s = createResource(uri);
+        Model model = object.getTriples(subjects, PropertiesRdfContext.class).asModel();
+        assertFalse(model.contains(s, createProperty("info:fcrepo/zyx"), createPlainLiteral("a")));
+        assertFalse(model.contains(s, createProperty("info:fcrepo/zyx"), createPlainLiteral("b")));
+        assertTrue(model.contains(s, createProperty("info:fcrepo/zyx"), createPlainLiteral("d")));
+        assertTrue(model.contains(s, createProperty("info:fcrepo/wvu"), createPlainLiteral("c")));
+
+        object.updateProperties(subjects, "DELETE WHERE { <" + uri + "> <info:fcrepo/wvu> ?o }",
+                object.getTriples(subjects, PropertiesRdfContext.class));
+
+        model = object.getTriples(subjects, PropertiesRdfContext.class).asModel();
+        assertFalse(model.contains(s, createProperty("info:fcrepo/wvu"), (RDFNode) null));
+        assertTrue(model.contains(s, createProperty("info:fcrepo/zyx"), createPlainLiteral("d")));
+    }
+
     @Test
     public void testGetObjectVersionGraph() throws RepositoryException {
 
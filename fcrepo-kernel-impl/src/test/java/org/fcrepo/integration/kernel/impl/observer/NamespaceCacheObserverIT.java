@@ -0,0 +1,64 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.integration.kernel.impl.observer;
+
+import static java.lang.System.currentTimeMillis;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import javax.inject.Inject;
+import javax.jcr.NamespaceRegistry;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.fcrepo.integration.kernel.impl.AbstractIT;
+import org.fcrepo.kernel.impl.utils.NamespacePrefixCache;
+import org.junit.Test;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * <p>NamespaceCacheObserverIT class.</p>
+ *
+ * @author ananthulasrikar
+ */
+@ContextConfiguration({"/spring-test/eventing.xml", "/spring-test/repo.xml"})
+public class NamespaceCacheObserverIT extends AbstractIT {
+
+    @Inject
+    private Repository repository;
+
+    @Test
+    public void testUnregisteredPrefixIsNotCached() throws RepositoryException, InterruptedException {
+        final NamespacePrefixCache cache = NamespacePrefixCache.getInstance();
+        final String prefix = "nscache" + currentTimeMillis();
+        final Session session = repository.login();
+        try {
+            final NamespaceRegistry registry = session.getWorkspace().getNamespaceRegistry();
+            registry.registerNamespace(prefix, "info:fcrepo/test/" + prefix + "/");
+            assertEquals("info:fcrepo/test/" + prefix + "/", cache.getURI(registry, prefix));
+
+            registry.unregisterNamespace(prefix);
+
+            for (int i = 0; i < 100 && cache.lookup(prefix) != null; i++) {
+                Thread.sleep(50);
+            }
+            assertNull("The cache should forget a prefix once it is unregistered", cache.lookup(prefix));
+        } finally {
+            session.logout();
+        }
+    }
+}
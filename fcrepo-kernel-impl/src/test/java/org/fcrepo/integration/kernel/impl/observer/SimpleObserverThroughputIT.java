@@ -0,0 +1,142 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.integration.kernel.impl.observer;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_CONTAINER;
+import static org.fcrepo.kernel.RdfLexicon.JCR_NAMESPACE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.fcrepo.integration.kernel.impl.AbstractIT;
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Checks that the observer pipeline, from JCR events to the internal event bus, delivers
+ * exactly one event per resource under a bulk ingest, each with its properties namespaced,
+ * and logs its throughput. The number of resources may be set with
+ * {@code fcrepo.observer.benchmark.resources}.
+ *
+ * @author ananthulasrikar
+ */
+@ContextConfiguration({"/spring-test/eventing.xml", "/spring-test/repo.xml"})
+public class SimpleObserverThroughputIT extends AbstractIT {
+
+    private static final int RESOURCES = getInteger("fcrepo.observer.benchmark.resources", 2000);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final AtomicInteger received = new AtomicInteger();
+
+    private final ConcurrentMap<String, AtomicInteger> eventsByPath = new ConcurrentHashMap<>();
+
+    private final AtomicInteger unnamespaced = new AtomicInteger();
+
+    private volatile String parentPath;
+
+    private volatile long lastReceived;
+
+    @Inject
+    private Repository repository;
+
+    @Inject
+    private EventBus eventBus;
+
+    @Subscribe
+    public void countMessages(final FedoraEvent e) {
+        final String parent = parentPath;
+        if (parent == null || !e.getPath().startsWith(parent + "/")) {
+            return;
+        }
+        eventsByPath.putIfAbsent(e.getPath(), new AtomicInteger());
+        eventsByPath.get(e.getPath()).incrementAndGet();
+        if (!e.getProperties().contains(JCR_NAMESPACE + "mixinTypes")) {
+            unnamespaced.incrementAndGet();
+        }
+        received.incrementAndGet();
+        lastReceived = nanoTime();
+    }
+
+    @Before
+    public void acquireConnections() {
+        eventBus.register(this);
+    }
+
+    @After
+    public void releaseConnections() {
+        eventBus.unregister(this);
+    }
+
+    @Test
+    public void testBulkIngestThroughput() throws RepositoryException, InterruptedException {
+        final Session session = repository.login();
+        final long start;
+        try {
+            final Node parent = session.getRootNode().addNode(getRandomPid());
+            parent.addMixin(FEDORA_CONTAINER);
+            session.save();
+            parentPath = parent.getPath();
+            start = nanoTime();
+            for (int i = 0; i < RESOURCES; i++) {
+                parent.addNode("resource-" + i).addMixin(FEDORA_CONTAINER);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.save();
+                }
+            }
+            session.save();
+        } finally {
+            session.logout();
+        }
+
+        final long deadline = nanoTime() + SECONDS.toNanos(60);
+        while (received.get() < RESOURCES && nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        // give any duplicate events time to arrive
+        Thread.sleep(500);
+
+        final long elapsed = NANOSECONDS.toMillis(lastReceived - start);
+        logger.info("Observer pipeline delivered {} events for {} resources in {} ms ({} events/s)",
+                received.get(), RESOURCES, elapsed, elapsed == 0 ? "-" : received.get() * 1000L / elapsed);
+        assertEquals("Every new resource should produce one event", RESOURCES, eventsByPath.size());
+        for (final Map.Entry<String, AtomicInteger> entry : eventsByPath.entrySet()) {
+            assertTrue("Unexpected resource " + entry.getKey(), entry.getKey().startsWith(parentPath + "/resource-"));
+            assertEquals("Duplicate events for " + entry.getKey(), 1, entry.getValue().get());
+        }
+        assertEquals("Every event should carry namespaced properties", 0, unnamespaced.get());
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.integration.kernel.impl.rdf;
+
+import static com.google.common.collect.Iterators.size;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.nanoTime;
+import static org.mockito.Mockito.mock;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Constructor;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.impl.rdf.RdfContextFactory;
+import org.fcrepo.kernel.impl.rdf.RdfContextRegistry;
+import org.fcrepo.kernel.impl.testutilities.TestTriplesContext;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * Compares the per-request cost of creating and reading RDF contexts through
+ * the {@link RdfContextRegistry} with looking up and invoking their
+ * constructors reflectively on every call. Each context is read to its end, so
+ * the timings include the triples it produces and not only its construction.
+ * The number of simulated requests may be set with
+ * {@code fcrepo.contexts.benchmark.requests}.
+ *
+ * <p>It only logs its timings, so it is left out of the default build; run it
+ * with -Pbenchmarks. The registry itself is tested in RdfContextRegistryTest.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class RdfContextCreationBenchmark {
+
+    private static final Logger LOGGER = getLogger(RdfContextCreationBenchmark.class);
+
+    private static final int REQUESTS = getInteger("fcrepo.contexts.benchmark.requests", 100000);
+
+    /**
+     * About as many contexts as a GET of a container asks for
+     */
+    private static final int CONTEXTS_PER_REQUEST = 12;
+
+    private final FedoraResource resource = mock(FedoraResource.class);
+
+    @SuppressWarnings("unchecked")
+    private final IdentifierConverter<Resource, FedoraResource> idTranslator = mock(IdentifierConverter.class);
+
+    @Test
+    public void testCreationOverhead() throws Exception {
+        RdfContextRegistry.register(TestTriplesContext.class, new RdfContextFactory<TestTriplesContext>() {
+
+            @Override
+            public TestTriplesContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) {
+                return new TestTriplesContext(resource, idTranslator);
+            }
+        });
+        // warm up both paths before measuring
+        reflective(REQUESTS);
+        registered(REQUESTS);
+
+        long start = nanoTime();
+        reflective(REQUESTS);
+        final long reflective = nanoTime() - start;
+
+        start = nanoTime();
+        registered(REQUESTS);
+        final long registered = nanoTime() - start;
+
+        LOGGER.info("Creating and reading {} contexts took {} ns per request reflectively and {} ns registered",
+                CONTEXTS_PER_REQUEST, reflective / REQUESTS, registered / REQUESTS);
+    }
+
+    private void reflective(final int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            for (int j = 0; j < CONTEXTS_PER_REQUEST; j++) {
+                final Constructor<? extends RdfStream> constructor = TestTriplesContext.class
+                        .getDeclaredConstructor(FedoraResource.class, IdentifierConverter.class);
+                size(constructor.newInstance(resource, idTranslator));
+            }
+        }
+    }
+
+    private void registered(final int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            for (int j = 0; j < CONTEXTS_PER_REQUEST; j++) {
+                size(RdfContextRegistry.create(TestTriplesContext.class, resource, idTranslator));
+            }
+        }
+    }
+}
@@ -23,15 +23,19 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.modeshape.jcr.api.ValueFactory;
 
 import javax.jcr.Binary;
 import javax.jcr.Node;
 import javax.jcr.Property;
+import javax.jcr.PropertyType;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.jcr.nodetype.NodeType;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -39,6 +43,9 @@ import java.net.URISyntaxException;
 import java.util.Calendar;
 import java.util.Date;
 
+import static java.net.URI.create;
+import static org.apache.commons.codec.digest.DigestUtils.shaHex;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
 import static org.fcrepo.kernel.impl.utils.TestHelpers.checksumString;
 import static org.fcrepo.kernel.impl.utils.TestHelpers.getContentNodeMock;
 import static org.junit.Assert.assertEquals;
@@ -195,6 +202,66 @@ public class FedoraBinaryImplTest implements FedoraJcrTypes {
         testObj.setContent(mockStream, null, new URI("urn:sha1:xyz"), null, null);
     }
 
+    @Test
+    public void testSetContentWithAdditionalDigests() throws RepositoryException,
+            InvalidChecksumException {
+        final org.modeshape.jcr.api.Binary mockBin = mockBinaryReading("0123456789");
+        testObj.setContent(new ByteArrayInputStream("0123456789".getBytes()), null,
+                create("urn:sha256:84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882"), null, null);
+        verify(mockContent).setProperty(JCR_DATA, mockBin);
+        verify(mockContent).setProperty(CONTENT_DIGESTS, new String[] {
+                "urn:sha1:87acec17cd9dcd20a716cc2cf67417b71c8a7016",
+                "urn:sha256:84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882",
+                "urn:md5:781e5e245d69b566979b86e28d23f2c7" }, PropertyType.URI);
+    }
+
+    @Test(expected = InvalidChecksumException.class)
+    public void testSetContentWithMD5Mismatch() throws RepositoryException,
+            InvalidChecksumException {
+        mockBinaryReading("0123456789");
+        testObj.setContent(new ByteArrayInputStream("0123456789".getBytes()), null,
+                create("urn:md5:xyz"), null, null);
+    }
+
+    @Test(expected = InvalidChecksumException.class)
+    public void testSetContentWithUnsupportedChecksum() throws RepositoryException,
+            InvalidChecksumException {
+        mockBinaryReading("0123456789");
+        testObj.setContent(new ByteArrayInputStream("0123456789".getBytes()), null,
+                create("urn:sha512:xyz"), null, null);
+    }
+
+    /**
+     * Mock a ModeShape binary whose creation consumes the content stream, as
+     * the real value factory does
+     */
+    private org.modeshape.jcr.api.Binary mockBinaryReading(final String content)
+            throws RepositoryException {
+        final org.modeshape.jcr.api.Binary mockBin =
+                mock(org.modeshape.jcr.api.Binary.class);
+        when(mockBin.getHexHash()).thenReturn(shaHex(content));
+        getContentNodeMock(mockContent, 8);
+        when(mockSession.getValueFactory()).thenReturn(mockVF);
+        when(mockVF.createBinary(any(InputStream.class), any(String.class)))
+                .thenAnswer(new Answer<org.modeshape.jcr.api.Binary>() {
+
+                    @Override
+                    public org.modeshape.jcr.api.Binary answer(final InvocationOnMock invocation)
+                            throws IOException {
+                        try (final InputStream in = (InputStream) invocation.getArguments()[0]) {
+                            IOUtils.copy(in, NULL_OUTPUT_STREAM);
+                        }
+                        return mockBin;
+                    }
+                });
+        final Property mockData = mock(Property.class);
+        when(mockContent.canAddMixin(FEDORA_BINARY)).thenReturn(true);
+        when(mockContent.setProperty(JCR_DATA, mockBin)).thenReturn(mockData);
+        when(mockContent.getProperty(JCR_DATA)).thenReturn(mockData);
+        when(mockData.getBinary()).thenReturn(mockBin);
+        return mockBin;
+    }
+
     @Test
     public void getContentSize() throws RepositoryException {
         final int expectedContentLength = 2;
@@ -60,6 +60,7 @@ import org.fcrepo.kernel.impl.rdf.JcrRdfTools;
 import org.fcrepo.kernel.impl.rdf.impl.DefaultIdentifierTranslator;
 import org.fcrepo.kernel.impl.testutilities.TestPropertyIterator;
 import org.fcrepo.kernel.impl.testutilities.TestTriplesContext;
+import org.fcrepo.kernel.utils.ContainmentPage;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.junit.Before;
 import org.junit.Test;
@@ -388,6 +389,119 @@ public class FedoraResourceImplTest {
         assertFalse("Expected an empty iterator", children.hasNext());
     }
 
+    @Test
+    public void testGetChildrenPage() throws RepositoryException {
+        final Node mockOtherChild = mock(Node.class);
+        final Node mockThirdChild = mock(Node.class);
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockChild, mockOtherChild, mockThirdChild),
+                nodeIterator(mockChild, mockOtherChild, mockThirdChild));
+        when(mockChild.getName()).thenReturn("x");
+        when(mockOtherChild.getName()).thenReturn("y");
+        when(mockThirdChild.getName()).thenReturn("z");
+
+        final ContainmentPage firstPage = testObj.getChildren(null, 2);
+        assertEquals(2, firstPage.getChildren().size());
+        assertEquals(mockChild, firstPage.getChildren().get(0).getNode());
+        assertEquals(mockOtherChild, firstPage.getChildren().get(1).getNode());
+        assertTrue("Expected another page", firstPage.hasNext());
+
+        final ContainmentPage secondPage = testObj.getChildren(firstPage.getNextToken(), 2);
+        assertEquals(1, secondPage.getChildren().size());
+        assertEquals(mockThirdChild, secondPage.getChildren().get(0).getNode());
+        assertFalse("Expected the last page", secondPage.hasNext());
+    }
+
+    @Test
+    public void testGetChildrenPageAfterEarlierChildRemoved() throws RepositoryException {
+        final Node mockOtherChild = mock(Node.class);
+        final Node mockThirdChild = mock(Node.class);
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockChild, mockOtherChild, mockThirdChild),
+                nodeIterator(mockOtherChild, mockThirdChild), nodeIterator(mockOtherChild, mockThirdChild));
+        when(mockChild.getName()).thenReturn("x");
+        when(mockOtherChild.getName()).thenReturn("y");
+        when(mockThirdChild.getName()).thenReturn("z");
+
+        final ContainmentPage firstPage = testObj.getChildren(null, 2);
+        assertEquals(mockOtherChild, firstPage.getChildren().get(1).getNode());
+
+        // x is removed between pages; z must not be skipped
+        final ContainmentPage secondPage = testObj.getChildren(firstPage.getNextToken(), 2);
+        assertEquals(1, secondPage.getChildren().size());
+        assertEquals(mockThirdChild, secondPage.getChildren().get(0).getNode());
+    }
+
+    @Test
+    public void testGetChildrenPageAfterEarlierChildAdded() throws RepositoryException {
+        final Node mockOtherChild = mock(Node.class);
+        final Node mockThirdChild = mock(Node.class);
+        final Node mockNewChild = mock(Node.class);
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockChild, mockOtherChild, mockThirdChild),
+                nodeIterator(mockNewChild, mockChild, mockOtherChild, mockThirdChild),
+                nodeIterator(mockNewChild, mockChild, mockOtherChild, mockThirdChild));
+        when(mockChild.getName()).thenReturn("x");
+        when(mockOtherChild.getName()).thenReturn("y");
+        when(mockThirdChild.getName()).thenReturn("z");
+        when(mockNewChild.getName()).thenReturn("w");
+
+        final ContainmentPage firstPage = testObj.getChildren(null, 2);
+
+        // w is added before the page boundary; y must not be repeated
+        final ContainmentPage secondPage = testObj.getChildren(firstPage.getNextToken(), 2);
+        assertEquals(1, secondPage.getChildren().size());
+        assertEquals(mockThirdChild, secondPage.getChildren().get(0).getNode());
+    }
+
+    @Test
+    public void testGetChildrenPageWithExactFit() throws RepositoryException {
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockChild));
+        when(mockChild.getName()).thenReturn("x");
+
+        final ContainmentPage page = testObj.getChildren(null, 1);
+        assertEquals(1, page.getChildren().size());
+        assertFalse("Expected the last page", page.hasNext());
+    }
+
+    @Test
+    public void testGetChildrenPageThroughPairtree() throws RepositoryException {
+        final Node mockPairtree = mock(Node.class);
+        final Node mockOtherChild = mock(Node.class);
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockPairtree), nodeIterator(mockPairtree));
+        when(mockPairtree.getName()).thenReturn("ab");
+        when(mockPairtree.isNodeType(FEDORA_PAIRTREE)).thenReturn(true);
+        when(mockPairtree.getNodes()).thenReturn(nodeIterator(mockChild, mockOtherChild),
+                nodeIterator(mockChild, mockOtherChild));
+        when(mockChild.getName()).thenReturn("x");
+        when(mockOtherChild.getName()).thenReturn("y");
+
+        final ContainmentPage firstPage = testObj.getChildren(null, 1);
+        assertEquals(mockChild, firstPage.getChildren().get(0).getNode());
+        assertTrue("Expected another page", firstPage.hasNext());
+
+        final ContainmentPage secondPage = testObj.getChildren(firstPage.getNextToken(), 1);
+        assertEquals(1, secondPage.getChildren().size());
+        assertEquals(mockOtherChild, secondPage.getChildren().get(0).getNode());
+        assertFalse("Expected the last page", secondPage.hasNext());
+    }
+
+    @Test
+    public void testGetChildrenPageSkipsExcludedChildren() throws RepositoryException {
+        final Node mockOtherChild = mock(Node.class);
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockChild, mockOtherChild));
+        when(mockChild.getName()).thenReturn(JCR_CONTENT);
+        when(mockOtherChild.getName()).thenReturn("y");
+
+        final ContainmentPage page = testObj.getChildren(null, 1);
+        assertEquals(1, page.getChildren().size());
+        assertEquals(mockOtherChild, page.getChildren().get(0).getNode());
+        assertFalse("Expected the last page", page.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetChildrenPageWithInvalidToken() throws RepositoryException {
+        when(mockNode.getNodes()).thenReturn(nodeIterator(mockChild));
+        testObj.getChildren("not a token!", 1);
+    }
+
     @Test
     public void testHasProperty() throws RepositoryException {
         when(mockNode.hasProperty("xyz")).thenReturn(true);
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_PAIRTREE;
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_TOMBSTONE;
+import static org.fcrepo.kernel.impl.observer.ContainmentIndexObserver.EVENT_TYPES;
+import static org.fcrepo.kernel.impl.utils.TestHelpers.setField;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import javax.jcr.Node;
+import javax.jcr.Session;
+import javax.jcr.Workspace;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.ObservationManager;
+
+import org.fcrepo.kernel.impl.utils.ContainmentIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.modeshape.jcr.api.Repository;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * <p>ContainmentIndexObserverTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class ContainmentIndexObserverTest {
+
+    private ContainmentIndexObserver testObserver;
+
+    @Mock
+    private ObservationManager mockOM;
+
+    @Mock
+    private Repository mockRepository;
+
+    @Mock
+    private org.modeshape.jcr.api.Session mockSession;
+
+    @Mock
+    private Workspace mockWS;
+
+    @Mock
+    private ContainmentIndex mockIndex;
+
+    @Mock
+    private Event mockEvent;
+
+    @Mock
+    private EventIterator mockEvents;
+
+    @Mock
+    private Node mockNode;
+
+    @Mock
+    private Node mockPairtree;
+
+    @Mock
+    private Node mockContainer;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        when(mockRepository.login()).thenReturn(mockSession);
+        when(mockSession.getWorkspace()).thenReturn(mockWS);
+        when(mockWS.getObservationManager()).thenReturn(mockOM);
+        when(mockEvents.hasNext()).thenReturn(true, false);
+        when(mockEvents.nextEvent()).thenReturn(mockEvent);
+        testObserver = new ContainmentIndexObserver();
+        setField(testObserver, "repository", mockRepository);
+        setField(testObserver, "index", mockIndex);
+        setField(testObserver, "session", mockSession);
+
+        when(mockSession.getNode("/container/ab/child")).thenReturn(mockNode);
+        when(mockNode.getName()).thenReturn("child");
+        when(mockNode.getParent()).thenReturn(mockPairtree);
+        when(mockPairtree.isNodeType(FEDORA_PAIRTREE)).thenReturn(true);
+        when(mockPairtree.getDepth()).thenReturn(2);
+        when(mockPairtree.getParent()).thenReturn(mockContainer);
+        when(mockContainer.getDepth()).thenReturn(1);
+        when(mockContainer.getPath()).thenReturn("/container");
+        when(mockIndex.hasIndexedAncestor("/container/ab/child")).thenReturn(true);
+    }
+
+    @Test
+    public void testBuildListener() throws Exception {
+        testObserver.buildListener();
+        verify(mockOM).addEventListener(testObserver, EVENT_TYPES, "/", true, null, null, false);
+        verify(mockIndex).start(mockRepository);
+    }
+
+    @Test
+    public void testStopListening() throws Exception {
+        testObserver.stopListening();
+        verify(mockOM).removeEventListener(testObserver);
+        verify(mockIndex).stop();
+    }
+
+    @Test
+    public void testOnNodeAdded() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_ADDED);
+        when(mockEvent.getPath()).thenReturn("/container/ab/child");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).childAdded("/container", "/container/ab/child");
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testOnTombstoneAdded() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_ADDED);
+        when(mockEvent.getPath()).thenReturn("/container/ab/child");
+        when(mockNode.isNodeType(FEDORA_TOMBSTONE)).thenReturn(true);
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex, never()).childAdded(anyString(), anyString());
+    }
+
+    @Test
+    public void testOnNodeAddedWithoutIndexedContainer() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_ADDED);
+        when(mockEvent.getPath()).thenReturn("/other/child");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex, never()).childAdded(anyString(), anyString());
+        verify(mockRepository, never()).login();
+    }
+
+    @Test
+    public void testOnNodeRemoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_REMOVED);
+        when(mockEvent.getPath()).thenReturn("/container/ab/child");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).nodeRemoved("/container/ab/child");
+    }
+
+    @Test
+    public void testOnContentNodeRemoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_REMOVED);
+        when(mockEvent.getPath()).thenReturn("/container/ab/child/jcr:content");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex, never()).nodeRemoved(anyString());
+    }
+
+    @Test
+    public void testOnNodeMoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_MOVED);
+        when(mockEvent.getInfo()).thenReturn(ImmutableMap.of("srcAbsPath", "/elsewhere/child",
+                "destAbsPath", "/container/ab/child"));
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).nodeRemoved("/elsewhere/child");
+        verify(mockIndex).childAdded("/container", "/container/ab/child");
+    }
+
+    @Test
+    public void testOnPairtreeMoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_MOVED);
+        when(mockEvent.getInfo()).thenReturn(ImmutableMap.of("srcAbsPath", "/elsewhere/ab",
+                "destAbsPath", "/container/ab"));
+        when(mockIndex.hasIndexedAncestor("/container/ab")).thenReturn(true);
+        when(mockSession.getNode("/container/ab")).thenReturn(mockPairtree);
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).pairtreeMoved("/container/ab");
+        verify(mockIndex, never()).childAdded(anyString(), anyString());
+    }
+
+    @Test
+    public void testOnPairtreeAdded() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_ADDED);
+        when(mockEvent.getPath()).thenReturn("/container/ab");
+        when(mockIndex.hasIndexedAncestor("/container/ab")).thenReturn(true);
+        when(mockSession.getNode("/container/ab")).thenReturn(mockPairtree);
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex, never()).pairtreeMoved(anyString());
+        verify(mockIndex).nodeSettled("/container/ab");
+    }
+}
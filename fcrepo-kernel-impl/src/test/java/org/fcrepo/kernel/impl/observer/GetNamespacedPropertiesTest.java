@@ -15,6 +15,7 @@
  */
 package org.fcrepo.kernel.impl.observer;
 
+import org.fcrepo.kernel.impl.utils.NamespacePrefixCache;
 import org.fcrepo.kernel.observer.FedoraEvent;
 import org.junit.Before;
 import org.junit.Test;
@@ -41,6 +42,8 @@ import static org.fcrepo.kernel.RdfLexicon.REPOSITORY_NAMESPACE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -77,7 +80,7 @@ public class GetNamespacedPropertiesTest {
         when(namespaceRegistry.getURI("ldp")).thenReturn(LDP_NAMESPACE);
         when(namespaceRegistry.getURI("jcr")).thenReturn(JCR_NAMESPACE);
 
-        function = new GetNamespacedProperties(session);
+        function = new GetNamespacedProperties(session, new NamespacePrefixCache());
     }
 
     @Test
@@ -119,4 +122,17 @@ public class GetNamespacedPropertiesTest {
         assertTrue("Should contain: " + expected4 + ", " + properties, properties.contains(expected4));
     }
 
+    @Test
+    public void testPrefixesAreCached() throws Exception {
+        final FedoraEvent fedoraEvent = new FedoraEvent(event);
+        fedoraEvent.addProperty(FEDORA_CONTAINER);
+        fedoraEvent.addProperty(FEDORA_TOMBSTONE);
+
+        function.apply(fedoraEvent);
+        final FedoraEvent result = function.apply(fedoraEvent);
+
+        assertTrue(result.getProperties().contains(FEDORA_CONTAINER.replace("fedora:", REPOSITORY_NAMESPACE)));
+        verify(namespaceRegistry, times(1)).getURI("fedora");
+    }
+
 }
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static org.fcrepo.kernel.impl.utils.TestHelpers.setField;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.List;
+
+import javax.jcr.observation.Event;
+
+import org.fcrepo.kernel.observer.FedoraEvent;
+import org.fcrepo.kernel.utils.Modification;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * <p>ModificationIndexObserverTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class ModificationIndexObserverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ModificationIndexObserver testObserver;
+
+    @Mock
+    private EventBus mockBus;
+
+    @Mock
+    private Event mockEvent;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        testObserver = new ModificationIndexObserver();
+        setField(testObserver, "eventBus", mockBus);
+        setField(testObserver, "directory", folder.getRoot());
+        testObserver.buildListener();
+        when(mockEvent.getDate()).thenReturn(1000L);
+    }
+
+    @After
+    public void tearDown() {
+        testObserver.stopListening();
+        verify(mockBus).unregister(testObserver);
+    }
+
+    @Test
+    public void testBuildListener() {
+        verify(mockBus).register(testObserver);
+        assertEquals(-1, testObserver.getLastSequence());
+    }
+
+    @Test
+    public void testRecordsEvents() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_ADDED);
+        when(mockEvent.getPath()).thenReturn("/a");
+        final FedoraEvent event = new FedoraEvent(mockEvent);
+        event.addType(PROPERTY_CHANGED);
+        testObserver.onEvent(event);
+
+        assertEquals(0, testObserver.getLastSequence());
+        assertEquals(0, testObserver.findSequence(1000));
+        final List<Modification> modifications = newArrayList(testObserver.getModifications(0, 10));
+        assertEquals(1, modifications.size());
+        assertEquals("/a", modifications.get(0).getPath());
+        assertEquals(1000, modifications.get(0).getTimestamp());
+        assertEquals(event.getTypes(), modifications.get(0).getTypes());
+    }
+
+    @Test
+    public void testRecordsBinaryContentAsBinary() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_ADDED);
+        when(mockEvent.getPath()).thenReturn("/a/binary/jcr:content");
+        testObserver.onEvent(new FedoraEvent(mockEvent));
+        assertEquals("/a/binary", testObserver.getModifications(0, 1).next().getPath());
+    }
+}
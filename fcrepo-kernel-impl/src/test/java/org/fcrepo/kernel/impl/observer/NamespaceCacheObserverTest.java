@@ -0,0 +1,100 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static org.fcrepo.kernel.impl.observer.NamespaceCacheObserver.EVENT_TYPES;
+import static org.fcrepo.kernel.impl.observer.NamespaceCacheObserver.NAMESPACES_PATH;
+import static org.fcrepo.kernel.impl.utils.TestHelpers.setField;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import javax.jcr.Workspace;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.ObservationManager;
+
+import org.fcrepo.kernel.impl.utils.NamespacePrefixCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.modeshape.jcr.api.Repository;
+
+/**
+ * <p>NamespaceCacheObserverTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class NamespaceCacheObserverTest {
+
+    private NamespaceCacheObserver testObserver;
+
+    @Mock
+    private ObservationManager mockOM;
+
+    @Mock
+    private Repository mockRepository;
+
+    @Mock
+    private org.modeshape.jcr.api.Session mockSession;
+
+    @Mock
+    private Workspace mockWS;
+
+    @Mock
+    private NamespacePrefixCache mockCache;
+
+    @Mock
+    private EventIterator mockEvents;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        when(mockRepository.login()).thenReturn(mockSession);
+        when(mockSession.getWorkspace()).thenReturn(mockWS);
+        when(mockWS.getObservationManager()).thenReturn(mockOM);
+        testObserver = new NamespaceCacheObserver();
+        setField(testObserver, "repository", mockRepository);
+        setField(testObserver, "cache", mockCache);
+        setField(testObserver, "session", mockSession);
+    }
+
+    @Test
+    public void testBuildListener() throws Exception {
+        testObserver.buildListener();
+        verify(mockOM).addEventListener(testObserver, EVENT_TYPES, NAMESPACES_PATH, true, null, null, false);
+    }
+
+    @Test
+    public void testStopListening() throws Exception {
+        testObserver.stopListening();
+        verify(mockOM).removeEventListener(testObserver);
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testOnNamespaceChange() {
+        when(mockEvents.hasNext()).thenReturn(true);
+        testObserver.onEvent(mockEvents);
+        verify(mockCache).invalidate();
+    }
+
+    @Test
+    public void testOnNoEvents() {
+        testObserver.onEvent(mockEvents);
+        verify(mockCache, never()).invalidate();
+    }
+}
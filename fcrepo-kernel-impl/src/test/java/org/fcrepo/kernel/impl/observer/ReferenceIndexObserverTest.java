@@ -0,0 +1,194 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.observer;
+
+import static java.util.Collections.singleton;
+import static javax.jcr.PropertyType.STRING;
+import static javax.jcr.PropertyType.WEAKREFERENCE;
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static javax.jcr.observation.Event.PROPERTY_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static javax.jcr.observation.Event.PROPERTY_REMOVED;
+import static org.fcrepo.kernel.impl.observer.ReferenceIndexObserver.EVENT_TYPES;
+import static org.fcrepo.kernel.impl.utils.TestHelpers.setField;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.Collections;
+
+import javax.jcr.Node;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Property;
+import javax.jcr.Value;
+import javax.jcr.Workspace;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.ObservationManager;
+
+import org.fcrepo.kernel.impl.utils.ReferenceIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.modeshape.jcr.api.Repository;
+
+/**
+ * <p>ReferenceIndexObserverTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class ReferenceIndexObserverTest {
+
+    private ReferenceIndexObserver testObserver;
+
+    @Mock
+    private ObservationManager mockOM;
+
+    @Mock
+    private Repository mockRepository;
+
+    @Mock
+    private org.modeshape.jcr.api.Session mockSession;
+
+    @Mock
+    private Workspace mockWS;
+
+    @Mock
+    private ReferenceIndex mockIndex;
+
+    @Mock
+    private Event mockEvent;
+
+    @Mock
+    private EventIterator mockEvents;
+
+    @Mock
+    private Property mockProperty;
+
+    @Mock
+    private Value mockValue;
+
+    @Mock
+    private Node mockTarget;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        when(mockRepository.login()).thenReturn(mockSession);
+        when(mockSession.getWorkspace()).thenReturn(mockWS);
+        when(mockWS.getObservationManager()).thenReturn(mockOM);
+        when(mockEvents.hasNext()).thenReturn(true, false);
+        when(mockEvents.nextEvent()).thenReturn(mockEvent);
+        testObserver = new ReferenceIndexObserver();
+        setField(testObserver, "repository", mockRepository);
+        setField(testObserver, "index", mockIndex);
+        setField(testObserver, "session", mockSession);
+
+        when(mockSession.getProperty("/a/x_ref")).thenReturn(mockProperty);
+        when(mockProperty.getType()).thenReturn(WEAKREFERENCE);
+        when(mockProperty.getValue()).thenReturn(mockValue);
+        when(mockValue.getString()).thenReturn("some-uuid");
+        when(mockSession.getNodeByIdentifier("some-uuid")).thenReturn(mockTarget);
+        when(mockTarget.getPath()).thenReturn("/t");
+    }
+
+    @Test
+    public void testBuildListener() throws Exception {
+        testObserver.buildListener();
+        verify(mockOM).addEventListener(testObserver, EVENT_TYPES, "/", true, null, null, false);
+        verify(mockIndex).start(mockRepository);
+    }
+
+    @Test
+    public void testStopListening() throws Exception {
+        testObserver.stopListening();
+        verify(mockOM).removeEventListener(testObserver);
+        verify(mockIndex).stop();
+    }
+
+    @Test
+    public void testOnReferenceAdded() throws Exception {
+        when(mockEvent.getType()).thenReturn(PROPERTY_ADDED);
+        when(mockEvent.getPath()).thenReturn("/a/x_ref");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).propertyChanged("/a/x_ref", singleton("/t"));
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testOnReferenceChangedToLiteral() throws Exception {
+        when(mockEvent.getType()).thenReturn(PROPERTY_CHANGED);
+        when(mockEvent.getPath()).thenReturn("/a/x_ref");
+        when(mockProperty.getType()).thenReturn(STRING);
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).propertyChanged("/a/x_ref", Collections.<String>emptySet());
+    }
+
+    @Test
+    public void testOnReferenceRemovedBeforeLookup() throws Exception {
+        when(mockEvent.getType()).thenReturn(PROPERTY_CHANGED);
+        when(mockEvent.getPath()).thenReturn("/a/x_ref");
+        when(mockSession.getProperty("/a/x_ref")).thenThrow(new PathNotFoundException("Expected."));
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).propertyRemoved("/a/x_ref");
+    }
+
+    @Test
+    public void testOnOtherPropertyChanged() throws Exception {
+        when(mockEvent.getType()).thenReturn(PROPERTY_CHANGED);
+        when(mockEvent.getPath()).thenReturn("/a/dc:title");
+        testObserver.onEvent(mockEvents);
+        verify(mockRepository, never()).login();
+    }
+
+    @Test
+    public void testNothingIndexed() throws Exception {
+        when(mockIndex.isEmpty()).thenReturn(true);
+        when(mockEvent.getType()).thenReturn(PROPERTY_ADDED);
+        when(mockEvent.getPath()).thenReturn("/a/x_ref");
+        testObserver.onEvent(mockEvents);
+        verify(mockRepository, never()).login();
+        verify(mockIndex, never()).propertyChanged(anyString(), anySetOf(String.class));
+    }
+
+    @Test
+    public void testOnReferenceRemoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(PROPERTY_REMOVED);
+        when(mockEvent.getPath()).thenReturn("/a/x_ref");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).propertyRemoved("/a/x_ref");
+    }
+
+    @Test
+    public void testOnNodeRemoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_REMOVED);
+        when(mockEvent.getPath()).thenReturn("/a");
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).nodeRemoved("/a");
+    }
+
+    @Test
+    public void testOnNodeMoved() throws Exception {
+        when(mockEvent.getType()).thenReturn(NODE_MOVED);
+        testObserver.onEvent(mockEvents);
+        verify(mockIndex).clear();
+        verify(mockIndex, never()).nodeRemoved(anyString());
+    }
+}
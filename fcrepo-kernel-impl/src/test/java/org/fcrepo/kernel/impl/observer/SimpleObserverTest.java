@@ -19,6 +19,7 @@ import static org.fcrepo.kernel.impl.observer.SimpleObserver.EVENT_TYPES;
 import static org.fcrepo.kernel.impl.utils.TestHelpers.setField;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -107,6 +108,42 @@ public class SimpleObserverTest {
         verify(mockBus).post(any(FedoraEvent.class));
     }
 
+    @Test
+    public void testOnEventReusesLookupSession() throws Exception {
+        when(mockSession.getWorkspace()).thenReturn(mockWS);
+        when(mockWS.getNamespaceRegistry()).thenReturn(mockNS);
+        when(mockSession.isLive()).thenReturn(true);
+        testObserver.onEvent(mockEvents);
+        when(mockEvents.hasNext()).thenReturn(true, false);
+        testObserver.onEvent(mockEvents);
+        verify(mockRepository, times(1)).login();
+        verify(mockBus, times(2)).post(any(FedoraEvent.class));
+        verify(mockSession, never()).logout();
+    }
+
+    @Test
+    public void testOnEventReplacesDeadLookupSession() throws Exception {
+        when(mockSession.getWorkspace()).thenReturn(mockWS);
+        when(mockWS.getNamespaceRegistry()).thenReturn(mockNS);
+        when(mockSession.isLive()).thenReturn(false);
+        testObserver.onEvent(mockEvents);
+        when(mockEvents.hasNext()).thenReturn(true, false);
+        testObserver.onEvent(mockEvents);
+        verify(mockRepository, times(2)).login();
+    }
+
+    @Test
+    public void testStopListeningLogsOutLookupSessions() throws Exception {
+        when(mockSession.getWorkspace()).thenReturn(mockWS);
+        when(mockWS.getObservationManager()).thenReturn(mockOM);
+        when(mockWS.getNamespaceRegistry()).thenReturn(mockNS);
+        testObserver.onEvent(mockEvents);
+        testObserver.stopListening();
+        verify(mockOM).removeEventListener(testObserver);
+        // once for the registration session, once for the pooled lookup session
+        verify(mockSession, times(2)).logout();
+    }
+
     @Test
     public void testOnEventAllFiltered() {
         setField(testObserver, "eventFilter", new NoPassFilter());
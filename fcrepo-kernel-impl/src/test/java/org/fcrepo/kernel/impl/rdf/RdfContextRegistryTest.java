@@ -0,0 +1,195 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.rdf;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.hp.hpl.jena.graph.NodeFactory.createLiteral;
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static com.hp.hpl.jena.graph.Triple.create;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.impl.rdf.impl.DefaultIdentifierTranslator;
+import org.fcrepo.kernel.impl.rdf.impl.LdpRdfContext;
+import org.fcrepo.kernel.impl.testutilities.TestTriplesContext;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.fcrepo.metrics.RegistryService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.codahale.metrics.Timer;
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * <p>RdfContextRegistryTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class RdfContextRegistryTest {
+
+    @Mock
+    private FedoraResource mockResource;
+
+    @Mock
+    private IdentifierConverter<Resource, FedoraResource> mockTranslator;
+
+    @Mock
+    private Session mockSession;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+    }
+
+    @Test
+    public void testRegisteredFactory() throws RepositoryException {
+        final RegisteredContext context = new RegisteredContext();
+        RdfContextRegistry.register(RegisteredContext.class, new RdfContextFactory<RegisteredContext>() {
+
+            @Override
+            public RegisteredContext create(final FedoraResource resource,
+                    final IdentifierConverter<Resource, FedoraResource> idTranslator) {
+                assertSame(mockResource, resource);
+                assertSame(mockTranslator, idTranslator);
+                return context;
+            }
+        });
+        assertSame(context, RdfContextRegistry.create(RegisteredContext.class, mockResource, mockTranslator));
+    }
+
+    @Test
+    public void testReregisteredFactory() throws RepositoryException {
+        final RegisteredContext first = new RegisteredContext();
+        final RegisteredContext second = new RegisteredContext();
+        RdfContextRegistry.register(RegisteredContext.class, new FixedFactory(first));
+        RdfContextRegistry.register(RegisteredContext.class, new FixedFactory(second));
+        assertSame(second, RdfContextRegistry.create(RegisteredContext.class, mockResource, mockTranslator));
+    }
+
+    @Test
+    public void testBuiltInContext() throws RepositoryException {
+        when(mockResource.getPath()).thenReturn("/a");
+        final RdfStream context = RdfContextRegistry.create(LdpRdfContext.class, mockResource,
+                new DefaultIdentifierTranslator(mockSession));
+        assertEquals(LdpRdfContext.class, context.getClass());
+        assertTrue(context.hasNext());
+    }
+
+    @Test
+    public void testUnregisteredContext() throws RepositoryException {
+        final Timer timer = RegistryService.getInstance().getMetrics()
+                .timer(name(RdfContextRegistry.class, "create", TestTriplesContext.class.getSimpleName()));
+        final long count = timer.getCount();
+        final RdfStream context = RdfContextRegistry.create(TestTriplesContext.class, mockResource, mockTranslator);
+        assertTrue(context instanceof TestTriplesContext);
+        assertEquals(create(createURI("MockTriplesContextClass"), createURI("isAThing"), createLiteral("n")),
+                context.next());
+        RdfContextRegistry.create(TestTriplesContext.class, mockResource, mockTranslator);
+        assertEquals(count + 2, timer.getCount());
+    }
+
+    @Test(expected = RepositoryException.class)
+    public void testUnregisteredContextFails() throws RepositoryException {
+        RdfContextRegistry.create(FailingContext.class, mockResource, mockTranslator);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisteredContextWithoutConstructor() throws RepositoryException {
+        RdfContextRegistry.create(UnconstructableContext.class, mockResource, mockTranslator);
+    }
+
+    @Test
+    public void testUnregisteredAbstractContext() throws RepositoryException {
+        for (int i = 0; i < 2; i++) {
+            try {
+                RdfContextRegistry.create(AbstractContext.class, mockResource, mockTranslator);
+                fail("An abstract context should be rejected every time it is asked for");
+            } catch (final IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(AbstractContext.class.getName()));
+            }
+        }
+    }
+
+    /**
+     * A factory that always returns the same context.
+     */
+    private static class FixedFactory implements RdfContextFactory<RegisteredContext> {
+
+        private final RegisteredContext context;
+
+        FixedFactory(final RegisteredContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public RegisteredContext create(final FedoraResource resource,
+                final IdentifierConverter<Resource, FedoraResource> idTranslator) {
+            return context;
+        }
+    }
+
+    /**
+     * A context that can only be created through a registered factory.
+     */
+    public static class RegisteredContext extends RdfStream {
+    }
+
+    /**
+     * A context without the constructor that unregistered contexts need.
+     */
+    public static class UnconstructableContext extends RdfStream {
+    }
+
+    /**
+     * A context that cannot be instantiated at all.
+     */
+    public abstract static class AbstractContext extends RdfStream {
+
+        /**
+         * @param resource
+         * @param idTranslator
+         */
+        public AbstractContext(final FedoraResource resource,
+                final IdentifierConverter<Resource, FedoraResource> idTranslator) {
+        }
+    }
+
+    /**
+     * A context whose creation fails.
+     */
+    public static class FailingContext extends RdfStream {
+
+        /**
+         * @param resource
+         * @param idTranslator
+         * @throws RepositoryException
+         */
+        public FailingContext(final FedoraResource resource,
+                final IdentifierConverter<Resource, FedoraResource> idTranslator) throws RepositoryException {
+            throw new RepositoryException("Expected.");
+        }
+    }
+}
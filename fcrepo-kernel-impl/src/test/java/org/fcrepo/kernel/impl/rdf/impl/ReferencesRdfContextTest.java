@@ -31,8 +31,14 @@ import javax.jcr.Value;
 import static com.hp.hpl.jena.rdf.model.ResourceFactory.createProperty;
 import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
 import static javax.jcr.PropertyType.REFERENCE;
+import static com.hp.hpl.jena.rdf.model.ResourceFactory.createTypedLiteral;
 import static javax.jcr.PropertyType.WEAKREFERENCE;
+import static org.fcrepo.kernel.RdfLexicon.HAS_INBOUND_REFERENCE_COUNT;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -90,7 +96,10 @@ public class ReferencesRdfContextTest {
         when(mockWeakValue.getType()).thenReturn(WEAKREFERENCE);
         when(mockWeakValue.getString()).thenReturn("uuid");
 
+        when(mockWeakProperty.getPath()).thenReturn("/b/info:weak");
+
         when(mockStrongProperty.getName()).thenReturn("info:strong");
+        when(mockStrongProperty.getPath()).thenReturn("/b/info:strong");
         when(mockStrongProperty.getParent()).thenReturn(mockPropertyParent);
         when(mockStrongProperty.getValue()).thenReturn(mockStrongValue);
         when(mockStrongValue.getType()).thenReturn(REFERENCE);
@@ -123,5 +132,19 @@ public class ReferencesRdfContextTest {
 
     }
 
+    @Test
+    public void testReferenceCount() throws RepositoryException {
+        final Model model = new ReferenceCountRdfContext(mockResource, translator).asModel();
+        assertEquals(createTypedLiteral(2L),
+                model.getProperty(createResource("info:fedora/a"), HAS_INBOUND_REFERENCE_COUNT).getObject());
+    }
 
+    @Test
+    public void testReferenceCountDoesNotCheckEachReference() throws RepositoryException {
+        when(mockSession.getAttributeNames()).thenReturn(new String[] { "fcrepo.auth.principals" });
+        final Model model = new ReferenceCountRdfContext(mockResource, translator).asModel();
+        assertEquals(createTypedLiteral(2L),
+                model.getProperty(createResource("info:fedora/a"), HAS_INBOUND_REFERENCE_COUNT).getObject());
+        verify(mockSession, never()).propertyExists(anyString());
+    }
 }
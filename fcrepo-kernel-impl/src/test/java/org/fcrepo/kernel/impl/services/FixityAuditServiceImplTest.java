@@ -0,0 +1,275 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.lang.System.currentTimeMillis;
+import static javax.jcr.PropertyType.PATH;
+import static javax.jcr.query.Query.JCR_SQL2;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.apache.commons.io.IOUtils.toInputStream;
+import static org.fcrepo.kernel.impl.services.FixityAuditServiceImpl.CHECKPOINT_FILE;
+import static org.fcrepo.kernel.impl.services.FixityAuditServiceImpl.RESULTS_FILE;
+import static org.fcrepo.kernel.utils.FixityAuditStatus.State.COMPLETE;
+import static org.fcrepo.kernel.utils.FixityAuditStatus.State.IDLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.modeshape.jcr.api.JcrConstants.JCR_DATA;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+import javax.jcr.ValueFactory;
+import javax.jcr.Workspace;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryManager;
+import javax.jcr.query.QueryResult;
+import javax.jcr.query.Row;
+import javax.jcr.query.RowIterator;
+
+import org.fcrepo.kernel.FedoraJcrTypes;
+import org.fcrepo.kernel.utils.FixityAuditStatus;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.modeshape.jcr.value.binary.ExternalBinaryValue;
+
+/**
+ * <p>FixityAuditServiceImplTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FixityAuditServiceImplTest implements FedoraJcrTypes {
+
+    private static final String BINARY_PATH = "/some/binary/jcr:content";
+
+    // SHA-1 of "abc"
+    private static final String DIGEST = "urn:sha1:a9993e364706816aba3e25717850c26c9cd0d89d";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private FixityAuditServiceImpl testObj;
+
+    @Mock
+    private Repository mockRepo;
+
+    @Mock
+    private Session mockSession;
+
+    @Mock
+    private Workspace mockWorkspace;
+
+    @Mock
+    private QueryManager mockQueryManager;
+
+    @Mock
+    private Query mockQuery;
+
+    @Mock
+    private QueryResult mockBatch;
+
+    @Mock
+    private QueryResult mockEmptyBatch;
+
+    @Mock
+    private RowIterator mockRows;
+
+    @Mock
+    private RowIterator mockNoRows;
+
+    @Mock
+    private Row mockRow;
+
+    @Mock
+    private ValueFactory mockValueFactory;
+
+    @Mock
+    private Value mockValue;
+
+    @Mock
+    private Node mockNode;
+
+    @Mock
+    private Property mockSizeProperty;
+
+    @Mock
+    private Property mockDigestProperty;
+
+    @Mock
+    private Property mockDataProperty;
+
+    @Mock
+    private ExternalBinaryValue mockBinary;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        initMocks(this);
+        when(mockRepo.login()).thenReturn(mockSession);
+        when(mockSession.getWorkspace()).thenReturn(mockWorkspace);
+        when(mockWorkspace.getQueryManager()).thenReturn(mockQueryManager);
+        when(mockQueryManager.createQuery(anyString(), eq(JCR_SQL2))).thenReturn(mockQuery);
+        when(mockQuery.execute()).thenReturn(mockBatch, mockEmptyBatch);
+        when(mockBatch.getRows()).thenReturn(mockRows);
+        when(mockRows.hasNext()).thenReturn(true, false);
+        when(mockRows.nextRow()).thenReturn(mockRow);
+        when(mockRow.getPath()).thenReturn(BINARY_PATH);
+        when(mockEmptyBatch.getRows()).thenReturn(mockNoRows);
+        when(mockSession.getValueFactory()).thenReturn(mockValueFactory);
+        when(mockValueFactory.createValue(BINARY_PATH, PATH)).thenReturn(mockValue);
+
+        when(mockSession.getNode(BINARY_PATH)).thenReturn(mockNode);
+        when(mockNode.hasProperty(CONTENT_SIZE)).thenReturn(true);
+        when(mockNode.getProperty(CONTENT_SIZE)).thenReturn(mockSizeProperty);
+        when(mockSizeProperty.getLong()).thenReturn(3L);
+        when(mockNode.hasProperty(CONTENT_DIGEST)).thenReturn(true);
+        when(mockNode.getProperty(CONTENT_DIGEST)).thenReturn(mockDigestProperty);
+        when(mockDigestProperty.getString()).thenReturn(DIGEST);
+        when(mockNode.getProperty(JCR_DATA)).thenReturn(mockDataProperty);
+        when(mockDataProperty.getBinary()).thenReturn(mockBinary);
+        when(mockBinary.getStream()).thenReturn(toInputStream("abc"));
+
+        testObj = new FixityAuditServiceImpl();
+        setField(testObj, "repository", mockRepo);
+        setField(testObj, "directory", null);
+    }
+
+    @Test
+    public void testAudit() throws InterruptedException {
+        testObj.start(false);
+        final FixityAuditStatus status = awaitCompletion();
+
+        assertEquals(1, status.getBinariesChecked());
+        assertEquals(0, status.getFailures());
+        assertEquals(3, status.getBytesChecked());
+        assertEquals(BINARY_PATH, status.getCheckpoint());
+        assertTrue(status.getRecentFailures().isEmpty());
+    }
+
+    @Test
+    public void testAuditWithFailure() throws InterruptedException {
+        when(mockBinary.getStream()).thenReturn(toInputStream("abd"));
+        testObj.start(false);
+        final FixityAuditStatus status = awaitCompletion();
+
+        assertEquals(1, status.getBinariesChecked());
+        assertEquals(1, status.getFailures());
+        assertEquals(BINARY_PATH, status.getRecentFailures().get(0));
+    }
+
+    @Test
+    public void testAuditRecordsProgress() throws InterruptedException, IOException {
+        final File directory = tmp.newFolder();
+        setField(testObj, "directory", directory);
+        testObj.start(false);
+        awaitCompletion();
+
+        assertTrue(readFileToString(new File(directory, RESULTS_FILE)).contains(BINARY_PATH + "\tSUCCESS"));
+        final String checkpoint = readFileToString(new File(directory, CHECKPOINT_FILE));
+        assertTrue(checkpoint.contains("state=COMPLETE"));
+
+        final FixityAuditServiceImpl restarted = new FixityAuditServiceImpl();
+        setField(restarted, "repository", mockRepo);
+        setField(restarted, "directory", directory);
+        restarted.resume();
+
+        assertEquals(COMPLETE, restarted.getStatus().getState());
+        assertEquals(1, restarted.getStatus().getBinariesChecked());
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws InterruptedException, IOException, RepositoryException {
+        final File directory = tmp.newFolder();
+        final File checkpoint = new File(directory, CHECKPOINT_FILE);
+        writeStringToFile(checkpoint,
+                "state=RUNNING\ncheckpoint=" + BINARY_PATH + "\nbinariesChecked=1\n");
+        when(mockQuery.execute()).thenReturn(mockEmptyBatch);
+        setField(testObj, "directory", directory);
+        testObj.resume();
+        final FixityAuditStatus status = awaitCompletion();
+
+        verify(mockQuery).bindValue("after", mockValue);
+        verify(mockSession, never()).getNode(BINARY_PATH);
+        assertEquals(1, status.getBinariesChecked());
+    }
+
+    @Test
+    public void testAuditDoesNotModifyBinary() throws InterruptedException, RepositoryException {
+        testObj.start(false);
+        awaitCompletion();
+
+        verify(mockNode, never()).setProperty(anyString(), any(Calendar.class));
+        verify(mockNode, never()).setProperty(anyString(), anyString());
+        verify(mockSession, never()).save();
+    }
+
+    @Test
+    public void testAuditWithoutDigest() throws InterruptedException, RepositoryException {
+        when(mockNode.hasProperty(CONTENT_DIGEST)).thenReturn(false);
+        testObj.start(false);
+        final FixityAuditStatus status = awaitCompletion();
+
+        assertEquals(1, status.getFailures());
+        assertEquals(BINARY_PATH, status.getRecentFailures().get(0));
+        verify(mockNode, never()).getProperty(JCR_DATA);
+        verify(mockSession, never()).save();
+    }
+
+    @Test
+    public void testAuditQueriesOnce() throws InterruptedException, RepositoryException {
+        setField(testObj, "batchSize", 1);
+        when(mockRows.hasNext()).thenReturn(true, true, false);
+        when(mockBinary.getStream()).thenReturn(toInputStream("abc"), toInputStream("abc"));
+        testObj.start(false);
+        final FixityAuditStatus status = awaitCompletion();
+
+        assertEquals(2, status.getBinariesChecked());
+        verify(mockQuery, times(1)).execute();
+    }
+
+    @Test
+    public void testIdleStatus() {
+        assertEquals(IDLE, testObj.getStatus().getState());
+    }
+
+    private FixityAuditStatus awaitCompletion() throws InterruptedException {
+        final long deadline = currentTimeMillis() + 10000;
+        while (testObj.getStatus().getState() != COMPLETE && currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        final FixityAuditStatus status = testObj.getStatus();
+        assertEquals(COMPLETE, status.getState());
+        return status;
+    }
+}
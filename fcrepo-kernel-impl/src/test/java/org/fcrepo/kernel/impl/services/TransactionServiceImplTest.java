@@ -18,17 +18,19 @@ package org.fcrepo.kernel.impl.services;
 import static java.lang.System.currentTimeMillis;
 import static org.fcrepo.kernel.Transaction.State.NEW;
 import static org.fcrepo.kernel.impl.services.TransactionServiceImpl.FCREPO4_TX_ID;
+import static org.fcrepo.kernel.impl.utils.TestHelpers.setField;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.lang.reflect.Field;
 import java.util.Date;
-import java.util.Map;
 
 import javax.jcr.NamespaceException;
 import javax.jcr.RepositoryException;
@@ -37,6 +39,7 @@ import javax.jcr.Session;
 import org.fcrepo.kernel.Transaction;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.exception.TransactionMissingException;
+import org.fcrepo.kernel.exception.TransactionOnOtherNodeException;
 import org.fcrepo.kernel.services.TransactionService;
 
 import org.junit.Before;
@@ -73,14 +76,7 @@ public class TransactionServiceImplTest {
         service = new TransactionServiceImpl();
         when(mockTx.getId()).thenReturn(IS_A_TX);
         when(mockTx.isAssociatedWithUser(null)).thenReturn(true);
-        final Field txsField =
-                TransactionServiceImpl.class.getDeclaredField("transactions");
-        txsField.setAccessible(true);
-        @SuppressWarnings("unchecked")
-        final Map<String, Transaction> txs =
-                (Map<String, Transaction>) txsField
-                        .get(TransactionService.class);
-        txs.put(IS_A_TX, mockTx);
+        ((TransactionServiceImpl) service).register(mockTx);
     }
 
     @Test
@@ -91,6 +87,15 @@ public class TransactionServiceImplTest {
         verify(mockTx).rollback();
     }
 
+    @Test
+    public void testExpirationIsExtendedByUse() {
+        final Date inFiveSeconds = new Date(currentTimeMillis() + 5000);
+        when(mockTx.getExpires()).thenReturn(inFiveSeconds);
+        service.removeAndRollbackExpired();
+        verify(mockTx, never()).rollback();
+        assertTrue(service.exists(IS_A_TX));
+    }
+
     @Test
     public void testExpirationThrowsRepositoryException() {
         final Date fiveSecondsAgo = new Date(currentTimeMillis() - 5000);
@@ -192,4 +197,30 @@ public class TransactionServiceImplTest {
     public void testCommitWithNonTx() {
         service.commit(NOT_A_TX);
     }
+
+    @Test
+    public void testTransactionOnOtherNode() {
+        final TransactionDirectory mockDirectory = mock(TransactionDirectory.class);
+        when(mockDirectory.lookup(NOT_A_TX)).thenReturn("http://node2/rest");
+        setField(service, "directory", mockDirectory);
+        setField(service, "nodeURL", "http://node1/rest");
+        try {
+            service.getTransaction(NOT_A_TX, null);
+        } catch (final TransactionOnOtherNodeException e) {
+            assertEquals("http://node2/rest", e.getNodeURL());
+            return;
+        }
+        fail("Expected the transaction to be found on another node");
+    }
+
+    @Test
+    public void testDirectoryIsMaintained() {
+        final TransactionDirectory mockDirectory = mock(TransactionDirectory.class);
+        setField(service, "directory", mockDirectory);
+        setField(service, "nodeURL", "http://node1/rest");
+        final Transaction tx = service.beginTransaction(mockSession, USER_NAME);
+        verify(mockDirectory).register(tx.getId(), "http://node1/rest");
+        service.rollback(tx.getId());
+        verify(mockDirectory).remove(tx.getId());
+    }
 }
@@ -0,0 +1,172 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static javax.jcr.PropertyType.STRING;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.nodetype.NodeType;
+import javax.jcr.nodetype.PropertyDefinition;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>BatchingNodePropertiesToolsTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class BatchingNodePropertiesToolsTest {
+
+    private static final String PROPERTY_NAME = "ex:title";
+
+    private BatchingNodePropertiesTools testObj;
+
+    @Mock
+    private Node mockNode;
+
+    @Mock
+    private NodeType mockNodeType;
+
+    @Mock
+    private Property mockProperty;
+
+    @Mock
+    private Value mockValue1;
+
+    @Mock
+    private Value mockValue2;
+
+    @Mock
+    private Value mockValue3;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        initMocks(this);
+        testObj = new BatchingNodePropertiesTools();
+        when(mockNode.getIdentifier()).thenReturn("some-id");
+        when(mockNode.getPrimaryNodeType()).thenReturn(mockNodeType);
+        when(mockNodeType.getPropertyDefinitions()).thenReturn(new PropertyDefinition[] {});
+        when(mockNode.getMixinNodeTypes()).thenReturn(new NodeType[] {});
+        when(mockNode.getProperty(PROPERTY_NAME)).thenReturn(mockProperty);
+        when(mockValue1.getType()).thenReturn(STRING);
+        when(mockValue2.getType()).thenReturn(STRING);
+        when(mockValue3.getType()).thenReturn(STRING);
+    }
+
+    private void existingValues(final boolean multiple, final Value... values) throws RepositoryException {
+        when(mockNode.hasProperty(PROPERTY_NAME)).thenReturn(true);
+        when(mockProperty.isMultiple()).thenReturn(multiple);
+        when(mockProperty.getValues()).thenReturn(values);
+        if (!multiple) {
+            when(mockProperty.getValue()).thenReturn(values[0]);
+        }
+    }
+
+    @Test
+    public void testNewPropertyWrittenOnce() throws RepositoryException {
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue1);
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue2);
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue1);
+
+        verify(mockNode, never()).setProperty(anyString(), any(Value[].class), anyInt());
+
+        testObj.flush();
+
+        verify(mockNode).setProperty(eq(PROPERTY_NAME), aryEq(new Value[] { mockValue1, mockValue2 }), eq(STRING));
+    }
+
+    @Test
+    public void testExistingPropertyWrittenOnce() throws RepositoryException {
+        existingValues(true, mockValue1);
+
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue2);
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue3);
+        testObj.removeNodeProperty(mockNode, PROPERTY_NAME, mockValue1);
+        testObj.flush();
+
+        verify(mockProperty).setValue(aryEq(new Value[] { mockValue2, mockValue3 }));
+    }
+
+    @Test
+    public void testRemoveLastValue() throws RepositoryException {
+        existingValues(true, mockValue1);
+
+        testObj.removeNodeProperty(mockNode, PROPERTY_NAME, mockValue1);
+        testObj.flush();
+
+        verify(mockProperty).setValue((Value[]) null);
+    }
+
+    @Test
+    public void testUnchangedPropertyNotWritten() throws RepositoryException {
+        existingValues(true, mockValue1);
+
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue1);
+        testObj.removeNodeProperty(mockNode, PROPERTY_NAME, mockValue2);
+        testObj.flush();
+
+        verify(mockProperty, never()).setValue(any(Value[].class));
+    }
+
+    @Test
+    public void testRemoveFromMissingProperty() throws RepositoryException {
+        when(mockNode.hasProperty(PROPERTY_NAME)).thenReturn(false);
+
+        testObj.removeNodeProperty(mockNode, PROPERTY_NAME, mockValue1);
+        testObj.flush();
+
+        verify(mockNode, never()).getProperty(PROPERTY_NAME);
+    }
+
+    @Test
+    public void testSingleValuedPropertyWrittenImmediately() throws RepositoryException {
+        existingValues(false, mockValue1);
+
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue2);
+
+        verify(mockProperty).setValue(mockValue2);
+    }
+
+    @Test
+    public void testPendingChangesFlushedBeforeSingleValuedWrite() throws RepositoryException {
+        final Property mockOther = mock(Property.class);
+        when(mockNode.hasProperty("ex:other")).thenReturn(true);
+        when(mockNode.getProperty("ex:other")).thenReturn(mockOther);
+        when(mockOther.isMultiple()).thenReturn(true);
+        when(mockOther.getValues()).thenReturn(new Value[] {});
+        existingValues(false, mockValue1);
+
+        testObj.appendOrReplaceNodeProperty(mockNode, "ex:other", mockValue3);
+        testObj.appendOrReplaceNodeProperty(mockNode, PROPERTY_NAME, mockValue2);
+
+        verify(mockOther).setValue(aryEq(new Value[] { mockValue3 }));
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static org.fcrepo.kernel.FedoraJcrTypes.FEDORA_PAIRTREE;
+import static org.fcrepo.kernel.impl.testutilities.TestNodeIterator.nodeIterator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.Arrays;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * <p>ContainmentIndexTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class ContainmentIndexTest {
+
+    private ContainmentIndex testObj;
+
+    @Mock
+    private Repository mockRepository;
+
+    @Mock
+    private Session mockSession;
+
+    @Mock
+    private Node mockContainer;
+
+    @Mock
+    private Node mockPairtree;
+
+    @Mock
+    private Node mockChild1;
+
+    @Mock
+    private Node mockChild2;
+
+    @Mock
+    private NodeIterator mockChildren;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        initMocks(this);
+        when(mockRepository.login()).thenReturn(mockSession);
+        when(mockSession.getNode("/c")).thenReturn(mockContainer);
+        when(mockContainer.getPath()).thenReturn("/c");
+        when(mockContainer.getNodes()).thenAnswer(new Answer<NodeIterator>() {
+
+            @Override
+            public NodeIterator answer(final InvocationOnMock invocation) {
+                return nodeIterator(mockChild1, mockPairtree);
+            }
+        });
+        when(mockPairtree.getName()).thenReturn("ab");
+        when(mockPairtree.isNodeType(FEDORA_PAIRTREE)).thenReturn(true);
+        when(mockPairtree.getNodes()).thenAnswer(new Answer<NodeIterator>() {
+
+            @Override
+            public NodeIterator answer(final InvocationOnMock invocation) {
+                return nodeIterator(mockChild2);
+            }
+        });
+        when(mockChild1.getName()).thenReturn("x");
+        when(mockChild1.getPath()).thenReturn("/c/x");
+        when(mockChild2.getName()).thenReturn("y");
+        when(mockChild2.getPath()).thenReturn("/c/ab/y");
+
+        testObj = new ContainmentIndex(1);
+        testObj.start(mockRepository);
+    }
+
+    @Test
+    public void testDisabled() throws RepositoryException {
+        testObj.stop();
+        assertFalse(testObj.isEnabled());
+        assertNull(testObj.getMembers(mockContainer));
+    }
+
+    @Test
+    public void testGetMembers() throws RepositoryException {
+        final ContainmentIndex.Members members = testObj.getMembers(mockContainer);
+        assertEquals(2, members.size());
+        assertEquals(Arrays.asList("/c/x", "/c/ab/y"), members.paths());
+        assertTrue(testObj.hasIndexedAncestor("/c/ab/z"));
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testPage() throws RepositoryException {
+        final ContainmentIndex.Members members = testObj.getMembers(mockContainer);
+        assertEquals(1, members.page(0, 1).size());
+        assertEquals("/c/ab/y", members.page(1, 10).get(1L));
+    }
+
+    @Test
+    public void testChildAdded() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.childAdded("/c", "/c/ab/z");
+        testObj.childAdded("/c", "/c/ab/z");
+        assertEquals(Arrays.asList("/c/x", "/c/ab/y", "/c/ab/z"), testObj.getMembers(mockContainer).paths());
+    }
+
+    @Test
+    public void testChildAddedToUnindexedContainer() {
+        testObj.childAdded("/c", "/c/ab/z");
+        assertFalse(testObj.hasIndexedAncestor("/c/ab/z"));
+    }
+
+    @Test
+    public void testNodeRemoved() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.nodeRemoved("/c/x");
+        assertEquals(Arrays.asList("/c/ab/y"), testObj.getMembers(mockContainer).paths());
+        verify(mockRepository, times(1)).login();
+    }
+
+    @Test
+    public void testPairtreeRemovedDiscardsIndex() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.nodeRemoved("/c/ab");
+        assertFalse(testObj.hasIndexedAncestor("/c/x"));
+        testObj.getMembers(mockContainer);
+        verify(mockRepository, times(2)).login();
+    }
+
+    @Test
+    public void testPairtreeMovedDiscardsIndex() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.pairtreeMoved("/c/cd");
+        assertFalse(testObj.hasIndexedAncestor("/c/x"));
+    }
+
+    @Test
+    public void testContainerRemoved() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.nodeRemoved("/c");
+        assertFalse(testObj.hasIndexedAncestor("/c/x"));
+    }
+
+    @Test
+    public void testSmallContainersAreNotRetained() throws RepositoryException {
+        testObj = new ContainmentIndex(10);
+        testObj.start(mockRepository);
+        assertNull(testObj.getMembers(mockContainer));
+        assertFalse(testObj.hasIndexedAncestor("/c/x"));
+        assertNull(testObj.getMembers(mockContainer));
+        verify(mockRepository, times(1)).login();
+    }
+
+    @Test
+    public void testSmallContainersAreNotIndexed() throws RepositoryException {
+        when(mockContainer.getNodes()).thenReturn(mockChildren);
+        when(mockChildren.getSize()).thenReturn(1L);
+        when(mockChildren.hasNext()).thenReturn(true, false);
+        when(mockChildren.nextNode()).thenReturn(mockChild1);
+        testObj = new ContainmentIndex(10);
+        testObj.start(mockRepository);
+        assertNull(testObj.getMembers(mockContainer));
+        verify(mockRepository, never()).login();
+    }
+
+    @Test
+    public void testPendingChildBypassesIndex() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.childPending("/c/ab/z");
+        assertNull(testObj.getMembers(mockContainer));
+        testObj.childAdded("/c", "/c/ab/z");
+        assertEquals(3, testObj.getMembers(mockContainer).size());
+    }
+
+    @Test
+    public void testPendingRemovalBypassesIndex() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.childPending("/c/x");
+        assertNull(testObj.getMembers(mockContainer));
+        testObj.nodeRemoved("/c/x");
+        assertEquals(Arrays.asList("/c/ab/y"), testObj.getMembers(mockContainer).paths());
+    }
+
+    @Test
+    public void testPendingChildTimesOut() throws RepositoryException {
+        testObj = new ContainmentIndex(1, 100, 0);
+        testObj.start(mockRepository);
+        testObj.getMembers(mockContainer);
+        testObj.childPending("/c/ab/z");
+        assertEquals(2, testObj.getMembers(mockContainer).size());
+    }
+
+    @Test
+    public void testPendingHiddenChildSettles() throws RepositoryException {
+        testObj.getMembers(mockContainer);
+        testObj.childPending("/c/x/#/h");
+        testObj.nodeSettled("/c/x/#/h");
+        assertEquals(2, testObj.getMembers(mockContainer).size());
+    }
+
+    @Test
+    public void testIndexIsBounded() throws RepositoryException {
+        testObj = new ContainmentIndex(1, 1, 30000);
+        testObj.start(mockRepository);
+        testObj.getMembers(mockContainer);
+        assertFalse(testObj.hasIndexedAncestor("/c/x"));
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static com.hp.hpl.jena.update.UpdateFactory.create;
+import static java.util.Collections.singleton;
+import static org.fcrepo.kernel.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import javax.jcr.RepositoryException;
+
+import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.models.FedoraResource;
+import org.fcrepo.kernel.models.NonRdfSourceDescription;
+import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * <p>IncrementalSparqlUpdateTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class IncrementalSparqlUpdateTest {
+
+    private static final String BASE = "http://localhost/rest/a";
+
+    private static final Node SUBJECT = createURI(BASE);
+
+    @Mock
+    private FedoraResource mockResource;
+
+    @Mock
+    private IdentifierConverter<Resource, FedoraResource> mockTranslator;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+    }
+
+    private static IncrementalSparqlUpdate plan(final String update) {
+        return new IncrementalSparqlUpdate(create(update, BASE), SUBJECT);
+    }
+
+    @Test
+    public void testInsertData() {
+        final IncrementalSparqlUpdate testObj = plan("INSERT DATA { <> <info:a> \"x\" . <#h> <info:b> _:b0 }");
+        assertTrue(testObj.isSupported());
+        assertFalse(testObj.readsGraph());
+    }
+
+    @Test
+    public void testDeleteDataAndInsertData() {
+        final IncrementalSparqlUpdate testObj =
+                plan("DELETE DATA { <> <info:a> \"x\" } ; INSERT DATA { <> <info:a> \"y\" }");
+        assertTrue(testObj.isSupported());
+        assertFalse(testObj.readsGraph());
+    }
+
+    @Test
+    public void testDataInNamedGraph() {
+        assertFalse(plan("INSERT DATA { GRAPH <info:g> { <> <info:a> \"x\" } }").isSupported());
+    }
+
+    @Test
+    public void testEmptyWhere() {
+        final IncrementalSparqlUpdate testObj = plan("INSERT { <> <info:a> \"x\" } WHERE { }");
+        assertTrue(testObj.isSupported());
+        assertFalse(testObj.readsGraph());
+    }
+
+    @Test
+    public void testDeleteInsertWhere() {
+        final IncrementalSparqlUpdate testObj = plan("PREFIX dc: <http://purl.org/dc/elements/1.1/>\n"
+                + "DELETE { <> dc:title ?t } INSERT { <> dc:title \"new\" } WHERE { <> dc:title ?t }");
+        assertTrue(testObj.isSupported());
+        assertTrue(testObj.readsGraph());
+        assertEquals(singleton(createURI("http://purl.org/dc/elements/1.1/title")), testObj.getPredicates());
+    }
+
+    @Test
+    public void testDeleteWhere() {
+        final IncrementalSparqlUpdate testObj = plan("DELETE WHERE { <> <info:a> ?o . <> <info:b> ?p }");
+        assertTrue(testObj.isSupported());
+        assertEquals(2, testObj.getPredicates().size());
+    }
+
+    @Test
+    public void testVariablePredicate() {
+        assertFalse(plan("DELETE { <> ?p ?o } WHERE { <> ?p ?o }").isSupported());
+    }
+
+    @Test
+    public void testOtherSubject() {
+        assertFalse(plan("DELETE { <#h> <info:a> ?o } WHERE { <#h> <info:a> ?o }").isSupported());
+        assertFalse(plan("DELETE { ?s <info:a> ?o } WHERE { ?s <info:a> ?o }").isSupported());
+    }
+
+    @Test
+    public void testRdfTypeInWhere() {
+        assertFalse(plan("PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n"
+                + "DELETE { <> rdf:type ?t } WHERE { <> rdf:type ?t }").isSupported());
+    }
+
+    @Test
+    public void testManagedPredicateInWhere() {
+        assertFalse(plan("DELETE { <> <info:a> ?o } WHERE { <> <" + REPOSITORY_NAMESPACE + "hasParent> ?o }")
+                .isSupported());
+    }
+
+    @Test
+    public void testOptional() {
+        assertFalse(plan("DELETE { <> <info:a> ?o } WHERE { OPTIONAL { <> <info:a> ?o } }").isSupported());
+    }
+
+    @Test
+    public void testFilter() {
+        assertFalse(plan("DELETE { <> <info:a> ?o } WHERE { <> <info:a> ?o FILTER (?o = 1) }").isSupported());
+    }
+
+    @Test
+    public void testUnsupportedOperation() {
+        assertFalse(plan("CLEAR DEFAULT").isSupported());
+    }
+
+    @Test
+    public void testModelWithoutWhere() throws RepositoryException {
+        final Model model = plan("INSERT DATA { <> <info:a> \"x\" }")
+                .model(mockResource, mockTranslator, new RdfStream().namespace("a", "info:a#"));
+        assertTrue(model.isEmpty());
+        assertEquals("info:a#", model.getNsPrefixURI("a"));
+        verifyZeroInteractions(mockResource);
+    }
+
+    @Test
+    public void testModelWithEmptyOriginal() throws RepositoryException {
+        final Model model = plan("DELETE WHERE { <> <info:a> ?o }")
+                .model(mockResource, mockTranslator, new RdfStream());
+        assertTrue(model.isEmpty());
+        verifyZeroInteractions(mockResource);
+    }
+
+    @Test
+    public void testModelWithDescription() throws RepositoryException {
+        final IncrementalSparqlUpdate testObj = plan("DELETE WHERE { <> <info:a> ?o }");
+        final FedoraResource description = mock(NonRdfSourceDescription.class);
+        final Model model = testObj.model(description, mockTranslator,
+                new RdfStream(new Triple(SUBJECT, createURI("info:a"), createURI("info:b"))));
+        assertNull(model);
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.singleton;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.fcrepo.kernel.utils.Modification;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * <p>ModificationLogTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class ModificationLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    private ModificationLog testObj;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot();
+        testObj = new ModificationLog(directory, 256);
+    }
+
+    @After
+    public void tearDown() {
+        testObj.close();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(-1, testObj.getLastSequence());
+        assertFalse(testObj.read(0, 10).hasNext());
+        assertEquals(0, testObj.findSequence(0));
+    }
+
+    @Test
+    public void testAppendAndRead() {
+        final Set<Integer> types = new LinkedHashSet<>();
+        types.add(NODE_ADDED);
+        types.add(PROPERTY_CHANGED);
+        testObj.append(1000, "/a", types);
+        testObj.append(2000, "/b", singleton(PROPERTY_CHANGED));
+
+        final List<Modification> modifications = newArrayList(testObj.read(0, 10));
+        assertEquals(2, modifications.size());
+        assertEquals(0, modifications.get(0).getSequence());
+        assertEquals(1000, modifications.get(0).getTimestamp());
+        assertEquals("/a", modifications.get(0).getPath());
+        assertEquals(types, modifications.get(0).getTypes());
+        assertEquals("/b", modifications.get(1).getPath());
+        assertEquals(1, testObj.getLastSequence());
+    }
+
+    @Test
+    public void testTimestampsNeverDecrease() {
+        testObj.append(2000, "/a", singleton(NODE_ADDED));
+        final Modification late = testObj.append(1000, "/b", singleton(NODE_ADDED));
+        assertEquals(2000, late.getTimestamp());
+        assertEquals(0, testObj.findSequence(2000));
+    }
+
+    @Test
+    public void testReadAcrossSegments() {
+        append(100);
+        assertTrue(directory.list().length > 1);
+
+        final List<Modification> all = newArrayList(testObj.read(0, 1000));
+        assertEquals(100, all.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, all.get(i).getSequence());
+            assertEquals("/resource-" + i, all.get(i).getPath());
+        }
+
+        final List<Modification> page = newArrayList(testObj.read(42, 10));
+        assertEquals(10, page.size());
+        assertEquals(42, page.get(0).getSequence());
+        assertEquals(51, page.get(9).getSequence());
+    }
+
+    @Test
+    public void testReadIgnoresLaterAppends() {
+        append(5);
+        final Iterator<Modification> modifications = testObj.read(0, 100);
+        append(5);
+        assertEquals(5, newArrayList(modifications).size());
+    }
+
+    @Test
+    public void testFindSequence() {
+        append(100);
+        assertEquals(0, testObj.findSequence(0));
+        assertEquals(43, testObj.findSequence(425));
+        assertEquals(50, testObj.findSequence(500));
+        assertEquals(100, testObj.findSequence(100000));
+    }
+
+    @Test
+    public void testRecover() throws Exception {
+        append(30);
+        testObj.close();
+        // simulate an entry cut short by a crash
+        final File[] segments = directory.listFiles();
+        File last = segments[0];
+        for (final File segment : segments) {
+            if (segment.getName().compareTo(last.getName()) > 0) {
+                last = segment;
+            }
+        }
+        try (final FileOutputStream out = new FileOutputStream(last, true)) {
+            out.write(new byte[] {0, 0, 0, 40, 0, 0});
+        }
+
+        testObj = new ModificationLog(directory, 256);
+        assertEquals(29, testObj.getLastSequence());
+        assertEquals(30, testObj.append(10000, "/next", singleton(NODE_ADDED)).getSequence());
+        final List<Modification> all = newArrayList(testObj.read(0, 1000));
+        assertEquals(31, all.size());
+        assertEquals("/next", all.get(30).getPath());
+        assertEquals(30, testObj.findSequence(10000));
+    }
+
+    @Test
+    public void testPrune() {
+        testObj.close();
+        testObj = new ModificationLog(directory, 256, 2);
+        append(100);
+        assertEquals(2, directory.list().length);
+
+        final long first = testObj.getFirstSequence();
+        assertTrue(first > 0);
+        final List<Modification> retained = newArrayList(testObj.read(0, 1000));
+        assertEquals(first, retained.get(0).getSequence());
+        assertEquals(99, retained.get(retained.size() - 1).getSequence());
+    }
+
+    @Test
+    public void testPruneDuringRead() {
+        testObj.close();
+        testObj = new ModificationLog(directory, 256, 2);
+        append(10);
+        final Iterator<Modification> modifications = testObj.read(0, 1000);
+        append(90);
+        // the segments it would have read have all been pruned
+        assertFalse(modifications.hasNext());
+    }
+
+    private void append(final int count) {
+        final long start = testObj.getLastSequence() + 1;
+        for (long i = start; i < start + count; i++) {
+            testObj.append(i * 10, "/resource-" + i, singleton(NODE_ADDED));
+        }
+    }
+}
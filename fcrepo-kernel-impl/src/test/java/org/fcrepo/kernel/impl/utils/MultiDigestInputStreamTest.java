@@ -0,0 +1,63 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static java.net.URI.create;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+import static org.apache.tika.io.IOUtils.copy;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * <p>MultiDigestInputStreamTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class MultiDigestInputStreamTest {
+
+    @Test
+    public void testMultipleDigests() throws IOException {
+        try (final MultiDigestInputStream is =
+                new MultiDigestInputStream(new ByteArrayInputStream("0123456789".getBytes()),
+                        "SHA-1", "SHA-256", "MD5")) {
+            copy(is, NULL_OUTPUT_STREAM);
+            assertEquals(10, is.getByteCount());
+            final Map<String, URI> digests = is.getContentDigests();
+            assertEquals(3, digests.size());
+            assertEquals(create("urn:sha1:87acec17cd9dcd20a716cc2cf67417b71c8a7016"), digests.get("SHA-1"));
+            assertEquals(create("urn:sha256:84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882"),
+                    digests.get("SHA-256"));
+            assertEquals(create("urn:md5:781e5e245d69b566979b86e28d23f2c7"), digests.get("MD5"));
+            assertEquals("Digests should only be calculated once", digests, is.getContentDigests());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoDigests() {
+        new MultiDigestInputStream(new ByteArrayInputStream(new byte[0]));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnknownAlgorithm() {
+        new MultiDigestInputStream(new ByteArrayInputStream(new byte[0]), "SHA-1", "NOT-A-DIGEST");
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static org.fcrepo.kernel.RdfLexicon.REPOSITORY_NAMESPACE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import javax.jcr.NamespaceException;
+import javax.jcr.NamespaceRegistry;
+import javax.jcr.RepositoryException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>NamespacePrefixCacheTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class NamespacePrefixCacheTest {
+
+    private NamespacePrefixCache testObj;
+
+    @Mock
+    private NamespaceRegistry mockRegistry;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        initMocks(this);
+        testObj = new NamespacePrefixCache();
+        when(mockRegistry.getURI("fedora")).thenReturn(REPOSITORY_NAMESPACE);
+        when(mockRegistry.getURI("nope")).thenThrow(new NamespaceException("nope"));
+    }
+
+    @Test
+    public void testCachesLookups() throws RepositoryException {
+        assertNull(testObj.lookup("fedora"));
+        assertEquals(REPOSITORY_NAMESPACE, testObj.getURI(mockRegistry, "fedora"));
+        assertEquals(REPOSITORY_NAMESPACE, testObj.getURI(mockRegistry, "fedora"));
+        assertEquals(REPOSITORY_NAMESPACE, testObj.lookup("fedora"));
+        verify(mockRegistry, times(1)).getURI("fedora");
+    }
+
+    @Test
+    public void testInvalidate() throws RepositoryException {
+        testObj.getURI(mockRegistry, "fedora");
+        testObj.invalidate();
+        assertNull(testObj.lookup("fedora"));
+        testObj.getURI(mockRegistry, "fedora");
+        verify(mockRegistry, times(2)).getURI("fedora");
+    }
+
+    @Test(expected = NamespaceException.class)
+    public void testUnregisteredPrefix() throws RepositoryException {
+        try {
+            testObj.getURI(mockRegistry, "nope");
+        } finally {
+            assertNull(testObj.lookup("nope"));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.fcrepo.kernel.impl.testutilities.TestPropertyIterator;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>ReferenceIndexTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class ReferenceIndexTest {
+
+    private ReferenceIndex testObj;
+
+    @Mock
+    private Repository mockRepository;
+
+    @Mock
+    private Session mockSession;
+
+    @Mock
+    private Node mockTarget;
+
+    @Mock
+    private Property mockStrong;
+
+    @Mock
+    private Property mockWeak;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        initMocks(this);
+        when(mockRepository.login()).thenReturn(mockSession);
+        when(mockSession.getNode("/t")).thenReturn(mockTarget);
+        when(mockTarget.getReferences()).thenReturn(new TestPropertyIterator(mockStrong),
+                new TestPropertyIterator(mockStrong));
+        when(mockTarget.getWeakReferences()).thenReturn(new TestPropertyIterator(mockWeak),
+                new TestPropertyIterator(mockWeak));
+        when(mockStrong.getPath()).thenReturn("/a/x_ref");
+        when(mockWeak.getPath()).thenReturn("/b/y_ref");
+        testObj = new ReferenceIndex(2);
+        testObj.start(mockRepository);
+    }
+
+    @Test
+    public void testDisabled() {
+        testObj.stop();
+        assertFalse(testObj.isEnabled());
+        assertNull(testObj.getReferrers("/t"));
+    }
+
+    @Test
+    public void testGetReferrers() {
+        final ReferenceIndex.Referrers referrers = testObj.getReferrers("/t");
+        assertEquals(2, referrers.size());
+        assertEquals(Arrays.asList("/a/x_ref", "/b/y_ref"), Arrays.asList(referrers.page(0, 10).values().toArray()));
+        assertEquals(Arrays.asList("/b/y_ref"), Arrays.asList(referrers.page(1, 10).values().toArray()));
+        assertFalse(testObj.isEmpty());
+        assertTrue(testObj.isIndexedSource("/a/x_ref"));
+        // retained, so not read again
+        testObj.getReferrers("/t");
+        verify(mockRepository, times(1)).login();
+        verify(mockSession).logout();
+    }
+
+    @Test
+    public void testLightlyReferencedNodeNotRetained() throws RepositoryException {
+        when(mockTarget.getWeakReferences()).thenReturn(new TestPropertyIterator());
+        assertEquals(1, testObj.getReferrers("/t").size());
+        assertTrue(testObj.isEmpty());
+        assertFalse(testObj.isIndexedSource("/a/x_ref"));
+    }
+
+    @Test
+    public void testTraverse() throws RepositoryException {
+        assertEquals(2, ReferenceIndex.traverse(mockTarget).size());
+        assertTrue(testObj.isEmpty());
+    }
+
+    @Test
+    public void testPropertyChanged() {
+        testObj.getReferrers("/t");
+        testObj.propertyChanged("/c/z_ref", singleton("/t"));
+        testObj.propertyChanged("/a/x_ref", singleton("/elsewhere"));
+        final ReferenceIndex.Referrers referrers = testObj.getReferrers("/t");
+        assertEquals(Arrays.asList("/b/y_ref", "/c/z_ref"), Arrays.asList(referrers.page(0, 10).values().toArray()));
+        assertFalse(testObj.isIndexedSource("/a/x_ref"));
+        assertTrue(testObj.isIndexedSource("/c/z_ref"));
+    }
+
+    @Test
+    public void testPropertyRemoved() {
+        testObj.getReferrers("/t");
+        testObj.propertyRemoved("/a/x_ref");
+        assertEquals(1, testObj.getReferrers("/t").size());
+        assertFalse(testObj.isIndexedSource("/a/x_ref"));
+    }
+
+    @Test
+    public void testReferringNodeRemoved() {
+        testObj.getReferrers("/t");
+        testObj.nodeRemoved("/b");
+        assertEquals(Collections.singletonList("/a/x_ref"),
+                Arrays.asList(testObj.getReferrers("/t").page(0, 10).values().toArray()));
+    }
+
+    @Test
+    public void testReferencedNodeRemoved() {
+        testObj.getReferrers("/t");
+        testObj.nodeRemoved("/t");
+        assertTrue(testObj.isEmpty());
+        assertFalse(testObj.isIndexedSource("/a/x_ref"));
+    }
+
+    @Test
+    public void testPendingReferenceBypassesIndex() {
+        testObj.getReferrers("/t");
+        testObj.referencePending("/c/z_ref", "/t");
+        assertNull(testObj.getReferrers("/t"));
+        testObj.propertyChanged("/c/z_ref", singleton("/t"));
+        assertEquals(3, testObj.getReferrers("/t").size());
+    }
+
+    @Test
+    public void testPendingRemovalBypassesIndex() {
+        testObj.getReferrers("/t");
+        testObj.nodePending("/a");
+        assertNull(testObj.getReferrers("/t"));
+        testObj.nodeRemoved("/a");
+        assertEquals(1, testObj.getReferrers("/t").size());
+    }
+
+    @Test
+    public void testPendingChangeTimesOut() {
+        testObj = new ReferenceIndex(2, 0);
+        testObj.start(mockRepository);
+        testObj.getReferrers("/t");
+        testObj.propertyPending("/a/x_ref");
+        assertEquals(2, testObj.getReferrers("/t").size());
+    }
+
+    @Test
+    public void testSequenceSurvivesChanges() {
+        testObj.getReferrers("/t");
+        final Long sequence = testObj.getReferrers("/t").sequenceOf("/b/y_ref");
+        testObj.propertyRemoved("/a/x_ref");
+        testObj.propertyChanged("/c/z_ref", singleton("/t"));
+        final ReferenceIndex.Referrers referrers = testObj.getReferrers("/t");
+        assertEquals(sequence, referrers.sequenceOf("/b/y_ref"));
+        assertNull(referrers.sequenceOf("/a/x_ref"));
+        assertEquals(Arrays.asList("/b/y_ref", "/c/z_ref"), referrers.propertyPaths());
+    }
+
+    @Test
+    public void testClear() {
+        testObj.getReferrers("/t");
+        testObj.clear();
+        assertTrue(testObj.isEmpty());
+        testObj.getReferrers("/t");
+        verify(mockRepository, times(2)).login();
+    }
+}
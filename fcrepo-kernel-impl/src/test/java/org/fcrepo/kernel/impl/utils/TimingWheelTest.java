@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>TimingWheelTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class TimingWheelTest {
+
+    private static final long START = 1000000;
+
+    private TimingWheel<String> wheel;
+
+    @Before
+    public void setUp() {
+        wheel = new TimingWheel<>(1000, START);
+    }
+
+    @Test
+    public void testKeysFallDueAfterDeadline() {
+        wheel.schedule("a", START + 2500);
+        wheel.schedule("b", START + 5000);
+        assertTrue(wheel.advance(START + 2000).isEmpty());
+        assertEquals(asList("a"), wheel.advance(START + 3000));
+        assertTrue(wheel.advance(START + 4999).isEmpty());
+        assertEquals(asList("b"), wheel.advance(START + 5000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineIsDueImmediately() {
+        wheel.schedule("a", START - 1);
+        assertEquals(asList("a"), wheel.advance(START));
+    }
+
+    @Test
+    public void testDistantKeysCascade() {
+        final long hour = 3600 * 1000;
+        final long week = 7 * 24 * hour;
+        wheel.schedule("hour", START + hour);
+        wheel.schedule("week", START + week);
+        assertTrue(wheel.advance(START + hour - 1000).isEmpty());
+        assertEquals(asList("hour"), wheel.advance(START + hour));
+        assertTrue(wheel.advance(START + week - 1000).isEmpty());
+        assertEquals(asList("week"), wheel.advance(START + week));
+    }
+
+    @Test
+    public void testBeyondTopLevel() {
+        final long far = 64L * 64 * 64 * 64 * 1000 * 2;
+        wheel.schedule("far", START + far);
+        wheel.schedule("near", START + 1000);
+        assertEquals(asList("near"), wheel.advance(START + 1000));
+        assertTrue(wheel.advance(START + far - 1000).isEmpty());
+        assertEquals(asList("far"), wheel.advance(START + far));
+    }
+
+    @Test
+    public void testCancelAndReschedule() {
+        wheel.schedule("a", START + 1000);
+        wheel.schedule("b", START + 1000);
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        wheel.schedule("b", START + 10000);
+        assertTrue(wheel.advance(START + 9000).isEmpty());
+        assertEquals(asList("b"), wheel.advance(START + 10000));
+    }
+
+    @Test
+    public void testManyKeys() {
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule("k" + i, START + i * 100);
+        }
+        final List<String> due = wheel.advance(START + 50000);
+        assertEquals(501, new HashSet<>(due).size());
+        assertEquals(499, wheel.size());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.modeshape.jcr.value.BinaryKey;
+import org.modeshape.jcr.value.BinaryValue;
+import org.modeshape.jcr.value.binary.FileSystemBinaryStore;
+
+/**
+ * <p>FileSystemBinaryStoreEntryTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class FileSystemBinaryStoreEntryTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef01234567";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Mock
+    private FileSystemBinaryStore mockStore;
+
+    @Mock
+    private Property mockProperty;
+
+    @Mock
+    private BinaryValue mockBinary;
+
+    private FileSystemBinaryStoreEntry testObj;
+
+    @Before
+    public void setUp() throws RepositoryException {
+        initMocks(this);
+        when(mockStore.getDirectory()).thenReturn(tmp.getRoot());
+        when(mockProperty.getBinary()).thenReturn(mockBinary);
+        when(mockBinary.getKey()).thenReturn(new BinaryKey(KEY));
+        testObj = new FileSystemBinaryStoreEntry(mockStore, mockProperty);
+    }
+
+    @Test
+    public void testGetFile() throws IOException {
+        final File directory = tmp.newFolder("01", "23", "45");
+        final File expected = new File(directory, KEY);
+        expected.createNewFile();
+        assertEquals(expected, testObj.getFile());
+    }
+
+    @Test
+    public void testGetMissingFile() {
+        assertNull(testObj.getFile());
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils.infinispan;
+
+import static java.util.Arrays.copyOfRange;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>CacheLoaderChunkInputStreamTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class CacheLoaderChunkInputStreamTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @Mock
+    private CacheLoader<String, byte[]> mockCacheLoader;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        mockChunk(0, 0, 4);
+        mockChunk(1, 4, 8);
+        mockChunk(2, 8, 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockChunk(final int chunkNumber, final int from, final int to) {
+        final MarshalledEntry<String, byte[]> entry = mock(MarshalledEntry.class);
+        when(entry.getValue()).thenReturn(copyOfRange(CONTENT, from, to));
+        when(mockCacheLoader.contains("key-" + chunkNumber)).thenReturn(true);
+        when(mockCacheLoader.load("key-" + chunkNumber)).thenReturn(entry);
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        try (final InputStream testObj = new CacheLoaderChunkInputStream(mockCacheLoader, "key", 4, 10)) {
+            assertEquals("0123456789", new String(toByteArray(testObj)));
+        }
+    }
+
+    @Test
+    public void testSkipOverChunks() throws IOException {
+        try (final InputStream testObj = new CacheLoaderChunkInputStream(mockCacheLoader, "key", 4, 10)) {
+            assertEquals(9, testObj.skip(9));
+            assertEquals("9", new String(toByteArray(testObj)));
+        }
+        verify(mockCacheLoader, never()).load("key-0");
+        verify(mockCacheLoader, never()).load("key-1");
+    }
+
+    @Test
+    public void testSkipPastTheEnd() throws IOException {
+        try (final InputStream testObj = new CacheLoaderChunkInputStream(mockCacheLoader, "key", 4, 10)) {
+            assertEquals(10, testObj.skip(20));
+            assertEquals(-1, testObj.read());
+        }
+        verify(mockCacheLoader, never()).load(anyString());
+    }
+}
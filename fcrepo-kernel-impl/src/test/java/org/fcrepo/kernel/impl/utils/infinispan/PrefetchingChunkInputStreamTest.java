@@ -0,0 +1,173 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.utils.infinispan;
+
+import static java.util.Arrays.copyOfRange;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.fcrepo.kernel.impl.utils.infinispan.PrefetchingChunkInputStream.fromCache;
+import static org.fcrepo.kernel.impl.utils.infinispan.PrefetchingChunkInputStream.fromCacheLoader;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+
+import org.infinispan.Cache;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * <p>PrefetchingChunkInputStreamTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class PrefetchingChunkInputStreamTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @Mock
+    private Cache<String, byte[]> mockCache;
+
+    @Mock
+    private CacheLoader<String, byte[]> mockCacheLoader;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        executor = newFixedThreadPool(2);
+        mockChunk(0, 0, 4);
+        mockChunk(1, 4, 8);
+        mockChunk(2, 8, 10);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockChunk(final int chunkNumber, final int from, final int to) {
+        final byte[] chunk = copyOfRange(CONTENT, from, to);
+        when(mockCache.get("key-" + chunkNumber)).thenReturn(chunk);
+
+        final MarshalledEntry<String, byte[]> entry = mock(MarshalledEntry.class);
+        when(entry.getValue()).thenReturn(chunk);
+        when(mockCacheLoader.load("key-" + chunkNumber)).thenReturn(entry);
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 2, executor)) {
+            assertEquals("0123456789", new String(toByteArray(testObj)));
+        }
+    }
+
+    @Test
+    public void testReadWithoutPrefetching() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 0, executor)) {
+            assertEquals("0123456789", new String(toByteArray(testObj)));
+        }
+    }
+
+    @Test
+    public void testReadSingleBytes() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 1, executor)) {
+            final StringBuilder actual = new StringBuilder();
+            int b;
+            while ((b = testObj.read()) != -1) {
+                actual.append((char) b);
+            }
+            assertEquals("0123456789", actual.toString());
+        }
+    }
+
+    @Test
+    public void testPrefetchesOnlyTheWindow() throws IOException, InterruptedException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 1, executor)) {
+            assertEquals('0', testObj.read());
+            executor.shutdown();
+            executor.awaitTermination(10, SECONDS);
+            verify(mockCache).get("key-1");
+            verify(mockCache, never()).get("key-2");
+        }
+    }
+
+    @Test
+    public void testReadFromCacheLoaderWithSingleLookups() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCacheLoader(mockCacheLoader), "key", 4, 10, 2, executor)) {
+            assertEquals("0123456789", new String(toByteArray(testObj)));
+        }
+        verify(mockCacheLoader, never()).contains(anyString());
+    }
+
+    @Test
+    public void testSkipWithinAChunk() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 2, executor)) {
+            assertEquals('0', testObj.read());
+            assertEquals(2, testObj.skip(2));
+            assertEquals("3456789", new String(toByteArray(testObj)));
+        }
+    }
+
+    @Test
+    public void testSkipOverChunks() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 0, executor)) {
+            assertEquals(9, testObj.skip(9));
+            assertEquals("9", new String(toByteArray(testObj)));
+        }
+        verify(mockCache, never()).get("key-0");
+        verify(mockCache, never()).get("key-1");
+    }
+
+    @Test
+    public void testSkipPastTheEnd() throws IOException {
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 2, executor)) {
+            assertEquals(10, testObj.skip(20));
+            assertEquals(-1, testObj.read());
+        }
+    }
+
+    @Test
+    public void testMissingChunk() throws IOException {
+        when(mockCache.get("key-1")).thenReturn(null);
+        try (final InputStream testObj =
+                     new PrefetchingChunkInputStream(fromCache(mockCache), "key", 4, 10, 2, executor)) {
+            assertEquals("0123", new String(toByteArray(testObj)));
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.modeshape.jcr.value.binary.infinispan;
 
 import static org.infinispan.transaction.TransactionMode.NON_TRANSACTIONAL;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
@@ -74,4 +75,32 @@ public class InfinispanUtilsTest {
         assertEquals( 128, chunk.getChunkSize() );
     }
 
+    @Test
+    public void testGetBlobCache() {
+        final DefaultCacheManager mgr = mock(DefaultCacheManager.class);
+        final InfinispanBinaryStore store = new InfinispanBinaryStore(mgr, false, "foo", "bar" );
+
+        final Cache<Object, Object> metadataCache = mockCache();
+        final Cache<Object, Object> blobCache = mockCache();
+        when(mgr.getCache("foo")).thenReturn(metadataCache);
+        when(mgr.getCache("bar")).thenReturn(blobCache);
+
+        store.start();
+        assertSame( blobCache, InfinispanUtils.getBlobCache( store ) );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> mockCache() {
+        final Cache<Object, Object> cache = mock(Cache.class);
+        final Configuration cacheConfig = mock(Configuration.class);
+        when(cache.getCacheConfiguration()).thenReturn(cacheConfig);
+        final TransactionConfiguration txConfig = mock(TransactionConfiguration.class);
+        when(cacheConfig.transaction()).thenReturn(txConfig);
+        when(txConfig.transactionMode()).thenReturn(NON_TRANSACTIONAL);
+        final ClusteringConfiguration clConfig = mock(ClusteringConfiguration.class);
+        when(cacheConfig.clustering()).thenReturn(clConfig);
+        when(clConfig.cacheMode()).thenReturn(CacheMode.LOCAL);
+        return cache;
+    }
+
 }
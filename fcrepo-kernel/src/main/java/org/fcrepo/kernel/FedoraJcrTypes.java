@@ -57,6 +57,8 @@ public interface FedoraJcrTypes {
 
     String CONTENT_DIGEST = "fedora:digest";
 
+    String CONTENT_DIGESTS = "premis:hasMessageDigest";
+
     String FCR_METADATA = "fcr:metadata";
 
     String FCR_VERSIONS = "fcr:versions";
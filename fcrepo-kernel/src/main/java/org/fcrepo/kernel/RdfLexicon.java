@@ -111,8 +111,11 @@ public final class RdfLexicon {
             createProperty(REPOSITORY_NAMESPACE + "hasChild");
     public static final Property HAS_CHILD_COUNT =
             createProperty(REPOSITORY_NAMESPACE + "numberOfChildren");
+    public static final Property HAS_INBOUND_REFERENCE_COUNT =
+            createProperty(REPOSITORY_NAMESPACE + "numberOfInboundReferences");
 
-    public static final Set<Property> membershipProperties = of(HAS_PARENT, HAS_CHILD, HAS_CHILD_COUNT);
+    public static final Set<Property> membershipProperties = of(HAS_PARENT, HAS_CHILD, HAS_CHILD_COUNT,
+            HAS_INBOUND_REFERENCE_COUNT);
 
     // FIXITY
 
@@ -261,6 +264,8 @@ public final class RdfLexicon {
     public static final Property COULD_NOT_STORE_PROPERTY =
             createProperty(REPOSITORY_NAMESPACE + "couldNotStoreProperty");
     public static final Property INBOUND_REFERENCES = createProperty(REPOSITORY_NAMESPACE + "InboundReferences");
+    public static final Property INBOUND_REFERENCE_COUNT =
+            createProperty(REPOSITORY_NAMESPACE + "InboundReferenceCount");
     public static final Property EMBED_CONTAINS = createProperty(REPOSITORY_NAMESPACE + "EmbedResources");
     public static final Property SERVER_MANAGED = createProperty(REPOSITORY_NAMESPACE + "ServerManaged");
 
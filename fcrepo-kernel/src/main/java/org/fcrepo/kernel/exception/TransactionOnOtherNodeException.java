@@ -0,0 +1,46 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.exception;
+
+/**
+ * A transaction is not held by this node, but is open on another node of the
+ * cluster.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class TransactionOnOtherNodeException extends TransactionMissingException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String nodeURL;
+
+    /**
+     * @param txId the transaction id
+     * @param nodeURL the base URL of the node holding the transaction
+     */
+    public TransactionOnOtherNodeException(final String txId, final String nodeURL) {
+        super("Transaction " + txId + " is held by " + nodeURL);
+        this.nodeURL = nodeURL;
+    }
+
+    /**
+     * @return the base URL of the node holding the transaction
+     */
+    public String getNodeURL() {
+        return nodeURL;
+    }
+}
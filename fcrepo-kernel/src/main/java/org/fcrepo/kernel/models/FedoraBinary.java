@@ -22,6 +22,7 @@ import org.fcrepo.kernel.services.policy.StoragePolicyDecisionPoint;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 
 import javax.jcr.Binary;
+import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
 
@@ -42,6 +43,12 @@ public interface FedoraBinary extends NonRdfSource {
      */
     Binary getBinaryContent();
 
+    /**
+     * @return The local file holding the content associated with this datastream, if the binary store keeps it
+     *         as a plain file that may be read directly; otherwise null.
+     */
+    File getContentFile();
+
     /**
      * Sets the content of this Datastream.
      *
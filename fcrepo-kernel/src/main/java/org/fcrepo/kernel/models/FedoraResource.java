@@ -27,6 +27,7 @@ import com.hp.hpl.jena.rdf.model.Resource;
 
 import org.fcrepo.kernel.exception.MalformedRdfException;
 import org.fcrepo.kernel.identifiers.IdentifierConverter;
+import org.fcrepo.kernel.utils.ContainmentPage;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 
 import com.hp.hpl.jena.rdf.model.Model;
@@ -54,6 +55,15 @@ public interface FedoraResource {
      */
     Iterator<FedoraResource> getChildren();
 
+    /**
+     * Get a single page of the children of this resource, seeking directly to
+     * the position described by the continuation token
+     * @param token a continuation token from a previous page, or null for the first page
+     * @param pageSize the maximum number of children to return
+     * @return page
+     */
+    ContainmentPage getChildren(String token, int pageSize);
+
     /**
      * Get the container of this resource
      * @return
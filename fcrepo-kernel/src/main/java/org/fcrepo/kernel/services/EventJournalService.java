@@ -0,0 +1,58 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.services;
+
+/**
+ * Service for the durable journal of repository events that is kept ahead of
+ * their publication to the message broker
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public interface EventJournalService {
+
+    /**
+     * @return the sequence number of the oldest event still held in the journal, or -1 if it is empty
+     */
+    long getFirstSequence();
+
+    /**
+     * @return the sequence number of the most recently journaled event, or -1 if it is empty
+     */
+    long getLastSequence();
+
+    /**
+     * @return the sequence number of the last event delivered to the broker, or -1 if none has been
+     */
+    long getForwardedSequence();
+
+    /**
+     * Deliver the journaled events again, starting with the given sequence number
+     *
+     * @param sequence the first sequence number to deliver again
+     * @return the number of events that will be delivered
+     */
+    long replayFrom(long sequence);
+
+    /**
+     * Deliver the journaled events again, starting with the first event at or after the given time
+     *
+     * @param timestamp milliseconds since the epoch
+     * @return the number of events that will be delivered
+     */
+    long replaySince(long timestamp);
+
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.services;
+
+import org.fcrepo.kernel.utils.FixityAuditStatus;
+
+/**
+ * Service for auditing the fixity of every binary in the repository in the background
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public interface FixityAuditService {
+
+    /**
+     * Start an audit, or resume a paused one from its last checkpoint
+     *
+     * @param restart discard the progress of any earlier audit and start from the beginning
+     * @return the status of the audit
+     */
+    FixityAuditStatus start(boolean restart);
+
+    /**
+     * Pause a running audit once the binaries being checked are done; it may be resumed later
+     *
+     * @return the status of the audit
+     */
+    FixityAuditStatus stop();
+
+    /**
+     * @return the status of the current or most recent audit
+     */
+    FixityAuditStatus getStatus();
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.services;
+
+import java.util.Iterator;
+
+import org.fcrepo.kernel.utils.Modification;
+
+/**
+ * Service for the repository-wide, time-ordered index of modifications, from
+ * which downstream systems may synchronize incrementally
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public interface ModificationIndexService {
+
+    /**
+     * @return the sequence number of the oldest modification still retained; modifications before
+     *         it have been pruned
+     */
+    long getFirstSequence();
+
+    /**
+     * @return the sequence number of the most recent modification, or -1 if there is none
+     */
+    long getLastSequence();
+
+    /**
+     * Find the first modification made at or after the given time.
+     *
+     * @param timestamp milliseconds since the epoch
+     * @return the sequence number of the modification, or one more than the last sequence number if there is none
+     */
+    long findSequence(long timestamp);
+
+    /**
+     * Read modifications in the order they were made. The iterator reads lazily, and releases what it
+     * holds once it has been exhausted.
+     *
+     * @param fromSequence the sequence number of the first modification to read
+     * @param limit the most modifications to read
+     * @return the modifications
+     */
+    Iterator<Modification> getModifications(long fromSequence, int limit);
+
+}
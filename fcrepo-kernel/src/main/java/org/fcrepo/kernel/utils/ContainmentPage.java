@@ -0,0 +1,88 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils;
+
+import java.util.List;
+
+import org.fcrepo.kernel.models.FedoraResource;
+
+/**
+ * A single page of the children of a container, along with an opaque
+ * continuation token that can be used to retrieve the following page.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class ContainmentPage {
+
+    private final List<FedoraResource> children;
+
+    private final String nextToken;
+
+    private final long totalChildren;
+
+    /**
+     * Default constructor, for when the total number of children is unknown.
+     *
+     * @param children the children on this page
+     * @param nextToken the continuation token for the next page, or null if this is the last page
+     */
+    public ContainmentPage(final List<FedoraResource> children, final String nextToken) {
+        this(children, nextToken, -1);
+    }
+
+    /**
+     * Constructor for when the total number of children is known.
+     *
+     * @param children the children on this page
+     * @param nextToken the continuation token for the next page, or null if this is the last page
+     * @param totalChildren the number of children across all pages
+     */
+    public ContainmentPage(final List<FedoraResource> children, final String nextToken, final long totalChildren) {
+        this.children = children;
+        this.nextToken = nextToken;
+        this.totalChildren = totalChildren;
+    }
+
+    /**
+     * @return the children on this page, in containment order
+     */
+    public List<FedoraResource> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return the continuation token for the next page, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * @return the number of children across all pages, or -1 if unknown. It counts every child, including
+     *   any an authorization delegate hides from the session, which are left out of the pages themselves.
+     */
+    public long getTotalChildren() {
+        return totalChildren;
+    }
+
+    /**
+     * @return whether there are more children after this page
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
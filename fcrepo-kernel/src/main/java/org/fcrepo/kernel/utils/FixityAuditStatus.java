@@ -0,0 +1,137 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A snapshot of the progress of a repository-wide fixity audit
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class FixityAuditStatus {
+
+    /**
+     * The states an audit passes through
+     */
+    public static enum State {
+        IDLE, RUNNING, PAUSED, COMPLETE
+    }
+
+    private final State state;
+    private final Date started;
+    private final Date finished;
+    private final Date lastChecked;
+    private final String checkpoint;
+    private final long binariesChecked;
+    private final long failures;
+    private final long bytesChecked;
+    private final List<String> recentFailures;
+
+    /**
+     * @param state
+     * @param started when the audit was started, if it has been
+     * @param finished when the audit completed, if it has
+     * @param lastChecked when a binary was last checked, if one has been
+     * @param checkpoint the path of the last binary before which every binary has been checked
+     * @param binariesChecked
+     * @param failures the number of binaries that failed their check
+     * @param bytesChecked
+     * @param recentFailures the paths of the binaries that most recently failed their check
+     */
+    public FixityAuditStatus(final State state, final Date started, final Date finished, final Date lastChecked,
+                             final String checkpoint, final long binariesChecked, final long failures,
+                             final long bytesChecked, final List<String> recentFailures) {
+        this.state = state;
+        this.started = copy(started);
+        this.finished = copy(finished);
+        this.lastChecked = copy(lastChecked);
+        this.checkpoint = checkpoint;
+        this.binariesChecked = binariesChecked;
+        this.failures = failures;
+        this.bytesChecked = bytesChecked;
+        this.recentFailures = recentFailures;
+    }
+
+    /**
+     * @return the state of the audit
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return when the audit was started, or null
+     */
+    public Date getStarted() {
+        return copy(started);
+    }
+
+    /**
+     * @return when the audit completed, or null
+     */
+    public Date getFinished() {
+        return copy(finished);
+    }
+
+    /**
+     * @return when a binary was last checked, or null
+     */
+    public Date getLastChecked() {
+        return copy(lastChecked);
+    }
+
+    /**
+     * @return the path of the last binary before which every binary has been checked, or null
+     */
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * @return the number of binaries checked so far
+     */
+    public long getBinariesChecked() {
+        return binariesChecked;
+    }
+
+    /**
+     * @return the number of binaries that failed their check
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the number of bytes checked so far
+     */
+    public long getBytesChecked() {
+        return bytesChecked;
+    }
+
+    /**
+     * @return the paths of the binaries that most recently failed their check
+     */
+    public List<String> getRecentFailures() {
+        return recentFailures;
+    }
+
+    private static Date copy(final Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.util.Set;
+
+/**
+ * An entry in the repository-wide index of modifications: a resource and the
+ * kinds of change made to it at a point in time
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+public class Modification {
+
+    private final long sequence;
+    private final long timestamp;
+    private final String path;
+    private final Set<Integer> types;
+
+    /**
+     * @param sequence the position of the modification in the index
+     * @param timestamp when the modification was made, in milliseconds since the epoch
+     * @param path the path of the modified resource
+     * @param types the JCR event types of the modification
+     */
+    public Modification(final long sequence, final long timestamp, final String path, final Set<Integer> types) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.path = path;
+        this.types = types;
+    }
+
+    /**
+     * @return the position of the modification in the index
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return when the modification was made, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the path of the modified resource
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the JCR event types of the modification
+     */
+    public Set<Integer> getTypes() {
+        return types;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("sequence", sequence).add("timestamp", timestamp).add("path", path)
+                .add("types", types).toString();
+    }
+}
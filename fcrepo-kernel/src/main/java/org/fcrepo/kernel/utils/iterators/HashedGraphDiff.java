@@ -0,0 +1,217 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils.iterators;
+
+import static com.google.common.hash.Hashing.murmur3_128;
+import static com.hp.hpl.jena.datatypes.xsd.XSDDatatype.XSDstring;
+import static com.hp.hpl.jena.graph.Node.ANY;
+import static java.util.Arrays.asList;
+import static java.util.Locale.ROOT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.hp.hpl.jena.graph.Factory;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.graph.impl.LiteralLabel;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Calculates the difference between a replacement {@link Graph} and a stream of
+ * original triples in a single pass over the stream, like
+ * {@link GraphDifferencingIterator} but without copying the common triples into
+ * a second graph or removing them from the replacement.
+ *
+ * Each triple is reduced to a 64-bit fingerprint, and the two inputs are compared
+ * through sets of primitive fingerprints. A matching fingerprint is only a candidate:
+ * it is confirmed by looking the original triple up in the replacement graph, so
+ * triples are common to both inputs exactly when the graph contains them. Typed
+ * literals are fingerprinted by the value Jena indexes them by, so that literals
+ * the graph holds to be the same value (e.g. "1.0" and "1.00" as xsd:decimal) have
+ * the same fingerprint, as do plain and xsd:string literals.
+ *
+ * The differences are grouped by subject and predicate, so that all the changes
+ * to one JCR property are consecutive.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+public class HashedGraphDiff {
+
+    private static final Logger LOGGER = getLogger(HashedGraphDiff.class);
+
+    private static final HashFunction FINGERPRINT = murmur3_128();
+
+    private static final String XSD_STRING = XSDstring.getURI();
+
+    private final ListMultimap<List<Node>, Triple> removed = MultimapBuilder.linkedHashKeys().arrayListValues().build();
+
+    private final ListMultimap<List<Node>, Triple> added = MultimapBuilder.linkedHashKeys().arrayListValues().build();
+
+    private int common;
+
+    /**
+     * Diff a Model against a stream of triples
+     *
+     * @param replacement
+     * @param original
+     */
+    public HashedGraphDiff(final Model replacement, final Iterator<Triple> original) {
+        this(replacement.getGraph(), original);
+    }
+
+    /**
+     * Diff a graph against a stream of triples. The stream is consumed.
+     *
+     * @param replacement
+     * @param original
+     */
+    public HashedGraphDiff(final Graph replacement, final Iterator<Triple> original) {
+        final long[] replacementPrints = new long[replacement.size()];
+        final LongHashSet replacementSet = new LongHashSet(replacementPrints.length);
+        // fingerprints shared by more than one replacement triple
+        final LongHashSet sharedSet = new LongHashSet();
+
+        int i = 0;
+        final ExtendedIterator<Triple> triples = replacement.find(ANY, ANY, ANY);
+        try {
+            while (triples.hasNext()) {
+                replacementPrints[i] = fingerprint(triples.next());
+                if (!replacementSet.add(replacementPrints[i])) {
+                    sharedSet.add(replacementPrints[i]);
+                }
+                i++;
+            }
+        } finally {
+            triples.close();
+        }
+
+        final LongHashSet commonSet = new LongHashSet();
+        final LongHashSet removedSet = new LongHashSet();
+        // the common triples whose fingerprints are shared, to tell which of the replacement triples they match
+        final Graph sharedCommon = Factory.createDefaultGraph();
+
+        while (original.hasNext()) {
+            final Triple t = original.next();
+            final long print = fingerprint(t);
+
+            if (replacementSet.contains(print) && replacement.contains(t)) {
+                commonSet.add(print);
+                if (sharedSet.contains(print)) {
+                    sharedCommon.add(t);
+                }
+            } else if (removedSet.add(print) || !removed.containsEntry(asList(t.getSubject(), t.getPredicate()), t)) {
+                removed.put(asList(t.getSubject(), t.getPredicate()), t);
+            }
+        }
+
+        // the graph is unchanged, so it is iterated in the same order again
+        i = 0;
+        final ExtendedIterator<Triple> again = replacement.find(ANY, ANY, ANY);
+        try {
+            while (again.hasNext()) {
+                final Triple t = again.next();
+                final long print = replacementPrints[i++];
+                if (commonSet.contains(print) && (!sharedSet.contains(print) || sharedCommon.contains(t))) {
+                    common++;
+                } else {
+                    added.put(asList(t.getSubject(), t.getPredicate()), t);
+                }
+            }
+        } finally {
+            again.close();
+        }
+
+        LOGGER.debug("Found {} triples to remove, {} to add and {} in common", removed.size(), added.size(),
+                common);
+    }
+
+    /**
+     * @return the original triples that are not in the replacement, grouped by subject and predicate
+     */
+    public Iterator<Triple> removed() {
+        return removed.values().iterator();
+    }
+
+    /**
+     * @return the replacement triples that are not in the original, grouped by subject and predicate
+     */
+    public Iterator<Triple> added() {
+        return added.values().iterator();
+    }
+
+    /**
+     * @return the number of replacement triples that are also in the original
+     */
+    public int common() {
+        return common;
+    }
+
+    /**
+     * @param t
+     * @return a 64-bit fingerprint of the triple, equal for triples whose literals have the same value. Unequal
+     *         triples may share a fingerprint, so a match must be confirmed.
+     */
+    static long fingerprint(final Triple t) {
+        final Hasher hasher = FINGERPRINT.newHasher();
+        putNode(hasher, t.getSubject());
+        putNode(hasher, t.getPredicate());
+        putNode(hasher, t.getObject());
+        return hasher.hash().asLong();
+    }
+
+    private static void putNode(final Hasher hasher, final Node node) {
+        if (node.isURI()) {
+            putTerm(hasher, 'U', node.getURI());
+        } else if (node.isBlank()) {
+            putTerm(hasher, 'B', node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            final LiteralLabel literal = node.getLiteral();
+            final String lang = literal.language();
+            final String datatype = literal.getDatatypeURI();
+
+            if (lang != null && !lang.isEmpty()) {
+                putTerm(hasher, 'L', literal.getLexicalForm());
+                putTerm(hasher, '@', lang.toLowerCase(ROOT));
+            } else if (datatype == null || datatype.isEmpty() || datatype.equals(XSD_STRING)) {
+                putTerm(hasher, 'S', literal.getLexicalForm());
+            } else if (literal.isWellFormed()) {
+                // Jena indexes literals of the same value (even of different datatypes, such as xsd:int
+                // and xsd:integer) under equal values, so their hash codes are equal too
+                hasher.putChar('V').putInt(literal.getIndexingValue().hashCode());
+            } else {
+                putTerm(hasher, 'T', datatype);
+                putTerm(hasher, 'X', literal.getLexicalForm());
+            }
+        } else {
+            putTerm(hasher, '?', node.toString());
+        }
+    }
+
+    private static void putTerm(final Hasher hasher, final char tag, final String value) {
+        hasher.putChar(tag).putInt(value.length()).putUnencodedChars(value);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils.iterators;
+
+/**
+ * A set of primitive longs, open-addressed with linear probing, so that large
+ * numbers of fingerprints can be held without boxing.
+ *
+ * @author ananthulasrikar
+ * @since Oct 17, 2026
+ */
+class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // zero marks an empty slot, so it is tracked separately
+    private boolean hasZero;
+
+    private long[] table;
+
+    private int size;
+
+    /**
+     * Create a set sized for the expected number of elements
+     *
+     * @param expected
+     */
+    LongHashSet(final int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    LongHashSet() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * @param value
+     * @return true if the value was not already in the set
+     */
+    boolean add(final long value) {
+        if (value == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        final int mask = table.length - 1;
+        int i = slot(value, mask);
+        while (table[i] != 0) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        if (++size * 2 > table.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * @param value
+     * @return whether the value is in the set
+     */
+    boolean contains(final long value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        final int mask = table.length - 1;
+        int i = slot(value, mask);
+        while (table[i] != 0) {
+            if (table[i] == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        final long[] old = table;
+        table = new long[old.length * 2];
+        final int mask = table.length - 1;
+        for (final long value : old) {
+            if (value != 0) {
+                int i = slot(value, mask);
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    private static int slot(final long value, final int mask) {
+        final long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
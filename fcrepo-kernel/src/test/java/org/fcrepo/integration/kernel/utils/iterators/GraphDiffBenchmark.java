@@ -0,0 +1,139 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.integration.kernel.utils.iterators;
+
+import static com.google.common.collect.Iterators.size;
+import static com.hp.hpl.jena.graph.NodeFactory.createLiteral;
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static com.hp.hpl.jena.graph.Triple.create;
+import static com.hp.hpl.jena.sparql.graph.GraphFactory.createDefaultGraph;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fcrepo.kernel.utils.iterators.GraphDifferencingIterator;
+import org.fcrepo.kernel.utils.iterators.HashedGraphDiff;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * Compares the time taken by {@link HashedGraphDiff} and {@link GraphDifferencingIterator}
+ * to diff resources of 10k to 100k triples, where a tenth of the triples change. It only
+ * logs its timings, so it is left out of the default build; run it with -Pbenchmarks.
+ * The correctness of the diff is tested in HashedGraphDiffTest.
+ *
+ * @author ananthulasrikar
+ */
+public class GraphDiffBenchmark {
+
+    private static final Logger LOGGER = getLogger(GraphDiffBenchmark.class);
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void testTenThousand() {
+        compare(10000);
+    }
+
+    @Test
+    public void testHundredThousand() {
+        compare(100000);
+    }
+
+    private static void compare(final int size) {
+        final List<Triple> original = buildTriples(size, 0);
+        final List<Triple> replacement = buildTriples(size, size / 10);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            timeHashed(original, replacement);
+            timeGraph(original, replacement);
+        }
+        long hashed = 0;
+        long graph = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            hashed += timeHashed(original, replacement);
+            graph += timeGraph(original, replacement);
+        }
+        LOGGER.info("Diffed {} triples in {} ms with fingerprints and {} ms with graphs", size,
+                NANOSECONDS.toMillis(hashed / ROUNDS), NANOSECONDS.toMillis(graph / ROUNDS));
+    }
+
+    private static long timeHashed(final List<Triple> original, final List<Triple> replacement) {
+        final Graph graph = graph(replacement);
+        final long start = nanoTime();
+        final HashedGraphDiff diff = new HashedGraphDiff(graph, original.iterator());
+        final int removed = size(diff.removed());
+        final int added = size(diff.added());
+        final long elapsed = nanoTime() - start;
+        LOGGER.debug("Fingerprints found {} to remove and {} to add", removed, added);
+        return elapsed;
+    }
+
+    private static long timeGraph(final List<Triple> original, final List<Triple> replacement) {
+        final Graph graph = graph(replacement);
+        final long start = nanoTime();
+        final GraphDifferencingIterator diff = new GraphDifferencingIterator(graph, original.iterator());
+        final int removed = size(diff);
+        final int added = size(diff.notCommon());
+        final long elapsed = nanoTime() - start;
+        LOGGER.debug("Graphs found {} to remove and {} to add", removed, added);
+        return elapsed;
+    }
+
+    private static Graph graph(final List<Triple> triples) {
+        final Graph graph = createDefaultGraph();
+        for (final Triple t : triples) {
+            graph.add(t);
+        }
+        return graph;
+    }
+
+    /**
+     * Build triples about one resource, with the first {@code changed} values altered
+     */
+    private static List<Triple> buildTriples(final int size, final int changed) {
+        final List<Triple> triples = new ArrayList<>(size);
+        final Node subject = createURI("info:fedora/test/resource");
+        final Node title = createURI("http://purl.org/dc/elements/1.1/title");
+        final Node extent = createURI("info:fedora/test/extent");
+        final Node hasPart = createURI("info:fedora/test/hasPart");
+        for (int i = 0; i < size; i++) {
+            final String value = i < changed ? "changed " + i : Integer.toString(i);
+            switch (i % 3) {
+                case 0:
+                    triples.add(create(subject, title, createLiteral("Title " + value, "en", false)));
+                    break;
+                case 1:
+                    triples.add(create(subject, extent, i < changed ? createLiteral(value)
+                            : createLiteral(value, XSDDatatype.XSDlong)));
+                    break;
+                default:
+                    triples.add(create(subject, hasPart, createURI("info:fedora/test/part/" + value)));
+            }
+        }
+        return triples;
+    }
+}
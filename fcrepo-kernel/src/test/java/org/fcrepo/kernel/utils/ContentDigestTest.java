@@ -46,4 +46,20 @@ public class ContentDigestTest {
         assertEquals("Failed to produce a proper digest algorithm!", "SHA-1",
                 getAlgorithm(asURI("SHA-1", "fake")));
     }
+
+    @Test
+    public void testSHA256() {
+        assertEquals("Failed to produce a proper content digest URI!",
+                create("urn:sha256:fake"), asURI("SHA-256", "fake"));
+        assertEquals("Failed to produce a proper digest algorithm!", "SHA-256",
+                getAlgorithm(create("urn:sha256:fake")));
+    }
+
+    @Test
+    public void testMD5() {
+        assertEquals("Failed to produce a proper content digest URI!",
+                create("urn:md5:fake"), asURI("MD5", "fake"));
+        assertEquals("Failed to produce a proper digest algorithm!", "MD5",
+                getAlgorithm(create("urn:md5:fake")));
+    }
 }
@@ -0,0 +1,264 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils.iterators;
+
+import static com.google.common.collect.ImmutableList.copyOf;
+import static com.hp.hpl.jena.graph.NodeFactory.createLiteral;
+import static com.hp.hpl.jena.graph.NodeFactory.createURI;
+import static com.hp.hpl.jena.sparql.graph.GraphFactory.createDefaultGraph;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.google.common.collect.ImmutableSet;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+
+/**
+ * <p>HashedGraphDiffTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class HashedGraphDiffTest {
+
+    private final Triple t_xyz = new Triple(createURI("x"), createURI("y"), createURI("z"));
+    private final Triple t_abc = new Triple(createURI("a"), createURI("b"), createURI("c"));
+    private final Triple t_typed_string = new Triple(createURI("i"),
+                                                     createURI("j"),
+                                                     createLiteral("k", XSDDatatype.XSDstring));
+    private final Triple t_untyped_string = new Triple(createURI("i"),
+                                                       createURI("j"),
+                                                       createLiteral("k"));
+    private final Triple t_int = new Triple(createURI("i"),
+                                            createURI("j"),
+                                            createLiteral("0", XSDDatatype.XSDint));
+    private final Triple t_int_equivalent = new Triple(createURI("i"),
+                                                       createURI("j"),
+                                                       createLiteral("000", XSDDatatype.XSDint));
+    private final Triple t_long = new Triple(createURI("i"),
+                                             createURI("j"),
+                                             createLiteral("0", XSDDatatype.XSDlong));
+    private final Triple t_lang = new Triple(createURI("i"),
+                                             createURI("j"),
+                                             createLiteral("k", "en", false));
+    private final Triple t_integer = new Triple(createURI("i"),
+                                                createURI("j"),
+                                                createLiteral("0", XSDDatatype.XSDinteger));
+    private final Triple t_decimal = new Triple(createURI("i"),
+                                                createURI("j"),
+                                                createLiteral("1.0", XSDDatatype.XSDdecimal));
+    private final Triple t_decimal_equivalent = new Triple(createURI("i"),
+                                                           createURI("j"),
+                                                           createLiteral("1.00", XSDDatatype.XSDdecimal));
+    // (1 << 32) + 1 has the same hash code as 0 as a Long, so the same fingerprint
+    private final Triple t_long_colliding = new Triple(createURI("i"),
+                                                       createURI("j"),
+                                                       createLiteral("4294967297", XSDDatatype.XSDlong));
+
+    private static Graph graph(final Triple... triples) {
+        final Graph graph = createDefaultGraph();
+        for (final Triple t : triples) {
+            graph.add(t);
+        }
+        return graph;
+    }
+
+    @Test
+    public void testAllCommon() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_xyz), new RdfStream(t_xyz));
+
+        assertTrue(copyOf(diff.removed()).isEmpty());
+        assertTrue(copyOf(diff.added()).isEmpty());
+        assertEquals(1, diff.common());
+    }
+
+    @Test
+    public void testRemoveOne() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_xyz), new RdfStream(t_xyz, t_abc));
+
+        assertEquals(copyOf(new Triple[] { t_abc }), copyOf(diff.removed()));
+        assertTrue(copyOf(diff.added()).isEmpty());
+        assertEquals(1, diff.common());
+    }
+
+    @Test
+    public void testAddOne() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_abc, t_xyz), new RdfStream(t_xyz));
+
+        assertTrue(copyOf(diff.removed()).isEmpty());
+        assertEquals(copyOf(new Triple[] { t_abc }), copyOf(diff.added()));
+        assertEquals(1, diff.common());
+    }
+
+    @Test
+    public void testAllDifferent() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_xyz), new RdfStream(t_abc));
+
+        assertEquals(copyOf(new Triple[] { t_abc }), copyOf(diff.removed()));
+        assertEquals(copyOf(new Triple[] { t_xyz }), copyOf(diff.added()));
+        assertEquals(0, diff.common());
+    }
+
+    @Test
+    public void testDuplicateRemovals() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(), new RdfStream(t_abc, t_abc));
+
+        assertEquals(1, copyOf(diff.removed()).size());
+    }
+
+    @Test
+    public void testReplacementUnchanged() {
+        final Graph graph = graph(t_xyz, t_abc);
+        new HashedGraphDiff(graph, new RdfStream(t_xyz));
+
+        assertEquals(2, graph.size());
+    }
+
+    @Test
+    public void testCommonRDFEqualStrings() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_untyped_string), new RdfStream(t_typed_string));
+
+        assertTrue(copyOf(diff.removed()).isEmpty());
+        assertTrue(copyOf(diff.added()).isEmpty());
+        assertEquals(1, diff.common());
+    }
+
+    @Test
+    public void testCommonRDFEqualIntegers() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_int_equivalent), new RdfStream(t_int));
+
+        assertTrue(copyOf(diff.removed()).isEmpty());
+        assertTrue(copyOf(diff.added()).isEmpty());
+        assertEquals(1, diff.common());
+    }
+
+    @Test
+    public void testDistinctLiterals() {
+        assertNotEquals(HashedGraphDiff.fingerprint(t_int), HashedGraphDiff.fingerprint(t_decimal));
+        assertNotEquals(HashedGraphDiff.fingerprint(t_untyped_string), HashedGraphDiff.fingerprint(t_lang));
+    }
+
+    @Test
+    public void testCommonLiteralsAgreeWithGraph() {
+        assertAgreesWithGraph(t_int, t_long);
+        assertAgreesWithGraph(t_int, t_integer);
+        assertAgreesWithGraph(t_decimal, t_decimal_equivalent);
+        assertAgreesWithGraph(t_untyped_string, t_lang);
+    }
+
+    @Test
+    public void testCollidingFingerprintIsNotCommon() {
+        assertEquals(HashedGraphDiff.fingerprint(t_long), HashedGraphDiff.fingerprint(t_long_colliding));
+
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_long_colliding), new RdfStream(t_long));
+
+        assertEquals(copyOf(new Triple[] { t_long }), copyOf(diff.removed()));
+        assertEquals(copyOf(new Triple[] { t_long_colliding }), copyOf(diff.added()));
+        assertEquals(0, diff.common());
+    }
+
+    @Test
+    public void testCollidingFingerprintInReplacement() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(t_long, t_long_colliding), new RdfStream(t_long));
+
+        assertTrue(copyOf(diff.removed()).isEmpty());
+        assertEquals(copyOf(new Triple[] { t_long_colliding }), copyOf(diff.added()));
+        assertEquals(1, diff.common());
+    }
+
+    @Test
+    public void testCollidingRemovals() {
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(), new RdfStream(t_long, t_long_colliding));
+
+        assertEquals(copyOf(new Triple[] { t_long, t_long_colliding }), copyOf(diff.removed()));
+    }
+
+    @Test
+    public void testAgreesWithGraphDifferencingIterator() {
+        final List<Triple> original = buildTriples(3000, 0);
+        final List<Triple> replacement = buildTriples(3000, 300);
+
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(replacement), original.iterator());
+        final GraphDifferencingIterator expected = new GraphDifferencingIterator(graph(replacement),
+                original.iterator());
+
+        final ImmutableSet<Triple> removed = ImmutableSet.copyOf(expected);
+        assertEquals(300, removed.size());
+        assertEquals(removed, ImmutableSet.copyOf(diff.removed()));
+        assertEquals(ImmutableSet.copyOf(expected.notCommon()), ImmutableSet.copyOf(diff.added()));
+        assertEquals(2700, diff.common());
+    }
+
+    /**
+     * A triple is common to both inputs exactly when the replacement graph contains it
+     */
+    private static void assertAgreesWithGraph(final Triple replacement, final Triple original) {
+        final boolean contained = graph(replacement).contains(original);
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(replacement), new RdfStream(original));
+
+        assertEquals(contained ? 1 : 0, diff.common());
+        assertEquals(contained, copyOf(diff.removed()).isEmpty());
+        assertEquals(contained, copyOf(diff.added()).isEmpty());
+    }
+
+    private static Graph graph(final List<Triple> triples) {
+        return graph(triples.toArray(new Triple[triples.size()]));
+    }
+
+    /**
+     * Build triples about one resource, with the first {@code changed} values altered
+     */
+    private static List<Triple> buildTriples(final int size, final int changed) {
+        final List<Triple> triples = new ArrayList<>(size);
+        final Node subject = createURI("info:fedora/test/resource");
+        for (int i = 0; i < size; i++) {
+            final String value = i < changed ? "changed " + i : Integer.toString(i);
+            switch (i % 3) {
+                case 0:
+                    triples.add(new Triple(subject, createURI("info:fedora/test/title"),
+                            createLiteral("Title " + value, "en", false)));
+                    break;
+                case 1:
+                    triples.add(new Triple(subject, createURI("info:fedora/test/extent"), i < changed
+                            ? createLiteral(value) : createLiteral(value, XSDDatatype.XSDlong)));
+                    break;
+                default:
+                    triples.add(new Triple(subject, createURI("info:fedora/test/hasPart"),
+                            createURI("info:fedora/test/part/" + value)));
+            }
+        }
+        return triples;
+    }
+
+    @Test
+    public void testGroupedByProperty() {
+        final Triple t_ij1 = new Triple(createURI("i"), createURI("j"), createLiteral("1"));
+        final Triple t_ij2 = new Triple(createURI("i"), createURI("j"), createLiteral("2"));
+        final Triple t_ik = new Triple(createURI("i"), createURI("k"), createLiteral("3"));
+
+        final HashedGraphDiff diff = new HashedGraphDiff(graph(), new RdfStream(t_ij1, t_ik, t_ij2));
+        final List<Triple> removed = copyOf(diff.removed());
+
+        assertEquals(copyOf(new Triple[] { t_ij1, t_ij2, t_ik }), removed);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.utils.iterators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * <p>LongHashSetTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void testAddAndContains() {
+        final LongHashSet testObj = new LongHashSet();
+
+        assertTrue(testObj.add(42L));
+        assertFalse(testObj.add(42L));
+        assertTrue(testObj.contains(42L));
+        assertFalse(testObj.contains(43L));
+        assertEquals(1, testObj.size());
+    }
+
+    @Test
+    public void testZero() {
+        final LongHashSet testObj = new LongHashSet();
+
+        assertFalse(testObj.contains(0L));
+        assertTrue(testObj.add(0L));
+        assertFalse(testObj.add(0L));
+        assertTrue(testObj.contains(0L));
+        assertEquals(1, testObj.size());
+    }
+
+    @Test
+    public void testGrows() {
+        final LongHashSet testObj = new LongHashSet(1);
+
+        for (long i = -5000; i < 5000; i++) {
+            assertTrue(testObj.add(i * 31));
+        }
+        assertEquals(10000, testObj.size());
+        for (long i = -5000; i < 5000; i++) {
+            assertTrue(testObj.contains(i * 31));
+            assertFalse(testObj.contains(i * 31 + 1));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.transform;
+
+import static com.google.common.base.Throwables.propagate;
+import static javax.jcr.observation.Event.NODE_ADDED;
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.NODE_REMOVED;
+import static javax.jcr.observation.Event.PROPERTY_ADDED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static javax.jcr.observation.Event.PROPERTY_REMOVED;
+import static org.fcrepo.transform.transformations.LDPathTransform.CONFIGURATION_FOLDER;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.fcrepo.kernel.exception.RepositoryRuntimeException;
+import org.fcrepo.transform.transformations.LDPathTransform;
+import org.modeshape.jcr.api.Repository;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hp.hpl.jena.query.Query;
+import com.hp.hpl.jena.query.QueryFactory;
+
+/**
+ * Bounded caches of parsed transformation programs: stored LDPath programs,
+ * keyed by program name and node type and invalidated by JCR observation
+ * when the program nodes change, and compiled SPARQL queries, keyed by
+ * their text.
+ *
+ * @author ananthulasrikar
+ * @since Oct 16, 2026
+ */
+@Component
+public class TransformationCache implements EventListener {
+
+    private static final Logger LOGGER = getLogger(TransformationCache.class);
+
+    static final int EVENT_TYPES = NODE_ADDED + NODE_REMOVED + NODE_MOVED + PROPERTY_ADDED + PROPERTY_CHANGED
+            + PROPERTY_REMOVED;
+
+    private static final String CONFIGURATION_ROOT = "/fedora:system/fedora:transform";
+
+    private static final int CACHE_SIZE = Integer.getInteger("fcrepo.transform.cache.size", 256);
+
+    private final Cache<String, LDPathTransform> programs =
+            CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private final Cache<String, Query> queries =
+            CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    @Inject
+    private Repository repository;
+
+    // THIS SESSION SHOULD NOT BE USED TO LOOK UP NODES
+    private Session session;
+
+    /**
+     * Register this cache with the JCR event listeners
+     * @throws RepositoryException
+     */
+    @PostConstruct
+    public void buildListener() throws RepositoryException {
+        session = repository.login();
+        session.getWorkspace().getObservationManager().addEventListener(this,
+                EVENT_TYPES, CONFIGURATION_ROOT, true, null, null, false);
+        session.save();
+    }
+
+    /**
+     * Logout of the session
+     * @throws RepositoryException
+     */
+    @PreDestroy
+    public void stopListening() throws RepositoryException {
+        session.getWorkspace().getObservationManager().removeEventListener(this);
+        session.logout();
+    }
+
+    /**
+     * Get the stored LDPath program for a program name and node type,
+     * loading it if it isn't cached
+     * @param key the program name
+     * @param nodeType the node type the program is stored under
+     * @param loader reads the program from the repository
+     * @return the LDPath program
+     */
+    public LDPathTransform getProgram(final String key, final String nodeType,
+            final Callable<LDPathTransform> loader) {
+        try {
+            return programs.get(programPath(key, nodeType), loader);
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RepositoryException) {
+                throw new RepositoryRuntimeException(e.getCause());
+            }
+            throw propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Get the compiled form of a SPARQL query. A Jena query is mutable and is
+     * not safe to share between executions, so each caller gets its own copy
+     * of the cached query rather than parsing the text again.
+     * @param sparql the text of the query
+     * @return a copy of the compiled query
+     */
+    public Query getQuery(final String sparql) {
+        try {
+            return queries.get(sparql, new Callable<Query>() {
+
+                @Override
+                public Query call() {
+                    return QueryFactory.create(sparql);
+                }
+            }).cloneQuery();
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Drop any cached LDPath program stored at, below or above a changed path
+     * @param path
+     */
+    public void invalidate(final String path) {
+        for (final String programPath : programs.asMap().keySet()) {
+            if (programPath.equals(path) || path.startsWith(programPath + "/")
+                    || programPath.startsWith(path + "/")) {
+                LOGGER.debug("Invalidating cached LDPath program {}", programPath);
+                programs.invalidate(programPath);
+            }
+        }
+    }
+
+    /**
+     * Drop cached LDPath programs whose nodes have changed
+     *
+     * @param events
+     */
+    @Override
+    public void onEvent(final EventIterator events) {
+        while (events.hasNext()) {
+            final Event e = events.nextEvent();
+            try {
+                invalidate(e.getPath());
+                if (e.getType() == NODE_MOVED) {
+                    final Object srcPath = e.getInfo().get("srcAbsPath");
+                    if (srcPath != null) {
+                        invalidate(srcPath.toString());
+                    }
+                }
+            } catch (final RepositoryException ex) {
+                throw new RepositoryRuntimeException(ex);
+            }
+        }
+    }
+
+    private static String programPath(final String key, final String nodeType) {
+        return CONFIGURATION_FOLDER + key + "/" + nodeType;
+    }
+}
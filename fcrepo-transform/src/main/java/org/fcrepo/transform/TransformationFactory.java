@@ -41,7 +41,16 @@ public class TransformationFactory {
      * @throws SecurityException
      */
     public TransformationFactory() {
-        mimeToTransform.put(contentTypeSPARQLQuery, new SparqlQueryTransform(null));
+        this(null);
+    }
+
+    /**
+     * Get a new TransformationFactory with the default classes, whose
+     * transforms reuse compiled queries from a cache
+     * @param cache cache of compiled queries, or null to always parse them
+     */
+    public TransformationFactory(final TransformationCache cache) {
+        mimeToTransform.put(contentTypeSPARQLQuery, new SparqlQueryTransform(null, cache));
         mimeToTransform.put(APPLICATION_RDF_LDPATH, new LDPathTransform(null));
     }
 
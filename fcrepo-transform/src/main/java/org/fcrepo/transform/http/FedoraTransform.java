@@ -56,6 +56,7 @@ import javax.ws.rs.core.MediaType;
 import org.fcrepo.http.api.ContentExposingResource;
 import org.fcrepo.kernel.models.FedoraResource;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.fcrepo.transform.TransformationCache;
 import org.fcrepo.transform.TransformationFactory;
 import org.jvnet.hk2.annotations.Optional;
 import org.modeshape.jcr.api.JcrTools;
@@ -84,6 +85,10 @@ public class FedoraTransform extends ContentExposingResource {
     @Optional
     private TransformationFactory transformationFactory;
 
+    @Inject
+    @Optional
+    private TransformationCache transformationCache;
+
     @PathParam("path") protected String externalPath;
 
     /**
@@ -153,7 +158,7 @@ public class FedoraTransform extends ContentExposingResource {
         final RdfStream rdfStream = getResourceTriples().session(session)
                 .topic(translator().reverse().convert(resource()).asNode());
 
-        return getNodeTypeTransform(resource().getNode(), program).apply(rdfStream);
+        return getNodeTypeTransform(resource().getNode(), program, transformationCache).apply(rdfStream);
 
     }
 
@@ -174,7 +179,7 @@ public class FedoraTransform extends ContentExposingResource {
                                     final InputStream requestBodyStream) {
 
         if (transformationFactory == null) {
-            transformationFactory = new TransformationFactory();
+            transformationFactory = new TransformationFactory(transformationCache);
         }
         LOGGER.info("POST transform for '{}'", externalPath);
 
@@ -16,16 +16,24 @@
 package org.fcrepo.transform.transformations;
 
 import com.google.common.base.Function;
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.rdf.model.RDFNode;
 import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.vocabulary.RDF;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.marmotta.ldpath.LDPath;
 import org.apache.marmotta.ldpath.backend.jena.GenericJenaBackend;
 import org.apache.marmotta.ldpath.exception.LDPathParseException;
+import org.apache.marmotta.ldpath.model.programs.Program;
+import org.apache.marmotta.ldpath.model.selectors.WildcardSelection;
 import org.fcrepo.kernel.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.fcrepo.transform.Transformation;
+import org.fcrepo.transform.TransformationCache;
 import org.slf4j.Logger;
 
 import javax.jcr.Node;
@@ -33,18 +41,26 @@ import javax.jcr.RepositoryException;
 import javax.jcr.nodetype.NodeType;
 import javax.ws.rs.WebApplicationException;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import static com.google.common.collect.Collections2.transform;
 import static com.google.common.collect.ImmutableSortedSet.orderedBy;
 import static com.google.common.collect.Maps.transformValues;
+import static java.lang.reflect.Modifier.isStatic;
+import static java.util.Collections.newSetFromMap;
+import static com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel;
 import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
 import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 import static org.modeshape.jcr.api.JcrConstants.JCR_CONTENT;
@@ -65,6 +81,13 @@ public class LDPathTransform implements Transformation<List<Map<String, Collecti
     public static final String APPLICATION_RDF_LDPATH = "application/rdf+ldpath";
     private final InputStream query;
 
+    private Program<RDFNode> program;
+
+    /**
+     * The properties the program references, or null if it may traverse any
+     */
+    private Set<String> referencedProperties;
+
     private static final Logger LOGGER = getLogger(LDPathTransform.class);
 
     private static final Comparator<NodeType> nodeTypeComp = new Comparator<NodeType>() {
@@ -93,6 +116,20 @@ public class LDPathTransform implements Transformation<List<Map<String, Collecti
      */
     public static LDPathTransform getNodeTypeTransform(final Node node,
         final String key) throws RepositoryException {
+        return getNodeTypeTransform(node, key, null);
+    }
+
+    /**
+     * Pull a node-type specific transform out of JCR, or out of a cache of
+     * parsed programs
+     * @param node
+     * @param key
+     * @param cache cache of parsed programs, or null to always read the program
+     * @return node-type specific transform
+     * @throws RepositoryException
+     */
+    public static LDPathTransform getNodeTypeTransform(final Node node,
+        final String key, final TransformationCache cache) throws RepositoryException {
 
         final Node programNode = node.getSession().getNode(CONFIGURATION_FOLDER + key);
 
@@ -123,10 +160,19 @@ public class LDPathTransform implements Transformation<List<Map<String, Collecti
 
         for (final NodeType nodeType : nodeTypes) {
             if (programNode.hasNode(nodeType.toString())) {
-                return new LDPathTransform(programNode.getNode(nodeType.toString())
-                                               .getNode(JCR_CONTENT)
-                                               .getProperty(JCR_DATA)
-                                               .getBinary().getStream());
+                if (cache == null) {
+                    return readProgram(programNode, nodeType);
+                }
+                return cache.getProgram(key, nodeType.toString(), new Callable<LDPathTransform>() {
+
+                    @Override
+                    public LDPathTransform call() throws RepositoryException {
+                        // parse while the session that read the program is still live
+                        final LDPathTransform transform = readProgram(programNode, nodeType);
+                        transform.getProgram();
+                        return transform;
+                    }
+                });
             }
         }
 
@@ -135,22 +181,144 @@ public class LDPathTransform implements Transformation<List<Map<String, Collecti
                         + " and transformation key " + key), SC_BAD_REQUEST);
     }
 
+    private static LDPathTransform readProgram(final Node programNode, final NodeType nodeType)
+            throws RepositoryException {
+        return new LDPathTransform(programNode.getNode(nodeType.toString())
+                                       .getNode(JCR_CONTENT)
+                                       .getProperty(JCR_DATA)
+                                       .getBinary().getStream());
+    }
+
     @Override
     public List<Map<String, Collection<Object>>> apply(final RdfStream stream) {
-        try {
-            final LDPath<RDFNode> ldpathForResource =
-                getLdpathResource(stream);
+        final Resource context = createResource(stream.topic().getURI());
+
+        final Program<RDFNode> ldpathProgram = getProgram();
+
+        final Map<String, Collection<?>> wildcardCollection =
+            ldpathProgram.execute(getLdpathBackend(referencedTriples(stream)), context);
+
+        return ImmutableList.of(transformLdpathOutputToSomethingSerializable(wildcardCollection));
+    }
+
+    /**
+     * Filter a stream to the triples the program could traverse, which are
+     * the only ones loaded for evaluation. The whole stream is still read.
+     * @param stream
+     * @return the referenced triples, or the whole stream if the program may traverse any property
+     */
+    RdfStream referencedTriples(final RdfStream stream) {
+        final Set<String> properties = getReferencedProperties();
+        if (properties == null) {
+            return stream;
+        }
+        return stream.filter(new Predicate<Triple>() {
+
+            @Override
+            public boolean apply(final Triple triple) {
+                return triple.getPredicate().isURI() && properties.contains(triple.getPredicate().getURI());
+            }
+        });
+    }
 
-            final Resource context = createResource(stream.topic().getURI());
+    /**
+     * @return the properties the program references, or null if it may traverse any
+     */
+    Set<String> getReferencedProperties() {
+        getProgram();
+        return referencedProperties;
+    }
 
-            final Map<String, Collection<?>> wildcardCollection =
-                ldpathForResource.programQuery(context, new InputStreamReader(
-                        query));
+    /**
+     * Parse the program on first use, so that a cached transform is only
+     * parsed once
+     * @return the parsed LDPath program
+     */
+    private synchronized Program<RDFNode> getProgram() {
+        if (program == null) {
+            try {
+                final String source = IOUtils.toString(query);
+                program = new LDPath<>(new GenericJenaBackend(createDefaultModel()))
+                        .parseProgram(new StringReader(source));
+
+                final Set<String> references = new HashSet<>();
+                if (collectReferences(program, references, newSetFromMap(new IdentityHashMap<Object, Boolean>()))) {
+                    referencedProperties = ImmutableSet.<String>builder().addAll(references)
+                            .add(RDF.type.getURI()).build();
+                }
+                LOGGER.debug("Parsed LDPath program referencing {}", referencedProperties);
+            } catch (final LDPathParseException | IOException e) {
+                throw new RepositoryRuntimeException(e);
+            } finally {
+                IOUtils.closeQuietly(query);
+            }
+        }
+        return program;
+    }
 
-            return ImmutableList.of(transformLdpathOutputToSomethingSerializable(wildcardCollection));
-        } catch (final LDPathParseException e) {
-            throw new RepositoryRuntimeException(e);
+    /**
+     * Walk a parsed program, collecting the URIs of every node it holds. Those
+     * include every property its selectors and tests follow. LDPath's model
+     * classes do not all expose their operands, so their fields are read
+     * directly.
+     * @param element a part of the program
+     * @param references the URIs found so far
+     * @param visited the parts already walked
+     * @return false if the program contains a wildcard, which may follow any property
+     */
+    private static boolean collectReferences(final Object element, final Set<String> references,
+            final Set<Object> visited) {
+        if (element == null || !visited.add(element)) {
+            return true;
+        }
+        if (element instanceof WildcardSelection) {
+            return false;
+        }
+        if (element instanceof RDFNode) {
+            if (((RDFNode) element).isURIResource()) {
+                references.add(((RDFNode) element).asResource().getURI());
+            }
+            return true;
+        }
+        if (element instanceof Map) {
+            return collectReferences(((Map<?, ?>) element).keySet(), references, visited)
+                    && collectReferences(((Map<?, ?>) element).values(), references, visited);
+        }
+        if (element instanceof Iterable) {
+            for (final Object member : (Iterable<?>) element) {
+                if (!collectReferences(member, references, visited)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (element instanceof Object[]) {
+            for (final Object member : (Object[]) element) {
+                if (!collectReferences(member, references, visited)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!element.getClass().getName().startsWith("org.apache.marmotta.ldpath.model.")) {
+            return true;
+        }
+        for (Class<?> type = element.getClass(); type != null; type = type.getSuperclass()) {
+            for (final Field field : type.getDeclaredFields()) {
+                if (isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                try {
+                    if (!collectReferences(field.get(element), references, visited)) {
+                        return false;
+                    }
+                } catch (final IllegalAccessException e) {
+                    throw new RepositoryRuntimeException(e);
+                }
+            }
         }
+        return true;
     }
 
     @Override
@@ -170,13 +338,13 @@ public class LDPathTransform implements Transformation<List<Map<String, Collecti
     }
 
     /**
-     * Get the LDPath resource for an object
+     * Get the LDPath backend for an object
      * @param rdfStream
-     * @return the LDPath resource for the given object
+     * @return the LDPath backend for the given object
      */
-    private static LDPath<RDFNode> getLdpathResource(final RdfStream rdfStream) {
+    private static GenericJenaBackend getLdpathBackend(final RdfStream rdfStream) {
 
-        return new LDPath<>(new GenericJenaBackend(rdfStream.asModel()));
+        return new GenericJenaBackend(rdfStream.asModel());
 
     }
 
@@ -24,6 +24,7 @@ import com.hp.hpl.jena.rdf.model.Model;
 import org.apache.commons.io.IOUtils;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
 import org.fcrepo.transform.Transformation;
+import org.fcrepo.transform.TransformationCache;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -38,13 +39,26 @@ public class SparqlQueryTransform implements Transformation<QueryExecution> {
 
     private final InputStream query;
 
+    private final TransformationCache cache;
+
     /**
      * Construct a new SparqlQueryTransform from the data from
      * the InputStream
      * @param query
      */
     public SparqlQueryTransform(final InputStream query) {
+        this(query, null);
+    }
+
+    /**
+     * Construct a new SparqlQueryTransform from the data from
+     * the InputStream, reusing compiled queries from a cache
+     * @param query
+     * @param cache cache of compiled queries, or null to always parse the query
+     */
+    public SparqlQueryTransform(final InputStream query, final TransformationCache cache) {
         this.query = query;
+        this.cache = cache;
     }
 
     @Override
@@ -52,8 +66,9 @@ public class SparqlQueryTransform implements Transformation<QueryExecution> {
 
         try {
             final Model model = rdfStream.asModel();
-            final Query sparqlQuery =
-                QueryFactory.create(IOUtils.toString(query));
+            final String queryString = IOUtils.toString(query);
+            final Query sparqlQuery = cache == null ?
+                QueryFactory.create(queryString) : cache.getQuery(queryString);
 
             return QueryExecutionFactory.create(sparqlQuery, model);
         } catch (final IOException e) {
@@ -79,7 +94,7 @@ public class SparqlQueryTransform implements Transformation<QueryExecution> {
 
     @Override
     public SparqlQueryTransform newTransform(final InputStream query) {
-        return new SparqlQueryTransform(query);
+        return new SparqlQueryTransform(query, cache);
     }
 
 }
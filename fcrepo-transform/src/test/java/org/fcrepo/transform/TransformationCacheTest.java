@@ -0,0 +1,150 @@
+/**
+ * Copyright 2015 DuraSpace, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.transform;
+
+import static javax.jcr.observation.Event.NODE_MOVED;
+import static javax.jcr.observation.Event.PROPERTY_CHANGED;
+import static org.fcrepo.transform.transformations.LDPathTransform.CONFIGURATION_FOLDER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+
+import org.fcrepo.transform.transformations.LDPathTransform;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.hp.hpl.jena.query.Query;
+
+/**
+ * <p>TransformationCacheTest class.</p>
+ *
+ * @author ananthulasrikar
+ */
+public class TransformationCacheTest {
+
+    private TransformationCache testObj;
+
+    @Mock
+    private Callable<LDPathTransform> mockLoader;
+
+    @Mock
+    private EventIterator mockEvents;
+
+    @Mock
+    private Event mockEvent;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        testObj = new TransformationCache();
+        when(mockLoader.call()).thenAnswer(new Answer<LDPathTransform>() {
+
+            @Override
+            public LDPathTransform answer(final InvocationOnMock invocation) {
+                return new LDPathTransform(new ByteArrayInputStream("title = dc:title :: xsd:string ;".getBytes()));
+            }
+        });
+    }
+
+    @Test
+    public void testGetQuery() {
+        final String sparql = "SELECT ?s WHERE { ?s ?p ?o }";
+        final Query query = testObj.getQuery(sparql);
+        assertEquals(query, testObj.getQuery(sparql));
+        assertNotEquals(query, testObj.getQuery(sparql + " LIMIT 1"));
+    }
+
+    @Test
+    public void testGetQueryReturnsCopies() {
+        final String sparql = "SELECT ?s WHERE { ?s ?p ?o }";
+        final Query query = testObj.getQuery(sparql);
+        assertNotSame(query, testObj.getQuery(sparql));
+        query.setLimit(1);
+        assertEquals(Query.NOLIMIT, testObj.getQuery(sparql).getLimit());
+    }
+
+    @Test
+    public void testGetProgram() throws Exception {
+        final LDPathTransform program = testObj.getProgram("some-program", "nt:base", mockLoader);
+        assertSame(program, testObj.getProgram("some-program", "nt:base", mockLoader));
+        verify(mockLoader).call();
+        assertNotSame(program, testObj.getProgram("some-program", "custom:type", mockLoader));
+        assertNotSame(program, testObj.getProgram("other-program", "nt:base", mockLoader));
+    }
+
+    @Test
+    public void testInvalidateOnProgramChange() throws Exception {
+        final LDPathTransform program = testObj.getProgram("some-program", "nt:base", mockLoader);
+        final LDPathTransform other = testObj.getProgram("other-program", "nt:base", mockLoader);
+
+        when(mockEvents.hasNext()).thenReturn(true, false);
+        when(mockEvents.nextEvent()).thenReturn(mockEvent);
+        when(mockEvent.getType()).thenReturn(PROPERTY_CHANGED);
+        when(mockEvent.getPath()).thenReturn(CONFIGURATION_FOLDER + "some-program/nt:base/jcr:content/jcr:data");
+        testObj.onEvent(mockEvents);
+
+        assertNotSame(program, testObj.getProgram("some-program", "nt:base", mockLoader));
+        assertSame(other, testObj.getProgram("other-program", "nt:base", mockLoader));
+        verify(mockLoader, times(3)).call();
+    }
+
+    @Test
+    public void testInvalidateOnProgramFolderMove() throws Exception {
+        final LDPathTransform program = testObj.getProgram("some-program", "nt:base", mockLoader);
+
+        when(mockEvents.hasNext()).thenReturn(true, false);
+        when(mockEvents.nextEvent()).thenReturn(mockEvent);
+        when(mockEvent.getType()).thenReturn(NODE_MOVED);
+        when(mockEvent.getPath()).thenReturn("/elsewhere");
+        when(mockEvent.getInfo()).thenReturn(
+                Collections.<Object, Object>singletonMap("srcAbsPath", CONFIGURATION_FOLDER + "some-program"));
+        testObj.onEvent(mockEvents);
+
+        assertNotSame(program, testObj.getProgram("some-program", "nt:base", mockLoader));
+    }
+
+    @Test
+    public void testUnrelatedChange() throws Exception {
+        final LDPathTransform program = testObj.getProgram("some-program", "nt:base", mockLoader);
+        testObj.invalidate(CONFIGURATION_FOLDER + "some-program-2");
+        testObj.invalidate(CONFIGURATION_FOLDER + "some-program/nt:base2");
+        assertSame(program, testObj.getProgram("some-program", "nt:base", mockLoader));
+        verify(mockLoader, times(1)).call();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoaderFailure() throws Exception {
+        final Callable<LDPathTransform> failing = mock(Callable.class);
+        when(failing.call()).thenThrow(new IllegalStateException());
+        testObj.getProgram("some-program", "nt:base", failing);
+    }
+}
@@ -21,9 +21,13 @@ import static com.hp.hpl.jena.rdf.model.ResourceFactory.createResource;
 import static org.fcrepo.transform.transformations.LDPathTransform.CONFIGURATION_FOLDER;
 import static org.fcrepo.transform.transformations.LDPathTransform.getNodeTypeTransform;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -39,8 +43,11 @@ import javax.jcr.Session;
 import javax.jcr.nodetype.NodeType;
 import javax.ws.rs.WebApplicationException;
 
+import com.google.common.collect.ImmutableSet;
 import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
 import org.fcrepo.kernel.utils.iterators.RdfStream;
+import org.fcrepo.transform.TransformationCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -131,6 +138,28 @@ public class LDPathTransformTest {
         assertEquals(new LDPathTransform(mockInputStream), nodeTypeSpecificLdpathProgramStream);
     }
 
+    @Test
+    public void testGetNodeTypeSpecificLdpathProgramFromCache() throws RepositoryException {
+        final Node mockConfigNode = mock(Node.class);
+        final Node mockTypeConfigNode = mock(Node.class, RETURNS_DEEP_STUBS);
+        when(mockSession.getNode(CONFIGURATION_FOLDER + "some-program")).thenReturn(mockConfigNode);
+
+        final NodeType mockNtBase = mock(NodeType.class);
+        when(mockNodeType.getSupertypes()).thenReturn(new NodeType[] { mockNtBase });
+        when(mockNode.getPrimaryNodeType()).thenReturn(mockNodeType);
+        when(mockNode.getMixinNodeTypes()).thenReturn(new NodeType[] {});
+        when(mockNodeType.toString()).thenReturn("custom:type");
+        when(mockConfigNode.hasNode("custom:type")).thenReturn(true);
+        when(mockConfigNode.getNode("custom:type")).thenReturn(mockTypeConfigNode);
+        when(mockTypeConfigNode.getNode("jcr:content").getProperty("jcr:data").getBinary().getStream()).thenReturn(
+                new ByteArrayInputStream("title = dc:title :: xsd:string ;".getBytes()));
+
+        final TransformationCache cache = new TransformationCache();
+        final LDPathTransform transform = getNodeTypeTransform(mockNode, "some-program", cache);
+        assertSame(transform, getNodeTypeTransform(mockNode, "some-program", cache));
+        verify(mockConfigNode, times(1)).getNode("custom:type");
+    }
+
     @Test
     public void testProgramQuery() {
 
@@ -150,4 +179,94 @@ public class LDPathTransformTest {
         assertEquals(1, stringCollectionMap.get("title").size());
         assertTrue(stringCollectionMap.get("title").contains("some-title"));
     }
+
+    @Test
+    public void testProgramQueryWithUnreferencedProperties() {
+
+        final RdfStream rdfStream = new RdfStream();
+        rdfStream.concat(new Triple(createResource("abc").asNode(),
+                createProperty("http://purl.org/dc/elements/1.1/title").asNode(),
+                createLiteral("some-title")));
+        for (int i = 0; i < 100; i++) {
+            rdfStream.concat(new Triple(createResource("abc").asNode(),
+                    createProperty("http://www.w3.org/ns/ldp#contains").asNode(),
+                    createResource("abc/" + i).asNode()));
+        }
+        rdfStream.topic(createResource("abc").asNode());
+        final InputStream testReader = new ByteArrayInputStream("title = dc:title :: xsd:string ;".getBytes());
+
+        testObj = new LDPathTransform(testReader);
+        final Model loaded = testObj.referencedTriples(rdfStream).asModel();
+
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.contains(createResource("abc"), createProperty("http://purl.org/dc/elements/1.1/title"),
+                "some-title"));
+        assertEquals(0, rdfStream.asModel().size());
+    }
+
+    @Test
+    public void testReferencedPropertiesOfRecursivePath() {
+        testObj = new LDPathTransform(new ByteArrayInputStream(("@prefix ldp : <http://www.w3.org/ns/ldp#>\n" +
+                "descendants = (ldp:contains)* :: xsd:string ;").getBytes()));
+
+        assertEquals(ImmutableSet.of("http://www.w3.org/ns/ldp#contains",
+                "http://www.w3.org/1999/02/22-rdf-syntax-ns#type"), testObj.getReferencedProperties());
+    }
+
+    @Test
+    public void testReferencedPropertiesOfTestsAndReversePaths() {
+        testObj = new LDPathTransform(new ByteArrayInputStream(("@prefix ldp : <http://www.w3.org/ns/ldp#>\n" +
+                "parents = ^ldp:contains[dc:title is \"a\"] / dc:subject :: xsd:string ;").getBytes()));
+
+        assertEquals(ImmutableSet.of("http://www.w3.org/ns/ldp#contains",
+                "http://purl.org/dc/elements/1.1/title",
+                "http://purl.org/dc/elements/1.1/subject",
+                "http://www.w3.org/1999/02/22-rdf-syntax-ns#type"), testObj.getReferencedProperties());
+    }
+
+    @Test
+    public void testReferencedPropertiesOfWildcard() {
+        testObj = new LDPathTransform(new ByteArrayInputStream("all = dc:title / * :: xsd:string ;".getBytes()));
+
+        assertNull(testObj.getReferencedProperties());
+    }
+
+    @Test
+    public void testProgramQueryWithPrefixedProperty() {
+
+        final RdfStream rdfStream = new RdfStream();
+        for (int i = 0; i < 10; i++) {
+            rdfStream.concat(new Triple(createResource("abc").asNode(),
+                    createProperty("http://www.w3.org/ns/ldp#contains").asNode(),
+                    createResource("abc/" + i).asNode()));
+        }
+        rdfStream.topic(createResource("abc").asNode());
+        final InputStream testReader = new ByteArrayInputStream(("@prefix ldp : <http://www.w3.org/ns/ldp#>\n" +
+                "children = ldp:contains :: xsd:string ;").getBytes());
+
+        testObj = new LDPathTransform(testReader);
+        final Map<String,Collection<Object>> stringCollectionMap = testObj.apply(rdfStream).get(0);
+
+        assertEquals(10, stringCollectionMap.get("children").size());
+    }
+
+    @Test
+    public void testProgramQueryWithWildcard() {
+
+        final RdfStream rdfStream = new RdfStream();
+        rdfStream.concat(new Triple(createResource("abc").asNode(),
+                createProperty("http://purl.org/dc/elements/1.1/title").asNode(),
+                createLiteral("some-title")));
+        rdfStream.concat(new Triple(createResource("abc").asNode(),
+                createProperty("http://purl.org/dc/elements/1.1/subject").asNode(),
+                createLiteral("some-subject")));
+        rdfStream.topic(createResource("abc").asNode());
+        final InputStream testReader = new ByteArrayInputStream("all = * :: xsd:string ;".getBytes());
+
+        testObj = new LDPathTransform(testReader);
+        final Map<String,Collection<Object>> stringCollectionMap = testObj.apply(rdfStream).get(0);
+
+        assertEquals(2, stringCollectionMap.get("all").size());
+        assertTrue(stringCollectionMap.get("all").contains("some-subject"));
+    }
 }